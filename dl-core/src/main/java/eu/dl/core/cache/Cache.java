@@ -1,5 +1,9 @@
 package eu.dl.core.cache;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * Defines basic cache functionality.
  */
@@ -19,4 +23,32 @@ public interface Cache {
      * @return cached value
      */
     String get(String key);
+
+    /**
+     * Retrieves the cached values of all the given keys at once. Implementations backed by a remote store should
+     * override it to avoid a round trip per key.
+     *
+     * @param keys keys
+     * @return cached values mapped by their keys, keys without a value are omitted
+     */
+    default Map<String, String> getAll(final Collection<String> keys) {
+        final Map<String, String> result = new HashMap<>();
+        for (String key : keys) {
+            final String value = get(key);
+            if (value != null) {
+                result.put(key, value);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Stores all the given items into cache at once. Implementations backed by a remote store should override it to
+     * avoid a round trip per item.
+     *
+     * @param entries items mapped by their keys
+     */
+    default void putAll(final Map<String, String> entries) {
+        entries.forEach(this::put);
+    }
 }
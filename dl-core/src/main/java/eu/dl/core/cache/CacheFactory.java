@@ -34,6 +34,10 @@ public class CacheFactory {
             if (cacheImplementation != null && cacheImplementation.equals("cache2k")) {
                 logger.info("Returning cache2k cache");
                 cache = new Cache2kCache(cachePrefix);
+            } else if (cacheImplementation != null && cacheImplementation.equals("compact")) {
+                logger.info("Returning compact cache");
+                Integer capacity = Config.getInstance().getParamValueAs("cache.compact.capacity", Integer::valueOf);
+                cache = new CompactCache(cachePrefix, capacity != null ? capacity : CompactCache.DEFAULT_CAPACITY);
             } else if (cacheImplementation != null && cacheImplementation.equals("redis")) {
                 logger.info("Returning redis cache");
                 cache = new RedisCache(cachePrefix);
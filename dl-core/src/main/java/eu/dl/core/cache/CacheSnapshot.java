@@ -0,0 +1,322 @@
+package eu.dl.core.cache;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persists the content of {@link CompactCache} to a memory-mapped file, so the cache can be restored after the restart
+ * without rebuilding it from the database.
+ *
+ * The file starts with a header (magic number, format version, tag, cache prefix and time of the snapshot) followed by
+ * the arrays of the cache and its value dictionary. The snapshot is restored only if its format version, tag and prefix
+ * match, otherwise it is ignored. The tag is chosen by the caller and should change whenever the cached data become
+ * incompatible (e.g. worker version).
+ *
+ * The snapshot is written to a temporary file which replaces the previous snapshot once it is complete.
+ */
+public final class CacheSnapshot {
+    /**
+     * Version of the file format, increase it on every change of the format.
+     */
+    public static final int FORMAT_VERSION = 1;
+
+    private static final int MAGIC = 0x444C4353;
+
+    /**
+     * Size of the mapped region.
+     */
+    private static final int WINDOW_SIZE = 1 << 26;
+
+    private static Logger logger = LoggerFactory.getLogger(CacheSnapshot.class.getName());
+
+    /**
+     * Suppress default constructor for noninstantiability.
+     */
+    private CacheSnapshot() {
+        throw new AssertionError();
+    }
+
+    /**
+     * Writes snapshot of the cache.
+     *
+     * @param cache cache to be written
+     * @param file snapshot file, replaced if exists
+     * @param tag tag of the snapshot
+     * @param created time the snapshot represents, all the data modified before this time have to be in the cache
+     * @throws IOException in case the snapshot can't be written
+     */
+    public static void write(final CompactCache cache, final Path file, final String tag,
+                             final LocalDateTime created) throws IOException {
+        final Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.READ,
+            StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            final Output output = new Output(channel);
+            output.putInt(MAGIC);
+            output.putInt(FORMAT_VERSION);
+            output.putString(tag);
+            output.putString(cache.getPrefix());
+            output.putString(created.toString());
+            cache.writeTo(output);
+            output.finish();
+        }
+
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        logger.info("Cache snapshot {} written", file);
+    }
+
+    /**
+     * Restores the cache from the snapshot. The current content of the cache is replaced.
+     *
+     * @param cache cache to be restored
+     * @param file snapshot file
+     * @param tag expected tag of the snapshot
+     * @return time the snapshot represents or null in case the snapshot doesn't exist or isn't compatible
+     * @throws IOException in case the snapshot can't be read
+     */
+    public static LocalDateTime read(final CompactCache cache, final Path file, final String tag) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            logger.info("Cache snapshot {} not found", file);
+            return null;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final Input input = new Input(channel);
+            if (input.getInt() != MAGIC) {
+                logger.warn("File {} isn't a cache snapshot", file);
+                return null;
+            }
+
+            final int version = input.getInt();
+            if (version != FORMAT_VERSION) {
+                logger.info("Cache snapshot {} has format version {}, expected {}", file, version, FORMAT_VERSION);
+                return null;
+            }
+
+            final String snapshotTag = input.getString();
+            final String prefix = input.getString();
+            if (!snapshotTag.equals(tag) || !prefix.equals(cache.getPrefix())) {
+                logger.info("Cache snapshot {} was written for {} {}, ignoring it", file, prefix, snapshotTag);
+                return null;
+            }
+
+            final LocalDateTime created = LocalDateTime.parse(input.getString());
+            cache.readFrom(input);
+
+            logger.info("Cache restored from snapshot {} created {}", file, created);
+            return created;
+        } catch (DateTimeParseException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new IOException("Cache snapshot " + file + " is corrupted", e);
+        }
+    }
+
+    /**
+     * Sequential writer of the mapped file. The file is mapped in windows of {@link #WINDOW_SIZE} bytes.
+     */
+    static final class Output {
+        private final FileChannel channel;
+
+        private long position = 0;
+
+        private MappedByteBuffer buffer;
+
+        /**
+         * @param channel channel opened for reading and writing
+         */
+        private Output(final FileChannel channel) {
+            this.channel = channel;
+        }
+
+        /**
+         * @param value value to be written
+         * @throws IOException in case of IO error
+         */
+        void putInt(final int value) throws IOException {
+            ensure(Integer.BYTES).putInt(value);
+        }
+
+        /**
+         * @param value value to be written, not null
+         * @throws IOException in case of IO error
+         */
+        void putString(final String value) throws IOException {
+            final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            putInt(bytes.length);
+            int offset = 0;
+            while (offset < bytes.length) {
+                final ByteBuffer target = ensure(1);
+                final int length = Math.min(target.remaining(), bytes.length - offset);
+                target.put(bytes, offset, length);
+                offset += length;
+            }
+        }
+
+        /**
+         * @param values values to be written
+         * @throws IOException in case of IO error
+         */
+        void putLongs(final long[] values) throws IOException {
+            int offset = 0;
+            while (offset < values.length) {
+                final ByteBuffer target = ensure(Long.BYTES);
+                final int length = Math.min(target.remaining() / Long.BYTES, values.length - offset);
+                target.asLongBuffer().put(values, offset, length);
+                target.position(target.position() + length * Long.BYTES);
+                offset += length;
+            }
+        }
+
+        /**
+         * @param values values to be written
+         * @throws IOException in case of IO error
+         */
+        void putInts(final int[] values) throws IOException {
+            int offset = 0;
+            while (offset < values.length) {
+                final ByteBuffer target = ensure(Integer.BYTES);
+                final int length = Math.min(target.remaining() / Integer.BYTES, values.length - offset);
+                target.asIntBuffer().put(values, offset, length);
+                target.position(target.position() + length * Integer.BYTES);
+                offset += length;
+            }
+        }
+
+        /**
+         * Flushes the written data to the disk and cuts off the unused part of the last window.
+         *
+         * @throws IOException in case of IO error
+         */
+        private void finish() throws IOException {
+            if (buffer != null) {
+                position += buffer.position();
+                buffer.force();
+                buffer = null;
+            }
+            channel.truncate(position);
+            channel.force(true);
+        }
+
+        /**
+         * Returns buffer with at least the given number of remaining bytes, the next window is mapped if needed.
+         *
+         * @param bytes number of bytes
+         * @return buffer
+         * @throws IOException in case of IO error
+         */
+        private ByteBuffer ensure(final int bytes) throws IOException {
+            if (buffer == null || buffer.remaining() < bytes) {
+                if (buffer != null) {
+                    position += buffer.position();
+                    buffer.force();
+                }
+                buffer = channel.map(FileChannel.MapMode.READ_WRITE, position, WINDOW_SIZE);
+            }
+            return buffer;
+        }
+    }
+
+    /**
+     * Sequential reader of the mapped file. The file is mapped in windows of at most {@link #WINDOW_SIZE} bytes.
+     */
+    static final class Input {
+        private final FileChannel channel;
+
+        private long position = 0;
+
+        private MappedByteBuffer buffer;
+
+        /**
+         * @param channel channel opened for reading
+         */
+        private Input(final FileChannel channel) {
+            this.channel = channel;
+        }
+
+        /**
+         * @return read value
+         * @throws IOException in case of IO error or end of file
+         */
+        int getInt() throws IOException {
+            return ensure(Integer.BYTES).getInt();
+        }
+
+        /**
+         * @return read value
+         * @throws IOException in case of IO error or end of file
+         */
+        String getString() throws IOException {
+            final byte[] bytes = new byte[getInt()];
+            int offset = 0;
+            while (offset < bytes.length) {
+                final ByteBuffer source = ensure(1);
+                final int length = Math.min(source.remaining(), bytes.length - offset);
+                source.get(bytes, offset, length);
+                offset += length;
+            }
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * @param values array to be filled
+         * @throws IOException in case of IO error or end of file
+         */
+        void getLongs(final long[] values) throws IOException {
+            int offset = 0;
+            while (offset < values.length) {
+                final ByteBuffer source = ensure(Long.BYTES);
+                final int length = Math.min(source.remaining() / Long.BYTES, values.length - offset);
+                source.asLongBuffer().get(values, offset, length);
+                source.position(source.position() + length * Long.BYTES);
+                offset += length;
+            }
+        }
+
+        /**
+         * @param values array to be filled
+         * @throws IOException in case of IO error or end of file
+         */
+        void getInts(final int[] values) throws IOException {
+            int offset = 0;
+            while (offset < values.length) {
+                final ByteBuffer source = ensure(Integer.BYTES);
+                final int length = Math.min(source.remaining() / Integer.BYTES, values.length - offset);
+                source.asIntBuffer().get(values, offset, length);
+                source.position(source.position() + length * Integer.BYTES);
+                offset += length;
+            }
+        }
+
+        /**
+         * Returns buffer with at least the given number of remaining bytes, the next window is mapped if needed.
+         *
+         * @param bytes number of bytes
+         * @return buffer
+         * @throws IOException in case of IO error or end of file
+         */
+        private ByteBuffer ensure(final int bytes) throws IOException {
+            if (buffer == null || buffer.remaining() < bytes) {
+                if (buffer != null) {
+                    position += buffer.position();
+                }
+                final long length = Math.min(WINDOW_SIZE, channel.size() - position);
+                if (length < bytes) {
+                    throw new IOException("Unexpected end of the cache snapshot");
+                }
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            }
+            return buffer;
+        }
+    }
+}
@@ -0,0 +1,408 @@
+package eu.dl.core.cache;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Memory efficient cache for the matcher hash and etalon caches (many keys, relatively few distinct values).
+ *
+ * Keys aren't stored, only their 128-bit fingerprints in open-addressing arrays (linear probing). Values are
+ * dictionary-encoded, each distinct value is stored only once and the entry holds its int code. One entry takes 20
+ * bytes (plus the slack of the arrays) instead of two strings and a map entry.
+ *
+ * The fingerprint is computed from the prefix and the key without concatenating them. Two different keys share the
+ * entry only if their 128-bit fingerprints are equal, which is negligible for the cache sizes in question.
+ *
+ * The cache is thread-safe. Its content can be persisted and restored by {@link CacheSnapshot}.
+ */
+public final class CompactCache implements Cache {
+    /**
+     * Default initial capacity (number of entries).
+     */
+    public static final int DEFAULT_CAPACITY = 1 << 20;
+
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private static final int MAX_SLOTS = 1 << 30;
+
+    private static final long SEED_HI = 0x9E3779B97F4A7C15L;
+
+    private static final long SEED_LO = 0xC2B2AE3D27D4EB4FL;
+
+    private final String prefix;
+
+    private long[] keysHi;
+
+    private long[] keysLo;
+
+    /**
+     * Value codes, 0 marks empty slot.
+     */
+    private int[] codes;
+
+    private int size;
+
+    private int threshold;
+
+    private final Map<String, Integer> dictionary = new HashMap<>();
+
+    private final List<String> values = new ArrayList<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Constructs cache.
+     *
+     * @param cachePrefix prefix used for keys
+     */
+    public CompactCache(final String cachePrefix) {
+        this(cachePrefix, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs cache.
+     *
+     * @param cachePrefix prefix used for keys
+     * @param capacity expected number of entries, the cache grows when needed
+     */
+    public CompactCache(final String cachePrefix, final int capacity) {
+        this.prefix = cachePrefix == null ? "" : cachePrefix;
+
+        int slots = 16;
+        while (slots * LOAD_FACTOR < capacity && slots < MAX_SLOTS) {
+            slots <<= 1;
+        }
+        allocate(slots);
+
+        // code 0 is reserved for empty slots
+        values.add(null);
+    }
+
+    @Override
+    public void put(final String key, final String value) {
+        final long hi = fingerprint(key, SEED_HI);
+        final long lo = fingerprint(key, SEED_LO);
+
+        lock.writeLock().lock();
+        try {
+            if (value == null) {
+                remove(hi, lo);
+                return;
+            }
+
+            final int code = encode(value);
+            int slot = find(hi, lo);
+            if (codes[slot] == 0) {
+                if (size >= threshold) {
+                    resize();
+                    slot = find(hi, lo);
+                }
+                keysHi[slot] = hi;
+                keysLo[slot] = lo;
+                size++;
+            }
+            codes[slot] = code;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public String get(final String key) {
+        final long hi = fingerprint(key, SEED_HI);
+        final long lo = fingerprint(key, SEED_LO);
+
+        lock.readLock().lock();
+        try {
+            return values.get(codes[find(hi, lo)]);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Map<String, String> getAll(final Collection<String> keys) {
+        final long[] his = new long[keys.size()];
+        final long[] los = new long[keys.size()];
+        int i = 0;
+        for (String key : keys) {
+            his[i] = fingerprint(key, SEED_HI);
+            los[i] = fingerprint(key, SEED_LO);
+            i++;
+        }
+
+        final Map<String, String> result = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            i = 0;
+            for (String key : keys) {
+                final String value = values.get(codes[find(his[i], los[i])]);
+                if (value != null) {
+                    result.put(key, value);
+                }
+                i++;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    @Override
+    public void putAll(final Map<String, String> entries) {
+        lock.writeLock().lock();
+        try {
+            entries.forEach(this::put);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return number of entries
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return number of distinct values
+     */
+    public int valuesCount() {
+        lock.readLock().lock();
+        try {
+            return values.size() - 1;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return prefix used for keys
+     */
+    String getPrefix() {
+        return prefix;
+    }
+
+    /**
+     * Writes the arrays and the value dictionary to the snapshot.
+     *
+     * @param output snapshot output
+     * @throws IOException in case of IO error
+     */
+    void writeTo(final CacheSnapshot.Output output) throws IOException {
+        lock.readLock().lock();
+        try {
+            output.putInt(codes.length);
+            output.putInt(size);
+            output.putInt(values.size());
+            // code 0 (null) is implicit
+            for (int i = 1; i < values.size(); i++) {
+                output.putString(values.get(i));
+            }
+            output.putLongs(keysHi);
+            output.putLongs(keysLo);
+            output.putInts(codes);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the content of the cache with the arrays and the value dictionary read from the snapshot.
+     *
+     * @param input snapshot input
+     * @throws IOException in case of IO error
+     */
+    void readFrom(final CacheSnapshot.Input input) throws IOException {
+        final int slots = input.getInt();
+        final int entries = input.getInt();
+        final int valuesSize = input.getInt();
+        if (slots <= 0 || slots > MAX_SLOTS || Integer.bitCount(slots) != 1 || entries < 0 || valuesSize < 1) {
+            throw new IOException("Invalid cache snapshot");
+        }
+
+        // read everything first, so the cache stays untouched in case of a corrupted snapshot
+        final List<String> newValues = new ArrayList<>(valuesSize);
+        newValues.add(null);
+        for (int i = 1; i < valuesSize; i++) {
+            newValues.add(input.getString());
+        }
+        final long[] newHi = new long[slots];
+        final long[] newLo = new long[slots];
+        final int[] newCodes = new int[slots];
+        input.getLongs(newHi);
+        input.getLongs(newLo);
+        input.getInts(newCodes);
+
+        lock.writeLock().lock();
+        try {
+            values.clear();
+            values.addAll(newValues);
+            dictionary.clear();
+            for (int i = 1; i < values.size(); i++) {
+                dictionary.put(values.get(i), i);
+            }
+
+            keysHi = newHi;
+            keysLo = newLo;
+            codes = newCodes;
+            threshold = (int) (slots * LOAD_FACTOR);
+            size = entries;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Allocates empty arrays with the given number of slots.
+     *
+     * @param slots number of slots, power of two
+     */
+    private void allocate(final int slots) {
+        keysHi = new long[slots];
+        keysLo = new long[slots];
+        codes = new int[slots];
+        threshold = (int) (slots * LOAD_FACTOR);
+    }
+
+    /**
+     * Returns the slot of the given key, or the empty slot where the key should be inserted.
+     *
+     * @param hi high part of the fingerprint
+     * @param lo low part of the fingerprint
+     * @return slot index
+     */
+    private int find(final long hi, final long lo) {
+        final int mask = codes.length - 1;
+        int slot = (int) lo & mask;
+        while (codes[slot] != 0 && (keysHi[slot] != hi || keysLo[slot] != lo)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Removes the entry, the following entries of the probe sequence are shifted back.
+     *
+     * @param hi high part of the fingerprint
+     * @param lo low part of the fingerprint
+     */
+    private void remove(final long hi, final long lo) {
+        final int mask = codes.length - 1;
+        int slot = find(hi, lo);
+        if (codes[slot] == 0) {
+            return;
+        }
+
+        codes[slot] = 0;
+        size--;
+
+        int next = (slot + 1) & mask;
+        while (codes[next] != 0) {
+            final int home = (int) keysLo[next] & mask;
+            // move the entry to the freed slot if the slot lies between its home and its current position
+            if (((next - home) & mask) >= ((next - slot) & mask)) {
+                keysHi[slot] = keysHi[next];
+                keysLo[slot] = keysLo[next];
+                codes[slot] = codes[next];
+                codes[next] = 0;
+                slot = next;
+            }
+            next = (next + 1) & mask;
+        }
+    }
+
+    /**
+     * Doubles the number of slots and rehashes all the entries.
+     */
+    private void resize() {
+        final long[] oldHi = keysHi;
+        final long[] oldLo = keysLo;
+        final int[] oldCodes = codes;
+
+        if (oldCodes.length == MAX_SLOTS) {
+            throw new IllegalStateException("Unable to grow the cache, maximal number of entries reached.");
+        }
+
+        allocate(oldCodes.length << 1);
+        for (int i = 0; i < oldCodes.length; i++) {
+            if (oldCodes[i] != 0) {
+                final int slot = find(oldHi[i], oldLo[i]);
+                keysHi[slot] = oldHi[i];
+                keysLo[slot] = oldLo[i];
+                codes[slot] = oldCodes[i];
+            }
+        }
+    }
+
+    /**
+     * Returns code of the value, the value is added to the dictionary if needed.
+     *
+     * @param value value
+     * @return value code
+     */
+    private int encode(final String value) {
+        Integer code = dictionary.get(value);
+        if (code == null) {
+            code = values.size();
+            values.add(value);
+            dictionary.put(value, code);
+        }
+        return code;
+    }
+
+    /**
+     * Computes 64-bit fingerprint of prefix + key.
+     *
+     * @param key key
+     * @param seed seed, different seeds give independent halves of the 128-bit fingerprint
+     * @return fingerprint
+     */
+    private long fingerprint(final String key, final long seed) {
+        long h = seed;
+        h = mix(h, prefix);
+        h = mix(h, key);
+        return fmix(h ^ (prefix.length() + key.length()));
+    }
+
+    /**
+     * @param hash hash so far
+     * @param s string to be added to the hash
+     * @return hash
+     */
+    private static long mix(final long hash, final String s) {
+        long h = hash;
+        for (int i = 0; i < s.length(); i++) {
+            h = Long.rotateLeft(h ^ (s.charAt(i) * 0x87C37B91114253D5L), 31) * 0x4CF5AD432745937FL;
+        }
+        return h;
+    }
+
+    /**
+     * Final avalanche of MurmurHash3.
+     *
+     * @param hash hash
+     * @return mixed hash
+     */
+    private static long fmix(final long hash) {
+        long h = hash;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
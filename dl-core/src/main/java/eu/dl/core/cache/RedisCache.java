@@ -1,15 +1,55 @@
 package eu.dl.core.cache;
 
 import eu.dl.core.config.Config;
+import io.lettuce.core.KeyValue;
+import io.lettuce.core.LettuceFutures;
 import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisFuture;
 import io.lettuce.core.RedisURI;
 import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.async.RedisAsyncCommands;
 import io.lettuce.core.api.sync.RedisCommands;
+import io.lettuce.core.pubsub.RedisPubSubAdapter;
+import io.lettuce.core.pubsub.StatefulRedisPubSubConnection;
+import org.cache2k.Cache2kBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 /**
+ * Cache stored in redis.
+ *
+ * Bulk operations are split into MGET/MSET commands of at most {@link #BATCH_SIZE} keys which are sent at once
+ * (pipelined) and awaited together.
  *
+ * Optionally ({@code cache.redis.nearCache.size} entries, {@code cache.redis.nearCache.ttl} seconds) the values are
+ * kept in a bounded local near cache. Missing keys aren't cached locally. Each write is published to the other
+ * instances with the same prefix, which evict the written keys from their near caches; the TTL bounds staleness in
+ * case a message is lost.
  */
 public final class RedisCache implements Cache {
+    /**
+     * Maximal number of keys of one MGET/MSET command.
+     */
+    private static final int BATCH_SIZE = 1000;
+
+    /**
+     * Default TTL of near cache entries in seconds.
+     */
+    private static final long DEFAULT_NEAR_CACHE_TTL = 60;
+
+    /**
+     * Separator of the invalidation message parts.
+     */
+    private static final String SEPARATOR = "\n";
+
     protected String prefix = "";
 
     protected RedisClient client;
@@ -18,6 +58,19 @@ public final class RedisCache implements Cache {
 
     protected RedisCommands<String, String> commands;
 
+    protected RedisAsyncCommands<String, String> asyncCommands;
+
+    /**
+     * Local near cache (keys without prefix), null if disabled.
+     */
+    private org.cache2k.Cache<String, String> nearCache;
+
+    private StatefulRedisPubSubConnection<String, String> invalidationConnection;
+
+    private String invalidationChannel;
+
+    private final String instanceId = UUID.randomUUID().toString();
+
     /**
      * Redis cache initialisation.
      *
@@ -40,15 +93,159 @@ public final class RedisCache implements Cache {
         connection = client.connect();
 
         commands = connection.sync();
+
+        asyncCommands = connection.async();
+
+        Integer nearCacheSize = config.getParamValueAs("cache.redis.nearCache.size", Integer::valueOf);
+        if (nearCacheSize != null && nearCacheSize > 0) {
+            Long ttl = config.getParamValueAs("cache.redis.nearCache.ttl", Long::valueOf);
+            initNearCache(nearCacheSize, ttl != null ? ttl : DEFAULT_NEAR_CACHE_TTL);
+        }
+    }
+
+    /**
+     * Creates the near cache and subscribes for invalidation messages.
+     *
+     * @param size maximal number of entries
+     * @param ttl time to live of the entries in seconds
+     */
+    private void initNearCache(final int size, final long ttl) {
+        nearCache = new Cache2kBuilder<String, String>() {}
+            .entryCapacity(size)
+            .expireAfterWrite(ttl, TimeUnit.SECONDS)
+            .build();
+
+        invalidationChannel = prefix.concat("invalidate");
+        invalidationConnection = client.connectPubSub();
+        invalidationConnection.addListener(new RedisPubSubAdapter<String, String>() {
+            @Override
+            public void message(final String channel, final String message) {
+                final List<String> parts = Arrays.asList(message.split(SEPARATOR));
+                if (!parts.get(0).equals(instanceId)) {
+                    nearCache.removeAll(parts.subList(1, parts.size()));
+                }
+            }
+        });
+        invalidationConnection.sync().subscribe(invalidationChannel);
     }
 
     @Override
     public void put(final String key, final String value) {
         commands.set(prefix.concat(key), value);
+
+        if (nearCache != null) {
+            putToNearCache(key, value);
+            invalidate(Arrays.asList(key));
+        }
     }
 
     @Override
     public String get(final String key) {
-        return commands.get(prefix.concat(key));
+        if (nearCache != null) {
+            String value = nearCache.peek(key);
+            if (value != null) {
+                return value;
+            }
+        }
+
+        String value = commands.get(prefix.concat(key));
+        if (nearCache != null && value != null) {
+            nearCache.put(key, value);
+        }
+        return value;
+    }
+
+    @Override
+    public Map<String, String> getAll(final Collection<String> keys) {
+        final Map<String, String> result = new HashMap<>();
+
+        final List<String> missing = new ArrayList<>();
+        for (String key : keys) {
+            String value = nearCache != null ? nearCache.peek(key) : null;
+            if (value != null) {
+                result.put(key, value);
+            } else {
+                missing.add(key);
+            }
+        }
+
+        final List<RedisFuture<List<KeyValue<String, String>>>> futures = new ArrayList<>();
+        for (int from = 0; from < missing.size(); from += BATCH_SIZE) {
+            futures.add(asyncCommands.mget(missing.subList(from, Math.min(from + BATCH_SIZE, missing.size())).stream()
+                .map(prefix::concat)
+                .toArray(String[]::new)));
+        }
+
+        int i = 0;
+        for (RedisFuture<List<KeyValue<String, String>>> future : futures) {
+            // MGET returns values in the order of the keys
+            for (KeyValue<String, String> keyValue : await(future)) {
+                final String key = missing.get(i++);
+                if (keyValue.hasValue()) {
+                    result.put(key, keyValue.getValue());
+                    if (nearCache != null) {
+                        nearCache.put(key, keyValue.getValue());
+                    }
+                }
+            }
+        }
+
+        return result;
+    }
+
+    @Override
+    public void putAll(final Map<String, String> entries) {
+        final List<String> keys = new ArrayList<>(entries.keySet());
+
+        final List<RedisFuture<String>> futures = new ArrayList<>();
+        for (int from = 0; from < keys.size(); from += BATCH_SIZE) {
+            final Map<String, String> batch = new LinkedHashMap<>();
+            for (String key : keys.subList(from, Math.min(from + BATCH_SIZE, keys.size()))) {
+                batch.put(prefix.concat(key), entries.get(key));
+            }
+            futures.add(asyncCommands.mset(batch));
+        }
+        futures.forEach(this::await);
+
+        if (nearCache != null) {
+            entries.forEach(this::putToNearCache);
+            invalidate(keys);
+        }
+    }
+
+    /**
+     * @param key key
+     * @param value value, null removes the entry
+     */
+    private void putToNearCache(final String key, final String value) {
+        if (value == null) {
+            nearCache.remove(key);
+        } else {
+            nearCache.put(key, value);
+        }
+    }
+
+    /**
+     * Publishes the written keys to the other instances, the message isn't awaited.
+     *
+     * @param keys written keys
+     */
+    private void invalidate(final List<String> keys) {
+        for (int from = 0; from < keys.size(); from += BATCH_SIZE) {
+            asyncCommands.publish(invalidationChannel,
+                instanceId + SEPARATOR + String.join(SEPARATOR, keys.subList(from, Math.min(from + BATCH_SIZE,
+                    keys.size()))));
+        }
+    }
+
+    /**
+     * Waits for the command result with the connection timeout, same as the synchronous API does.
+     *
+     * @param future command future
+     * @param <T> result class
+     * @return command result
+     */
+    private <T> T await(final RedisFuture<T> future) {
+        return LettuceFutures.awaitOrCancel(future, connection.getTimeout().toNanos(), TimeUnit.NANOSECONDS);
     }
 }
@@ -0,0 +1,52 @@
+package eu.dl.core.storage;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Content addressed storage of large payloads. The key of the stored content is its checksum, so the same content is
+ * stored only once.
+ */
+public interface BlobStore {
+
+    /**
+     * Saves inputstream content to persistent storage and returns its key. If the same content is already stored, the
+     * existing key is returned and nothing is written.
+     *
+     * @param inputStream
+     *            the inputStream to be stored, it is read to the end but not closed
+     * @return key assigned to the content
+     */
+    String save(InputStream inputStream);
+
+    /**
+     * Gets the content from persistent storage.
+     *
+     * @param key
+     *            the key representing the content
+     *
+     * @return input stream of the content or null if the content is not found
+     */
+    InputStream get(String key);
+
+    /**
+     * Maps the content to memory. Suitable for random access to large payloads, the content is read lazily by the
+     * operating system.
+     *
+     * @param key
+     *            the key representing the content
+     *
+     * @return read-only buffer with the content or null if the content is not found
+     */
+    ByteBuffer map(String key);
+
+    /**
+     * Gets the content size in bytes.
+     *
+     * @param key
+     *            the key representing the content
+     *
+     * @return size of the content in bytes or null if the content is not found
+     */
+    Long getFileSize(String key);
+}
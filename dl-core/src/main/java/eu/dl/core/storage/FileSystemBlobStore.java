@@ -0,0 +1,156 @@
+package eu.dl.core.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import eu.dl.core.RecoverableException;
+import eu.dl.core.UnrecoverableException;
+import eu.dl.core.config.Config;
+
+/**
+ * Content addressed storage on the filesystem. The key is SHA-256 of the content, the content is stored in the file
+ * {@code <root>/<key[0-1]>/<key[2-3]>/<key>}. The content is written to a temporary file first and moved to its place
+ * atomically, so a concurrent reader never sees a partially written file.
+ */
+public class FileSystemBlobStore implements BlobStore {
+
+    private static final String TEMP_DIR = "tmp";
+
+    private Logger logger;
+
+    private Path root;
+
+    /**
+     * Creates blob store.
+     */
+    public FileSystemBlobStore() {
+        super();
+        logger = LoggerFactory.getLogger(this.getClass());
+        String path = Config.getInstance().getParam("blobstore.path");
+        if (path == null || !Files.isDirectory(Paths.get(path))) {
+            throw new UnrecoverableException(
+                    String.format("Unable to initialise FileSystemBlobStore. Directory %s does not exists", path));
+        }
+
+        root = Paths.get(path);
+        try {
+            Files.createDirectories(root.resolve(TEMP_DIR));
+        } catch (IOException e) {
+            logger.error("Unable to create temporary directory {}", e);
+            throw new UnrecoverableException("Unable to initialise FileSystemBlobStore", e);
+        }
+    }
+
+    @Override
+    public final String save(final InputStream inputStream) {
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(root.resolve(TEMP_DIR), "blob", null);
+
+            final MessageDigest digest = DigestUtils.getSha256Digest();
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                new DigestInputStream(inputStream, digest).transferTo(out);
+            }
+
+            final String key = Hex.encodeHexString(digest.digest());
+            final Path path = getPathFromKey(key);
+            if (Files.exists(path)) {
+                logger.debug("Content with key {} is already stored", key);
+            } else {
+                Files.createDirectories(path.getParent());
+                try {
+                    Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE);
+                    logger.debug("Content stored with key {}", key);
+                } catch (FileAlreadyExistsException e) {
+                    logger.debug("Content with key {} stored concurrently", key);
+                }
+            }
+
+            return key;
+        } catch (IOException e) {
+            logger.error("Unable to save content {}", e);
+            throw new RecoverableException("Unable to save content", e);
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException e) {
+                    logger.warn("Unable to delete temporary file {}", temp);
+                }
+            }
+        }
+    }
+
+    @Override
+    public final InputStream get(final String key) {
+        try {
+            logger.debug("Returning content with key {}", key);
+            return Files.newInputStream(getPathFromKey(key));
+        } catch (NoSuchFileException e) {
+            logger.debug("Content with key {} not found", key);
+            return null;
+        } catch (IOException e) {
+            logger.error("Unable to read content with key {} because of {}", key, e);
+            throw new RecoverableException("Unable to read content", e);
+        }
+    }
+
+    @Override
+    public final ByteBuffer map(final String key) {
+        try (FileChannel channel = FileChannel.open(getPathFromKey(key), StandardOpenOption.READ)) {
+            // the mapping stays valid after the channel is closed
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (NoSuchFileException e) {
+            logger.debug("Content with key {} not found", key);
+            return null;
+        } catch (IOException e) {
+            logger.error("Unable to map content with key {} because of {}", key, e);
+            throw new RecoverableException("Unable to map content", e);
+        }
+    }
+
+    @Override
+    public final Long getFileSize(final String key) {
+        final Path path = getPathFromKey(key);
+        try {
+            return Files.exists(path) ? Files.size(path) : null;
+        } catch (IOException e) {
+            logger.error("Unable to get size of content with key {} because of {}", key, e);
+            throw new RecoverableException("Unable to get size of content", e);
+        }
+    }
+
+    /**
+     * Transforms key to path on the filesystem.
+     *
+     * @param key
+     *            the key to be transformed to filesystem path
+     * @return path on file system
+     * @throws IllegalArgumentException
+     *            in case that the given key is null or is invalid
+     */
+    private Path getPathFromKey(final String key) {
+        if (key == null || !key.matches("[0-9a-f]{64}")) {
+            throw new IllegalArgumentException(String.format("The key %s is not valid.", key));
+        }
+
+        return root.resolve(key.substring(0, 2)).resolve(key.substring(2, 4)).resolve(key);
+    }
+}
@@ -20,4 +20,13 @@ public class StorageServiceFactory {
     public static final StorageService getStorageService() {
         return new FileSystemStorageService();
     }
+
+    /**
+     * Creates and returns content addressed blob store.
+     *
+     * @return blob store
+     */
+    public static final BlobStore getBlobStore() {
+        return new FileSystemBlobStore();
+    }
 }
@@ -0,0 +1,84 @@
+package eu.dl.core.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for CacheSnapshot.
+ */
+public final class CacheSnapshotTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Tests that the restored cache has the same content as the written one.
+     *
+     * @throws IOException in case of IO error
+     */
+    @Test
+    public void writeReadTest() throws IOException {
+        final Path file = folder.getRoot().toPath().resolve("matcher.snapshot");
+        final LocalDateTime created = LocalDateTime.of(2020, 1, 2, 3, 4, 5, 6000);
+
+        // big enough to span several mapped windows
+        final CompactCache cache = new CompactCache("matcher::", 3000000);
+        for (int i = 0; i < 1000; i++) {
+            cache.put("hash::" + i, "group_" + (i % 10) + "_ěščř");
+        }
+        cache.put("hash::repopulate", "false");
+        CacheSnapshot.write(cache, file, "1.0", created);
+
+        final CompactCache restored = new CompactCache("matcher::", 16);
+        restored.put("hash::x", "y");
+        assertEquals(created, CacheSnapshot.read(restored, file, "1.0"));
+
+        assertNull(restored.get("hash::x"));
+        assertEquals(1001, restored.size());
+        assertEquals(11, restored.valuesCount());
+        assertEquals("false", restored.get("hash::repopulate"));
+        for (int i = 0; i < 1000; i++) {
+            assertEquals("group_" + (i % 10) + "_ěščř", restored.get("hash::" + i));
+        }
+
+        // restored cache is fully functional
+        restored.put("hash::1000", "group_new");
+        restored.put("hash::0", null);
+        assertEquals("group_new", restored.get("hash::1000"));
+        assertNull(restored.get("hash::0"));
+        assertEquals(1001, restored.size());
+    }
+
+    /**
+     * Tests that incompatible or missing snapshots are ignored.
+     *
+     * @throws IOException in case of IO error
+     */
+    @Test
+    public void incompatibleTest() throws IOException {
+        final Path file = folder.getRoot().toPath().resolve("matcher.snapshot");
+
+        final CompactCache cache = new CompactCache("a::");
+        assertNull(CacheSnapshot.read(cache, file, "1.0"));
+
+        cache.put("b", "c");
+        CacheSnapshot.write(cache, file, "1.0", LocalDateTime.now());
+
+        assertNull(CacheSnapshot.read(new CompactCache("a::"), file, "2.0"));
+        assertNull(CacheSnapshot.read(new CompactCache("b::"), file, "1.0"));
+
+        // snapshot is replaced
+        cache.put("b", "d");
+        CacheSnapshot.write(cache, file, "2.0", LocalDateTime.now());
+        final CompactCache restored = new CompactCache("a::");
+        CacheSnapshot.read(restored, file, "2.0");
+        assertEquals("d", restored.get("b"));
+    }
+}
@@ -0,0 +1,92 @@
+package eu.dl.core.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * Tests for CompactCache.
+ */
+public final class CompactCacheTest {
+    /**
+     * Tests basic put and get, including overwriting of the value.
+     */
+    @Test
+    public void putGetTest() {
+        CompactCache cache = new CompactCache("matcher::");
+
+        assertNull(cache.get("hash::abc"));
+
+        cache.put("hash::abc", "group_1");
+        cache.put("hash::def", "group_1");
+        cache.put("etalon::group_1", "true");
+        assertEquals("group_1", cache.get("hash::abc"));
+        assertEquals("group_1", cache.get("hash::def"));
+        assertEquals("true", cache.get("etalon::group_1"));
+
+        cache.put("etalon::group_1", "false");
+        assertEquals("false", cache.get("etalon::group_1"));
+
+        assertEquals(3, cache.size());
+        // group_1, true, false
+        assertEquals(3, cache.valuesCount());
+    }
+
+    /**
+     * Tests that prefix is a part of the key.
+     */
+    @Test
+    public void prefixTest() {
+        CompactCache cache = new CompactCache("a::");
+        cache.put("b::c", "value");
+
+        assertNull(new CompactCache("a::b::").get("c"));
+        assertEquals("value", cache.get("b::c"));
+    }
+
+    /**
+     * Tests growth of the cache and removing of the entries.
+     */
+    @Test
+    public void growAndRemoveTest() {
+        CompactCache cache = new CompactCache("", 4);
+        for (int i = 0; i < 10000; i++) {
+            cache.put("hash::" + i, "group_" + (i % 100));
+        }
+
+        assertEquals(10000, cache.size());
+        assertEquals(100, cache.valuesCount());
+
+        for (int i = 0; i < 10000; i += 2) {
+            cache.put("hash::" + i, null);
+        }
+
+        assertEquals(5000, cache.size());
+        for (int i = 0; i < 10000; i++) {
+            assertEquals(i % 2 == 0 ? null : "group_" + (i % 100), cache.get("hash::" + i));
+        }
+    }
+
+    /**
+     * Tests bulk put and get.
+     */
+    @Test
+    public void bulkTest() {
+        CompactCache cache = new CompactCache("matcher::");
+
+        Map<String, String> entries = new HashMap<>();
+        entries.put("hash::a", "group_1");
+        entries.put("hash::b", "group_2");
+        cache.putAll(entries);
+        cache.put("hash::c", "group_1");
+
+        Map<String, String> expected = new HashMap<>(entries);
+        expected.put("hash::c", "group_1");
+        assertEquals(expected, cache.getAll(Arrays.asList("hash::a", "hash::b", "hash::c", "hash::d")));
+    }
+}
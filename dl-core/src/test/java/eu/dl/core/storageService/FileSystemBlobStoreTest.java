@@ -0,0 +1,82 @@
+package eu.dl.core.storageService;
+
+import static eu.dl.core.ThrowableAssertion.assertThrown;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import eu.dl.core.config.Config;
+import eu.dl.core.storage.FileSystemBlobStore;
+
+/**
+ * Test of blob store.
+ */
+public class FileSystemBlobStoreTest {
+
+    private FileSystemBlobStore blobStore;
+
+    /**
+     * Initialisation of blob store used in test methods.
+     */
+    @Before
+    public final void init() {
+        Config.getInstance().addConfigFile("unit_test");
+        new File(Config.getInstance().getParam("blobstore.path")).mkdir();
+        blobStore = new FileSystemBlobStore();
+    }
+
+    /**
+     * Test of invalid keys.
+     */
+    @Test
+    public final void invalidKeyTest() {
+        assertThrown(() -> blobStore.get(null)).isInstanceOf(IllegalArgumentException.class);
+        assertThrown(() -> blobStore.get("../../etc/passwd")).isInstanceOf(IllegalArgumentException.class);
+        assertNull(blobStore.get("0000000000000000000000000000000000000000000000000000000000000000"));
+        assertNull(blobStore.map("0000000000000000000000000000000000000000000000000000000000000000"));
+    }
+
+    /**
+     * @throws IOException
+     *             in case of failure
+     */
+    @Test
+    public final void saveAndReadTest() throws IOException {
+        String key = blobStore.save(new ByteArrayInputStream("test".getBytes(StandardCharsets.UTF_8)));
+        // sha-256 of the content
+        assertEquals("9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08", key);
+
+        try (InputStream returnedStream = blobStore.get(key)) {
+            assertEquals("test", new String(returnedStream.readAllBytes(), StandardCharsets.UTF_8));
+        }
+
+        ByteBuffer buffer = blobStore.map(key);
+        byte[] mapped = new byte[buffer.remaining()];
+        buffer.get(mapped);
+        assertEquals("test", new String(mapped, StandardCharsets.UTF_8));
+        assertEquals(Long.valueOf(4), blobStore.getFileSize(key));
+    }
+
+    /**
+     * Test that the same content is stored only once.
+     */
+    @Test
+    public final void deduplicationTest() {
+        String key = blobStore.save(new ByteArrayInputStream("same".getBytes(StandardCharsets.UTF_8)));
+        assertEquals(key, blobStore.save(new ByteArrayInputStream("same".getBytes(StandardCharsets.UTF_8))));
+        assertNotEquals(key, blobStore.save(new ByteArrayInputStream("other".getBytes(StandardCharsets.UTF_8))));
+
+        File tempDir = new File(Config.getInstance().getParam("blobstore.path"), "tmp");
+        assertEquals(0, tempDir.list().length);
+    }
+}
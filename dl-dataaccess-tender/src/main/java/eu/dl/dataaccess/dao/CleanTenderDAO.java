@@ -24,6 +24,16 @@ public interface CleanTenderDAO<T extends CleanTender> extends CleanDAO<T> {
      */
     T getById(String id);
 
+    /**
+     * Returns objects identified by the ids.
+     *
+     * @param ids
+     *         list of ids to be searched
+     *
+     * @return found objects
+     */
+    List<T> getByIds(List<String> ids);
+
     /**
      * Returns paged list of clean items for a specific country.
      *
@@ -4,7 +4,9 @@ import eu.dl.dataaccess.dto.master.MasterTender;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * DAO for mastered body.
@@ -23,6 +25,16 @@ public interface MasterTenderDAO<T extends MasterTender> extends MasterDAO<T> {
      */
     String save(T masteredTender);
 
+    /**
+     * Saves given tenders to persistent storage in batches.
+     *
+     * @param masteredTenders
+     *         mastered tenders to be saved
+     *
+     * @return Ids of saved tenders
+     */
+    List<String> saveAll(Collection<T> masteredTenders);
+
     /**
      * Returns the object by given id.
      *
@@ -137,6 +149,17 @@ public interface MasterTenderDAO<T extends MasterTender> extends MasterDAO<T> {
      */
     List<String> getIdsBySourceAndVersion(String name, String version);
 
+    /**
+     * Returns lazily loaded stream of tenders created by source and version, ordered by id. All tenders are returned
+     * for empty name.
+     *
+     * @param name worker name
+     * @param version worker version
+     *
+     * @return stream of tenders
+     */
+    Stream<T> streamBySourceAndVersion(String name, String version);
+
     /**
      * Returns last date of publication before {@code maxDate} for the given worker and version.
      *
@@ -6,6 +6,7 @@ import java.net.URL;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * DAO for matched body.
@@ -104,6 +105,18 @@ public interface MatchedTenderDAO<T extends MatchedTender> extends MatchedDAO<T>
      */
     List<T> getForResend(String name, String version);
 
+    /**
+     * Same as {@link MatchedTenderDAO#getForResend(String, String)} but returns only group ids as a stream read by a
+     * database cursor, so the group ids aren't loaded into memory at once. The stream has to be closed.
+     *
+     * @param name
+     *            matcher name
+     * @param version
+     *            matcher version
+     * @return stream of distinct group ids
+     */
+    Stream<String> streamGroupIdsForResend(String name, String version);
+
     /**
      * Returns list of tenders that have non-empty intersection with the given list of tender publications source ids
      * and publication dates.
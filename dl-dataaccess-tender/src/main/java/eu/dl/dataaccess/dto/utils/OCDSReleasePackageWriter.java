@@ -0,0 +1,197 @@
+package eu.dl.dataaccess.dto.utils;
+
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import eu.dl.core.UnrecoverableException;
+import eu.dl.dataaccess.dto.master.MasterTender;
+import eu.dl.dataaccess.dto.ocds.OCDSRelease;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes OCDS releases of master tenders to the output stream as soon as they are converted, so an export of any
+ * size needs constant memory. The output is either an OCDS release package (the same JSON as serialized
+ * {@link OCDSUtils#getOCDSReleasePackage(List, String)}) or newline delimited releases.
+ *
+ * The writer is thread safe and independent writers can be used in parallel (eg. one per exported country).
+ */
+public final class OCDSReleasePackageWriter implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(OCDSReleasePackageWriter.class);
+
+    private static final int GZIP_BUFFER_SIZE = 65536;
+
+    /**
+     * Output format.
+     */
+    public enum Format {
+        /**
+         * Single OCDS release package with all the releases.
+         */
+        PACKAGE,
+        /**
+         * One release per line (NDJSON), without package metadata.
+         */
+        NDJSON
+    }
+
+    private final Format format;
+
+    private final JsonGenerator generator;
+
+    private final ObjectWriter writer;
+
+    private LocalDateTime lastModified;
+
+    private long count;
+
+    /**
+     * Creates writer which uses default object mapper and writes the package header (in case of package format).
+     *
+     * @param outputStream
+     *      output stream, it is closed together with the writer
+     * @param uri
+     *      OCDS package uri
+     * @param format
+     *      output format
+     * @param gzip
+     *      whether the output should be gzip compressed
+     */
+    public OCDSReleasePackageWriter(final OutputStream outputStream, final String uri, final Format format,
+                                    final boolean gzip) {
+        this(outputStream, uri, format, gzip, createMapper());
+    }
+
+    /**
+     * Creates writer and writes the package header (in case of package format).
+     *
+     * @param outputStream
+     *      output stream, it is closed together with the writer
+     * @param uri
+     *      OCDS package uri
+     * @param format
+     *      output format
+     * @param gzip
+     *      whether the output should be gzip compressed
+     * @param mapper
+     *      object mapper used for serialization of the releases
+     */
+    public OCDSReleasePackageWriter(final OutputStream outputStream, final String uri, final Format format,
+                                    final boolean gzip, final ObjectMapper mapper) {
+        this.format = format;
+        this.writer = mapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        try {
+            final OutputStream output = gzip ? new GZIPOutputStream(outputStream, GZIP_BUFFER_SIZE) : outputStream;
+            generator = mapper.getFactory().createGenerator(output);
+
+            if (format == Format.NDJSON) {
+                generator.setRootValueSeparator(new SerializedString("\n"));
+            } else {
+                // package without releases and metadata
+                final ObjectNode header = mapper.valueToTree(OCDSUtils.getOCDSReleasePackage(
+                    (List<MasterTender>) null, uri));
+                generator.writeStartObject();
+                final Iterator<Map.Entry<String, JsonNode>> fields = header.fields();
+                while (fields.hasNext()) {
+                    final Map.Entry<String, JsonNode> field = fields.next();
+                    generator.writeFieldName(field.getKey());
+                    generator.writeTree(field.getValue());
+                }
+                generator.writeArrayFieldStart("releases");
+            }
+        } catch (IOException e) {
+            logger.error("Unable to start OCDS export because of {}", e);
+            throw new UnrecoverableException("Unable to start OCDS export", e);
+        }
+    }
+
+    /**
+     * Converts the tender to OCDS release and writes it. Tenders which can't be converted (eg. without buyer) are
+     * skipped.
+     *
+     * @param tender
+     *      master tender with populated bodies
+     * @return true if the release was written
+     */
+    public synchronized boolean write(final MasterTender tender) {
+        final OCDSRelease release = OCDSUtils.getOCDSRelease(tender);
+        if (release == null) {
+            return false;
+        }
+
+        try {
+            writer.writeValue(generator, release);
+        } catch (IOException e) {
+            logger.error("Unable to write OCDS release of tender {} because of {}", tender.getId(), e);
+            throw new UnrecoverableException("Unable to write OCDS release", e);
+        }
+
+        if (tender.getModified() != null && (lastModified == null || tender.getModified().isAfter(lastModified))) {
+            lastModified = tender.getModified();
+        }
+        count++;
+
+        return true;
+    }
+
+    /**
+     * @return number of written releases
+     */
+    public synchronized long getCount() {
+        return count;
+    }
+
+    /**
+     * Finishes the package (writes the metadata) and closes the output stream.
+     *
+     * @throws IOException
+     *      in case of failure
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (generator.isClosed()) {
+            return;
+        }
+
+        if (format == Format.PACKAGE) {
+            generator.writeEndArray();
+            generator.writeFieldName("metaData");
+            writer.writeValue(generator, Collections.singletonMap("lastModified", lastModified));
+            generator.writeEndObject();
+        } else if (count > 0) {
+            generator.writeRaw('\n');
+        }
+
+        // closes also the (gzip) output stream
+        generator.close();
+        logger.info("OCDS export of {} releases finished", count);
+    }
+
+    /**
+     * @return object mapper used for the OCDS serialization by default
+     */
+    private static ObjectMapper createMapper() {
+        final ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        mapper.setSerializationInclusion(Include.NON_NULL);
+        return mapper;
+    }
+}
@@ -75,7 +75,8 @@ public final class OCDSUtils {
     private static final Logger logger = LoggerFactory.getLogger(OCDSUtils.class);
 
     /**
-     * Source of indexes for OCDSUtils.
+     * Source of indexes for OCDSUtils. The indexes are counted per thread, so the releases can be created
+     * concurrently.
      */
     enum Index {
         DEFAULT,
@@ -88,27 +89,27 @@ public final class OCDSUtils {
         CONTRACT,
         TRANSACTION;
 
-        private int index = 0;
+        private final ThreadLocal<int[]> index = ThreadLocal.withInitial(() -> new int[1]);
 
         /**
          * @return next value
          */
         public String next() {
-            return getIndex(++index);
+            return getIndex(++index.get()[0]);
         }
 
         /**
          * @return current value of index
          */
         public String current() {
-            return getIndex(index);
+            return getIndex(index.get()[0]);
         }
 
         /**
          * Resets the index.
          */
         public void reset() {
-            index = 0;
+            index.get()[0] = 0;
         }
 
         /**
@@ -34,6 +34,12 @@ public class PopulateUtils {
 
     private MatchedBodyDAO<MatchedBody> matchedBodyDAO;
 
+    /**
+     * Recently used bodies (master bodies by group id, matched bodies by id), null if caching is disabled. The
+     * cached bodies are shared among the populated tenders and mustn't be modified.
+     */
+    private LruCache<String, Object> bodyCache;
+
     /**
      * Initialisation.
      * 
@@ -45,6 +51,21 @@ public class PopulateUtils {
         this.masterBodyDao = masterBodyDAO;
     }
 
+    /**
+     * Initialisation with cache of recently used bodies. Suitable for workers which populate many tenders sharing the
+     * same bodies (eg. big buyers). The cached bodies aren't refreshed, so the cache should live only as long as the
+     * bodies may be considered unchanged (eg. one bulk run), long running message consumers shouldn't use it.
+     *
+     * @param masterBodyDAO
+     *            master body dao
+     * @param cacheSize
+     *            maximal number of cached bodies, caching is disabled if zero
+     */
+    public PopulateUtils(final MasterBodyDAO<MasterBody> masterBodyDAO, final int cacheSize) {
+        this.masterBodyDao = masterBodyDAO;
+        this.bodyCache = cacheSize > 0 ? new LruCache<>(cacheSize) : null;
+    }
+
     /**
      * Initialisation.
      *
@@ -67,6 +88,20 @@ public class PopulateUtils {
         this.matchedBodyDAO = matchedBodyDAO;
     }
 
+    /**
+     * Initialisation with cache of recently used bodies.
+     *
+     * @param matchedBodyDAO
+     *            plain matched body dao
+     * @param cacheSize
+     *            maximal number of cached bodies, caching is disabled if zero
+     * @see #PopulateUtils(MasterBodyDAO, int)
+     */
+    public PopulateUtils(final MatchedBodyDAO matchedBodyDAO, final int cacheSize) {
+        this.matchedBodyDAO = matchedBodyDAO;
+        this.bodyCache = cacheSize > 0 ? new LruCache<>(cacheSize) : null;
+    }
+
     /**
      * Populates the master tender with all possible master bodies.
      *
@@ -401,18 +436,64 @@ public class PopulateUtils {
             return;
         }
 
-        List<String> ids = bodies.values().stream().map(MasterBody::getGroupId).collect(Collectors.toList());
-        
+        List<String> ids = getUncachedIds(bodies, MasterBody.class);
+        if (ids.isEmpty()) {
+            return;
+        }
+
         List<MasterBody> storedBodies = masterBodyDao.getByGroupIds(ids);
         
         if (storedBodies != null && !storedBodies.isEmpty()) {
             for (MasterBody storedBody: storedBodies) {
                 bodies.put(storedBody.getGroupId(), storedBody);
+                cacheBody(storedBody.getGroupId(), storedBody);
             }
         }
         
     }
 
+    /**
+     * Replaces the bodies found in the cache and returns ids of the others.
+     *
+     * @param bodies
+     *            bodies to be populated, mapped by their ids
+     * @param bodyClass
+     *            class of the bodies
+     * @param <T>
+     *            class of the bodies
+     * @return ids of the bodies which aren't cached
+     */
+    private <T> List<String> getUncachedIds(final HashMap<String, T> bodies, final Class<T> bodyClass) {
+        List<String> ids = new ArrayList<>();
+        for (String id : bodies.keySet()) {
+            if (id == null) {
+                continue;
+            }
+
+            Object cached = bodyCache == null ? null : bodyCache.get(id);
+            if (bodyClass.isInstance(cached)) {
+                bodies.put(id, bodyClass.cast(cached));
+            } else {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Puts the body to the cache if the caching is enabled.
+     *
+     * @param id
+     *            body id
+     * @param body
+     *            body
+     */
+    private void cacheBody(final String id, final Object body) {
+        if (bodyCache != null && id != null) {
+            bodyCache.put(id, body);
+        }
+    }
+
     /**
      * Populates the matched tender with all possible matched bodies.
      *
@@ -573,12 +654,17 @@ public class PopulateUtils {
             return;
         }
 
-        List<String> ids = bodies.values().stream().map(MatchedBody::getId).filter(Objects::nonNull).collect(Collectors.toList());
+        List<String> ids = getUncachedIds(bodies, MatchedBody.class);
+        if (ids.isEmpty()) {
+            return;
+        }
+
         List<MatchedBody> storedBodies = matchedBodyDAO.getByIds(ids);
 
         if (storedBodies != null && !storedBodies.isEmpty()) {
             for (MatchedBody storedBody: storedBodies) {
                 bodies.put(storedBody.getId(), storedBody);
+                cacheBody(storedBody.getId(), storedBody);
             }
         }
 
@@ -0,0 +1,198 @@
+package eu.dl.dataaccess.codec;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Currency;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import eu.dl.dataaccess.dto.generic.Address;
+import eu.dl.dataaccess.dto.generic.CPV;
+import eu.dl.dataaccess.dto.generic.Price;
+import eu.dl.dataaccess.dto.generic.Publication;
+import eu.dl.dataaccess.dto.master.MasterBid;
+import eu.dl.dataaccess.dto.master.MasterBody;
+import eu.dl.dataaccess.dto.master.MasterTender;
+import eu.dl.dataaccess.dto.master.MasterTenderLot;
+
+/**
+ * JMH benchmark of the stored tender serialization. Compares the former implementation (pretty printer created for
+ * each tender, updating reader created for each row) with the shared compact {@link JsonCodec}. The gain comes from
+ * the reused writer and readers. The shorter compact text doesn't change the stored size, because jsonb doesn't keep
+ * the whitespace.
+ *
+ * Jackson Afterburner/Blackbird modules aren't compared, Afterburner isn't among the project dependencies and
+ * Blackbird requires Jackson 2.12, while the project uses 2.10.
+ *
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=eu.dl.dataaccess.codec.TenderCodecBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TenderCodecBenchmark {
+    @Param({"1", "10", "100"})
+    private int lotsCount;
+
+    private ObjectMapper mapper;
+
+    private Codec codec;
+
+    private MasterTender tender;
+
+    private String prettyJson;
+
+    private String compactJson;
+
+    /**
+     * Generates tender with the given count of lots, each lot with three bids.
+     */
+    @Setup
+    public void setup() {
+        mapper = CodecFactory.createDTOMapper();
+        codec = new JsonCodec(CodecFactory.createDTOMapper(), false);
+
+        final List<MasterTenderLot> lots = new ArrayList<>();
+        for (int i = 0; i < lotsCount; i++) {
+            final List<MasterBid> bids = new ArrayList<>();
+            for (int j = 0; j < 3; j++) {
+                bids.add(new MasterBid()
+                    .setIsWinning(j == 0)
+                    .setBidders(Arrays.asList(body("Stavební společnost " + i + "-" + j + " s.r.o.")))
+                    .setPrice(price(100000 + i * 1000 + j)));
+            }
+            lots.add(new MasterTenderLot()
+                .setLotNumber(i + 1)
+                .setBidsCount(bids.size())
+                .setBids(bids)
+                .setTitle("Oprava komunikace, část " + (i + 1))
+                .setCpvs(Arrays.asList(new CPV().setCode("45233142").setIsMain(true)))
+                .setEstimatedPrice(price(120000 + i * 1000)));
+        }
+
+        tender = new MasterTender()
+            .setBuyerAssignedId("VZ-2020-001")
+            .setBuyers(Arrays.asList(body("Město Brno")))
+            .setPublications(Arrays.asList(new Publication()
+                .setSourceId("123456")
+                .setPublicationDate(LocalDate.of(2020, 1, 2))
+                .setIsIncluded(true)))
+            .setHasLots(lotsCount > 1)
+            .setLots(lots)
+            .setFinalPrice(price(100000 * lotsCount))
+            .setCountry("CZ")
+            .setTitle("Oprava místních komunikací")
+            .setDescription("Předmětem veřejné zakázky je oprava místních komunikací v jednotlivých městských částech.");
+
+        prettyJson = legacyEncode();
+        compactJson = codec.encode(tender);
+    }
+
+    /**
+     * @param name
+     *      body name
+     * @return body with address
+     */
+    private static MasterBody body(final String name) {
+        return new MasterBody()
+            .setName(name)
+            .setAddress(new Address().setStreet("Dominikánské náměstí 1").setCity("Brno").setPostcode("60200")
+                .setNuts(Arrays.asList("CZ064")));
+    }
+
+    /**
+     * @param amount
+     *      net amount
+     * @return price in CZK
+     */
+    private static Price price(final long amount) {
+        return new Price()
+            .setNetAmount(BigDecimal.valueOf(amount, 2))
+            .setVat(new BigDecimal("21"))
+            .setCurrency(Currency.getInstance("CZK"));
+    }
+
+    /**
+     * Former implementation of the serialization.
+     *
+     * @return serialized tender
+     */
+    @Benchmark
+    public String legacyEncode() {
+        try {
+            return new String(mapper.writerWithDefaultPrettyPrinter().writeValueAsBytes(tender),
+                StandardCharsets.UTF_8);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Former implementation of the deserialization.
+     *
+     * @return deserialized tender
+     */
+    @Benchmark
+    public MasterTender legacyDecode() {
+        try {
+            return mapper.readerForUpdating(new MasterTender()).readValue(prettyJson);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Codec serialization.
+     *
+     * @return serialized tender
+     */
+    @Benchmark
+    public String codecEncode() {
+        return codec.encode(tender);
+    }
+
+    /**
+     * Codec deserialization.
+     *
+     * @return deserialized tender
+     */
+    @Benchmark
+    public MasterTender codecDecode() {
+        return codec.decodeInto(compactJson, new MasterTender());
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args
+     *      arguments
+     * @throws RunnerException
+     *      in case of benchmark failure
+     */
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(TenderCodecBenchmark.class.getSimpleName()).build()).run();
+    }
+}
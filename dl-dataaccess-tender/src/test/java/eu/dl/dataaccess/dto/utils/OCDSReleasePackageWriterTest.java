@@ -0,0 +1,150 @@
+package eu.dl.dataaccess.dto.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import eu.dl.core.config.Config;
+import eu.dl.dataaccess.dto.generic.Price;
+import eu.dl.dataaccess.dto.generic.Publication;
+import eu.dl.dataaccess.dto.master.MasterBid;
+import eu.dl.dataaccess.dto.master.MasterBody;
+import eu.dl.dataaccess.dto.master.MasterTender;
+import eu.dl.dataaccess.dto.master.MasterTenderLot;
+import eu.dl.dataaccess.dto.utils.OCDSReleasePackageWriter.Format;
+
+/**
+ * Tests for OCDSReleasePackageWriter.
+ */
+public final class OCDSReleasePackageWriterTest {
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    /**
+     * Loads OCDS configuration.
+     */
+    @BeforeClass
+    public static void init() {
+        Config.getInstance().addConfigFile("ocds_test");
+    }
+
+    /**
+     * @param count
+     *      number of tenders
+     * @return tenders with lots and bids
+     */
+    private static List<MasterTender> tenders(final int count) {
+        List<MasterTender> tenders = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            List<MasterTenderLot> lots = new ArrayList<>();
+            for (int j = 0; j < 3; j++) {
+                lots.add(new MasterTenderLot().setBids(Arrays.asList(new MasterBid()
+                    .setIsWinning(true)
+                    .setPrice(new Price().setNetAmount(BigDecimal.valueOf(1000 + j)))
+                    .setBidders(Arrays.asList(new MasterBody().setName("Bidder " + j).setGroupId("bidder" + j))))));
+            }
+
+            MasterTender tender = new MasterTender()
+                .setBuyers(Arrays.asList(new MasterBody().setName("Buyer " + i).setGroupId("buyer" + i)))
+                .setPublications(Arrays.asList(new Publication().setSourceId("notice" + i).setIsIncluded(true)))
+                .setLots(lots);
+            tender.setId("tender" + i);
+            tender.setModified(LocalDateTime.of(2020, 1, 1 + i, 0, 0));
+            tenders.add(tender);
+        }
+        // tender without buyer is skipped
+        tenders.add(new MasterTender());
+        return tenders;
+    }
+
+    /**
+     * @param tenders
+     *      tenders
+     * @param format
+     *      output format
+     * @param gzip
+     *      whether the output is compressed
+     * @return written output
+     * @throws IOException
+     *      in case of failure
+     */
+    private static byte[] write(final List<MasterTender> tenders, final Format format, final boolean gzip)
+        throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (OCDSReleasePackageWriter writer = new OCDSReleasePackageWriter(output, "http://test", format, gzip)) {
+            tenders.forEach(writer::write);
+            assertEquals(tenders.size() - 1, writer.getCount());
+        }
+        return output.toByteArray();
+    }
+
+    /**
+     * Tests the package format with gzip compression.
+     *
+     * @throws IOException
+     *      in case of failure
+     */
+    @Test
+    public void packageTest() throws IOException {
+        List<MasterTender> tenders = tenders(2);
+        try (InputStream input = new GZIPInputStream(new ByteArrayInputStream(write(tenders, Format.PACKAGE, true)))) {
+            JsonNode ocdsPackage = mapper.readTree(input);
+
+            assertEquals("http://test", ocdsPackage.get("uri").asText());
+            assertEquals("Test publisher", ocdsPackage.get("publisher").get("name").asText());
+            assertEquals("2020-01-02T00:00:00", ocdsPackage.get("metaData").get("lastModified").asText());
+            assertEquals(2, ocdsPackage.get("releases").size());
+            assertEquals("ocds-test-tender1", ocdsPackage.get("releases").get(1).get("ocid").asText());
+            assertEquals(3, ocdsPackage.get("releases").get(1).get("awards").size());
+        }
+    }
+
+    /**
+     * Tests that writers used in parallel produce the same releases as sequential conversion.
+     *
+     * @throws Exception
+     *      in case of failure
+     */
+    @Test
+    public void parallelNdjsonTest() throws Exception {
+        List<MasterTender> tenders = tenders(20);
+        String expected = new String(write(tenders, Format.NDJSON, false), StandardCharsets.UTF_8);
+
+        String[] lines = expected.split("\n");
+        assertEquals(20, lines.length);
+        assertEquals("award-3", mapper.readTree(lines[5]).get("awards").get(2).get("id").asText());
+        assertFalse(expected.startsWith("{\"uri\""));
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<byte[]>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> write(tenders, Format.NDJSON, false)));
+            }
+            for (Future<byte[]> result : results) {
+                assertEquals(expected, new String(result.get(), StandardCharsets.UTF_8));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
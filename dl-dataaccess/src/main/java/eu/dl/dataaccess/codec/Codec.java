@@ -0,0 +1,59 @@
+package eu.dl.dataaccess.codec;
+
+import com.fasterxml.jackson.databind.JavaType;
+
+/**
+ * Encodes objects to their stored (or sent) form and decodes them back. Implementations are thread safe and meant to
+ * be shared.
+ *
+ * @see CodecFactory
+ */
+public interface Codec {
+    /**
+     * Encodes the object.
+     *
+     * @param value
+     *      object to be encoded
+     * @return encoded object
+     */
+    String encode(Object value);
+
+    /**
+     * Decodes new instance of the given class.
+     *
+     * @param data
+     *      encoded object
+     * @param cls
+     *      class of the decoded object
+     * @param <T>
+     *      class of the decoded object
+     * @return decoded object
+     */
+    <T> T decode(String data, Class<T> cls);
+
+    /**
+     * Decodes new instance of the given type.
+     *
+     * @param data
+     *      encoded object
+     * @param type
+     *      type of the decoded object, e.g. parametrized collection
+     * @param <T>
+     *      class of the decoded object
+     * @return decoded object
+     */
+    <T> T decode(String data, JavaType type);
+
+    /**
+     * Decodes the data into the existing object. Attributes missing in the data keep their values.
+     *
+     * @param data
+     *      encoded object
+     * @param value
+     *      object to be updated
+     * @param <T>
+     *      class of the updated object
+     * @return updated object
+     */
+    <T> T decodeInto(String data, T value);
+}
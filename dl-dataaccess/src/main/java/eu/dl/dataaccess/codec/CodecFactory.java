@@ -0,0 +1,104 @@
+package eu.dl.dataaccess.codec;
+
+import java.text.SimpleDateFormat;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import eu.dl.core.config.Config;
+import eu.dl.core.config.MisconfigurationException;
+
+/**
+ * Returns shared codecs.
+ *
+ * The codec of the stored DTOs is selected by configuration parameter {@code jdbc.codec}:
+ * <ul>
+ *     <li>{@code json} (default) - compact JSON</li>
+ *     <li>{@code prettyJson} - indented JSON, the format used before the codecs were introduced</li>
+ * </ul>
+ * Both formats are read by both codecs. The data column is jsonb, which doesn't keep the whitespace, so both formats
+ * take the same space in the database. The compact JSON only shortens the text sent to the database.
+ */
+public final class CodecFactory {
+    private static Codec dtoCodec;
+
+    private static Codec messageCodec;
+
+    private static Logger logger = LoggerFactory.getLogger(CodecFactory.class.getName());
+
+    /**
+     * Suppress default constructor for noninstantiability.
+     */
+    private CodecFactory() {
+        throw new AssertionError();
+    }
+
+    /**
+     * Returns codec of the stored DTOs.
+     *
+     * @return ready to use codec
+     */
+    public static synchronized Codec getDTOCodec() {
+        if (dtoCodec == null) {
+            dtoCodec = getCodec(Config.getInstance().getParam("jdbc.codec"), createDTOMapper());
+        }
+        return dtoCodec;
+    }
+
+    /**
+     * Returns codec of the messages sent between workers.
+     *
+     * @return ready to use codec
+     */
+    public static synchronized Codec getMessageCodec() {
+        if (messageCodec == null) {
+            final ObjectMapper mapper = new ObjectMapper();
+            // java time module must be registered to support java 8 date time classes
+            mapper.registerModule(new JavaTimeModule());
+            messageCodec = new JsonCodec(mapper, false);
+        }
+        return messageCodec;
+    }
+
+    /**
+     * Creates new codec.
+     *
+     * @param codecImplementation
+     *      codec implementation identifier, JSON codec is used if null
+     * @param mapper
+     *      configured object mapper
+     * @return ready to use codec
+     */
+    public static Codec getCodec(final String codecImplementation, final ObjectMapper mapper) {
+        if (codecImplementation == null || codecImplementation.equals("json")) {
+            logger.info("Returning json codec");
+            return new JsonCodec(mapper, false);
+        } else if (codecImplementation.equals("prettyJson")) {
+            logger.info("Returning pretty json codec");
+            return new JsonCodec(mapper, true);
+        } else {
+            throw new MisconfigurationException(String.format("Improper codec configuration. %s codec not found",
+                codecImplementation));
+        }
+    }
+
+    /**
+     * Creates object mapper configured for the stored DTOs.
+     *
+     * @return object mapper
+     */
+    public static ObjectMapper createDTOMapper() {
+        final ObjectMapper mapper = new ObjectMapper();
+        mapper.enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+        mapper.registerModule(new JavaTimeModule());
+        mapper.setDateFormat(new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'"));
+        mapper.setSerializationInclusion(Include.NON_NULL);
+        mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        return mapper;
+    }
+}
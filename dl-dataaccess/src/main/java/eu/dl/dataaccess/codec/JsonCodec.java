@@ -0,0 +1,93 @@
+package eu.dl.dataaccess.codec;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import eu.dl.core.UnrecoverableException;
+
+/**
+ * JSON codec backed by Jackson. The writer and the readers (one per decoded type) are created once and reused, so
+ * the serializers and deserializers are looked up only on the first use of the type.
+ */
+public final class JsonCodec implements Codec {
+    private static Logger logger = LoggerFactory.getLogger(JsonCodec.class.getName());
+
+    private final ObjectMapper mapper;
+
+    private final ObjectWriter writer;
+
+    private final Map<JavaType, ObjectReader> readers = new ConcurrentHashMap<>();
+
+    /**
+     * Creates codec.
+     *
+     * @param mapper
+     *      configured object mapper, mustn't be reconfigured afterwards
+     * @param pretty
+     *      whether the output should be indented
+     */
+    public JsonCodec(final ObjectMapper mapper, final boolean pretty) {
+        this.mapper = mapper;
+        this.writer = pretty ? mapper.writerWithDefaultPrettyPrinter() : mapper.writer();
+    }
+
+    @Override
+    public String encode(final Object value) {
+        try {
+            return writer.writeValueAsString(value);
+        } catch (IOException e) {
+            logger.error("Unable to serialize data to json exception {}", e);
+            throw new UnrecoverableException("Unable to serialize data to json", e);
+        }
+    }
+
+    @Override
+    public <T> T decode(final String data, final Class<T> cls) {
+        return decode(data, mapper.constructType(cls));
+    }
+
+    @Override
+    public <T> T decode(final String data, final JavaType type) {
+        try {
+            return getReader(type).readValue(data);
+        } catch (IOException e) {
+            logger.error("Unable to deserialize data from json exception {}", e);
+            throw new UnrecoverableException("Unable to deserialize data from json", e);
+        }
+    }
+
+    @Override
+    public <T> T decodeInto(final String data, final T value) {
+        try {
+            return getReader(mapper.constructType(value.getClass())).withValueToUpdate(value).readValue(data);
+        } catch (IOException e) {
+            logger.error("Unable to deserialize data from json exception {}", e);
+            throw new UnrecoverableException("Unable to deserialize data from json", e);
+        }
+    }
+
+    /**
+     * @return object mapper used by this codec
+     */
+    public ObjectMapper getMapper() {
+        return mapper;
+    }
+
+    /**
+     * @param type
+     *      decoded type
+     * @return cached reader of the type
+     */
+    private ObjectReader getReader(final JavaType type) {
+        return readers.computeIfAbsent(type, mapper::readerFor);
+    }
+}
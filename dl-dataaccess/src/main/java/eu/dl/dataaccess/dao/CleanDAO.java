@@ -2,6 +2,7 @@ package eu.dl.dataaccess.dao;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Clean item DAO interface. Specifies methods for manipulating data about items
@@ -47,6 +48,41 @@ public interface CleanDAO<T> {
      */
     List<T> getMine(String name, String version, String fromDate, String toDate);
 
+    /**
+     * Same as {@link CleanDAO#getMine(String, String, String, String)} but returns only ids as a stream read by
+     * a database cursor, so the ids aren't loaded into memory at once. The stream has to be closed.
+     *
+     * @param name
+     *            cleaner name
+     * @param version
+     *            cleaner version
+     * @param fromDate
+     *            from date
+     * @param toDate
+     *            to date
+     *
+     * @return stream of ids
+     */
+    Stream<String> streamMineIds(String name, String version, String fromDate, String toDate);
+
+    /**
+     * Same as {@link #streamMineIds(String, String, String, String)} but the ids are ordered by processing order and
+     * id and loaded by keyset pagination. Each page is loaded by its own query, so unlike the cursor the stream can be
+     * consumed across the transactions.
+     *
+     * @param name
+     *            cleaner name
+     * @param version
+     *            cleaner version
+     * @param fromDate
+     *            from date
+     * @param toDate
+     *            to date
+     *
+     * @return stream of ids
+     */
+    Stream<String> streamMineIdsByKeyset(String name, String version, String fromDate, String toDate);
+
     /**
      * Returns objects which has been modified after timestamp. The result is paged with {@code pageSize} records per page.
      *
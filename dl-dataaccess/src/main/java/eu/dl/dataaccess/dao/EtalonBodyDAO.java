@@ -65,4 +65,12 @@ public interface EtalonBodyDAO<T extends PoolBody> extends ExactMatchBodyDAO<T>,
      *      etalon body
      */
     void updateDigestsAndBodyIdsAndNuts(T body);
+
+    /**
+     * Updates etalon entries in database in one batch.
+     *
+     * @param bodies
+     *      etalon bodies
+     */
+    void updateDigestsAndBodyIdsAndNuts(List<T> bodies);
 }
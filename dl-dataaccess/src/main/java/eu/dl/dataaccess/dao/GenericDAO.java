@@ -1,7 +1,9 @@
 package eu.dl.dataaccess.dao;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * @param <T>
@@ -18,6 +20,16 @@ public interface GenericDAO<T> extends BaseDAO<T> {
      */
     String save(T t);
 
+    /**
+     * Saves all the objects and returns their ids. The objects are written in batches, so the number of round trips
+     * to the storage doesn't grow with the number of objects.
+     *
+     * @param items
+     *            objects to be saved
+     * @return saved ids in the same order as the objects
+     */
+    List<String> saveAll(Collection<T> items);
+
     /**
      * Returns object identified by the id.
      *
@@ -53,6 +65,41 @@ public interface GenericDAO<T> extends BaseDAO<T> {
      */
     List<T> getMine(String name, String version, String fromDate, String toDate);
 
+    /**
+     * Same as {@link GenericDAO#getMine(String, String, String, String)} but returns only ids as a stream read by
+     * a database cursor, so the ids aren't loaded into memory at once. The stream has to be closed.
+     *
+     * @param name
+     *            downloader/crawler name
+     * @param version
+     *            downloader/crawler version
+     * @param fromDate
+     *            from date
+     * @param toDate
+     *            to date
+     *
+     * @return stream of ids
+     */
+    Stream<String> streamMineIds(String name, String version, String fromDate, String toDate);
+
+    /**
+     * Same as {@link #streamMineIds(String, String, String, String)} but the ids are ordered by processing order and
+     * id and loaded by keyset pagination. Each page is loaded by its own query, so unlike the cursor the stream can be
+     * consumed across the transactions.
+     *
+     * @param name
+     *            downloader/crawler name
+     * @param version
+     *            downloader/crawler version
+     * @param fromDate
+     *            from date
+     * @param toDate
+     *            to date
+     *
+     * @return stream of ids
+     */
+    Stream<String> streamMineIdsByKeyset(String name, String version, String fromDate, String toDate);
+
     /**
      * Returns objects which has been modified after timestamp. The result is paged with {@code pageSize} records per page.
      *
@@ -126,6 +173,34 @@ public interface GenericDAO<T> extends BaseDAO<T> {
      */
     List<T> getModifiedAfter(LocalDateTime timestamp, String createdBy, String countryCode, Integer page, Integer pageSize);
 
+    /**
+     * Returns lazily loaded stream of objects which has been modified after timestamp, ordered by modification time
+     * and id. Unlike the paged methods, the objects are loaded in pages of default page size on demand, so the whole
+     * result can be processed in constant memory.
+     *
+     * @param timestamp
+     *            objects modified after this timestamp will be returned
+     * @param createdBy
+     *            "author" of the change, ignored if null or empty
+     * @param countryCode
+     *            country code, ignored if null or empty
+     * @return stream of objects modified after timestamp
+     */
+    Stream<T> streamModifiedAfter(LocalDateTime timestamp, String createdBy, String countryCode);
+
+    /**
+     * Returns lazily loaded stream of objects created by source and version, ordered by id. Same as
+     * {@link #getIdsBySourceAndVersion(String, String)}, all objects are returned for empty name. The objects are
+     * loaded in pages of default page size on demand, so the whole result can be processed in constant memory.
+     *
+     * @param name
+     *            worker name
+     * @param version
+     *            worker version
+     * @return stream of objects
+     */
+    Stream<T> streamBySourceAndVersion(String name, String version);
+
     /**
      * Same as {@link GenericDAO#getModifiedAfter(LocalDateTime, String, String, Integer, Integer)} but uses default page size.
      *
@@ -0,0 +1,271 @@
+package eu.dl.dataaccess.dao;
+
+import eu.dl.dataaccess.dto.codetables.BodyIdentifier;
+import eu.dl.dataaccess.dto.codetables.BodyType;
+import eu.dl.dataaccess.dto.matched.MatchedBody;
+import eu.dl.dataaccess.dto.matched.MatchedGroupInfo;
+import eu.dl.dataaccess.utils.MatchedBodyIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Matched body DAO which serves the pools for exact and approximate matching from the resident
+ * {@link MatchedBodyIndex} instead of the database. All other calls are delegated to the wrapped DAO. Saved bodies are
+ * written to the database and added to the index once the transaction is committed, so the index stays in sync with
+ * the bodies written by this process and never includes bodies of a rolled back transaction. Until then the saved
+ * bodies are visible only to the pools of the thread which saved them, the same as the uncommitted rows in the
+ * database.
+ *
+ * The index is loaded from the same bodies as the pool queries search (see {@link MatchedBodyDAO#streamPoolBodies()})
+ * when the DAO is created. The bodies written by other processes or consumers afterwards never get into the index, so
+ * it is suitable only for a matcher running as a single process with one consumer.
+ */
+public class IndexedMatchedBodyDAO implements MatchedBodyDAO<MatchedBody> {
+    private static final Logger logger = LoggerFactory.getLogger(IndexedMatchedBodyDAO.class);
+
+    private final MatchedBodyDAO<MatchedBody> dao;
+
+    private final MatchedBodyIndex index = new MatchedBodyIndex();
+
+    private final TransactionUtils transactionUtils;
+
+    /**
+     * Bodies saved by the current transaction of the thread, they are indexed after commit.
+     */
+    private final ThreadLocal<List<MatchedBody>> uncommitted = ThreadLocal.withInitial(ArrayList::new);
+
+    /**
+     * Creates indexed DAO and loads the index.
+     *
+     * @param dao
+     *      wrapped matched body DAO
+     * @param transactionUtils
+     *      transaction utils of the wrapped DAO, saved bodies are indexed after commit
+     */
+    public IndexedMatchedBodyDAO(final MatchedBodyDAO<MatchedBody> dao, final TransactionUtils transactionUtils) {
+        this.dao = dao;
+        this.transactionUtils = transactionUtils;
+
+        logger.info("Populating matched body index.");
+        try (Stream<MatchedBody> bodies = dao.streamPoolBodies()) {
+            bodies.forEach(index::add);
+        }
+        logger.info("Matched body index populated with {} bodies.", index.size());
+    }
+
+    /**
+     * @return matched body index
+     */
+    public final MatchedBodyIndex getIndex() {
+        return index;
+    }
+
+    @Override
+    public final List<MatchedBody> getExactMatchBodiesPool(final String standardizedName,
+                                                           final String standardizedAddress,
+                                                           final List<BodyIdentifier> bodyIds) {
+        return withUncommitted(index.getExactMatchBodiesPool(standardizedName, standardizedAddress, bodyIds),
+            standardizedName, standardizedAddress, bodyIds, null);
+    }
+
+    @Override
+    public final List<MatchedBody> getApproximateMatchBodiesPool(final String standardizedName,
+                                                                 final String standardizedAddress,
+                                                                 final List<BodyIdentifier> bodyIds,
+                                                                 final String digest) {
+        return withUncommitted(index.getApproximateMatchBodiesPool(standardizedName, standardizedAddress, bodyIds,
+            digest), standardizedName, standardizedAddress, bodyIds, digest);
+    }
+
+    /**
+     * Adds the bodies saved by the current transaction of the thread which belong to the pool. They replace their
+     * indexed versions.
+     *
+     * @param pool
+     *      pool of the indexed bodies
+     * @param standardizedName
+     *      standardized name
+     * @param standardizedAddress
+     *      standardized address
+     * @param bodyIds
+     *      list of body identifiers
+     * @param digest
+     *      digest, null for the pool for exact matching
+     * @return pool including the uncommitted bodies
+     */
+    private List<MatchedBody> withUncommitted(final List<MatchedBody> pool, final String standardizedName,
+                                              final String standardizedAddress, final List<BodyIdentifier> bodyIds,
+                                              final String digest) {
+        final List<MatchedBody> bodies = uncommitted.get();
+        if (bodies.isEmpty()) {
+            return pool;
+        }
+
+        final Set<String> ids = new HashSet<>();
+        final List<MatchedBody> result = new ArrayList<>();
+        for (MatchedBody body : bodies) {
+            if (MatchedBodyIndex.isInPool(body, standardizedName, standardizedAddress, bodyIds, digest)) {
+                ids.add(body.getId());
+                result.add(body);
+            }
+        }
+
+        if (result.isEmpty()) {
+            return pool;
+        }
+
+        pool.stream().filter(b -> !ids.contains(b.getId())).forEach(result::add);
+        return result;
+    }
+
+    /**
+     * Keeps the saved bodies visible to the thread and indexes them once the transaction is committed.
+     *
+     * @param bodies
+     *      saved bodies
+     */
+    private void indexAfterCommit(final Collection<MatchedBody> bodies) {
+        final List<MatchedBody> current = uncommitted.get();
+        final boolean first = current.isEmpty();
+        current.addAll(bodies);
+
+        if (first) {
+            transactionUtils.afterCompletion(committed -> {
+                if (committed) {
+                    index.addAll(current);
+                }
+                current.clear();
+            });
+        }
+    }
+
+    @Override
+    public final String save(final MatchedBody matchedBody) {
+        String id = dao.save(matchedBody);
+        indexAfterCommit(Collections.singletonList(matchedBody));
+        return id;
+    }
+
+    @Override
+    public final List<String> saveAll(final Collection<MatchedBody> matchedBodies) {
+        List<String> ids = dao.saveAll(matchedBodies);
+        indexAfterCommit(matchedBodies);
+        return ids;
+    }
+
+    @Override
+    public final List<MatchedBody> getMine(final Integer page) {
+        return dao.getMine(page);
+    }
+
+    @Override
+    public final Stream<MatchedBody> streamMine() {
+        return dao.streamMine();
+    }
+
+    @Override
+    public final Stream<MatchedBody> streamPoolBodies() {
+        return dao.streamPoolBodies();
+    }
+
+    @Override
+    public final MatchedBody getById(final String id) {
+        return dao.getById(id);
+    }
+
+    @Override
+    public final List<MatchedBody> getMine(final String name, final String version, final String fromDate,
+                                           final String toDate) {
+        return dao.getMine(name, version, fromDate, toDate);
+    }
+
+    @Override
+    public final MatchedBody getByEtalonId(final String id) {
+        return dao.getByEtalonId(id);
+    }
+
+    @Override
+    public final List<MatchedBody> getForResend(final String name, final String version) {
+        return dao.getForResend(name, version);
+    }
+
+    @Override
+    public final Stream<String> streamGroupIdsForResend(final String name, final String version) {
+        return dao.streamGroupIdsForResend(name, version);
+    }
+
+    @Override
+    public final List<String> getEtalonGroupIds() {
+        return dao.getEtalonGroupIds();
+    }
+
+    @Override
+    public final Map<String, String> getHashAndGroupIds() {
+        return dao.getHashAndGroupIds();
+    }
+
+    @Override
+    public final List<String> getEtalonGroupIds(final LocalDateTime modifiedAfter) {
+        return dao.getEtalonGroupIds(modifiedAfter);
+    }
+
+    @Override
+    public final Map<String, String> getHashAndGroupIds(final LocalDateTime modifiedAfter) {
+        return dao.getHashAndGroupIds(modifiedAfter);
+    }
+
+    @Override
+    public final List<MatchedBody> getByNameAndRole(final String name, final BodyType role) {
+        return dao.getByNameAndRole(name, role);
+    }
+
+    @Override
+    public final List<MatchedBody> getByGroupId(final String groupId) {
+        return dao.getByGroupId(groupId);
+    }
+
+    @Override
+    public final List<MatchedBody> getByIds(final List<String> ids) {
+        return dao.getByIds(ids);
+    }
+
+    @Override
+    public final List<MatchedBody> getByGroupIds(final Collection<String> groupIds) {
+        return dao.getByGroupIds(groupIds);
+    }
+
+    @Override
+    public final List<MatchedBody> getMineByHash(final String hash) {
+        return dao.getMineByHash(hash);
+    }
+
+    @Override
+    public final List<MatchedBody> getByHash(final String hash) {
+        return dao.getByHash(hash);
+    }
+
+    @Override
+    public final String getGroupIdByHash(final String hash) {
+        return dao.getGroupIdByHash(hash);
+    }
+
+    @Override
+    public final MatchedBody getEmptyInstance() {
+        return dao.getEmptyInstance();
+    }
+
+    @Override
+    public final List<MatchedGroupInfo> getGroupsInfo(final List<String> groups) {
+        return dao.getGroupsInfo(groups);
+    }
+}
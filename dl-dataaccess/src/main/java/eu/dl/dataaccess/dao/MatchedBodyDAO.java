@@ -1,7 +1,10 @@
 package eu.dl.dataaccess.dao;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 import eu.dl.dataaccess.dto.codetables.BodyType;
 import eu.dl.dataaccess.dto.matched.MatchedBody;
@@ -25,6 +28,16 @@ public interface MatchedBodyDAO<T extends MatchedBody>
      */
     String save(T matchedBody);
 
+    /**
+     * Saves given bodies to persistent storage in batches.
+     *
+     * @param matchedBodies
+     *            matched bodies to be saved
+     *
+     * @return Ids of saved matched bodies in the same order as the bodies
+     */
+    List<String> saveAll(Collection<T> matchedBodies);
+
     /**
      * Returns the object by given id.
      *
@@ -52,6 +65,34 @@ public interface MatchedBodyDAO<T extends MatchedBody>
      */
     List<T> getMine(String name, String version, String fromDate, String toDate);
 
+    /**
+     * Returns objects which have been created by the particular version of the matcher (or its additional matchers).
+     * The result is paged with default page size.
+     *
+     * @param page
+     *            order of the page in the result (for first page set 0)
+     *
+     * @return list of objects
+     */
+    List<T> getMine(Integer page);
+
+    /**
+     * Returns lazily loaded stream of objects which have been created by the particular version of the matcher (or its
+     * additional matchers) ordered by processing order and id. The objects are loaded by keyset pagination.
+     *
+     * @return stream of objects
+     */
+    Stream<T> streamMine();
+
+    /**
+     * Returns lazily loaded stream of all objects searched by the pools for exact and approximate matching, i.e.
+     * objects modified by the particular version of the matcher or created by its additional matchers, ordered by id.
+     * The objects are loaded by keyset pagination.
+     *
+     * @return stream of objects
+     */
+    Stream<T> streamPoolBodies();
+
     /**
      * Returns object with the same etalon id.
      *
@@ -73,6 +114,18 @@ public interface MatchedBodyDAO<T extends MatchedBody>
      * @return set of objects with only one attribute id and one attribute group ID having set.
      */
     List<T> getForResend(String name, String version);
+
+    /**
+     * Same as {@link MatchedBodyDAO#getForResend(String, String)} but returns only group ids as a stream read by a
+     * database cursor, so the group ids aren't loaded into memory at once. The stream has to be closed.
+     *
+     * @param name
+     *            matcher name
+     * @param version
+     *            matcher version
+     * @return stream of distinct group ids
+     */
+    Stream<String> streamGroupIdsForResend(String name, String version);
     
     /**
      * Returns ids of groups with etalon entry.
@@ -88,6 +141,24 @@ public interface MatchedBodyDAO<T extends MatchedBody>
      */
     Map<String, String> getHashAndGroupIds();
 
+    /**
+     * Returns ids of groups with etalon entry modified after the given time.
+     *
+     * @param modifiedAfter
+     *            only entries modified after this time are considered, null means all entries
+     * @return found group ids
+     */
+    List<String> getEtalonGroupIds(LocalDateTime modifiedAfter);
+
+    /**
+     * Returns hashs and group pairs of entries modified after the given time.
+     *
+     * @param modifiedAfter
+     *            only entries modified after this time are considered, null means all entries
+     * @return found hashes and group ids
+     */
+    Map<String, String> getHashAndGroupIds(LocalDateTime modifiedAfter);
+
     /**
      * Returns list of bodies with the given name and role.
      *
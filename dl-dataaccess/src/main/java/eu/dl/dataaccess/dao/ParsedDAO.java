@@ -2,6 +2,7 @@ package eu.dl.dataaccess.dao;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 import eu.dl.dataaccess.dto.parsed.Parsable;
 
@@ -52,6 +53,23 @@ public interface ParsedDAO<T extends Parsable> {
      */
     List<T> getMine(String name, String version, String fromDate, String toDate);
 
+    /**
+     * Same as {@link ParsedDAO#getMine(String, String, String, String)} but returns only ids as a stream read by
+     * a database cursor, so the ids aren't loaded into memory at once. The stream has to be closed.
+     *
+     * @param name
+     *            parser name
+     * @param version
+     *            parser version
+     * @param fromDate
+     *            from date
+     * @param toDate
+     *            to date
+     *
+     * @return stream of ids
+     */
+    Stream<String> streamMineIds(String name, String version, String fromDate, String toDate);
+
     /**
      * Returns objects which has been modified after timestamp. The result is paged with {@code pageSize} records per page.
      *
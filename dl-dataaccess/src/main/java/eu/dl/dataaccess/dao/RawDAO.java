@@ -1,6 +1,7 @@
 package eu.dl.dataaccess.dao;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 import eu.dl.dataaccess.dto.raw.Raw;
 
@@ -61,6 +62,23 @@ public interface RawDAO<T extends Raw> {
      */
     List<T> getMine(String name, String version, String fromDate, String toDate);
 
+    /**
+     * Same as {@link RawDAO#getMine(String, String, String, String)} but returns only ids as a stream read by
+     * a database cursor, so the ids aren't loaded into memory at once. The stream has to be closed.
+     *
+     * @param name
+     *            downloader name
+     * @param version
+     *            downloader version
+     * @param fromDate
+     *            from date
+     * @param toDate
+     *            to date
+     *
+     * @return stream of ids
+     */
+    Stream<String> streamMineIds(String name, String version, String fromDate, String toDate);
+
     /**
      * Returns new instance of T.
      *
@@ -1,5 +1,7 @@
 package eu.dl.dataaccess.dao;
 
+import java.util.function.Consumer;
+
 /**
  * Allows to work with transactions for underlying connection without dependency
  * on current DAO implementation.
@@ -24,4 +26,71 @@ public interface TransactionUtils {
      * Rollbacks transaction.
      */
     void rollback();
+
+    /**
+     * Registers action which is run once the current transaction is completed. The action gets true in case the
+     * transaction was successfully committed and false in case it was rolled back or closed without commit. The
+     * default implementation, used when there is no transaction handling, runs the action immediately as committed.
+     *
+     * @param action
+     *      action to be run after completion of the transaction
+     */
+    default void afterCompletion(final Consumer<Boolean> action) {
+        action.accept(true);
+    }
+
+    /**
+     * Registers action which is run once the current transaction is successfully committed. The action is discarded
+     * in case the transaction is rolled back or closed without commit.
+     *
+     * @param action
+     *      action to be run after commit
+     */
+    default void afterCommit(final Runnable action) {
+        afterCompletion(committed -> {
+            if (committed) {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Runs the work in a new transaction with its own connection. The transaction stays open once the work is done,
+     * so several transactions (e.g. of different threads) can be completed together by the caller. The current
+     * transaction of the thread is left untouched. In case that the work fails, the new transaction is rolled back
+     * and the exception is rethrown. The default implementation, used when there is no transaction handling, only
+     * runs the work.
+     *
+     * @param work
+     *      work to be done in the new transaction
+     * @return open transaction which has to be committed or rolled back by the caller
+     */
+    default Transaction runInNewTransaction(final Runnable work) {
+        work.run();
+        return new Transaction() {
+            @Override
+            public void commit() {
+            }
+
+            @Override
+            public void rollback() {
+            }
+        };
+    }
+
+    /**
+     * Transaction left open by {@link #runInNewTransaction(Runnable)}. The transaction can be completed from any
+     * thread, its connection is released once it is completed.
+     */
+    interface Transaction {
+        /**
+         * Commits the transaction.
+         */
+        void commit();
+
+        /**
+         * Rollbacks the transaction.
+         */
+        void rollback();
+    }
 }
@@ -1,18 +1,19 @@
 package eu.dl.dataaccess.dao.jdbc;
 
-import com.fasterxml.jackson.annotation.JsonInclude.Include;
-import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import eu.dl.core.config.Config;
+import eu.dl.dataaccess.codec.Codec;
+import eu.dl.dataaccess.codec.CodecFactory;
 import eu.dl.dataaccess.dao.BaseDAO;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.commons.text.StringEscapeUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.sql.Array;
 import java.sql.Connection;
-import java.text.SimpleDateFormat;
+import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -34,7 +35,10 @@ public abstract class BaseJdbcDAO<T> implements BaseDAO<T> {
 
     protected List<Pair<String, String>> additionalWorkers;
 
-    protected final ObjectMapper mapper;
+    /**
+     * Codec of the stored data, the only (de)serializer of the data column.
+     */
+    protected final Codec codec;
 
     protected final String schema;
 
@@ -48,6 +52,16 @@ public abstract class BaseJdbcDAO<T> implements BaseDAO<T> {
      */
     protected int pageSize;
 
+    /**
+     * Default number of statements sent to the database in one batch.
+     */
+    public static final Integer DEFAULT_BATCH_SIZE = 500;
+
+    /**
+     * Number of statements sent to the database in one batch.
+     */
+    protected int batchSize;
+
     /**
      * Transaction utils used to provide connection etc.
      */
@@ -61,16 +75,13 @@ public abstract class BaseJdbcDAO<T> implements BaseDAO<T> {
 
         schema = config.getParam("jdbc.schema");
 
-        mapper = new ObjectMapper();
-        mapper.enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
-        mapper.registerModule(new JavaTimeModule());
-        mapper.setDateFormat(new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'"));
-        mapper.setSerializationInclusion(Include.NON_NULL);
-
-        mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        codec = CodecFactory.getDTOCodec();
 
         Integer pageSizeParam = config.getParamValueAs("jdbc.pageSize", Integer::valueOf);
         pageSize = pageSizeParam != null ? pageSizeParam : DEFAULT_PAGE_SIZE;
+
+        Integer batchSizeParam = config.getParamValueAs("jdbc.batchSize", Integer::valueOf);
+        batchSize = batchSizeParam != null ? batchSizeParam : DEFAULT_BATCH_SIZE;
     }
 
     /**
@@ -171,10 +182,47 @@ public abstract class BaseJdbcDAO<T> implements BaseDAO<T> {
         return result;
     }
 
+    /**
+     * Creates JSON object with one string attribute. The result is meant to be bound as a parameter of the jsonb
+     * containment operator ({@code data @> ?::jsonb}), so the statement text doesn't depend on the value.
+     *
+     * @param key
+     *         attribute name
+     * @param value
+     *         attribute value, null is replaced by empty string
+     *
+     * @return JSON string
+     */
+    protected final String toJsonParam(final String key, final String value) {
+        return JsonNodeFactory.instance.objectNode().put(key, value == null ? "" : value).toString();
+    }
+
+    /**
+     * Creates SQL text array. The result is meant to be bound as a parameter of {@code = ANY(?)}, so the statement
+     * text doesn't depend on the number of values.
+     *
+     * @param values
+     *         array values
+     *
+     * @return SQL array
+     * @throws SQLException
+     *         in case the array can't be created
+     */
+    protected final Array toSqlArray(final Collection<String> values) throws SQLException {
+        return getConnection().createArrayOf("text", values.toArray());
+    }
+
     /**
      * @return page size
      */
     public final int getPageSize() {
         return pageSize;
     }
+
+    /**
+     * @return batch size
+     */
+    public final int getBatchSize() {
+        return batchSize;
+    }
 }
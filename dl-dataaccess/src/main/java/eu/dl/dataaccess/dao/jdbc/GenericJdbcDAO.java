@@ -1,25 +1,36 @@
 package eu.dl.dataaccess.dao.jdbc;
 
-import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import eu.dl.core.UnrecoverableException;
 import eu.dl.dataaccess.dao.GenericDAO;
 import eu.dl.dataaccess.dto.StorableDTO;
 
-import java.io.IOException;
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
 import java.sql.Timestamp;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static eu.dl.dataaccess.dto.codetables.BodyIdentifier.Type.ORGANIZATION_ID;
 
@@ -31,6 +42,11 @@ import static eu.dl.dataaccess.dto.codetables.BodyIdentifier.Type.ORGANIZATION_I
  */
 public abstract class GenericJdbcDAO<T extends StorableDTO> extends BaseJdbcDAO<T> implements GenericDAO<T> {
 
+    /**
+     * Maximal number of values bound as one {@code = ANY(?)} array parameter.
+     */
+    private static final int ANY_PAGE_SIZE = 1000;
+
     /**
      * Gets tenders for a specific country.
      *
@@ -42,12 +58,12 @@ public abstract class GenericJdbcDAO<T extends StorableDTO> extends BaseJdbcDAO<
     public final List<T> getByCountry(final String countryCode, final Integer page, final Integer pageSize) {
         try {
             PreparedStatement statement = getConnection().prepareStatement(
-                    "SELECT * FROM " + getTableWithSchema() + " WHERE data ->> 'country' = '" +
-                            sanitizeForJsonString(countryCode) + "' ORDER BY modified ASC LIMIT ? " +
-                            "OFFSET ?");
+                    "SELECT * FROM " + getTableWithSchema() + " WHERE data ->> 'country' = ?"
+                            + " ORDER BY modified ASC LIMIT ? OFFSET ?");
 
-            statement.setInt(1, pageSize);
-            statement.setInt(2, page * pageSize);
+            statement.setString(1, countryCode);
+            statement.setInt(2, pageSize);
+            statement.setInt(3, page * pageSize);
             ResultSet rs = statement.executeQuery();
 
             List<T> result = new ArrayList<T>();
@@ -89,12 +105,13 @@ public abstract class GenericJdbcDAO<T extends StorableDTO> extends BaseJdbcDAO<
     public final List<T> getByCountry(final String countryCode, final Integer page, final String createdBy, final Integer pageSize) {
         try {
             PreparedStatement statement = getConnection().prepareStatement("SELECT * FROM " + getTableWithSchema()
-                + " WHERE data ->> 'country' = '" + sanitizeForJsonString(countryCode) + "' AND createdby = ?"
+                + " WHERE data ->> 'country' = ? AND createdby = ?"
                 + " ORDER BY modified ASC LIMIT ? OFFSET ?");
 
-            statement.setString(1, createdBy);
-            statement.setInt(2, pageSize);
-            statement.setInt(3, page * pageSize);
+            statement.setString(1, countryCode);
+            statement.setString(2, createdBy);
+            statement.setInt(3, pageSize);
+            statement.setInt(4, page * pageSize);
             ResultSet rs = statement.executeQuery();
 
             List<T> result = new ArrayList<>();
@@ -135,9 +152,9 @@ public abstract class GenericJdbcDAO<T extends StorableDTO> extends BaseJdbcDAO<
     public final List<T> getByGroupId(final String groupId) {
         try {
             PreparedStatement statement = getConnection().prepareStatement(
-                    "SELECT * FROM " + getTableWithSchema() + " WHERE data @> '{ \"groupId\":\"" +
-                            sanitizeForJsonString(
-                            groupId) + "\"}' ");
+                    "SELECT * FROM " + getTableWithSchema() + " WHERE data @> ?::jsonb");
+
+            statement.setString(1, toJsonParam("groupId", groupId));
 
             ResultSet rs = statement.executeQuery();
 
@@ -172,26 +189,16 @@ public abstract class GenericJdbcDAO<T extends StorableDTO> extends BaseJdbcDAO<
         try {
 
             List<T> result = new ArrayList<T>();
-            Integer size = groupIds.size();
+            List<String> list = groupIds.stream().filter(Objects::nonNull).collect(Collectors.toList());
+            Integer size = list.size();
             Integer counter = 0;
-            Integer pageSize = 200;
-            ArrayList<String> list = new ArrayList<String>(groupIds);
-
-            while (counter < size) {
-                String condition = new String();
-
-                for (String groupId : list.subList(counter, Integer.min(size, counter + pageSize))) {
-                    if (groupId != null) {
-                        if (!condition.isEmpty()) {
-                            condition = condition + " OR ";
-                        }
+            Integer pageSize = ANY_PAGE_SIZE;
 
-                        condition = condition + "data->>'groupId' = '" + sanitizeForJsonString(groupId) + "' ";
-                    }
-                }
+            PreparedStatement statement = getConnection().prepareStatement(
+                    "SELECT * FROM " + getTableWithSchema() + " WHERE data->>'groupId' = ANY(?)");
 
-                PreparedStatement statement = getConnection().prepareStatement(
-                        "SELECT * FROM " + getTableWithSchema() + " WHERE " + condition);
+            while (counter < size) {
+                statement.setArray(1, toSqlArray(list.subList(counter, Integer.min(size, counter + pageSize))));
 
                 ResultSet rs = statement.executeQuery();
 
@@ -200,12 +207,13 @@ public abstract class GenericJdbcDAO<T extends StorableDTO> extends BaseJdbcDAO<
                 }
 
                 rs.close();
-                statement.close();
                 logger.debug("Selected {} bodies from {} to {}", pageSize, counter,
                         Integer.min(size, counter + pageSize));
 
                 counter = counter + pageSize;
             }
+            statement.close();
+
             return result;
         } catch (Exception e) {
             logger.error("Unable to perform query, because of of {}", e);
@@ -220,63 +228,19 @@ public abstract class GenericJdbcDAO<T extends StorableDTO> extends BaseJdbcDAO<
                 PreparedStatement statement = null;
 
                 // generate now stamp
-                LocalDateTime now = LocalDateTime.now();
-                Timestamp timestamp = Timestamp.valueOf(now);
+                Timestamp timestamp = Timestamp.valueOf(LocalDateTime.now());
 
                 if (t.getId() == null) {
-                    // insert
-                    statement = getConnection().prepareStatement(
-                            "INSERT INTO " + getTableWithSchema() + " (id, created, createdBy, createdByVersion, " +
-                                    "modified, modifiedBy, modifiedByVersion, data)" + " VALUES (?, ?, ?, ?, ?, ?, ?,"
-                                    + "" + "" + "" + "" + "" + "" + "" + "" + " ?)",
-                            Statement.RETURN_GENERATED_KEYS);
-
-                    // generate id and populate data
-                    t.setId(UUID.randomUUID().toString());
-                    t.setCreatedBy(getWorkerName());
-                    t.setCreatedByVersion(getWorkerVersion());
-                    t.setCreated(timestamp.toLocalDateTime());
-                    t.setModifiedBy(getWorkerName());
-                    t.setModifiedByVersion(getWorkerVersion());
-                    t.setModified(timestamp.toLocalDateTime());
-
-                    statement.setString(1, t.getId());
-                    statement.setTimestamp(2, timestamp);
-                    statement.setString(3, getWorkerName());
-                    statement.setString(4, getWorkerVersion());
-                    statement.setTimestamp(5, timestamp);
-                    statement.setString(6, getWorkerName());
-                    statement.setString(7, getWorkerVersion());
-                    statement.setString(8, serializeToJson(t));
-
-                    // execute insert ad get primary key returned
-                    statement.executeUpdate();
-                    ResultSet rs = statement.getGeneratedKeys();
-                    if (rs.next()) {
-                        t.setId(rs.getString(1));
-                    }
-                    rs.close();
+                    // insert, id is generated here so there is no need to ask for generated keys
+                    statement = getConnection().prepareStatement(getInsertQuery());
+                    populateInsertStatement(statement, t, timestamp);
                 } else {
                     // update
-                    statement = getConnection().prepareStatement(
-                            "UPDATE " + getTableWithSchema() + " SET modified = ? , modifiedBy = ?, " +
-                                    "modifiedByVersion" + " = ?, data = ? WHERE id = ?;");
-
-                    // populate data for json
-                    t.setModifiedBy(getWorkerName());
-                    t.setModifiedByVersion(getWorkerVersion());
-                    t.setModified(timestamp.toLocalDateTime());
-
-                    statement.setTimestamp(1, timestamp);
-                    statement.setString(2, getWorkerName());
-                    statement.setString(3, getWorkerVersion());
-                    statement.setString(4, serializeToJson(t));
-                    statement.setString(5, t.getId());
-
-                    // execute insert ad get primary key returned
-                    statement.executeUpdate();
+                    statement = getConnection().prepareStatement(getUpdateQuery());
+                    populateUpdateStatement(statement, t, timestamp);
                 }
 
+                statement.executeUpdate();
                 statement.close();
 
                 return t.getId();
@@ -290,6 +254,152 @@ public abstract class GenericJdbcDAO<T extends StorableDTO> extends BaseJdbcDAO<
         }
     }
 
+    @Override
+    public final List<String> saveAll(final Collection<T> items) {
+        if (items == null || items.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        if (items.stream().anyMatch(n -> n == null)) {
+            logger.error("Unable to save null");
+            throw new UnrecoverableException("Unable to save null!");
+        }
+
+        try {
+            PreparedStatement insert = null;
+            PreparedStatement update = null;
+            int insertCount = 0;
+            int updateCount = 0;
+
+            // all items share the same now stamp
+            Timestamp timestamp = Timestamp.valueOf(LocalDateTime.now());
+
+            List<String> result = new ArrayList<>();
+            for (T t : items) {
+                if (t.getId() == null) {
+                    if (insert == null) {
+                        insert = getConnection().prepareStatement(getInsertQuery());
+                    }
+
+                    populateInsertStatement(insert, t, timestamp);
+                    insert.addBatch();
+                    if (++insertCount % getBatchSize() == 0) {
+                        insert.executeBatch();
+                    }
+                } else {
+                    if (update == null) {
+                        update = getConnection().prepareStatement(getUpdateQuery());
+                    }
+
+                    populateUpdateStatement(update, t, timestamp);
+                    update.addBatch();
+                    if (++updateCount % getBatchSize() == 0) {
+                        update.executeBatch();
+                    }
+                }
+
+                result.add(t.getId());
+            }
+
+            if (insert != null) {
+                if (insertCount % getBatchSize() != 0) {
+                    insert.executeBatch();
+                }
+                insert.close();
+            }
+
+            if (update != null) {
+                if (updateCount % getBatchSize() != 0) {
+                    update.executeBatch();
+                }
+                update.close();
+            }
+
+            logger.debug("Saved {} new and {} updated items in batches of {}", insertCount, updateCount,
+                getBatchSize());
+
+            return result;
+        } catch (SQLException e) {
+            logger.error("Unable to perform query, because of {}", e);
+            throw new UnrecoverableException("Unable to perform query.", e);
+        }
+    }
+
+    /**
+     * @return SQL query used to insert new item
+     */
+    private String getInsertQuery() {
+        return "INSERT INTO " + getTableWithSchema() + " (id, created, createdBy, createdByVersion, modified, "
+            + "modifiedBy, modifiedByVersion, data) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    }
+
+    /**
+     * @return SQL query used to update existing item
+     */
+    private String getUpdateQuery() {
+        return "UPDATE " + getTableWithSchema() + " SET modified = ? , modifiedBy = ?, modifiedByVersion = ?, "
+            + "data = ? WHERE id = ?;";
+    }
+
+    /**
+     * Generates id, populates metadata of the new item and sets parameters of the insert statement.
+     *
+     * @param statement
+     *         insert statement
+     * @param t
+     *         item to be inserted
+     * @param timestamp
+     *         now stamp
+     * @throws SQLException
+     *         in case that setting of the parameters fails
+     */
+    private void populateInsertStatement(final PreparedStatement statement, final T t, final Timestamp timestamp)
+        throws SQLException {
+        // generate id and populate data
+        t.setId(UUID.randomUUID().toString());
+        t.setCreatedBy(getWorkerName());
+        t.setCreatedByVersion(getWorkerVersion());
+        t.setCreated(timestamp.toLocalDateTime());
+        t.setModifiedBy(getWorkerName());
+        t.setModifiedByVersion(getWorkerVersion());
+        t.setModified(timestamp.toLocalDateTime());
+
+        statement.setString(1, t.getId());
+        statement.setTimestamp(2, timestamp);
+        statement.setString(3, getWorkerName());
+        statement.setString(4, getWorkerVersion());
+        statement.setTimestamp(5, timestamp);
+        statement.setString(6, getWorkerName());
+        statement.setString(7, getWorkerVersion());
+        statement.setString(8, serializeToJson(t));
+    }
+
+    /**
+     * Populates metadata of the existing item and sets parameters of the update statement.
+     *
+     * @param statement
+     *         update statement
+     * @param t
+     *         item to be updated
+     * @param timestamp
+     *         now stamp
+     * @throws SQLException
+     *         in case that setting of the parameters fails
+     */
+    private void populateUpdateStatement(final PreparedStatement statement, final T t, final Timestamp timestamp)
+        throws SQLException {
+        // populate data for json
+        t.setModifiedBy(getWorkerName());
+        t.setModifiedByVersion(getWorkerVersion());
+        t.setModified(timestamp.toLocalDateTime());
+
+        statement.setTimestamp(1, timestamp);
+        statement.setString(2, getWorkerName());
+        statement.setString(3, getWorkerVersion());
+        statement.setString(4, serializeToJson(t));
+        statement.setString(5, t.getId());
+    }
+
     @Override
     public final T getById(final String id) {
         try {
@@ -325,17 +435,10 @@ public abstract class GenericJdbcDAO<T extends StorableDTO> extends BaseJdbcDAO<
         }
 
         try {
-            StringBuilder sql = new StringBuilder("SELECT * FROM " + getTableWithSchema() + " WHERE id IN (");
-
-            sql.append(ids.stream()
-                    .map(id -> "'" + sanitize(id) + "'")
-                    .collect(Collectors.joining(",")));
-
-            sql.append(");");
-
-            PreparedStatement statement = getConnection().prepareStatement(sql.toString());
+            PreparedStatement statement = getConnection().prepareStatement(
+                    "SELECT * FROM " + getTableWithSchema() + " WHERE id = ANY(?)");
 
-            statement.executeQuery();
+            statement.setArray(1, toSqlArray(ids));
 
             ResultSet rs = statement.executeQuery();
 
@@ -373,7 +476,7 @@ public abstract class GenericJdbcDAO<T extends StorableDTO> extends BaseJdbcDAO<
             } else if (toDate != null) {
                 statement = getConnection().prepareStatement(
                         "SELECT id FROM " + getTableWithSchema() + " WHERE createdby = ? AND createdbyversion = ? "
-                                + "modified <= ? ORDER BY data->>'processingOrder'");
+                                + "AND modified <= ? ORDER BY data->>'processingOrder'");
                 statement.setString(3, toDate);
             } else {
                 statement = getConnection().prepareStatement(
@@ -404,6 +507,50 @@ public abstract class GenericJdbcDAO<T extends StorableDTO> extends BaseJdbcDAO<
         }
     }
 
+    @Override
+    public final Stream<String> streamMineIds(final String name, final String version, final String fromDate,
+                                              final String toDate) {
+        StringBuilder query = new StringBuilder("SELECT id FROM ").append(getTableWithSchema())
+            .append(" WHERE createdby = ? AND createdbyversion = ?");
+        List<Object> params = new ArrayList<>();
+        params.add(name);
+        params.add(version);
+
+        if (fromDate != null) {
+            query.append(" AND modified >= ?::timestamp");
+            params.add(fromDate);
+        }
+        if (toDate != null) {
+            query.append(" AND modified <= ?::timestamp");
+            params.add(toDate);
+        }
+        query.append(" ORDER BY data->>'processingOrder'");
+
+        return streamColumn(query.toString(), params, "id");
+    }
+
+    @Override
+    public final Stream<String> streamMineIdsByKeyset(final String name, final String version, final String fromDate,
+                                                      final String toDate) {
+        StringBuilder restriction = new StringBuilder("createdby = ? AND createdbyversion = ?");
+        List<Object> params = new ArrayList<>();
+        params.add(name);
+        params.add(version);
+
+        if (fromDate != null) {
+            restriction.append(" AND modified >= ?::timestamp");
+            params.add(fromDate);
+        }
+        if (toDate != null) {
+            restriction.append(" AND modified <= ?::timestamp");
+            params.add(toDate);
+        }
+
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(
+            new KeysetIterator<>("id", restriction.toString(), params, "COALESCE(data->>'processingOrder', '')",
+                rs -> rs.getString("id"), id -> id), Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
     /**
      * Returns objects with the same hash which have been stored by the particular version of the matcher.
      *
@@ -415,11 +562,12 @@ public abstract class GenericJdbcDAO<T extends StorableDTO> extends BaseJdbcDAO<
     public final List<T> getMineByHash(final String hash) {
         try {
             PreparedStatement statement = getConnection().prepareStatement(
-                    "SELECT * FROM " + getTableWithSchema() + " WHERE data @> '{ \"hash\":\"" + sanitize(
-                            hash) + "\"}' AND createdBy = ? AND createdbyversion = ? ORDER BY data->>'processingOrder'");
+                    "SELECT * FROM " + getTableWithSchema() + " WHERE data @> ?::jsonb"
+                            + " AND createdBy = ? AND createdbyversion = ? ORDER BY data->>'processingOrder'");
 
-            statement.setString(1, workerName);
-            statement.setString(2, workerVersion);
+            statement.setString(1, toJsonParam("hash", hash));
+            statement.setString(2, workerName);
+            statement.setString(3, workerVersion);
 
             ResultSet rs = statement.executeQuery();
 
@@ -507,12 +655,12 @@ public abstract class GenericJdbcDAO<T extends StorableDTO> extends BaseJdbcDAO<
 
         try {
             PreparedStatement statement = getConnection().prepareStatement(
-                    "SELECT * FROM " + getTableWithSchema() + " WHERE data @> '{ \"hash\":\"" + sanitize(
-                            hash) + "\"}' AND ( (createdBy = ? AND createdByVersion = ?) " +
-                            additionalWorkersCondition + ")");
+                    "SELECT * FROM " + getTableWithSchema() + " WHERE data @> ?::jsonb"
+                            + " AND ( (createdBy = ? AND createdByVersion = ?) " + additionalWorkersCondition + ")");
 
-            statement.setString(1, workerName);
-            statement.setString(2, workerVersion);
+            statement.setString(1, toJsonParam("hash", hash));
+            statement.setString(2, workerName);
+            statement.setString(3, workerVersion);
 
             ResultSet rs = statement.executeQuery();
 
@@ -544,13 +692,13 @@ public abstract class GenericJdbcDAO<T extends StorableDTO> extends BaseJdbcDAO<
 
         try {
             PreparedStatement statement = getConnection().prepareStatement(
-                    "SELECT DISTINCT data->>'groupId' AS group_id FROM " + getTableWithSchema() + " WHERE data @> '{ " +
-                            "\"hash\":\"" + sanitize(
-                            hash) + "\"}' AND ( (createdBy = ? AND createdByVersion = ?) " +
-                            additionalWorkersCondition + ")");
+                    "SELECT DISTINCT data->>'groupId' AS group_id FROM " + getTableWithSchema()
+                            + " WHERE data @> ?::jsonb"
+                            + " AND ( (createdBy = ? AND createdByVersion = ?) " + additionalWorkersCondition + ")");
 
-            statement.setString(1, workerName);
-            statement.setString(2, workerVersion);
+            statement.setString(1, toJsonParam("hash", hash));
+            statement.setString(2, workerName);
+            statement.setString(3, workerVersion);
 
             ResultSet rs = statement.executeQuery();
 
@@ -657,12 +805,14 @@ public abstract class GenericJdbcDAO<T extends StorableDTO> extends BaseJdbcDAO<
         try {
             String query = "SELECT * FROM " + getTableWithSchema() + " WHERE modified > ? ";
 
-            if (createdBy!= null && !createdBy.isEmpty()) {
-                query = query + " AND createdby = '" + sanitize(createdBy) + "' ";
+            final boolean hasCreatedBy = createdBy != null && !createdBy.isEmpty();
+            if (hasCreatedBy) {
+                query = query + " AND createdby = ? ";
             }
 
-            if (countryCode!= null && !countryCode.isEmpty()) {
-                query = query + " AND data ->> 'country' = '" + sanitize(countryCode) + "' ";
+            final boolean hasCountryCode = countryCode != null && !countryCode.isEmpty();
+            if (hasCountryCode) {
+                query = query + " AND data ->> 'country' = ? ";
             }
 
             query = query + " ORDER BY modified ASC LIMIT ? OFFSET ?";
@@ -670,9 +820,16 @@ public abstract class GenericJdbcDAO<T extends StorableDTO> extends BaseJdbcDAO<
 
             PreparedStatement statement = getConnection().prepareStatement(query);
 
-            statement.setTimestamp(1, Timestamp.valueOf(timestamp));
-            statement.setInt(2, pageSize);
-            statement.setInt(3, page * pageSize);
+            int index = 1;
+            statement.setTimestamp(index++, Timestamp.valueOf(timestamp));
+            if (hasCreatedBy) {
+                statement.setString(index++, createdBy);
+            }
+            if (hasCountryCode) {
+                statement.setString(index++, countryCode);
+            }
+            statement.setInt(index++, pageSize);
+            statement.setInt(index, page * pageSize);
 
             ResultSet rs = statement.executeQuery();
 
@@ -705,17 +862,26 @@ public abstract class GenericJdbcDAO<T extends StorableDTO> extends BaseJdbcDAO<
         try {
             String query = "SELECT count(*) as total FROM " + getTableWithSchema() + " WHERE modified > ? ";
 
-            if (createdBy!= null && !createdBy.isEmpty()) {
-                query = query + " AND createdby = '" + sanitize(createdBy) + "' ";
+            final boolean hasCreatedBy = createdBy != null && !createdBy.isEmpty();
+            if (hasCreatedBy) {
+                query = query + " AND createdby = ? ";
             }
 
-            if (countryCode!= null && !countryCode.isEmpty()) {
-                query = query + " AND data ->> 'country' = '" + sanitize(countryCode) + "' ";
+            final boolean hasCountryCode = countryCode != null && !countryCode.isEmpty();
+            if (hasCountryCode) {
+                query = query + " AND data ->> 'country' = ? ";
             }
 
             PreparedStatement statement = getConnection().prepareStatement(query);
 
-            statement.setTimestamp(1, Timestamp.valueOf(timestamp));
+            int index = 1;
+            statement.setTimestamp(index++, Timestamp.valueOf(timestamp));
+            if (hasCreatedBy) {
+                statement.setString(index++, createdBy);
+            }
+            if (hasCountryCode) {
+                statement.setString(index, countryCode);
+            }
 
             ResultSet rs = statement.executeQuery();
 
@@ -735,6 +901,206 @@ public abstract class GenericJdbcDAO<T extends StorableDTO> extends BaseJdbcDAO<
         }
     }
 
+    @Override
+    public final Stream<T> streamModifiedAfter(final LocalDateTime timestamp, final String createdBy,
+                                               final String countryCode) {
+        StringBuilder restriction = new StringBuilder("modified > ?");
+        List<Object> params = new ArrayList<>();
+        params.add(Timestamp.valueOf(timestamp));
+
+        if (createdBy != null && !createdBy.isEmpty()) {
+            restriction.append(" AND createdby = ?");
+            params.add(createdBy);
+        }
+
+        if (countryCode != null && !countryCode.isEmpty()) {
+            restriction.append(" AND data ->> 'country' = ?");
+            params.add(countryCode);
+        }
+
+        return streamByKeyset(restriction.toString(), params, "modified");
+    }
+
+    /**
+     * Returns lazily loaded stream of tenders for a specific country (and source) ordered by modification time and id.
+     *
+     * @see #streamByKeyset(String, List, String)
+     *
+     * @param countryCode country code
+     * @param createdBy createdBy, ignored if null
+     * @return stream of tenders
+     */
+    public final Stream<T> streamByCountry(final String countryCode, final String createdBy) {
+        StringBuilder restriction = new StringBuilder("data ->> 'country' = ?");
+        List<Object> params = new ArrayList<>();
+        params.add(countryCode);
+
+        if (createdBy != null) {
+            restriction.append(" AND createdby = ?");
+            params.add(createdBy);
+        }
+
+        return streamByKeyset(restriction.toString(), params, "modified");
+    }
+
+    @Override
+    public final Stream<T> streamBySourceAndVersion(final String name, final String version) {
+        List<Object> params = new ArrayList<>();
+        if (name.isEmpty()) {
+            return streamByKeyset("TRUE", params, "id");
+        }
+
+        params.add(name);
+        params.add(version);
+
+        // ids don't change, so the items can be updated while the stream is consumed
+        return streamByKeyset("createdby LIKE ? AND createdbyversion LIKE ?", params, "id");
+    }
+
+    /**
+     * Returns lazily loaded stream of objects which have been stored by the particular version of the worker (or its
+     * relative) ordered by processing order and id. Objects without processing order come first.
+     *
+     * @see #streamByKeyset(String, List, String)
+     *
+     * @return stream of objects
+     */
+    public final Stream<T> streamMine() {
+        List<Object> params = new ArrayList<>();
+        params.add(workerName);
+        params.add(workerVersion);
+
+        return streamByKeyset("((createdBy = ? AND createdByVersion = ?) " + prepareAdditionalWorkersCondition() + ")",
+            params, "COALESCE(data->>'processingOrder', '')");
+    }
+
+    /**
+     * Returns lazily loaded stream of items matching the restriction ordered by the sort key and id.
+     *
+     * The items are loaded in pages of {@link #getPageSize()} items. Each page continues after the sort key and id of
+     * the last item of the previous page (keyset pagination), so the cost of a page doesn't depend on its position in
+     * the result. Rows of the page are deserialized one by one as the stream is consumed. Each page is loaded by its
+     * own query on the current connection, the stream can be consumed across the transactions.
+     *
+     * @param restriction
+     *         SQL condition
+     * @param params
+     *         parameters of the condition
+     * @param sortKey
+     *         SQL expression used for ordering, must not be null for any item
+     *
+     * @return stream of items
+     */
+    protected final Stream<T> streamByKeyset(final String restriction, final List<Object> params,
+                                             final String sortKey) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(
+            new KeysetIterator<StoredRow, T>("*", restriction, params, sortKey, StoredRow::new, this::createFromRow),
+            Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Returns stream of values of one column of the query result. The rows are read by a server-side cursor in
+     * chunks of {@link #getPageSize()} rows, so the result isn't loaded into memory at once.
+     *
+     * The cursor lives in the transaction of the current connection, the autocommit is disabled until the stream is
+     * closed. The transaction mustn't be committed before the stream is consumed and the stream has to be closed.
+     *
+     * @param query
+     *         SQL query
+     * @param params
+     *         query parameters
+     * @param column
+     *         name of the returned column
+     *
+     * @return stream of the column values
+     */
+    protected final Stream<String> streamColumn(final String query, final List<Object> params, final String column) {
+        final Connection connection = getConnection();
+        final boolean autoCommit;
+        try {
+            autoCommit = connection.getAutoCommit();
+            // PostgreSQL driver uses cursor only when the autocommit is disabled
+            connection.setAutoCommit(false);
+        } catch (SQLException e) {
+            logger.error("Unable to perform query, because of {}", e);
+            throw new UnrecoverableException("Unable to perform query.", e);
+        }
+
+        PreparedStatement statement = null;
+        try {
+            statement = connection.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(getPageSize());
+
+            int index = 1;
+            for (Object param : params) {
+                statement.setObject(index++, param);
+            }
+
+            final CursorIterator iterator = new CursorIterator(statement.executeQuery(), column);
+            final PreparedStatement cursorStatement = statement;
+
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false)
+                .onClose(() -> {
+                    try {
+                        iterator.rs.close();
+                        cursorStatement.close();
+                        // returns the connection to the original mode, the read transaction is committed
+                        connection.setAutoCommit(autoCommit);
+                    } catch (SQLException e) {
+                        logger.error("Unable to close cursor, because of {}", e);
+                        throw new UnrecoverableException("Unable to close cursor.", e);
+                    }
+                });
+        } catch (SQLException | RuntimeException e) {
+            closeFailedCursor(connection, statement, autoCommit);
+            logger.error("Unable to perform query, because of {}", e);
+            throw new UnrecoverableException("Unable to perform query.", e);
+        }
+    }
+
+    /**
+     * Returns stream of distinct group ids of the items saved by the given worker, used to resend the groups. The
+     * group ids are read by a server-side cursor, see {@link #streamColumn(String, List, String)}.
+     *
+     * @param name
+     *         worker name
+     * @param version
+     *         worker version
+     *
+     * @return stream of group ids
+     */
+    protected final Stream<String> streamGroupIds(final String name, final String version) {
+        return streamColumn("SELECT DISTINCT data->>'groupId' AS groupId FROM " + getTableWithSchema()
+            + " WHERE modifiedby = ? AND modifiedbyversion = ?", Arrays.<Object>asList(name, version), "groupId");
+    }
+
+    /**
+     * Closes the statement of the cursor which failed to open and returns the connection to the original autocommit
+     * mode. The failed query aborted the transaction, so it is rolled back first. Failures are only logged, so they
+     * don't hide the original exception.
+     *
+     * @param connection
+     *         connection of the cursor
+     * @param statement
+     *         statement of the cursor, null if it wasn't prepared
+     * @param autoCommit
+     *         original autocommit mode of the connection
+     */
+    private void closeFailedCursor(final Connection connection, final PreparedStatement statement,
+                                   final boolean autoCommit) {
+        try {
+            if (statement != null) {
+                statement.close();
+            }
+            if (autoCommit) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            logger.error("Unable to close failed cursor, because of {}", e);
+        }
+    }
+
     /**
      * Creates item from result set.
      *
@@ -746,28 +1112,258 @@ public abstract class GenericJdbcDAO<T extends StorableDTO> extends BaseJdbcDAO<
      *         when retrieving of values fail
      */
     protected final T createFromResultSet(final ResultSet rs) throws SQLException {
+        return createFromRow(new StoredRow(rs));
+    }
+
+    /**
+     * Creates item from stored row.
+     *
+     * @param row
+     *         stored row
+     *
+     * @return created item
+     */
+    private T createFromRow(final StoredRow row) {
         T t = getEmptyInstance();
-        t.setId(rs.getString("id"));
-        t.setModified(rs.getTimestamp("modified").toLocalDateTime());
-        t.setModifiedBy(rs.getString("modifiedBy"));
-        t.setModifiedByVersion(rs.getString("modifiedByVersion"));
-        t.setCreated(rs.getTimestamp("created").toLocalDateTime());
-        t.setCreatedBy(rs.getString("createdBy"));
-        t.setCreatedByVersion(rs.getString("createdByVersion"));
-
-        String data = rs.getString("data");
-        try {
-            mapper.readerForUpdating(t).readValue(data);
-            logger.debug("Deserialized object {} with id {}", t, t.getId());
-        } catch (IOException e) {
-            logger.error("Unable to deserialize data from json exception {}", e);
-            throw new UnrecoverableException("Unable to deserialize data from json", e);
-        }
+        t.setId(row.id);
+        t.setModified(row.modified.toLocalDateTime());
+        t.setModifiedBy(row.modifiedBy);
+        t.setModifiedByVersion(row.modifiedByVersion);
+        t.setCreated(row.created.toLocalDateTime());
+        t.setCreatedBy(row.createdBy);
+        t.setCreatedByVersion(row.createdByVersion);
+
+        codec.decodeInto(row.data, t);
+        logger.debug("Deserialized object {} with id {}", t, t.getId());
         t.setData(null);
 
         return t;
     }
 
+    /**
+     * Columns of one stored item, the data are kept as JSON string until the item is created.
+     */
+    private static final class StoredRow {
+        private final String id;
+
+        private final Timestamp modified;
+
+        private final String modifiedBy;
+
+        private final String modifiedByVersion;
+
+        private final Timestamp created;
+
+        private final String createdBy;
+
+        private final String createdByVersion;
+
+        private final String data;
+
+        /**
+         * Reads the columns of the current row.
+         *
+         * @param rs
+         *         result set
+         * @throws SQLException
+         *         when retrieving of values fail
+         */
+        private StoredRow(final ResultSet rs) throws SQLException {
+            id = rs.getString("id");
+            modified = rs.getTimestamp("modified");
+            modifiedBy = rs.getString("modifiedBy");
+            modifiedByVersion = rs.getString("modifiedByVersion");
+            created = rs.getTimestamp("created");
+            createdBy = rs.getString("createdBy");
+            createdByVersion = rs.getString("createdByVersion");
+            data = rs.getString("data");
+        }
+    }
+
+    /**
+     * Iterator over the values of one column of the result set.
+     */
+    private final class CursorIterator implements Iterator<String> {
+        private final ResultSet rs;
+
+        private final String column;
+
+        private boolean fetched = false;
+
+        private boolean available = false;
+
+        /**
+         * @param rs
+         *         result set
+         * @param column
+         *         name of the column
+         */
+        private CursorIterator(final ResultSet rs, final String column) {
+            this.rs = rs;
+            this.column = column;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (!fetched) {
+                try {
+                    available = rs.next();
+                } catch (SQLException e) {
+                    logger.error("Unable to fetch rows, because of {}", e);
+                    throw new UnrecoverableException("Unable to fetch rows.", e);
+                }
+                fetched = true;
+            }
+            return available;
+        }
+
+        @Override
+        public String next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            fetched = false;
+            try {
+                return rs.getString(column);
+            } catch (SQLException e) {
+                logger.error("Unable to read column {}, because of {}", column, e);
+                throw new UnrecoverableException("Unable to read column.", e);
+            }
+        }
+    }
+
+    /**
+     * Reads value from the current row of the result set.
+     *
+     * @param <R>
+     *         class of the value
+     */
+    @FunctionalInterface
+    private interface RowReader<R> {
+        /**
+         * @param rs
+         *         result set
+         * @return value read from the current row
+         * @throws SQLException
+         *         when retrieving of values fail
+         */
+        R read(ResultSet rs) throws SQLException;
+    }
+
+    /**
+     * Iterator over the rows loaded by keyset pagination.
+     *
+     * @see #streamByKeyset(String, List, String)
+     *
+     * @param <R>
+     *         class of the row read from the result set
+     * @param <E>
+     *         class of the returned element
+     */
+    private final class KeysetIterator<R, E> implements Iterator<E> {
+        private final String columns;
+
+        private final String restriction;
+
+        private final List<Object> params;
+
+        private final String sortKey;
+
+        private final RowReader<R> reader;
+
+        private final Function<R, E> converter;
+
+        private final Deque<R> page = new ArrayDeque<>();
+
+        private Object lastSortValue;
+
+        private String lastId;
+
+        private boolean finished = false;
+
+        /**
+         * @param columns
+         *         selected columns, the id is always selected
+         * @param restriction
+         *         SQL condition
+         * @param params
+         *         parameters of the condition
+         * @param sortKey
+         *         SQL expression used for ordering
+         * @param reader
+         *         reads the row from the result set
+         * @param converter
+         *         converts the row to the returned element, called once the element is consumed
+         */
+        private KeysetIterator(final String columns, final String restriction, final List<Object> params,
+                               final String sortKey, final RowReader<R> reader, final Function<R, E> converter) {
+            this.columns = columns;
+            this.restriction = restriction;
+            this.params = params;
+            this.sortKey = sortKey;
+            this.reader = reader;
+            this.converter = converter;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (page.isEmpty() && !finished) {
+                loadPage();
+            }
+            return !page.isEmpty();
+        }
+
+        @Override
+        public E next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return converter.apply(page.poll());
+        }
+
+        /**
+         * Loads the page following the last loaded item.
+         */
+        private void loadPage() {
+            final boolean first = lastId == null;
+            final int size = getPageSize();
+            try {
+                PreparedStatement statement = getConnection().prepareStatement(
+                    "SELECT " + columns + ", " + sortKey + " AS keyset_sort FROM " + getTableWithSchema()
+                        + " WHERE " + restriction + (first ? "" : " AND (" + sortKey + ", id) > (?, ?)")
+                        + " ORDER BY " + sortKey + " ASC, id ASC LIMIT ?");
+
+                int index = 1;
+                for (Object param : params) {
+                    statement.setObject(index++, param);
+                }
+                if (!first) {
+                    statement.setObject(index++, lastSortValue);
+                    statement.setString(index++, lastId);
+                }
+                statement.setInt(index, size);
+
+                ResultSet rs = statement.executeQuery();
+
+                int count = 0;
+                while (rs.next()) {
+                    page.add(reader.read(rs));
+                    lastSortValue = rs.getObject("keyset_sort");
+                    lastId = rs.getString("id");
+                    count++;
+                }
+
+                rs.close();
+                statement.close();
+
+                finished = count < size;
+            } catch (SQLException e) {
+                logger.error("Unable to perform query, because of {}", e);
+                throw new UnrecoverableException("Unable to perform query.", e);
+            }
+        }
+    }
+
     /**
      * Prepares sql condition part for additional workers if there are any.
      *
@@ -883,19 +1479,9 @@ public abstract class GenericJdbcDAO<T extends StorableDTO> extends BaseJdbcDAO<
      * @return serialized json string
      */
     private String serializeToJson(final T t) {
-        try {
-            // sanitize the input first
-            t.setData(null);
-            ObjectWriter objectWriter = mapper.writerWithDefaultPrettyPrinter();
-            byte[] tWritten = objectWriter.writeValueAsBytes(t);
-
-            // Written json
-            String jsonData = new String(tWritten, "UTF-8");
-            return jsonData;
-        } catch (Exception e) {
-            logger.error("Unable to serialize data to json exception {}", e);
-            throw new UnrecoverableException("Unable to serialize data to json", e);
-        }
+        // sanitize the input first
+        t.setData(null);
+        return codec.encode(t);
     }
 
     @Override
@@ -1020,17 +1606,13 @@ public abstract class GenericJdbcDAO<T extends StorableDTO> extends BaseJdbcDAO<
         }
 
         try {
-            String restriction = hashes.stream()
-                .filter(n -> n != null)
-                .map(n -> String.format("'%s'", sanitize(n)))
-                .collect(Collectors.joining(","));
-
             PreparedStatement statement = getConnection().prepareStatement(
                 "SELECT data->>'hash' AS hash FROM " + getTableWithSchema() +
-                " WHERE createdBy = ? AND createdByVersion = ? AND data->>'hash' IN (" + restriction + ")");
+                " WHERE createdBy = ? AND createdByVersion = ? AND data->>'hash' = ANY(?)");
 
             statement.setString(1, workerName);
             statement.setString(2, workerVersion);
+            statement.setArray(3, toSqlArray(hashes.stream().filter(Objects::nonNull).collect(Collectors.toList())));
 
             ResultSet rs = statement.executeQuery();
 
@@ -1064,17 +1646,22 @@ public abstract class GenericJdbcDAO<T extends StorableDTO> extends BaseJdbcDAO<
         }
 
         try {
-            String restriction = ids.stream()
-                .map(n -> "data @> '{\"bodyIds\": [{\"id\":\"" + sanitizeForJsonString(n)
-                    + "\", \"type\":\"" + ORGANIZATION_ID.name() + "\"}]}'")
-                .collect(Collectors.joining(" OR "));
-
-            String workers = sources.stream()
-                .map(n -> "'" + sanitizeForJsonString(n) + "'")
-                .collect(Collectors.joining(", "));
+            // jsonb containment is GIN indexable only as a plain condition (not with ANY), one condition per id
+            String restriction = String.join(" OR ", Collections.nCopies(ids.size(), "data @> ?::jsonb"));
 
             PreparedStatement statement = getConnection().prepareStatement("SELECT * FROM " + getTableWithSchema() +
-                " WHERE createdby IN (" + workers + ") AND (" + restriction + ")");
+                " WHERE createdby = ANY(?) AND (" + restriction + ")");
+
+            statement.setArray(1, toSqlArray(sources));
+            int index = 2;
+            for (String id : ids) {
+                ObjectNode bodyId = JsonNodeFactory.instance.objectNode()
+                    .put("id", id == null ? "" : id)
+                    .put("type", ORGANIZATION_ID.name());
+                ObjectNode condition = JsonNodeFactory.instance.objectNode();
+                condition.putArray("bodyIds").add(bodyId);
+                statement.setString(index++, condition.toString());
+            }
 
             ResultSet rs = statement.executeQuery();
 
@@ -1103,9 +1690,14 @@ public abstract class GenericJdbcDAO<T extends StorableDTO> extends BaseJdbcDAO<
      */
     public final int[] getBodyGroupIdCounts(final String groupId) {
         try {
-            String gid = sanitizeForJsonString(groupId);
-            String buyerQuery = "data@>'{\"buyers\":[{\"groupId\": \"" + gid + "\"}]}'";
-            String supplierQuery = "data@>'{\"lots\":[{\"bids\": [{\"bidders\": [{\"groupId\": \"" + gid + "\"}]}]}]}'";
+            ObjectNode group = JsonNodeFactory.instance.objectNode().put("groupId", groupId == null ? "" : groupId);
+            ObjectNode buyer = JsonNodeFactory.instance.objectNode();
+            buyer.putArray("buyers").add(group);
+            ObjectNode supplier = JsonNodeFactory.instance.objectNode();
+            supplier.putArray("lots").addObject().putArray("bids").addObject().putArray("bidders").add(group);
+
+            String buyerQuery = "data @> ?::jsonb";
+            String supplierQuery = "data @> ?::jsonb";
 
             PreparedStatement statement = getConnection().prepareStatement(
                 "SELECT"
@@ -1115,7 +1707,12 @@ public abstract class GenericJdbcDAO<T extends StorableDTO> extends BaseJdbcDAO<
                     + " WHERE " + buyerQuery + " OR " + supplierQuery
             );
 
-            statement.executeQuery();
+            // in the order of the placeholders: buyer filter, (not) buyer and supplier filter, buyer or supplier
+            statement.setString(1, buyer.toString());
+            statement.setString(2, buyer.toString());
+            statement.setString(3, supplier.toString());
+            statement.setString(4, buyer.toString());
+            statement.setString(5, supplier.toString());
 
             ResultSet rs = statement.executeQuery();
 
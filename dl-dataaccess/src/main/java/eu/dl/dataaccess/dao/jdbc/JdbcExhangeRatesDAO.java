@@ -8,6 +8,7 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -22,8 +23,9 @@ public class JdbcExhangeRatesDAO extends GenericJdbcDAO<ExchangeRates> implement
     public final ExchangeRates getByDate(final LocalDate date) {
         try {
             PreparedStatement statement = getConnection().prepareStatement(
-                    "SELECT * FROM " + getTableWithSchema() + " WHERE data @> '{ \"date\":\"" +
-                            sanitizeForJsonString(date.format(DateTimeFormatter.ISO_LOCAL_DATE)) + "\"}' ");
+                    "SELECT * FROM " + getTableWithSchema() + " WHERE data @> ?::jsonb");
+
+            statement.setString(1, toJsonParam("date", date.format(DateTimeFormatter.ISO_LOCAL_DATE)));
 
             ResultSet rs = statement.executeQuery();
 
@@ -45,8 +47,26 @@ public class JdbcExhangeRatesDAO extends GenericJdbcDAO<ExchangeRates> implement
 
     @Override
     public final List<ExchangeRates> findAll() {
-        // TODO Auto-generated method stub
-        return null;
+        try {
+            PreparedStatement statement = getConnection().prepareStatement(
+                    "SELECT * FROM " + getTableWithSchema() + " ORDER BY data->>'date', id");
+
+            ResultSet rs = statement.executeQuery();
+
+            List<ExchangeRates> result = new ArrayList<>();
+
+            while (rs.next()) {
+                result.add(createFromResultSet(rs));
+            }
+
+            rs.close();
+            statement.close();
+
+            return result;
+        } catch (Exception e) {
+            logger.error("Unable to perform query, because of {}", e);
+            throw new UnrecoverableException("Unable to perform query.", e);
+        }
     }
 
     @Override
@@ -0,0 +1,141 @@
+package eu.dl.dataaccess.dao.jdbc;
+
+import org.apache.commons.dbcp2.BasicDataSource;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects metrics of the JDBC connection pool. Pool size is read from the pool itself, the borrow latency is recorded
+ * by {@link JdbcTransactionUtils} and the statement cache hit rate is summed from the statement pools which DBCP
+ * registers over JMX for each open connection (only when the pool has a JMX name and pools prepared statements).
+ */
+public final class JdbcPoolMetrics implements JdbcPoolMetricsMXBean {
+
+    private final BasicDataSource pool;
+
+    private final ObjectName statementPools;
+
+    private final LongAdder borrowCount = new LongAdder();
+
+    private final LongAdder borrowNanos = new LongAdder();
+
+    private final AtomicLong maxBorrowNanos = new AtomicLong();
+
+    /**
+     * Constructor.
+     *
+     * @param pool
+     *      monitored pool
+     * @param poolJmxName
+     *      JMX name of the pool, null if the pool isn't registered
+     */
+    JdbcPoolMetrics(final BasicDataSource pool, final String poolJmxName) {
+        this.pool = pool;
+        this.statementPools = getStatementPoolsName(poolJmxName);
+    }
+
+    /**
+     * @param poolJmxName
+     *      JMX name of the pool, null if the pool isn't registered
+     * @return pattern of the JMX names of the statement pools, null if the pool isn't registered or its name isn't
+     *      valid (the statement cache hit rate isn't available then)
+     */
+    private static ObjectName getStatementPoolsName(final String poolJmxName) {
+        if (poolJmxName == null) {
+            return null;
+        }
+
+        try {
+            return new ObjectName(poolJmxName + ",connectionpool=connections,connection=*,statementpool=statements");
+        } catch (MalformedObjectNameException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Records borrowing of a connection.
+     *
+     * @param nanos
+     *      time spent waiting for the connection in nanoseconds
+     */
+    void recordBorrow(final long nanos) {
+        borrowCount.increment();
+        borrowNanos.add(nanos);
+        maxBorrowNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    @Override
+    public long getBorrowCount() {
+        return borrowCount.sum();
+    }
+
+    @Override
+    public double getAverageBorrowMillis() {
+        final long count = borrowCount.sum();
+        return count == 0 ? 0 : toMillis(borrowNanos.sum()) / count;
+    }
+
+    @Override
+    public double getMaxBorrowMillis() {
+        return toMillis(maxBorrowNanos.get());
+    }
+
+    @Override
+    public int getNumActive() {
+        return pool.getNumActive();
+    }
+
+    @Override
+    public int getNumIdle() {
+        return pool.getNumIdle();
+    }
+
+    @Override
+    public int getMaxTotal() {
+        return pool.getMaxTotal();
+    }
+
+    @Override
+    public double getStatementCacheHitRate() {
+        if (statementPools == null) {
+            return Double.NaN;
+        }
+
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        long borrowed = 0;
+        long created = 0;
+        for (ObjectName name : server.queryNames(statementPools, null)) {
+            try {
+                borrowed += (Long) server.getAttribute(name, "BorrowedCount");
+                created += (Long) server.getAttribute(name, "CreatedCount");
+            } catch (JMException e) {
+                // connection closed in the meantime
+            }
+        }
+
+        return borrowed == 0 ? Double.NaN : 1 - (double) created / borrowed;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("active: %d, idle: %d, max: %d, borrowed: %d, avg borrow: %.2f ms, max borrow: %.2f ms,"
+                + " statement cache hit rate: %.3f", getNumActive(), getNumIdle(), getMaxTotal(), getBorrowCount(),
+            getAverageBorrowMillis(), getMaxBorrowMillis(), getStatementCacheHitRate());
+    }
+
+    /**
+     * @param nanos
+     *      nanoseconds
+     * @return milliseconds
+     */
+    private static double toMillis(final long nanos) {
+        return (double) nanos / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,42 @@
+package eu.dl.dataaccess.dao.jdbc;
+
+/**
+ * Metrics of the JDBC connection pool exported over JMX.
+ */
+public interface JdbcPoolMetricsMXBean {
+    /**
+     * @return number of connections borrowed from the pool
+     */
+    long getBorrowCount();
+
+    /**
+     * @return average time spent waiting for a connection in milliseconds
+     */
+    double getAverageBorrowMillis();
+
+    /**
+     * @return maximal time spent waiting for a connection in milliseconds
+     */
+    double getMaxBorrowMillis();
+
+    /**
+     * @return number of connections currently borrowed
+     */
+    int getNumActive();
+
+    /**
+     * @return number of idle connections in the pool
+     */
+    int getNumIdle();
+
+    /**
+     * @return maximal number of connections, negative for no limit
+     */
+    int getMaxTotal();
+
+    /**
+     * @return ratio of prepared statements served from the statement pools of the open connections, NaN in case the
+     *         statement pooling is disabled or no statement was prepared yet
+     */
+    double getStatementCacheHitRate();
+}
@@ -7,18 +7,40 @@ import org.apache.commons.dbcp2.BasicDataSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
- * Transaction handling for hibernate.
+ * Transaction handling for hibernate. Connections are thread-confined, each thread works with its own connection
+ * borrowed from the shared pool, so the workers consuming messages concurrently don't share transactions.
+ *
+ * The pool is configured by the {@code jdbc.pool.*} parameters, DBCP defaults are used for the missing ones. The pool
+ * and its metrics ({@link JdbcPoolMetricsMXBean}) are registered over JMX under {@code jdbc.pool.jmxName} and the
+ * metrics are logged every {@code jdbc.pool.metricsLogInterval} seconds if set.
  */
 public final class JdbcTransactionUtils implements TransactionUtils {
 
-    private Connection connection;
+    private final ThreadLocal<Connection> connection = new ThreadLocal<>();
+
+    /**
+     * Actions run after the completion of the current transaction of the thread.
+     */
+    private final ThreadLocal<List<Consumer<Boolean>>> completionActions = ThreadLocal.withInitial(ArrayList::new);
 
     private BasicDataSource connectionPool;
 
+    private JdbcPoolMetrics poolMetrics;
+
     private static JdbcTransactionUtils instance;
 
     private Logger logger;
@@ -42,6 +64,9 @@ public final class JdbcTransactionUtils implements TransactionUtils {
             connectionPool.setDriverClassName("org.postgresql.Driver");
             connectionPool.setUrl(config.getParam("jdbc.url"));
             connectionPool.setInitialSize(3);
+            configurePool();
+
+            initMetrics();
 
             logger.info("Successfully established database connection to database");
         } catch (Exception e) {
@@ -50,12 +75,96 @@ public final class JdbcTransactionUtils implements TransactionUtils {
         }
     }
 
+    /**
+     * Sets the configured pool parameters.
+     */
+    private void configurePool() {
+        setPoolParam("initialSize", Integer::valueOf, connectionPool::setInitialSize);
+        setPoolParam("maxTotal", Integer::valueOf, connectionPool::setMaxTotal);
+        setPoolParam("maxIdle", Integer::valueOf, connectionPool::setMaxIdle);
+        setPoolParam("minIdle", Integer::valueOf, connectionPool::setMinIdle);
+        setPoolParam("maxWaitMillis", Long::valueOf, connectionPool::setMaxWaitMillis);
+
+        // prepared statements pooling, the statements are cached per connection
+        setPoolParam("poolPreparedStatements", Boolean::valueOf, connectionPool::setPoolPreparedStatements);
+        setPoolParam("maxOpenPreparedStatements", Integer::valueOf, connectionPool::setMaxOpenPreparedStatements);
+
+        // eviction of idle connections
+        setPoolParam("timeBetweenEvictionRunsMillis", Long::valueOf, connectionPool::setTimeBetweenEvictionRunsMillis);
+        setPoolParam("minEvictableIdleTimeMillis", Long::valueOf, connectionPool::setMinEvictableIdleTimeMillis);
+        setPoolParam("maxConnLifetimeMillis", Long::valueOf, connectionPool::setMaxConnLifetimeMillis);
+
+        // validation, connection's isValid() is used if no query is set
+        setPoolParam("validationQuery", Function.identity(), connectionPool::setValidationQuery);
+        setPoolParam("validationQueryTimeout", Integer::valueOf, connectionPool::setValidationQueryTimeout);
+        setPoolParam("testOnBorrow", Boolean::valueOf, connectionPool::setTestOnBorrow);
+        setPoolParam("testWhileIdle", Boolean::valueOf, connectionPool::setTestWhileIdle);
+    }
+
+    /**
+     * Sets the pool parameter {@code jdbc.pool.<name>} if it is configured.
+     *
+     * @param name
+     *      parameter name
+     * @param parser
+     *      parameter value parser
+     * @param setter
+     *      pool setter
+     * @param <T>
+     *      parameter class
+     */
+    private <T> void setPoolParam(final String name, final Function<String, T> parser, final Consumer<T> setter) {
+        T value = config.getParamValueAs("jdbc.pool." + name, parser);
+        if (value != null) {
+            setter.accept(value);
+        }
+    }
+
+    /**
+     * Registers the pool and its metrics over JMX and schedules logging of the metrics. The metrics are collected even
+     * if they can't be registered over JMX (e.g. the name is already used by another pool in the same JVM), the
+     * failure is only logged.
+     */
+    private void initMetrics() {
+        String jmxName = config.getParam("jdbc.pool.jmxName");
+        if (jmxName == null) {
+            jmxName = "eu.dl.dataaccess:type=JdbcConnectionPool";
+        }
+        connectionPool.setJmxName(jmxName);
+
+        poolMetrics = new JdbcPoolMetrics(connectionPool, jmxName);
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(poolMetrics,
+                new ObjectName(jmxName + ",name=metrics"));
+        } catch (JMException e) {
+            logger.warn("Unable to register connection pool metrics over JMX, because of {}", e);
+        }
+
+        Long interval = config.getParamValueAs("jdbc.pool.metricsLogInterval", Long::valueOf);
+        if (interval != null && interval > 0) {
+            ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "jdbc-pool-metrics");
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.scheduleAtFixedRate(() -> logger.info("Connection pool {}", poolMetrics), interval, interval,
+                TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * @return metrics of the connection pool
+     */
+    public JdbcPoolMetricsMXBean getPoolMetrics() {
+        return poolMetrics;
+    }
+
     /**
      * Returns initialised utils.
      * 
      * @return utils
      */
-    public static JdbcTransactionUtils getInstance() {
+    public static synchronized JdbcTransactionUtils getInstance() {
         if (instance == null) {
             instance = new JdbcTransactionUtils();
         }
@@ -64,17 +173,20 @@ public final class JdbcTransactionUtils implements TransactionUtils {
     }
 
     /**
-     * Returns initialised entity manager.
+     * Returns connection bound to the current thread. In case that the thread has no open connection, new one is
+     * borrowed from the pool.
      * 
-     * @return entity manager
+     * @return connection
      */
     public Connection getConnection() {
         try {
-            if (connection != null && !connection.isClosed()) {
-                return connection;
+            Connection current = connection.get();
+            if (current != null && !current.isClosed()) {
+                return current;
             } else {
-                connection = connectionPool.getConnection();
-                return connection;
+                current = borrowConnection();
+                connection.set(current);
+                return current;
             }
         } catch (Exception e) {
             logger.error("Unable to return db connection caused by {}", e);
@@ -82,11 +194,123 @@ public final class JdbcTransactionUtils implements TransactionUtils {
         }
     }
 
+    /**
+     * Borrows new connection from the pool.
+     *
+     * @return connection
+     * @throws SQLException
+     *      in case the connection can't be borrowed
+     */
+    private Connection borrowConnection() throws SQLException {
+        long start = System.nanoTime();
+        Connection borrowed = connectionPool.getConnection();
+        poolMetrics.recordBorrow(System.nanoTime() - start);
+        return borrowed;
+    }
+
+    /**
+     * Runs the work in a new transaction with a connection borrowed from the pool. The new connection and its
+     * completion actions replace the ones of the current thread while the work runs, so the DAOs used by the work
+     * write into the new transaction. The connection of the thread is restored afterwards.
+     *
+     * @param work
+     *      work to be done in the new transaction
+     * @return open transaction which has to be committed or rolled back by the caller
+     */
+    @Override
+    public Transaction runInNewTransaction(final Runnable work) {
+        final Connection transaction;
+        try {
+            transaction = borrowConnection();
+            transaction.setAutoCommit(false);
+        } catch (SQLException ex) {
+            logger.error("Unable to begin transaction.");
+            throw new UnrecoverableException("Unable to begin transaction", ex);
+        }
+
+        final Connection previous = connection.get();
+        final List<Consumer<Boolean>> previousActions = completionActions.get();
+        final List<Consumer<Boolean>> actions = new ArrayList<>();
+        connection.set(transaction);
+        completionActions.set(actions);
+        try {
+            work.run();
+        } catch (RuntimeException ex) {
+            complete(transaction, actions, false);
+            throw ex;
+        } finally {
+            if (previous != null) {
+                connection.set(previous);
+            } else {
+                connection.remove();
+            }
+            completionActions.set(previousActions);
+        }
+
+        return new Transaction() {
+            @Override
+            public void commit() {
+                complete(transaction, actions, true);
+            }
+
+            @Override
+            public void rollback() {
+                complete(transaction, actions, false);
+            }
+        };
+    }
+
+    /**
+     * Commits or rollbacks the transaction opened by {@link #runInNewTransaction(Runnable)}, runs its completion
+     * actions and returns its connection to the pool in the autocommit mode.
+     *
+     * @param transaction
+     *      connection of the transaction
+     * @param actions
+     *      completion actions of the transaction
+     * @param commit
+     *      whether the transaction should be committed
+     */
+    private void complete(final Connection transaction, final List<Consumer<Boolean>> actions,
+                          final boolean commit) {
+        boolean committed = false;
+        try {
+            if (commit) {
+                transaction.commit();
+                committed = true;
+                logger.debug("Transaction({}) commited.", transaction.hashCode());
+            } else {
+                transaction.rollback();
+                logger.debug("Transaction({}) rollbacked.", transaction.hashCode());
+            }
+        } catch (SQLException ex) {
+            logger.error("Unable to complete transaction.");
+            throw new UnrecoverableException("Unable to complete transaction", ex);
+        } finally {
+            try {
+                transaction.setAutoCommit(true);
+                transaction.close();
+            } catch (SQLException ex) {
+                logger.error("Unable to close connection, because of {}", ex);
+            }
+
+            final List<Consumer<Boolean>> completed = new ArrayList<>(actions);
+            actions.clear();
+            for (Consumer<Boolean> action : completed) {
+                action.accept(committed);
+            }
+        }
+    }
+
     @Override
     public void close() {
         try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
+            Connection current = connection.get();
+            connection.remove();
+            // uncommitted work is rolled back when the connection is returned to the pool
+            runCompletionActions(false);
+            if (current != null && !current.isClosed()) {
+                current.close();
                 logger.debug("DB connection closed");
             }
         } catch (SQLException ex) {
@@ -104,24 +328,69 @@ public final class JdbcTransactionUtils implements TransactionUtils {
     @Override
     public void commit() {
         try {
-            if (connection != null && !connection.isClosed() && !connection.getAutoCommit()) {
-                connection.commit();
-                logger.debug("Transaction({}) commited.", connection.hashCode());
+            Connection current = connection.get();
+            if (current != null && !current.isClosed() && !current.getAutoCommit()) {
+                current.commit();
+                logger.debug("Transaction({}) commited.", current.hashCode());
             } else {
                 logger.trace("Transaction is not in commmitable mode.");
             }
         } catch (SQLException ex) {
+            runCompletionActions(false);
             logger.error("Unable to commit transaction.");
             throw new UnrecoverableException("Unable to commit transaction", ex);
         }
+
+        runCompletionActions(true);
+    }
+
+    /**
+     * Runs and forgets the actions registered for the completed transaction.
+     *
+     * @param committed
+     *      whether the transaction was committed
+     */
+    private void runCompletionActions(final boolean committed) {
+        final List<Consumer<Boolean>> actions = completionActions.get();
+        if (actions.isEmpty()) {
+            return;
+        }
+
+        final List<Consumer<Boolean>> completed = new ArrayList<>(actions);
+        actions.clear();
+        completed.forEach(a -> a.accept(committed));
+    }
+
+    /**
+     * Registers action run after the completion of the current transaction of the thread. In case there is no open
+     * transaction (no connection or autocommit mode), the work is already committed and the action is run immediately.
+     *
+     * @param action
+     *      action to be run after completion, gets true if the transaction was committed
+     */
+    @Override
+    public void afterCompletion(final Consumer<Boolean> action) {
+        try {
+            Connection current = connection.get();
+            if (current != null && !current.isClosed() && !current.getAutoCommit()) {
+                completionActions.get().add(action);
+            } else {
+                action.accept(true);
+            }
+        } catch (SQLException ex) {
+            logger.error("Unable to check transaction state.");
+            throw new UnrecoverableException("Unable to check transaction state", ex);
+        }
     }
 
     @Override
     public void rollback() {
+        runCompletionActions(false);
         try {
-            if (connection != null && !connection.isClosed() && !connection.getAutoCommit()) {
-                connection.rollback();
-                logger.debug("Transaction({}) rollbacked.", connection.hashCode());
+            Connection current = connection.get();
+            if (current != null && !current.isClosed() && !current.getAutoCommit()) {
+                current.rollback();
+                logger.debug("Transaction({}) rollbacked.", current.hashCode());
             } else {
                 logger.trace("Transaction is in not in rollbackable state.");
             }
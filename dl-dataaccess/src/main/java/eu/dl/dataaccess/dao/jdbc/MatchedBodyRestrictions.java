@@ -0,0 +1,125 @@
+package eu.dl.dataaccess.dao.jdbc;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import eu.dl.dataaccess.dto.codetables.BodyIdentifier;
+
+import java.util.List;
+
+/**
+ * Restrictions of the matched body queries shared by the matched body DAOs. Values are never written into the
+ * restriction, they are added to the given list of parameters in the order of their placeholders. So the values are
+ * compared as they are stored, including quotes, backslashes and non-ASCII characters.
+ */
+public final class MatchedBodyRestrictions {
+
+    /**
+     * Suppress default constructor for noninstantiability.
+     */
+    private MatchedBodyRestrictions() {
+        throw new AssertionError();
+    }
+
+    /**
+     * Returns restriction for matched body database query that returns etalons for exact matching. Null values of
+     * input parameters aren't taken into account.
+     *
+     * @param standardizedName    standardized name
+     * @param standardizedAddress standardized address
+     * @param bodyIds             list of body identifiers
+     * @param params              list to which the values of the restriction parameters are added
+     *
+     * @return restriction as StringBuilder instance, empty if there is nothing to restrict by
+     */
+    public static StringBuilder exactMatch(final String standardizedName, final String standardizedAddress,
+                                           final List<BodyIdentifier> bodyIds, final List<String> params) {
+        StringBuilder restriction = new StringBuilder();
+        if (standardizedName != null) {
+            restriction.append(" md5(data ->>'standardizedName') = md5(?)");
+            params.add(standardizedName);
+        }
+        if (standardizedAddress != null) {
+            restriction.append(restriction.length() > 0 ? " OR " : "");
+            restriction.append(" md5(data ->>'standardizedAddress') = md5(?)");
+            params.add(standardizedAddress);
+        }
+        if (bodyIds != null) {
+            StringBuilder bodyIdsRestriction = new StringBuilder();
+            bodyIds.forEach((id) -> {
+                if (id.getId() != null && id.getScope() != null) {
+                    bodyIdsRestriction.append(bodyIdsRestriction.length() > 0 ? " OR " : "")
+                            .append("data @> ?::jsonb");
+                    params.add(bodyIdParam(id.getId(), id.getScope()));
+                }
+            });
+
+            if (bodyIdsRestriction.length() > 0) {
+                restriction.append(restriction.length() > 0 ? " OR " : "").append(bodyIdsRestriction);
+            }
+        }
+
+        return restriction;
+    }
+
+    /**
+     * Returns restriction for matched body database query that returns etalons for approximate matching. Null values
+     * of input parameters aren't taken into account.
+     *
+     * @param standardizedName    standardized name
+     * @param standardizedAddress standardized address
+     * @param bodyIds             list of body identifiers
+     * @param digest              digest
+     * @param params              list to which the values of the restriction parameters are added
+     *
+     * @return restriction as StringBuilder instance, empty if there is nothing to restrict by
+     */
+    public static StringBuilder approximateMatch(final String standardizedName, final String standardizedAddress,
+                                                 final List<BodyIdentifier> bodyIds, final String digest,
+                                                 final List<String> params) {
+        StringBuilder restriction = exactMatch(standardizedName, standardizedAddress, bodyIds, params);
+
+        if (digest != null) {
+            restriction.append(restriction.length() > 0 ? " OR " : "");
+            restriction.append(" data ->>'digest' = ?");
+            params.add(digest);
+        }
+
+        return restriction;
+    }
+
+    /**
+     * Returns restriction which matches bodies of any of the given groups. Each group is matched by the jsonb
+     * containment operator, so the query can use the GIN index of the data column.
+     *
+     * @param groupIds group ids
+     * @param params   list to which the values of the restriction parameters are added
+     *
+     * @return restriction as StringBuilder instance, empty if there are no groups
+     */
+    public static StringBuilder groups(final List<String> groupIds, final List<String> params) {
+        StringBuilder restriction = new StringBuilder();
+        for (String groupId : groupIds) {
+            restriction.append(restriction.length() > 0 ? " OR " : "").append("data @> ?::jsonb");
+            params.add(JsonNodeFactory.instance.objectNode().put("groupId", groupId).toString());
+        }
+
+        return restriction;
+    }
+
+    /**
+     * Returns value of the jsonb containment parameter which matches bodies with the given body identifier.
+     *
+     * @param id    identifier
+     * @param scope identifier scope
+     *
+     * @return JSON string
+     */
+    public static String bodyIdParam(final String id, final BodyIdentifier.Scope scope) {
+        ObjectNode bodyId = JsonNodeFactory.instance.objectNode()
+                .put("id", id)
+                .put("scope", scope.name());
+        ObjectNode condition = JsonNodeFactory.instance.objectNode();
+        condition.putArray("bodyIds").add(bodyId);
+        return condition.toString();
+    }
+}
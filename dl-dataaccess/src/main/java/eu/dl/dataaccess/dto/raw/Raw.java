@@ -68,6 +68,36 @@ public interface Raw extends Storable {
      */
     void setSourceBinaryData(byte[] sourceBinaryData);
 
+    /**
+     * Gets key of the source data stored in blob store. The source data are null in such case.
+     *
+     * @return blob store key or null if the source data are stored in the row
+     */
+    String getSourceDataKey();
+
+    /**
+     * Sets key of the source data stored in blob store.
+     *
+     * @param sourceDataKey
+     *            blob store key
+     */
+    void setSourceDataKey(String sourceDataKey);
+
+    /**
+     * Gets key of the source binary data stored in blob store. The source binary data are null in such case.
+     *
+     * @return blob store key or null if the source binary data are stored in the row
+     */
+    String getSourceBinaryDataKey();
+
+    /**
+     * Sets key of the source binary data stored in blob store.
+     *
+     * @param sourceBinaryDataKey
+     *            blob store key
+     */
+    void setSourceBinaryDataKey(String sourceBinaryDataKey);
+
     /**
      * Gets MIME type of source data.
      *
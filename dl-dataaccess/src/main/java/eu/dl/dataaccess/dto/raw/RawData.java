@@ -30,6 +30,17 @@ public class RawData extends StorableDTO implements Raw {
      */
     private byte[] sourceBinaryData;
 
+    /**
+     * Key of the source data stored in {@link eu.dl.core.storage.BlobStore} instead of {@link #sourceData}.
+     */
+    private String sourceDataKey;
+
+    /**
+     * Key of the source binary data stored in {@link eu.dl.core.storage.BlobStore} instead of
+     * {@link #sourceBinaryData}.
+     */
+    private String sourceBinaryDataKey;
+
     /**
      * MIME type of raw data.
      */
@@ -120,6 +131,46 @@ public class RawData extends StorableDTO implements Raw {
         this.sourceBinaryData = sourceBinaryData;
     }
 
+    /**
+     * Gets the key of the source data stored out of the row.
+     *
+     * @return the source data key
+     */
+    
+    public final String getSourceDataKey() {
+        return sourceDataKey;
+    }
+
+    /**
+     * Sets the key of the source data stored out of the row.
+     *
+     * @param sourceDataKey
+     *            the new source data key
+     */
+    public final void setSourceDataKey(final String sourceDataKey) {
+        this.sourceDataKey = sourceDataKey;
+    }
+
+    /**
+     * Gets the key of the source binary data stored out of the row.
+     *
+     * @return the source binary data key
+     */
+    
+    public final String getSourceBinaryDataKey() {
+        return sourceBinaryDataKey;
+    }
+
+    /**
+     * Sets the key of the source binary data stored out of the row.
+     *
+     * @param sourceBinaryDataKey
+     *            the new source binary data key
+     */
+    public final void setSourceBinaryDataKey(final String sourceBinaryDataKey) {
+        this.sourceBinaryDataKey = sourceBinaryDataKey;
+    }
+
     /**
      * Gets the source data mime type.
      *
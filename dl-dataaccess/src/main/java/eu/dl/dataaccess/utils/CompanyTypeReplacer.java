@@ -0,0 +1,106 @@
+package eu.dl.dataaccess.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Precompiled form of {@link DigestUtils#replace(String, Map)}. The expressions are parsed, sorted and compiled only
+ * once, when the replacer is created.
+ *
+ * All the expressions are also compiled into one alternation. Most of the names don't include any company type, such
+ * names are checked by a single pass of the alternation and returned untouched. Otherwise the expressions are applied
+ * one by one in the same order as {@link DigestUtils#replace(String, Map)} does, because a replacement can change what
+ * the following expressions match. The output is the same as the output of {@link DigestUtils#replace(String, Map)}.
+ */
+public final class CompanyTypeReplacer {
+
+    private static final String SPACE_REGEX = "[,\\.\\s]";
+
+    private static final String BEGIN_REGEX = "(?i)(\\A?" + SPACE_REGEX + "+|\\A|(?<before>\\|))";
+
+    private static final String END_REGEX = "(" + SPACE_REGEX + "+\\z?|\\z|(?<after>\\|))";
+
+    private final List<Pattern> patterns = new ArrayList<>();
+
+    private final List<String> replacements = new ArrayList<>();
+
+    private final Pattern any;
+
+    /**
+     * Creates replacer.
+     *
+     * @param regex
+     *      mapping of regular expresions, where replacement is key and regular expression (or comma separated
+     *      expressions) is value
+     */
+    public CompanyTypeReplacer(final Map<String, String> regex) {
+        final List<String[]> expressions = new ArrayList<>();
+        final Set<String> seen = new HashSet<>();
+        for (Map.Entry<String, String> n : regex.entrySet()) {
+            if (seen.add(n.getKey())) {
+                parseExpressions(n.getValue()).forEach(m -> expressions.add(new String[]{n.getKey(), m}));
+            }
+        }
+
+        // stable sort, expressions of the same length keep the map order
+        expressions.sort((o1, o2) -> Integer.compare(o2[1].length(), o1[1].length()));
+
+        for (String[] e : expressions) {
+            patterns.add(Pattern.compile(BEGIN_REGEX + toRegex(e[1]) + END_REGEX));
+            replacements.add("${before}|" + e[0] + "|${after}");
+        }
+
+        any = expressions.isEmpty() ? null : Pattern.compile("(?i)(?:\\A?" + SPACE_REGEX + "+|\\A|\\|)(?:"
+            + expressions.stream().map(e -> toRegex(e[1])).collect(Collectors.joining("|"))
+            + ")(?:" + SPACE_REGEX + "+\\z?|\\z|\\|)");
+    }
+
+    /**
+     * Apply all matched replacements.
+     *
+     * @param input
+     *      string to be replaced
+     * @return replaced string or input if no expression matches
+     */
+    public String replace(final String input) {
+        if (input == null || any == null || !any.matcher(input).find()) {
+            return input;
+        }
+
+        String cleanInput = input;
+        for (int i = 0; i < patterns.size(); i++) {
+            cleanInput = patterns.get(i).matcher(cleanInput).replaceAll(replacements.get(i));
+        }
+
+        return cleanInput;
+    }
+
+    /**
+     * @param expression
+     *      pseudo regex, spaces stand for any number of separators
+     * @return regular expression
+     */
+    private static String toRegex(final String expression) {
+        return expression.replace(" ", SPACE_REGEX + "*");
+    }
+
+    /**
+     * @param regex
+     *      comma separated regular expresions
+     * @return list of regular expressions or an empty list
+     */
+    private static List<String> parseExpressions(final String regex) {
+        if (regex == null) {
+            return Collections.emptyList();
+        }
+
+        return Arrays.asList(regex.split(", ?"));
+    }
+}
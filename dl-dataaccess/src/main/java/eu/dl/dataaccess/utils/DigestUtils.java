@@ -134,6 +134,25 @@ public final class DigestUtils {
         repl.put("NV", "N V");
         COMPANY_TYPE_REGEX_REPLACEMENT.put("BE", repl);
     }
+
+    /**
+     * Precompiled replacement of company types of all countries, see {@link #standardizeName(String)}.
+     */
+    private static final CompanyTypeReplacer COMPANY_TYPE_REPLACER;
+    static {
+        Map<String, String> regex = new HashMap<>();
+        // merging of regexes for selected countries
+        COMPANY_TYPE_REGEX_REPLACEMENT.entrySet().stream()
+            // TODO - filtering by country(ies)
+            //.filter()
+            .forEach(n -> regex.putAll(n.getValue()));
+
+        COMPANY_TYPE_REPLACER = new CompanyTypeReplacer(regex);
+    }
+
+    private static final Pattern WHITESPACES = Pattern.compile("\\s+");
+
+    private static final Pattern COMBINING_DIACRITICAL_MARKS = Pattern.compile("[\\p{InCombiningDiacriticalMarks}]");
     
     /**
      * Separator used when creating digest.
@@ -173,10 +192,7 @@ public final class DigestUtils {
             return null;
         }
 
-        return input
-            .trim()
-            .toLowerCase()            
-            .replaceAll("\\s+", " ");
+        return WHITESPACES.matcher(input.trim().toLowerCase()).replaceAll(" ");
     }
     
     /**
@@ -194,16 +210,7 @@ public final class DigestUtils {
             return null;
         }
 
-        String stdName = standardize(name);
-
-        Map<String, String> regex = new HashMap();
-        // merging of regexes for selected countries
-        COMPANY_TYPE_REGEX_REPLACEMENT.entrySet().stream()
-            // TODO - filtering by country(ies)
-            //.filter()
-            .forEach(n -> regex.putAll(n.getValue()));
-        
-        stdName = replace(stdName, regex);
+        String stdName = COMPANY_TYPE_REPLACER.replace(standardize(name));
 
         return StringUtils.substring(removeAccents(stdName), 0, 513);
     }
@@ -492,11 +499,11 @@ public final class DigestUtils {
             return null;
         }
 
-        return
+        return COMBINING_DIACRITICAL_MARKS
             //input canonical decomposition
-            Normalizer.normalize(input, Normalizer.Form.NFD)
+            .matcher(Normalizer.normalize(input, Normalizer.Form.NFD))
             //accents removing
-            .replaceAll("[\\p{InCombiningDiacriticalMarks}]", "");
+            .replaceAll("");
     }
 
     /**
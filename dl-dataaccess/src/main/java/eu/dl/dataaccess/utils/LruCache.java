@@ -0,0 +1,83 @@
+package eu.dl.dataaccess.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Thread safe in-memory cache of bounded size. The least recently used entry is evicted when the cache is full.
+ *
+ * @param <K>
+ *      key class
+ * @param <V>
+ *      value class
+ */
+public final class LruCache<K, V> {
+    private final Map<K, V> entries;
+
+    private long hits;
+
+    private long misses;
+
+    /**
+     * Creates cache.
+     *
+     * @param maxSize
+     *      maximal number of entries
+     */
+    public LruCache(final int maxSize) {
+        entries = new LinkedHashMap<K, V>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<K, V> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * @param key
+     *      key
+     * @return cached value or null
+     */
+    public synchronized V get(final K key) {
+        final V value = entries.get(key);
+        if (value == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return value;
+    }
+
+    /**
+     * @param key
+     *      key
+     * @param value
+     *      value to be cached
+     */
+    public synchronized void put(final K key, final V value) {
+        entries.put(key, value);
+    }
+
+    /**
+     * @return number of cached entries
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return number of successful lookups
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return number of failed lookups
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+}
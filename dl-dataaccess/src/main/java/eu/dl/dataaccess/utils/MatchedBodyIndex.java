@@ -0,0 +1,308 @@
+package eu.dl.dataaccess.utils;
+
+import eu.dl.dataaccess.dto.codetables.BodyIdentifier;
+import eu.dl.dataaccess.dto.generic.Address;
+import eu.dl.dataaccess.dto.matched.MatchedBody;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Resident in-memory index of matched bodies used to retrieve the pools of bodies for exact and approximate matching
+ * without querying the database. The index holds slim copies of the bodies (only the fields needed for matching) and
+ * posting lists for standardized name, standardized address, body identifier (id and scope) and digest.
+ *
+ * The pools returned by the index are the same as the pools returned by the database queries of
+ * {@link eu.dl.dataaccess.dao.ExactMatchBodyDAO} and {@link eu.dl.dataaccess.dao.ApproximateMatchBodyDAO}, provided
+ * that all saved bodies pass through the index. The index is thread-safe.
+ */
+public final class MatchedBodyIndex {
+
+    private final Map<String, MatchedBody> bodies = new HashMap<>();
+
+    private final Map<String, Set<String>> byName = new HashMap<>();
+
+    private final Map<String, Set<String>> byAddress = new HashMap<>();
+
+    private final Map<String, Set<String>> byBodyId = new HashMap<>();
+
+    private final Map<String, Set<String>> byDigest = new HashMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Adds the body to the index. In case that the body with the same id is already indexed, it is replaced. Bodies
+     * without id are ignored.
+     *
+     * @param body
+     *      body to be indexed
+     */
+    public void add(final MatchedBody body) {
+        if (body == null || body.getId() == null) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            remove(body.getId());
+
+            MatchedBody slim = slimCopy(body);
+            bodies.put(slim.getId(), slim);
+
+            post(byName, slim.getStandardizedName(), slim.getId());
+            post(byAddress, slim.getStandardizedAddress(), slim.getId());
+            post(byDigest, slim.getDigest(), slim.getId());
+            for (String key : bodyIdKeys(slim.getBodyIds())) {
+                post(byBodyId, key, slim.getId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds all the bodies to the index.
+     *
+     * @see #add(MatchedBody)
+     *
+     * @param bodies
+     *      bodies to be indexed
+     */
+    public void addAll(final Collection<? extends MatchedBody> bodies) {
+        if (bodies != null) {
+            bodies.forEach(this::add);
+        }
+    }
+
+    /**
+     * @return number of indexed bodies
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return bodies.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns bodies with the same standardized name or the same standardized address or at least one common body
+     * identifier (id and scope). Null values of input parameters aren't taken into account.
+     *
+     * @param standardizedName
+     *      standardized name
+     * @param standardizedAddress
+     *      standardized address
+     * @param bodyIds
+     *      list of body identifiers
+     * @return list of bodies
+     */
+    public List<MatchedBody> getExactMatchBodiesPool(final String standardizedName, final String standardizedAddress,
+                                                     final List<BodyIdentifier> bodyIds) {
+        return getApproximateMatchBodiesPool(standardizedName, standardizedAddress, bodyIds, null);
+    }
+
+    /**
+     * Returns bodies with the same standardized name or the same standardized address or at least one common body
+     * identifier (id and scope) or the same digest. Null values of input parameters aren't taken into account.
+     *
+     * @param standardizedName
+     *      standardized name
+     * @param standardizedAddress
+     *      standardized address
+     * @param bodyIds
+     *      list of body identifiers
+     * @param digest
+     *      digest
+     * @return list of bodies
+     */
+    public List<MatchedBody> getApproximateMatchBodiesPool(final String standardizedName,
+                                                           final String standardizedAddress,
+                                                           final List<BodyIdentifier> bodyIds, final String digest) {
+        lock.readLock().lock();
+        try {
+            Set<String> ids = new HashSet<>();
+            collect(byName, standardizedName, ids);
+            collect(byAddress, standardizedAddress, ids);
+            collect(byDigest, digest, ids);
+            for (String key : bodyIdKeys(bodyIds)) {
+                collect(byBodyId, key, ids);
+            }
+
+            if (ids.isEmpty()) {
+                return Collections.emptyList();
+            }
+
+            List<MatchedBody> pool = new ArrayList<>(ids.size());
+            for (String id : ids) {
+                pool.add(bodies.get(id));
+            }
+
+            return pool;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Checks whether the body belongs to the pool for approximate matching, i.e. has the same standardized name or the
+     * same standardized address or at least one common body identifier (id and scope) or the same digest. Null values
+     * of input parameters aren't taken into account. The pool for exact matching is checked with null digest.
+     *
+     * @param body
+     *      body
+     * @param standardizedName
+     *      standardized name
+     * @param standardizedAddress
+     *      standardized address
+     * @param bodyIds
+     *      list of body identifiers
+     * @param digest
+     *      digest
+     * @return true if the body belongs to the pool
+     */
+    public static boolean isInPool(final MatchedBody body, final String standardizedName,
+                                   final String standardizedAddress, final List<BodyIdentifier> bodyIds,
+                                   final String digest) {
+        if ((standardizedName != null && standardizedName.equals(body.getStandardizedName()))
+            || (standardizedAddress != null && standardizedAddress.equals(body.getStandardizedAddress()))
+            || (digest != null && digest.equals(body.getDigest()))) {
+            return true;
+        }
+
+        final Set<String> keys = bodyIdKeys(bodyIds);
+        return !keys.isEmpty() && bodyIdKeys(body.getBodyIds()).stream().anyMatch(keys::contains);
+    }
+
+    /**
+     * Removes the body with the given id from the index. Must be called with write lock held.
+     *
+     * @param id
+     *      body id
+     */
+    private void remove(final String id) {
+        MatchedBody old = bodies.remove(id);
+        if (old == null) {
+            return;
+        }
+
+        unpost(byName, old.getStandardizedName(), id);
+        unpost(byAddress, old.getStandardizedAddress(), id);
+        unpost(byDigest, old.getDigest(), id);
+        for (String key : bodyIdKeys(old.getBodyIds())) {
+            unpost(byBodyId, key, id);
+        }
+    }
+
+    /**
+     * Creates copy of the body that includes only the fields used by the matching plugins.
+     *
+     * @param body
+     *      body
+     * @return slim copy of the body
+     */
+    private static MatchedBody slimCopy(final MatchedBody body) {
+        MatchedBody slim = new MatchedBody();
+        slim.setId(body.getId());
+        slim.setGroupId(body.getGroupId());
+        slim.setHash(body.getHash());
+        slim.setStandardizedName(body.getStandardizedName());
+        slim.setStandardizedAddress(body.getStandardizedAddress());
+        slim.setDigest(body.getDigest());
+        slim.setBodyIds(body.getBodyIds());
+
+        if (body.getAddress() != null) {
+            slim.setAddress(new Address()
+                .setPostcode(body.getAddress().getPostcode())
+                .setNuts(body.getAddress().getNuts()));
+        }
+
+        return slim;
+    }
+
+    /**
+     * @param bodyIds
+     *      body identifiers
+     * @return index keys of the body identifiers with not null id and scope
+     */
+    private static Set<String> bodyIdKeys(final List<BodyIdentifier> bodyIds) {
+        if (bodyIds == null) {
+            return Collections.emptySet();
+        }
+
+        Set<String> keys = new HashSet<>();
+        for (BodyIdentifier bodyId : bodyIds) {
+            if (bodyId != null && bodyId.getId() != null && bodyId.getScope() != null) {
+                keys.add(bodyId.getScope() + "|" + bodyId.getId());
+            }
+        }
+
+        return keys;
+    }
+
+    /**
+     * Adds the id to the posting list of the key.
+     *
+     * @param postings
+     *      postings
+     * @param key
+     *      key, null is ignored
+     * @param id
+     *      body id
+     */
+    private static void post(final Map<String, Set<String>> postings, final String key, final String id) {
+        if (key != null) {
+            postings.computeIfAbsent(key, k -> new HashSet<>()).add(id);
+        }
+    }
+
+    /**
+     * Removes the id from the posting list of the key.
+     *
+     * @param postings
+     *      postings
+     * @param key
+     *      key, null is ignored
+     * @param id
+     *      body id
+     */
+    private static void unpost(final Map<String, Set<String>> postings, final String key, final String id) {
+        if (key != null) {
+            Set<String> ids = postings.get(key);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(key);
+                }
+            }
+        }
+    }
+
+    /**
+     * Appends ids from the posting list of the key to the result.
+     *
+     * @param postings
+     *      postings
+     * @param key
+     *      key, null is ignored
+     * @param result
+     *      result set
+     */
+    private static void collect(final Map<String, Set<String>> postings, final String key, final Set<String> result) {
+        if (key != null) {
+            Set<String> ids = postings.get(key);
+            if (ids != null) {
+                result.addAll(ids);
+            }
+        }
+    }
+}
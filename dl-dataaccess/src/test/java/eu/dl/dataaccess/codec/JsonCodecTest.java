@@ -0,0 +1,80 @@
+package eu.dl.dataaccess.codec;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Currency;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.type.TypeFactory;
+
+import eu.dl.dataaccess.dto.generic.Address;
+import eu.dl.dataaccess.dto.generic.Price;
+import eu.dl.dataaccess.dto.matched.MatchedBody;
+
+/**
+ * Tests for JsonCodec.
+ */
+public final class JsonCodecTest {
+    /**
+     * Tests that the compact and the pretty codec read each other's output.
+     */
+    @Test
+    public void roundTripTest() {
+        final Codec compact = new JsonCodec(CodecFactory.createDTOMapper(), false);
+        final Codec pretty = new JsonCodec(CodecFactory.createDTOMapper(), true);
+
+        final MatchedBody body = new MatchedBody()
+            .setName("Město Brno")
+            .setAddress(new Address().setCity("Brno").setNuts(Arrays.asList("CZ064")));
+
+        final String compactJson = compact.encode(body);
+        final String prettyJson = pretty.encode(body);
+        assertFalse(compactJson.contains("\n"));
+        assertTrue(prettyJson.contains("\n"));
+        // null attributes aren't written
+        assertFalse(compactJson.contains("null"));
+
+        for (String json : Arrays.asList(compactJson, prettyJson)) {
+            for (Codec codec : Arrays.asList(compact, pretty)) {
+                final MatchedBody decoded = codec.decode(json, MatchedBody.class);
+                assertEquals("Město Brno", decoded.getName());
+                assertEquals("Brno", decoded.getAddress().getCity());
+                assertEquals(Arrays.asList("CZ064"), decoded.getAddress().getNuts());
+            }
+        }
+    }
+
+    /**
+     * Tests decoding into the existing object and decoding of parametrized types.
+     */
+    @Test
+    public void decodeIntoTest() {
+        final Codec codec = new JsonCodec(CodecFactory.createDTOMapper(), false);
+
+        final MatchedBody body = new MatchedBody().setName("name");
+        body.setId("id");
+        final MatchedBody decoded = codec.decodeInto("{\"address\":{\"city\":\"Praha\"},\"unknown\":1}", body);
+        assertSame(body, decoded);
+        assertEquals("id", decoded.getId());
+        assertEquals("name", decoded.getName());
+        assertEquals("Praha", decoded.getAddress().getCity());
+        assertNull(decoded.getAddress().getStreet());
+
+        final List<Price> prices = codec.decode(codec.encode(Arrays.asList(
+                new Price().setNetAmount(new BigDecimal("1.10")).setCurrency(Currency.getInstance("EUR")))),
+            TypeFactory.defaultInstance().constructCollectionType(List.class, Price.class));
+        assertEquals(new BigDecimal("1.10"), prices.get(0).getNetAmount());
+        assertEquals("EUR", prices.get(0).getCurrency().getCurrencyCode());
+
+        assertEquals(LocalDate.of(2020, 1, 2), codec.decode("[2020,1,2]", LocalDate.class));
+    }
+}
@@ -0,0 +1,82 @@
+package eu.dl.dataaccess.dao.jdbc;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import eu.dl.dataaccess.dto.codetables.BodyIdentifier;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test of the matched body query restrictions.
+ */
+public final class MatchedBodyRestrictionsTest {
+    private static final String NAME = "pivovar \"u sv. tomáše\" o'neill \\ praha";
+
+    private static final String ADDRESS = "náměstí míru 1, 120 00 praha";
+
+    /**
+     * Test that the name and address are bound as they are stored, so md5 of the parameter equals md5 of the stored
+     * value even for quotes, backslashes and non-ASCII characters (they used to be JSON escaped and never matched).
+     */
+    @Test
+    public void exactMatchBindsRawValuesTest() {
+        List<String> params = new ArrayList<>();
+        String restriction = MatchedBodyRestrictions.exactMatch(NAME, ADDRESS, null, params).toString();
+
+        assertEquals(" md5(data ->>'standardizedName') = md5(?) OR  md5(data ->>'standardizedAddress') = md5(?)",
+            restriction);
+        assertEquals(Arrays.asList(NAME, ADDRESS), params);
+    }
+
+    /**
+     * Test that the body identifiers and group ids are bound as valid JSON containing the original values.
+     *
+     * @throws IOException
+     *      in case the parameter isn't valid JSON
+     */
+    @Test
+    public void containmentParamsTest() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+
+        List<String> params = new ArrayList<>();
+        String restriction = MatchedBodyRestrictions.approximateMatch(null, null,
+            Arrays.asList(new BodyIdentifier().setId(NAME).setScope(BodyIdentifier.Scope.CZ),
+                new BodyIdentifier().setId("123")), "digest", params).toString();
+
+        // identifier without scope is skipped
+        assertEquals("data @> ?::jsonb OR  data ->>'digest' = ?", restriction);
+        assertEquals(2, params.size());
+        JsonNode bodyId = mapper.readTree(params.get(0)).get("bodyIds").get(0);
+        assertEquals(NAME, bodyId.get("id").asText());
+        assertEquals("CZ", bodyId.get("scope").asText());
+        assertEquals("digest", params.get(1));
+
+        params.clear();
+        restriction = MatchedBodyRestrictions.groups(Arrays.asList("group_1", NAME), params).toString();
+
+        assertEquals("data @> ?::jsonb OR data @> ?::jsonb", restriction);
+        assertEquals("group_1", mapper.readTree(params.get(0)).get("groupId").asText());
+        assertEquals(NAME, mapper.readTree(params.get(1)).get("groupId").asText());
+    }
+
+    /**
+     * Test that nothing is restricted without values.
+     */
+    @Test
+    public void emptyRestrictionTest() {
+        List<String> params = new ArrayList<>();
+
+        assertTrue(MatchedBodyRestrictions.approximateMatch(null, null, Collections.emptyList(), null, params)
+            .length() == 0);
+        assertTrue(MatchedBodyRestrictions.groups(Collections.emptyList(), params).length() == 0);
+        assertTrue(params.isEmpty());
+    }
+}
@@ -0,0 +1,119 @@
+package eu.dl.dataaccess.utils;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.StringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH benchmark of body name standardization. Compares the former implementation (company type expressions merged,
+ * sorted and compiled for each name) with {@link DigestUtils#standardizeName(String)}.
+ *
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=eu.dl.dataaccess.utils.DigestUtilsBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DigestUtilsBenchmark {
+    private static final List<String> WORDS = Arrays.asList("stavební", "společnost", "nemocnice", "město", "obec",
+        "technické", "služby", "bau", "und", "handel", "construcciones", "servicios", "przedsiębiorstwo", "usług",
+        "komunalnych", "building", "services", "group", "holding", "trading", "municipal", "ingenieria", "médical");
+
+    private static final List<String> COMPANY_TYPES = Arrays.asList("s.r.o.", "spol. s r.o.", "a.s.", "GmbH",
+        "GmbH & Co. KG", "AG", "S.A.", "S.L.", "sp. z o.o.", "Ltd", "Limited", "plc", "B.V.", "Kft.", "SARL");
+
+    private static final int CORPUS_SIZE = 1000;
+
+    private List<String> names;
+
+    /**
+     * Generates names of bodies, half of them with company type.
+     */
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        names = new ArrayList<>(CORPUS_SIZE);
+        for (int i = 0; i < CORPUS_SIZE; i++) {
+            List<String> name = new ArrayList<>();
+            int length = 1 + random.nextInt(4);
+            for (int j = 0; j < length; j++) {
+                String word = WORDS.get(random.nextInt(WORDS.size()));
+                name.add(random.nextBoolean() ? StringUtils.capitalize(word) : word);
+            }
+            if (random.nextBoolean()) {
+                name.add(COMPANY_TYPES.get(random.nextInt(COMPANY_TYPES.size())));
+            }
+            names.add(String.join(random.nextInt(4) == 0 ? ",  " : " ", name));
+        }
+    }
+
+    /**
+     * Former implementation.
+     *
+     * @param bh
+     *      blackhole
+     */
+    @Benchmark
+    public void legacy(final Blackhole bh) {
+        for (String name : names) {
+            String stdName = name.trim().toLowerCase().replaceAll("\\s+", " ");
+
+            Map<String, String> regex = new HashMap<>();
+            DigestUtils.COMPANY_TYPE_REGEX_REPLACEMENT.values().forEach(regex::putAll);
+            stdName = DigestUtils.replace(stdName, regex);
+
+            stdName = Normalizer.normalize(stdName, Normalizer.Form.NFD)
+                .replaceAll("[\\p{InCombiningDiacriticalMarks}]", "");
+            bh.consume(StringUtils.substring(stdName, 0, 513));
+        }
+    }
+
+    /**
+     * Precompiled implementation.
+     *
+     * @param bh
+     *      blackhole
+     */
+    @Benchmark
+    public void precompiled(final Blackhole bh) {
+        for (String name : names) {
+            bh.consume(DigestUtils.standardizeName(name));
+        }
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args
+     *      arguments
+     * @throws RunnerException
+     *      in case of benchmark failure
+     */
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(DigestUtilsBenchmark.class.getSimpleName()).build()).run();
+    }
+}
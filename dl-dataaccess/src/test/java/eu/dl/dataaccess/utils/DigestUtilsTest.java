@@ -5,7 +5,9 @@ import static org.junit.Assert.assertNull;
 
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Random;
 
 import org.junit.Test;
 
@@ -81,6 +83,38 @@ public final class DigestUtilsTest {
         assertEquals("ptacek", DigestUtils.standardizeName("Ptáček"));            
         assertEquals("name|GM|", DigestUtils.standardizeName("Name g m b h"));
     }
+
+    /**
+     * Tests that the precompiled company type replacement gives the same results as DigestUtils#replace(String, Map)
+     * with all the company types merged.
+     */
+    @Test
+    public void companyTypeReplacerTest() {
+        Map<String, String> regex = new HashMap<>();
+        DigestUtils.COMPANY_TYPE_REGEX_REPLACEMENT.values().forEach(regex::putAll);
+        CompanyTypeReplacer replacer = new CompanyTypeReplacer(regex);
+
+        List<String> tokens = Arrays.asList("name", "ptáček", "müller", "co", "fa", "firma", "&", "|", "s", "a", "l",
+            "s.r.o.", "spol. s r.o.", "a.s.", "akciová společnost", "o.p.s.", "státní podnik", "gmbh", "& co. kg",
+            "mbh", "ag", "s.a.", "s.a.r.l.", "s.a.s.u.", "sas", "s.l.", "s.l.;", "s.l.u.", "s.a.u.", "lda", "u.t.e.",
+            "sp. z o.o.", "sp. z o.o. sp. k.", "spółka z ograniczoną odpowiedzialnością", "sp.j.", "s.p.a.", "srl",
+            "b.v.", "n.v.", "ab", "aktiebolaget", "h.b.", "kft.", "zrt.", "plc", "ltd", "co ltd", "limited", "llp",
+            "l.p.", "bietergemeinschaft", "przedsiębiorstwo", "|SR|", "|SA|");
+        List<String> separators = Arrays.asList(" ", "  ", ", ", ".", "", "\t");
+
+        Random random = new Random(42);
+        for (int i = 0; i < 20000; i++) {
+            StringBuilder input = new StringBuilder();
+            int length = 1 + random.nextInt(6);
+            for (int j = 0; j < length; j++) {
+                input.append(tokens.get(random.nextInt(tokens.size())))
+                    .append(separators.get(random.nextInt(separators.size())));
+            }
+
+            String standardized = DigestUtils.standardize(input.toString());
+            assertEquals(standardized, DigestUtils.replace(standardized, regex), replacer.replace(standardized));
+        }
+    }
     
     /**
      * Tests of DigestUtils#standardizeAddress(java.langString) function.
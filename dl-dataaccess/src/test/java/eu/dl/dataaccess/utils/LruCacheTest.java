@@ -0,0 +1,31 @@
+package eu.dl.dataaccess.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+/**
+ * Tests for LruCache.
+ */
+public final class LruCacheTest {
+    /**
+     * Tests eviction of the least recently used entry.
+     */
+    @Test
+    public void evictionTest() {
+        final LruCache<String, Integer> cache = new LruCache<>(2);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        // "a" is used, so "b" is the least recently used one
+        assertEquals(Integer.valueOf(1), cache.get("a"));
+        cache.put("c", 3);
+
+        assertEquals(2, cache.size());
+        assertNull(cache.get("b"));
+        assertEquals(Integer.valueOf(1), cache.get("a"));
+        assertEquals(Integer.valueOf(3), cache.get("c"));
+        assertEquals(3, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+}
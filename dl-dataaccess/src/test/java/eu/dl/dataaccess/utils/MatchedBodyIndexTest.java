@@ -0,0 +1,91 @@
+package eu.dl.dataaccess.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import eu.dl.dataaccess.dto.codetables.BodyIdentifier;
+import eu.dl.dataaccess.dto.matched.MatchedBody;
+
+/**
+ * Tests for MatchedBodyIndex class.
+ */
+public final class MatchedBodyIndexTest {
+
+    /**
+     * @param id
+     *      body id
+     * @param name
+     *      standardized name
+     * @param address
+     *      standardized address
+     * @param digest
+     *      digest
+     * @param bodyId
+     *      body identifier
+     * @return matched body
+     */
+    private static MatchedBody body(final String id, final String name, final String address, final String digest,
+                                    final BodyIdentifier bodyId) {
+        MatchedBody body = new MatchedBody()
+            .setGroupId("group_" + id)
+            .setStandardizedName(name)
+            .setStandardizedAddress(address)
+            .setDigest(digest)
+            .setBodyIds(bodyId == null ? null : Collections.singletonList(bodyId));
+        body.setId(id);
+        return body;
+    }
+
+    /**
+     * @param pool
+     *      pool of bodies
+     * @return sorted ids of the bodies
+     */
+    private static List<String> ids(final List<MatchedBody> pool) {
+        return pool.stream().map(MatchedBody::getId).sorted().collect(Collectors.toList());
+    }
+
+    /**
+     * Test of pools retrieval.
+     */
+    @Test
+    public void poolTest() {
+        MatchedBodyIndex index = new MatchedBodyIndex();
+        index.addAll(Arrays.asList(
+            body("1", "acme", "main street", "ac", new BodyIdentifier().setId("123").setScope(BodyIdentifier.Scope.CZ)),
+            body("2", "acme", null, "xy", null),
+            body("3", "other", "main street", "ot", null),
+            body("4", "foo", "bar", "ac", new BodyIdentifier().setId("123").setScope(BodyIdentifier.Scope.SK)),
+            body("5", "baz", "qux", "bz", new BodyIdentifier().setId("123").setScope(BodyIdentifier.Scope.CZ))));
+
+        assertEquals(5, index.size());
+
+        assertEquals(Arrays.asList("1", "2"), ids(index.getExactMatchBodiesPool("acme", null, null)));
+        assertEquals(Arrays.asList("1", "2", "3"), ids(index.getExactMatchBodiesPool("acme", "main street", null)));
+        assertEquals(Arrays.asList("1", "5"), ids(index.getExactMatchBodiesPool(null, null,
+            Collections.singletonList(new BodyIdentifier().setId("123").setScope(BodyIdentifier.Scope.CZ)))));
+        assertEquals(Arrays.asList("1", "4"), ids(index.getApproximateMatchBodiesPool(null, null, null, "ac")));
+        assertTrue(index.getApproximateMatchBodiesPool("none", null, null, null).isEmpty());
+    }
+
+    /**
+     * Test of replacing of already indexed body.
+     */
+    @Test
+    public void replaceTest() {
+        MatchedBodyIndex index = new MatchedBodyIndex();
+        index.add(body("1", "acme", "main street", "ac", null));
+        index.add(body("1", "acme corp", "main street", "ac", null));
+
+        assertEquals(1, index.size());
+        assertTrue(index.getExactMatchBodiesPool("acme", null, null).isEmpty());
+        assertEquals(Collections.singletonList("1"), ids(index.getExactMatchBodiesPool("acme corp", null, null)));
+    }
+}
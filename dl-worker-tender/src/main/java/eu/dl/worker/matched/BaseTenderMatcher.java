@@ -3,9 +3,11 @@ package eu.dl.worker.matched;
 import eu.dl.core.UnrecoverableException;
 import eu.dl.dataaccess.dao.CleanTenderDAO;
 import eu.dl.dataaccess.dao.EtalonBodyDAO;
+import eu.dl.dataaccess.dao.IndexedMatchedBodyDAO;
 import eu.dl.dataaccess.dao.ManualMatchDAO;
 import eu.dl.dataaccess.dao.MatchedBodyDAO;
 import eu.dl.dataaccess.dao.MatchedTenderDAO;
+import eu.dl.dataaccess.dao.TransactionUtils;
 import eu.dl.dataaccess.dto.clean.CleanTender;
 import eu.dl.dataaccess.dto.generic.Publication;
 import eu.dl.dataaccess.dto.matched.MatchedBid;
@@ -16,10 +18,13 @@ import eu.dl.dataaccess.utils.BodyUtils;
 import eu.dl.dataaccess.utils.WeightedHash;
 import eu.dl.core.cache.Cache;
 import eu.dl.core.cache.CacheFactory;
+import eu.dl.core.cache.CacheSnapshot;
+import eu.dl.core.cache.CompactCache;
 import eu.dl.worker.Message;
 import eu.dl.worker.MessageFactory;
 import eu.dl.worker.matched.plugin.ApproximateMatchingEtalonPlugin;
 import eu.dl.worker.matched.plugin.ApproximateMatchingPlugin;
+import eu.dl.worker.matched.plugin.EtalonMatchedBodies;
 import eu.dl.worker.matched.plugin.ExactMatchingEtalonPlugin;
 import eu.dl.worker.matched.plugin.ExactMatchingPlugin;
 import eu.dl.worker.matched.plugin.ManualMatchingPlugin;
@@ -27,18 +32,35 @@ import eu.dl.worker.matched.plugin.MatchingPlugin;
 import eu.dl.worker.matched.plugin.MatchingResult;
 import eu.dl.worker.utils.BasicPluginRegistry;
 import eu.dl.worker.utils.PluginRegistry;
+import eu.dl.worker.utils.matched.BlockingPartitioner;
+import eu.dl.worker.utils.matched.MatchedUtils;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.logging.log4j.ThreadContext;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static eu.dl.dataaccess.utils.DigestUtils.bodyFullHash;
 import static eu.dl.dataaccess.utils.DigestUtils.generateAlternativeBodyHashes;
@@ -53,6 +75,11 @@ public abstract class BaseTenderMatcher extends BaseMatcher {
 
     protected MatchedBodyDAO matchedBodyDao;
 
+    /**
+     * Matched body entries of etalon bodies shared by the etalon matching plugins.
+     */
+    private final EtalonMatchedBodies etalonMatchedBodies;
+
     protected MatchedTenderDAO matchedTenderDao;
 
     protected final ManualMatchDAO manualMatchDao = getManualMatchDAO();
@@ -97,6 +124,38 @@ public abstract class BaseTenderMatcher extends BaseMatcher {
      */
     private static final long PLUGIN_TIME_THRESHOLD = 100;
 
+    /**
+     * Default number of clean tenders processed at once by rematch.
+     */
+    private static final int DEFAULT_REMATCH_WINDOW_SIZE = 10000;
+
+    /**
+     * Number of clean tenders loaded by one query during rematch.
+     */
+    private static final int REMATCH_LOAD_SIZE = 1000;
+
+    /**
+     * Number of matched bodies saved by one batch during rematch.
+     */
+    private static final int REMATCH_BATCH_SIZE = 500;
+
+    /**
+     * Maximal number of connections of the pool used when {@code jdbc.pool.maxTotal} is not set (DBCP default).
+     */
+    private static final int DEFAULT_POOL_MAX_TOTAL = 8;
+
+    /**
+     * Number of connections used during rematch in addition to the connections of the body groups, one for the
+     * tenders and one for the worker itself.
+     */
+    private static final int REMATCH_OTHER_CONNECTIONS = 2;
+
+    /**
+     * Bodies modified this long before the cache snapshot are reloaded too. It covers the transactions which weren't
+     * committed at the time of the snapshot.
+     */
+    private static final Duration CACHE_SNAPSHOT_OVERLAP = Duration.ofHours(1);
+
     private final ManualMatchingPlugin<MatchedBody> manualBodyMatchingPlugin;
 
     protected Cache hashCache;
@@ -107,6 +166,11 @@ public abstract class BaseTenderMatcher extends BaseMatcher {
 
     private String etalonCachePrefix = "etalon::";
 
+    /**
+     * Hash cache entries written by the rematch group of the current thread, see {@link RematchGroup}.
+     */
+    private final ThreadLocal<Map<String, String>> rematchCacheEntries = new ThreadLocal<>();
+
     /**
      * Default constructor.
      */
@@ -124,7 +188,16 @@ public abstract class BaseTenderMatcher extends BaseMatcher {
         super();
 
         matchedBodyDao = getMatchedBodyDAO(additionalMatchers);
+        if ("true".equals(config.getParam("bodyIndex.enabled"))) {
+            if (getConsumersCount() > 1) {
+                // the index doesn't see the bodies saved by the other consumers
+                logger.warn("Body index can't be used with concurrent consumers, the pools are loaded from database.");
+            } else {
+                matchedBodyDao = new IndexedMatchedBodyDAO(matchedBodyDao, getTransactionUtils());
+            }
+        }
         matchedTenderDao = getMatchedTenderDAO(additionalMatchers);
+        etalonMatchedBodies = new EtalonMatchedBodies(matchedBodyDao, getSourceId(), getTransactionUtils());
 
         registerCommonBodyPlugins();
         registerBodyPlugins();
@@ -136,12 +209,22 @@ public abstract class BaseTenderMatcher extends BaseMatcher {
             this.cacheEnabled = true;
             hashCache = CacheFactory.getCache(this.getClass().getName().concat("::"));
 
+            final LocalDateTime populated = LocalDateTime.now();
+            final LocalDateTime snapshotCreated = restoreCacheSnapshot();
+
             String repopulate = hashCache.get(hashCachePrefix.concat("repopulate"));
 
-            if (repopulate == null || repopulate.equals("true")) {
-                populateBodyHashCache();
-                populateEtalonCache();
+            if (snapshotCreated != null) {
+                // only bodies modified since the snapshot
+                final LocalDateTime modifiedAfter = snapshotCreated.minus(CACHE_SNAPSHOT_OVERLAP);
+                populateBodyHashCache(modifiedAfter);
+                populateEtalonCache(modifiedAfter);
+                writeCacheSnapshot(populated);
+            } else if (repopulate == null || repopulate.equals("true")) {
+                populateBodyHashCache(null);
+                populateEtalonCache(null);
                 hashCache.put(hashCachePrefix.concat("repopulate"), "false");
+                writeCacheSnapshot(populated);
             }
         }
 
@@ -155,17 +238,307 @@ public abstract class BaseTenderMatcher extends BaseMatcher {
         CleanTender cleanTender = cleanDao.getById(cleanTenderId);
 
         logger.info("Matching bodies for tender {}", cleanTenderId);
+        MatchedTender matchedTender = createMatchedTender(cleanTender);
+
+        matchedTender = matchBodies(matchedTender, cleanTender);
+
+        logger.info("Matching tender {}", cleanTenderId);
+        matchTender(matchedTender);
+        getTransactionUtils().commit();
+    }
+
+    /**
+     * Creates matched tender from the clean one.
+     *
+     * @param cleanTender
+     *         clean tender
+     *
+     * @return matched tender with not matched bodies
+     */
+    private MatchedTender createMatchedTender(final CleanTender cleanTender) {
         MatchedTender matchedTender = new MatchedTender(cleanTender);
         matchedTender.setPersistentId(cleanTender.getPersistentId());
         matchedTender.setCreatedRaw(cleanTender.getCreatedRaw());
         // set item processing order
         matchedTender.setProcessingOrder(cleanTender.getProcessingOrder());
 
-        matchedTender = matchBodies(matchedTender, cleanTender);
+        return matchedTender;
+    }
 
-        logger.info("Matching tender {}", cleanTenderId);
-        matchTender(matchedTender);
-        getTransactionUtils().commit();
+    /**
+     * Rematches all clean tenders of the given cleaner (message values "name" and "version", optionally "fromDate"
+     * and "toDate") without sending a message per tender.
+     *
+     * The tenders are processed in windows of {@code <worker_class>.rematch.windowSize} tenders in the processing
+     * order. Bodies of the window are split into partitions by blocking keys (hashes, standardized name and address,
+     * body identifiers and digest), which are the keys the body pool queries and the hash cache look the bodies up
+     * by, so a body never finds a body of another partition of the window. The partitions are distributed into at
+     * most {@code <worker_class>.rematch.parallelism} groups by their sizes. The groups are matched in parallel, each
+     * in its own database transaction, while the bodies of one group are matched sequentially in the original order
+     * and saved per body set. Tenders are matched sequentially in another transaction once all bodies of the window
+     * are matched. The transactions are committed at the end of the window, in case that any group or tender fails,
+     * all of them are rolled back.
+     *
+     * Each group sees the database and the hash cache as they were at the start of the window together with its own
+     * changes. Cache entries written by the groups are put into the shared cache in the group order once the window
+     * is committed. So the results don't depend on the thread scheduling, but a body doesn't see the group sizes and
+     * etalon hashes changed by the other groups of the window, as it would in the message by message mode. The
+     * commits of the window are not atomic, in case that one of them fails, the window has to be rematched.
+     *
+     * Each group holds its own connection until the end of the window, so the parallelism is limited by the size of
+     * the connection pool ({@code jdbc.pool.maxTotal}).
+     *
+     * @param message
+     *         command message
+     */
+    @Override
+    protected final void rematch(final Message message) {
+        final String name = message.getValue("name");
+        final String version = message.getValue("version");
+        if (name == null || version == null) {
+            logger.error("Rematch command requires name and version of the cleaner.");
+            throw new UnrecoverableException("Rematch command requires name and version of the cleaner.");
+        }
+
+        logger.info("Rematching clean tenders of {} {}", name, version);
+
+        final int windowSize = getRematchParam("windowSize", DEFAULT_REMATCH_WINDOW_SIZE);
+        final int parallelism = getRematchParallelism();
+        final ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        // ids are loaded page by page, the windows are committed while the stream is consumed
+        try (Stream<String> idStream = cleanDao.streamMineIdsByKeyset(name, version, message.getValue("fromDate"),
+            message.getValue("toDate"))) {
+            etalonMatchedBodies.startRun();
+
+            final Iterator<String> ids = idStream.iterator();
+            final List<String> window = new ArrayList<>(windowSize);
+            long rematched = 0;
+            while (ids.hasNext()) {
+                window.add(ids.next());
+                if (window.size() == windowSize || !ids.hasNext()) {
+                    rematchWindow(window, executor, parallelism);
+                    rematched += window.size();
+                    window.clear();
+                    logger.info("Rematched {} clean tenders", rematched);
+                }
+            }
+        } finally {
+            etalonMatchedBodies.endRun();
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Rematches one window of clean tenders.
+     *
+     * @param ids
+     *         ids of clean tenders in the processing order
+     * @param executor
+     *         executor used for parallel body matching
+     * @param parallelism
+     *         maximal number of body groups matched in parallel
+     */
+    private void rematchWindow(final List<String> ids, final ExecutorService executor, final int parallelism) {
+        final Map<String, CleanTender> cleanTenders = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += REMATCH_LOAD_SIZE) {
+            cleanDao.getByIds(ids.subList(from, Math.min(from + REMATCH_LOAD_SIZE, ids.size())))
+                .forEach(t -> cleanTenders.put(t.getId(), t));
+        }
+
+        final List<MatchedTender> matchedTenders = new ArrayList<>();
+        final List<BodyTask> tasks = new ArrayList<>();
+        for (String id : ids) {
+            final CleanTender cleanTender = cleanTenders.get(id);
+            if (cleanTender == null) {
+                logger.warn("Clean tender {} not found, skipped.", id);
+                continue;
+            }
+
+            final MatchedTender matchedTender = createMatchedTender(cleanTender);
+            prepareBodies(matchedTender, cleanTender).forEach(tasks::addAll);
+            matchedTenders.add(matchedTender);
+        }
+
+        final List<List<BodyTask>> partitions =
+            BlockingPartitioner.partition(tasks, BaseTenderMatcher::getBlockingKeys);
+        final List<RematchGroup> groups = createRematchGroups(partitions, parallelism);
+        logger.info("Matching {} bodies in {} partitions by {} groups", tasks.size(), partitions.size(),
+            groups.size());
+
+        final List<Future<TransactionUtils.Transaction>> futures = new ArrayList<>();
+        for (RematchGroup group : groups) {
+            futures.add(executor.submit(() -> getTransactionUtils().runInNewTransaction(group::match)));
+        }
+
+        final List<TransactionUtils.Transaction> transactions = new ArrayList<>();
+        try {
+            // all groups have to finish before the window is completed, even if some of them failed
+            RuntimeException failure = null;
+            for (Future<TransactionUtils.Transaction> future : futures) {
+                try {
+                    transactions.add(getRematchResult(future));
+                } catch (RuntimeException ex) {
+                    failure = failure == null ? ex : failure;
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+
+            transactions.add(
+                getTransactionUtils().runInNewTransaction(() -> matchedTenders.forEach(this::matchTender)));
+        } catch (RuntimeException ex) {
+            for (TransactionUtils.Transaction transaction : transactions) {
+                try {
+                    transaction.rollback();
+                } catch (RuntimeException e) {
+                    logger.error("Unable to rollback rematch transaction, because of {}", e);
+                }
+            }
+            throw ex;
+        }
+
+        transactions.forEach(TransactionUtils.Transaction::commit);
+        groups.forEach(RematchGroup::flushCache);
+    }
+
+    /**
+     * Waits for the body group matched in parallel.
+     *
+     * @param future
+     *         result of the group matching
+     *
+     * @return open transaction of the group
+     */
+    private TransactionUtils.Transaction getRematchResult(final Future<TransactionUtils.Transaction> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            logger.error("Rematch of body group failed, because of {}", ex);
+            throw new UnrecoverableException("Rematch of body group failed.", ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            logger.error("Rematch of body group interrupted.");
+            throw new UnrecoverableException("Rematch of body group interrupted.", ex);
+        }
+    }
+
+    /**
+     * Distributes the partitions into groups of about the same size. The biggest partitions go first, each to the
+     * smallest group, the ties are broken by the order. So the groups depend only on the partitions, and each group
+     * keeps the original order of its partitions.
+     *
+     * @param partitions
+     *         body partitions
+     * @param parallelism
+     *         maximal number of groups
+     *
+     * @return list of groups
+     */
+    private List<RematchGroup> createRematchGroups(final List<List<BodyTask>> partitions, final int parallelism) {
+        final int count = Math.min(parallelism, partitions.size());
+        final List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < partitions.size(); i++) {
+            order.add(i);
+        }
+        order.sort(Comparator.comparing((Integer i) -> partitions.get(i).size()).reversed());
+
+        final int[] sizes = new int[count];
+        final int[] assigned = new int[partitions.size()];
+        for (int i : order) {
+            int smallest = 0;
+            for (int group = 1; group < count; group++) {
+                if (sizes[group] < sizes[smallest]) {
+                    smallest = group;
+                }
+            }
+            assigned[i] = smallest;
+            sizes[smallest] += partitions.get(i).size();
+        }
+
+        final List<RematchGroup> groups = new ArrayList<>();
+        for (int group = 0; group < count; group++) {
+            groups.add(new RematchGroup());
+        }
+        for (int i = 0; i < partitions.size(); i++) {
+            groups.get(assigned[i]).partitions.add(partitions.get(i));
+        }
+
+        return groups;
+    }
+
+    /**
+     * Gets number of body groups matched in parallel by rematch. The configured parallelism is limited, so that the
+     * groups and the rest of the rematch get connections from the pool.
+     *
+     * @return parallelism
+     */
+    private int getRematchParallelism() {
+        final int parallelism = getRematchParam("parallelism", Runtime.getRuntime().availableProcessors());
+
+        final Integer configured = config.getParamValueAs("jdbc.pool.maxTotal", Integer::valueOf);
+        final int maxTotal = configured != null ? configured : DEFAULT_POOL_MAX_TOTAL;
+        // negative value means unlimited pool
+        if (maxTotal >= 0 && parallelism > maxTotal - REMATCH_OTHER_CONNECTIONS) {
+            final int limited = Math.max(1, maxTotal - REMATCH_OTHER_CONNECTIONS);
+            logger.warn("Rematch parallelism {} limited to {} by the connection pool size {}", parallelism, limited,
+                maxTotal);
+            return limited;
+        }
+
+        return parallelism;
+    }
+
+    /**
+     * Gets rematch parameter {@code <worker_class>.rematch.<name>}.
+     *
+     * @param name
+     *         parameter name
+     * @param defaultValue
+     *         value used when the parameter is not set
+     *
+     * @return parameter value
+     */
+    private int getRematchParam(final String name, final int defaultValue) {
+        final Integer value = config.getParamValueAs(getName() + ".rematch." + name, Integer::valueOf);
+        return value != null && value > 0 ? value : defaultValue;
+    }
+
+    /**
+     * Returns keys that the body pool queries and the hash cache use to find bodies related to the given one.
+     *
+     * @param task
+     *         body waiting for matching
+     *
+     * @return blocking keys
+     */
+    private static Collection<String> getBlockingKeys(final BodyTask task) {
+        final MatchedBody body = task.body;
+        final List<String> keys = new ArrayList<>();
+
+        keys.add("hash:" + body.getHash());
+        if (body.getAlternativeHashes() != null) {
+            body.getAlternativeHashes().forEach(h -> keys.add("hash:" + h.getHash()));
+        }
+        if (body.getStandardizedName() != null) {
+            keys.add("name:" + body.getStandardizedName());
+        }
+        if (body.getStandardizedAddress() != null) {
+            keys.add("address:" + body.getStandardizedAddress());
+        }
+        if (body.getDigest() != null) {
+            keys.add("digest:" + body.getDigest());
+        }
+        if (body.getBodyIds() != null) {
+            body.getBodyIds().stream()
+                .filter(MatchedUtils::isBodyIdValidForComparsion)
+                .forEach(i -> keys.add("id:" + i.getScope() + "|" + i.getId()));
+        }
+
+        return keys;
     }
 
     /**
@@ -180,6 +553,32 @@ public abstract class BaseTenderMatcher extends BaseMatcher {
      * @return tender with matched bodies set
      */
     private MatchedTender matchBodies(final MatchedTender matchedTender, final CleanTender cleanTender) {
+        for (List<BodyTask> bodySet : prepareBodies(matchedTender, cleanTender)) {
+            for (BodyTask task : bodySet) {
+                matchBody(task);
+            }
+
+            // bodies of the set are saved at once, before the next set is matched
+            saveBodies(bodySet);
+        }
+
+        return matchedTender;
+    }
+
+    /**
+     * Replaces bodies of the tender with "plain/reference" bodies and returns the bodies waiting for matching grouped
+     * by body sets. The sets and their bodies are returned in the order in which they have to be matched.
+     *
+     * @param matchedTender
+     *         matched tender
+     * @param cleanTender
+     *         clean tender
+     *
+     * @return list of body sets waiting for matching
+     */
+    private List<List<BodyTask>> prepareBodies(final MatchedTender matchedTender, final CleanTender cleanTender) {
+        final List<List<BodyTask>> tasks = new ArrayList<>();
+
         LocalDate publicationDate = null;
         String source = null;
         if (matchedTender.getPublications() != null) {
@@ -191,25 +590,30 @@ public abstract class BaseTenderMatcher extends BaseMatcher {
             }
         }
         matchedTender.setAdministrators(
-                matchBodySet(matchedTender.getAdministrators(), cleanTender, publicationDate, source));
+                prepareBodySet(matchedTender.getAdministrators(), cleanTender, publicationDate, source, tasks));
         matchedTender.setApproachedBidders(
-                matchBodySet(matchedTender.getApproachedBidders(), cleanTender, publicationDate, source));
+                prepareBodySet(matchedTender.getApproachedBidders(), cleanTender, publicationDate, source,
+                        tasks));
         matchedTender.setCandidates(
-                matchBodySet(matchedTender.getCandidates(), cleanTender, publicationDate, source));
+                prepareBodySet(matchedTender.getCandidates(), cleanTender, publicationDate, source, tasks));
         matchedTender.setSupervisors(
-                matchBodySet(matchedTender.getSupervisors(), cleanTender, publicationDate, source));
-        matchedTender.setBuyers(matchBodySet(matchedTender.getBuyers(), cleanTender, publicationDate, source));
+                prepareBodySet(matchedTender.getSupervisors(), cleanTender, publicationDate, source, tasks));
+        matchedTender.setBuyers(prepareBodySet(matchedTender.getBuyers(), cleanTender, publicationDate, source,
+                tasks));
 
         matchedTender.setOnBehalfOf(
-                matchBodySet(matchedTender.getOnBehalfOf(), cleanTender, publicationDate, source));
+                prepareBodySet(matchedTender.getOnBehalfOf(), cleanTender, publicationDate, source, tasks));
         matchedTender.setBidsRecipient(
-                matchBody(matchedTender.getBidsRecipient(), cleanTender, publicationDate, source));
+                prepareBody(matchedTender.getBidsRecipient(), cleanTender, publicationDate, source, tasks));
         matchedTender.setFurtherInformationProvider(
-                matchBody(matchedTender.getFurtherInformationProvider(), cleanTender, publicationDate, source));
+                prepareBody(matchedTender.getFurtherInformationProvider(), cleanTender, publicationDate, source,
+                        tasks));
         matchedTender.setSpecificationsCreator(
-                matchBody(matchedTender.getSpecificationsCreator(), cleanTender, publicationDate, source));
+                prepareBody(matchedTender.getSpecificationsCreator(), cleanTender, publicationDate, source,
+                        tasks));
         matchedTender.setSpecificationsProvider(
-                matchBody(matchedTender.getSpecificationsProvider(), cleanTender, publicationDate, source));
+                prepareBody(matchedTender.getSpecificationsProvider(), cleanTender, publicationDate, source,
+                        tasks));
 
         List<MatchedTenderLot> lots = matchedTender.getLots();
         if (lots != null) {
@@ -217,20 +621,49 @@ public abstract class BaseTenderMatcher extends BaseMatcher {
                 List<MatchedBid> bids = lot.getBids();
                 if (bids != null) {
                     for (MatchedBid bid : bids) {
-                        bid.setBidders(matchBodySet(bid.getBidders(), cleanTender, publicationDate, source));
+                        bid.setBidders(prepareBodySet(bid.getBidders(), cleanTender, publicationDate, source,
+                                tasks));
                         bid.setSubcontractors(
-                                matchBodySet(bid.getSubcontractors(), cleanTender, publicationDate, source));
+                                prepareBodySet(bid.getSubcontractors(), cleanTender, publicationDate, source,
+                                        tasks));
                     }
                 }
                 lot.setBids(bids);
             }
             matchedTender.setLots(lots);
         }
-        return matchedTender;
+
+        return tasks;
     }
 
     /**
-     * Matches one body.
+     * Saves matched bodies in one batch, sets ids of the "plain" reference bodies and publishes messages about finished
+     * body matching.
+     *
+     * @param tasks
+     *         matched bodies
+     */
+    private void saveBodies(final List<BodyTask> tasks) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+
+        matchedBodyDao.saveAll(tasks.stream().map(t -> t.body).collect(Collectors.toList()));
+
+        for (BodyTask task : tasks) {
+            task.plainBody.setId(task.body.getId());
+
+            // publish message
+            final Message outgoingMessage = MessageFactory.getMessage();
+            final String tag = getBodyMessagingTag();
+            outgoingMessage.setValue("groupId", task.body.getGroupId());
+            publishMessage(outgoingMessage, tag);
+            logger.info("Body matching finished, published message '{}' with tag '{}'", outgoingMessage, tag);
+        }
+    }
+
+    /**
+     * Prepares one body for matching.
      *
      * @param body
      *         body to be matched
@@ -240,16 +673,19 @@ public abstract class BaseTenderMatcher extends BaseMatcher {
      *         publication date
      * @param source
      *         body source
+     * @param tasks
+     *         list of body sets waiting for matching, the body is appended as a new set
      *
-     * @return list of matched bodies
+     * @return "plain/reference" body
      */
-    private MatchedBody matchBody(final MatchedBody body, final CleanTender cleanTender,
-            final LocalDate publicationDate, final String source) {
+    private MatchedBody prepareBody(final MatchedBody body, final CleanTender cleanTender,
+            final LocalDate publicationDate, final String source, final List<List<BodyTask>> tasks) {
         if (body == null) {
             return null;
         }
 
-        List<MatchedBody> matchedBodies = matchBodySet(Arrays.asList(body), cleanTender, publicationDate, source);
+        List<MatchedBody> matchedBodies = prepareBodySet(Arrays.asList(body), cleanTender, publicationDate, source,
+            tasks);
 
         if (matchedBodies != null && !matchedBodies.isEmpty()) {
             return matchedBodies.get(0);
@@ -258,8 +694,9 @@ public abstract class BaseTenderMatcher extends BaseMatcher {
     }
 
     /**
-     * Matches body set. Doesn't return the whole body set, only the "plain"
-     * bodies with id and groupId set
+     * Prepares body set for matching. Doesn't return the whole body set, only the "plain" bodies. The bodies are not
+     * matched here, they are appended to {@code tasks} as a new set together with their "plain" counterparts whose
+     * group id and id are set once the bodies are matched and saved.
      *
      * @param bodies
      *         bodies to be matched
@@ -269,17 +706,19 @@ public abstract class BaseTenderMatcher extends BaseMatcher {
      *         publication date
      * @param source
      *         body source
+     * @param tasks
+     *         list of body sets waiting for matching, the bodies are appended as a new set
      *
      * @return list of "plain/reference" bodies
      */
-    private List<MatchedBody> matchBodySet(final List<MatchedBody> bodies, final CleanTender cleanTender,
-            final LocalDate publicationDate, final String source) {
+    private List<MatchedBody> prepareBodySet(final List<MatchedBody> bodies, final CleanTender cleanTender,
+            final LocalDate publicationDate, final String source, final List<List<BodyTask>> tasks) {
         if (bodies == null) {
             return null;
         }
 
         List<MatchedBody> matchedBodies = new ArrayList<MatchedBody>();
-        // got through all bodies available and try to match them
+        List<BodyTask> bodySet = new ArrayList<>();
         for (MatchedBody body : bodies) {
             if (body == null) {
                 continue;
@@ -291,136 +730,144 @@ public abstract class BaseTenderMatcher extends BaseMatcher {
                 continue;
             }
 
-            HashMap<String, Object> metaData = Optional.ofNullable(body.getMetaData()).orElse(new HashMap<>());
+            // we don't store the whole body, only the "plain", reference body
+            MatchedBody plainBody = new MatchedBody();
 
-            // search by manual matching plugin first
-            long pluginStartTime = System.currentTimeMillis();
-            MatchingResult manualMatchingResult =
-                manualBodyMatchingPlugin.isMatchable(body) ? manualBodyMatchingPlugin.match(body) : new MatchingResult();
-            long pluginEndTime = System.currentTimeMillis();
+            matchedBodies.add(plainBody);
+            bodySet.add(new BodyTask(body, plainBody, bodySet, cleanTender, publicationDate, source));
+        }
 
-            logMatchingData(pluginStartTime, pluginEndTime, "manual");
+        if (!matchedBodies.isEmpty()) {
+            tasks.add(bodySet);
+            return matchedBodies;
+        }
 
-            HashMap<String, Long> matchingTimes = new HashMap<String, Long>();
-            matchingTimes.put("manual", pluginEndTime - pluginStartTime);
+        return null;
+    }
 
-            if (manualMatchingResult.getMatched()) {
-                // match found, store group_id and matched by
-                body.setGroupId(manualMatchingResult.getGroupId());
-                body.setMatchedBy(manualMatchingResult.getMatchedBy());
-                metaData.put("matchedBy", manualMatchingResult.getMatchedBy());
-                metaData.put("matchingData", manualMatchingResult.getMetaData());
-            } else {
-                String matchedByHashGroupId = null;
-                if (this.cacheEnabled) {
-                    // search for potential matches in cache
-                    pluginStartTime = System.currentTimeMillis();
-                    matchedByHashGroupId = findByHashes(body);
-                    pluginEndTime = System.currentTimeMillis();
+    /**
+     * Matches one body. Sets group id of the body and of its "plain/reference" counterpart.
+     *
+     * @param task
+     *         body waiting for matching
+     */
+    private void matchBody(final BodyTask task) {
+        final MatchedBody body = task.body;
+        final CleanTender cleanTender = task.cleanTender;
+        final LocalDate publicationDate = task.publicationDate;
+        final String source = task.source;
+
+        HashMap<String, Object> metaData = Optional.ofNullable(body.getMetaData()).orElse(new HashMap<>());
+
+        // search by manual matching plugin first
+        long pluginStartTime = System.currentTimeMillis();
+        MatchingResult manualMatchingResult =
+            manualBodyMatchingPlugin.isMatchable(body) ? manualBodyMatchingPlugin.match(body) : new MatchingResult();
+        long pluginEndTime = System.currentTimeMillis();
+
+        logMatchingData(pluginStartTime, pluginEndTime, "manual");
+
+        HashMap<String, Long> matchingTimes = new HashMap<String, Long>();
+        matchingTimes.put("manual", pluginEndTime - pluginStartTime);
+
+        if (manualMatchingResult.getMatched()) {
+            // match found, store group_id and matched by
+            body.setGroupId(manualMatchingResult.getGroupId());
+            body.setMatchedBy(manualMatchingResult.getMatchedBy());
+            metaData.put("matchedBy", manualMatchingResult.getMatchedBy());
+            metaData.put("matchingData", manualMatchingResult.getMetaData());
+        } else {
+            String matchedByHashGroupId = null;
+            if (this.cacheEnabled) {
+                // search for potential matches in cache
+                pluginStartTime = System.currentTimeMillis();
+                matchedByHashGroupId = findByHashes(body);
+                pluginEndTime = System.currentTimeMillis();
 
-                    logMatchingData(pluginStartTime, pluginEndTime, "HASH");
+                logMatchingData(pluginStartTime, pluginEndTime, "HASH");
 
-                    matchingTimes.put("HASH", pluginEndTime - pluginStartTime);
-                }
+                matchingTimes.put("HASH", pluginEndTime - pluginStartTime);
+            }
 
-                if (matchedByHashGroupId != null) {
-                    // the same hash found, storing into the same group
-                    body.setGroupId(matchedByHashGroupId);
-                    body.setMatchedBy(HASH);
-                    metaData.put("matchedBy", HASH);
-                } else {
-                    Boolean matched = false;
-                    // try all registered plugins for potential match
-                    for (Entry<String, MatchingPlugin<MatchedBody>> entry : bodyPluginRegistry.getPlugins().entrySet()) {
-                        MatchingPlugin<MatchedBody> plugin = entry.getValue();
-                        if (!plugin.isMatchable(body)) {
-                            continue;
-                        }
+            if (matchedByHashGroupId != null) {
+                // the same hash found, storing into the same group
+                body.setGroupId(matchedByHashGroupId);
+                body.setMatchedBy(HASH);
+                metaData.put("matchedBy", HASH);
+            } else {
+                Boolean matched = false;
+                // try all registered plugins for potential match
+                for (Entry<String, MatchingPlugin<MatchedBody>> entry : bodyPluginRegistry.getPlugins().entrySet()) {
+                    MatchingPlugin<MatchedBody> plugin = entry.getValue();
+                    if (!plugin.isMatchable(body)) {
+                        continue;
+                    }
 
-                        pluginStartTime = System.currentTimeMillis();
-                        MatchingResult matchingResult = plugin.match(body);
-                        pluginEndTime = System.currentTimeMillis();
-
-                        logMatchingData(pluginStartTime, pluginEndTime, plugin.getClass().getName());
-                        matchingTimes.put(plugin.getClass().getName(), pluginEndTime - pluginStartTime);
-
-                        if (matchingResult.getMatched()) {
-                            // match found, store group_id and matched by
-                            body.setGroupId(matchingResult.getGroupId());
-                            body.setMatchedBy(matchingResult.getMatchedBy());
-                            metaData.put("matchedBy", matchingResult.getMatchedBy());
-                            metaData.put("matchingData", matchingResult.getMetaData());
-                            matched = true;
-
-                            if (this.cacheEnabled) {
-                                // save results to cache
-                                if (matchingResult.getMatchedBy().equals(ExactMatchingEtalonPlugin.MATCHED_BY)
-                                        || matchingResult.getMatchedBy().equals(ApproximateMatchingEtalonPlugin.MATCHED_BY)) {
-                                    hashCache.put(etalonCachePrefix.concat(matchingResult.getGroupId()), "true");
-                                    putToCache(matchingResult.getGroupId(), matchingResult.getMatchedBody());
-                                } else {
-                                    hashCache.put(etalonCachePrefix.concat(matchingResult.getGroupId()), "false");
-                                }
-                            }
+                    pluginStartTime = System.currentTimeMillis();
+                    MatchingResult matchingResult = plugin.match(body);
+                    pluginEndTime = System.currentTimeMillis();
 
-                            // end the plugin loop
-                            break;
+                    logMatchingData(pluginStartTime, pluginEndTime, plugin.getClass().getName());
+                    matchingTimes.put(plugin.getClass().getName(), pluginEndTime - pluginStartTime);
+
+                    if (matchingResult.getMatched()) {
+                        // match found, store group_id and matched by
+                        body.setGroupId(matchingResult.getGroupId());
+                        body.setMatchedBy(matchingResult.getMatchedBy());
+                        metaData.put("matchedBy", matchingResult.getMatchedBy());
+                        metaData.put("matchingData", matchingResult.getMetaData());
+                        matched = true;
+
+                        if (this.cacheEnabled) {
+                            // save results to cache
+                            if (matchingResult.getMatchedBy().equals(ExactMatchingEtalonPlugin.MATCHED_BY)
+                                    || matchingResult.getMatchedBy().equals(ApproximateMatchingEtalonPlugin.MATCHED_BY)) {
+                                putAllToCache(Collections.singletonMap(
+                                    etalonCachePrefix.concat(matchingResult.getGroupId()), "true"));
+                                putToCache(matchingResult.getGroupId(), matchingResult.getMatchedBody());
+                            } else {
+                                putAllToCache(Collections.singletonMap(
+                                    etalonCachePrefix.concat(matchingResult.getGroupId()), "false"));
+                            }
                         }
-                    }
 
-                    // not matched by any of our plugins, store as a new item
-                    if (!matched) {
-                        body.setGroupId("group_" + getSourceId() + "_body_" + body.getHash());
-                        metaData.put("matchedBy", UNMATCHED);
+                        // end the plugin loop
+                        break;
                     }
                 }
-            }
-
-            logger.debug("Body with hash '{}' matched by '{}' with group id '{}'", body.getHash(), body.getMatchedBy(),
-                    body.getGroupId());
 
-            if (this.cacheEnabled) {
-                putToCache(body.getGroupId(), body);
+                // not matched by any of our plugins, store as a new item
+                if (!matched) {
+                    body.setGroupId("group_" + getSourceId() + "_body_" + body.getHash());
+                    metaData.put("matchedBy", UNMATCHED);
+                }
             }
-
-            // save the result
-            body.setCleanObjectId(cleanTender.getId());
-            body.setProcessingOrder(cleanTender.getProcessingOrder());
-            body.setPublicationDate(publicationDate);
-            body.setSource(source);
-            body.setRawObjectId(cleanTender.getRawObjectId());
-            Double completenessScore = BodyUtils.completenessScore(body);
-            metaData.put("completenessScore", completenessScore);
-            metaData.put("cleanObjectPersistentId", cleanTender.getPersistentId());
-            metaData.put("matchingTimes", matchingTimes);
-
-            body.setMetaData(metaData);
-            matchedBodyDao.save(body);
-
-            // we don't store the whole body, only the "plain", reference body
-            MatchedBody plainBody = new MatchedBody();
-            plainBody.setId(body.getId());
-            plainBody.setGroupId(body.getGroupId());
-            plainBody.setCompletenessScore(completenessScore);
-
-            matchedBodies.add(plainBody);
-
-            // publish message
-            final Message outgoingMessage = MessageFactory.getMessage();
-            final String tag = getBodyMessagingTag();
-            outgoingMessage.setValue("groupId", body.getGroupId());
-            publishMessage(outgoingMessage, tag);
-            logger.info("Body matching finished, published message '{}' with tag '{}'", outgoingMessage, tag);
         }
 
-        if (matchedBodies != null && !matchedBodies.isEmpty()) {
-            return matchedBodies;
+        logger.debug("Body with hash '{}' matched by '{}' with group id '{}'", body.getHash(), body.getMatchedBy(),
+                body.getGroupId());
+
+        if (this.cacheEnabled) {
+            putToCache(body.getGroupId(), body);
         }
 
-        return null;
+        // save the result
+        body.setCleanObjectId(cleanTender.getId());
+        body.setProcessingOrder(cleanTender.getProcessingOrder());
+        body.setPublicationDate(publicationDate);
+        body.setSource(source);
+        body.setRawObjectId(cleanTender.getRawObjectId());
+        Double completenessScore = BodyUtils.completenessScore(body);
+        metaData.put("completenessScore", completenessScore);
+        metaData.put("cleanObjectPersistentId", cleanTender.getPersistentId());
+        metaData.put("matchingTimes", matchingTimes);
+
+        body.setMetaData(metaData);
+
+        task.plainBody.setGroupId(body.getGroupId());
+        task.plainBody.setCompletenessScore(completenessScore);
     }
 
-
     /**
      * Generate body hashes.
      *
@@ -451,63 +898,119 @@ public abstract class BaseTenderMatcher extends BaseMatcher {
      * @param body matched body
      */
     private void putToCache(final String groupId, final MatchedBody body) {
-    	if (body.getHash() != null) {
-    		hashCache.put(hashCachePrefix.concat(body.getHash()), groupId);
-    	}
+        final Map<String, String> entries = new LinkedHashMap<>();
+        if (body.getHash() != null) {
+            entries.put(hashCachePrefix.concat(body.getHash()), groupId);
+        }
 
-    	for (WeightedHash hash : body.getAlternativeHashes()) {
-    		hashCache.put(hashCachePrefix.concat(hash.getHash()), groupId);
-    	}
-	}
+        for (WeightedHash hash : body.getAlternativeHashes()) {
+            entries.put(hashCachePrefix.concat(hash.getHash()), groupId);
+        }
 
-	/**
-     * This method searches by body hashes for potential matches.
+        putAllToCache(entries);
+    }
+
+    /**
+     * Puts entries to the hash cache. During rematch the entries are kept aside by the group of the current thread
+     * until the window is committed.
+     *
+     * @param entries
+     *         cache entries
+     */
+    private void putAllToCache(final Map<String, String> entries) {
+        final Map<String, String> groupEntries = rematchCacheEntries.get();
+        if (groupEntries != null) {
+            groupEntries.putAll(entries);
+        } else {
+            hashCache.putAll(entries);
+        }
+    }
+
+    /**
+     * Gets entries from the hash cache. During rematch the entries kept aside by the group of the current thread
+     * take precedence.
+     *
+     * @param keys
+     *         cache keys
+     *
+     * @return found entries
+     */
+    private Map<String, String> getAllFromCache(final List<String> keys) {
+        final Map<String, String> entries = hashCache.getAll(keys);
+        final Map<String, String> groupEntries = rematchCacheEntries.get();
+        if (groupEntries == null) {
+            return entries;
+        }
+
+        final Map<String, String> result = new HashMap<>(entries);
+        keys.stream().filter(groupEntries::containsKey).forEach(k -> result.put(k, groupEntries.get(k)));
+        return result;
+    }
+
+    /**
+     * This method searches by body hashes for potential matches. All hashes of the body are looked up at once, as well
+     * as the etalon flags of all found groups.
      *
      * @param body for which body to search
      * @return groupid or null if nothing found
      */
     private String findByHashes(final MatchedBody body) {
-   		// check first, whether there is not the "same"(in the sense of the equal hash) body
-        String groupId = hashCache.get(hashCachePrefix.concat(body.getHash()));
+        List<WeightedHash> alternativeHashes = body.getAlternativeHashes();
+
+        alternativeHashes.sort(Comparator.comparing(WeightedHash::getWeight).reversed()
+                .thenComparing(Comparator.comparing(WeightedHash::getHash)));
+
+        final List<String> hashKeys = new ArrayList<>();
+        hashKeys.add(hashCachePrefix.concat(body.getHash()));
+        alternativeHashes.forEach(h -> hashKeys.add(hashCachePrefix.concat(h.getHash())));
+
+        final Map<String, String> groupIds = getAllFromCache(hashKeys);
+
+        // check first, whether there is not the "same"(in the sense of the equal hash) body
+        String groupId = groupIds.get(hashKeys.get(0));
         if (groupId != null) {
             return groupId;
         }
 
-        String winningGroupId = null;
-        Double winnerWeight = null;
+        if (groupIds.isEmpty()) {
+            return null;
+        }
 
-        List<WeightedHash> alternativeHashes = body.getAlternativeHashes();
+        final Map<String, String> etalonFlags = getAllFromCache(groupIds.values().stream()
+                .distinct()
+                .map(etalonCachePrefix::concat)
+                .collect(Collectors.toList()));
 
-        alternativeHashes.sort(Comparator.comparing(WeightedHash::getWeight).reversed()
-                .thenComparing(Comparator.comparing(WeightedHash::getHash)));
+        String winningGroupId = null;
+        Double winnerWeight = null;
 
         for (WeightedHash hash : alternativeHashes) {
-            groupId = hashCache.get(hashCachePrefix.concat(hash.getHash()));
+            groupId = groupIds.get(hashCachePrefix.concat(hash.getHash()));
 
             if (groupId != null) {
-            		String isEtalonGroup = hashCache.get(etalonCachePrefix.concat(groupId));
-
-            		if (isEtalonGroup != null && isEtalonGroup.equals("true")) {
-    					// etalon wins, no need to wait
-    					return groupId;
-            		}
-
-            		if (winningGroupId == null) {
-            			// first go through, init data
-        				winningGroupId = groupId;
-        				winnerWeight = hash.getWeight();
-        			} else {
-        				// next round, compare weight with previous
-        				if ((winnerWeight - hash.getWeight()) > 0.9) {
-        					// less specific hash, return previous one
-        					return winningGroupId;
-        				}
-        			}
-        		}
+                String isEtalonGroup = etalonFlags.get(etalonCachePrefix.concat(groupId));
+
+                if (isEtalonGroup != null && isEtalonGroup.equals("true")) {
+                    // etalon wins, no need to wait
+                    return groupId;
+                }
+
+                if (winningGroupId == null) {
+                    // first go through, init data
+                    winningGroupId = groupId;
+                    winnerWeight = hash.getWeight();
+                } else {
+                    // next round, compare weight with previous
+                    if ((winnerWeight - hash.getWeight()) > 0.9) {
+                        // less specific hash, return previous one
+                        return winningGroupId;
+                    }
+                }
+            }
         }
 
         return winningGroupId;
-	}
+    }
 
 	/**
      * Body matching.
@@ -588,22 +1091,13 @@ public abstract class BaseTenderMatcher extends BaseMatcher {
                 resendVersion = getVersion();
             }
 
-            final List<MatchedTender> tenders = matchedTenderDao.getForResend(getName(), resendVersion);
-
-            for (final MatchedTender tender : tenders) {
-                final Message outgoingMessage = MessageFactory.getMessage();
-                final String tag = getTenderMessagingTag();
-                outgoingMessage.setValue("groupId", tender.getGroupId());
-                publishMessage(outgoingMessage, tag);
+            try (Stream<String> groupIds = matchedTenderDao.streamGroupIdsForResend(getName(), resendVersion)) {
+                publishMessages(groupIds.map(BaseTenderMatcher::createGroupMessage), getTenderMessagingTag());
             }
             logger.info("Messages with matched tenders sent over.");
 
-            final List<MatchedBody> bodies = matchedBodyDao.getForResend(getName(), resendVersion);
-            for (MatchedBody body : bodies) {
-                final Message outgoingMessage = MessageFactory.getMessage();
-                final String tag = getBodyMessagingTag();
-                outgoingMessage.setValue("groupId", body.getGroupId());
-                publishMessage(outgoingMessage, tag);
+            try (Stream<String> groupIds = matchedBodyDao.streamGroupIdsForResend(getName(), resendVersion)) {
+                publishMessages(groupIds.map(BaseTenderMatcher::createGroupMessage), getBodyMessagingTag());
             }
             logger.info("Messages with matched bodies sent over.");
         } catch (final Exception ex) {
@@ -612,19 +1106,30 @@ public abstract class BaseTenderMatcher extends BaseMatcher {
         }
     }
 
+    /**
+     * @param groupId
+     *         group id
+     * @return message with the group id
+     */
+    private static Message createGroupMessage(final String groupId) {
+        final Message message = MessageFactory.getMessage();
+        message.setValue("groupId", groupId);
+        return message;
+    }
+
     /**
      * Registration of plugin used to clean all bodies.
      */
     private void registerCommonBodyPlugins() {
         bodyPluginRegistry.registerPlugin(EXACT_MATCH_ETALON_PLUGIN,
-                new ExactMatchingEtalonPlugin(matchedBodyDao, etalonBodyDao, getSourceId()));
+                new ExactMatchingEtalonPlugin(etalonBodyDao, etalonMatchedBodies));
 
         bodyPluginRegistry.registerPlugin(EXACT_MATCH_BODY_PLUGIN, new ExactMatchingPlugin(matchedBodyDao));
 
         bodyPluginRegistry.registerPlugin(APPROXIMATE_MATCH_BODY_PLUGIN, new ApproximateMatchingPlugin(matchedBodyDao));
 
         bodyPluginRegistry.registerPlugin(APPROXIMATE_MATCH_ETALON_PLUGIN,
-                new ApproximateMatchingEtalonPlugin(matchedBodyDao, etalonBodyDao, getSourceId()));
+                new ApproximateMatchingEtalonPlugin(etalonBodyDao, etalonMatchedBodies));
     }
 
     /**
@@ -747,30 +1252,90 @@ public abstract class BaseTenderMatcher extends BaseMatcher {
 
     /**
      * Populates body hash cache with already matched results.
+     *
+     * @param modifiedAfter
+     *         only bodies modified after this time are loaded, null means all bodies. Loaded hashes replace the
+     *         existing cache entries in the first case (the cache was restored from an older snapshot), the existing
+     *         entries are kept in the second case.
      */
-    private void populateBodyHashCache() {
+    private void populateBodyHashCache(final LocalDateTime modifiedAfter) {
         logger.info("Populating body hash cache.");
-		Map<String, String> hashes = matchedBodyDao.getHashAndGroupIds();
-		for (Map.Entry<String, String> entry : hashes.entrySet()) {
-			String value = hashCache.get(hashCachePrefix.concat(entry.getKey()));
-			if (value == null) {
-				hashCache.put(hashCachePrefix.concat(entry.getKey()), entry.getValue());
-			}
-		}
-		logger.info("Body hash cache populated.");
-	}
+        Map<String, String> hashes = matchedBodyDao.getHashAndGroupIds(modifiedAfter);
+        for (Map.Entry<String, String> entry : hashes.entrySet()) {
+            String key = hashCachePrefix.concat(entry.getKey());
+            if (modifiedAfter != null || hashCache.get(key) == null) {
+                hashCache.put(key, entry.getValue());
+            }
+        }
+        logger.info("Body hash cache populated with {} hashes.", hashes.size());
+    }
 
     /**
-     * Populates body hash cache with already matched results.
+     * Populates etalon cache with already matched results.
+     *
+     * @param modifiedAfter
+     *         only bodies modified after this time are loaded, null means all bodies
      */
-    private void populateEtalonCache() {
+    private void populateEtalonCache(final LocalDateTime modifiedAfter) {
         logger.info("Populating etalon cache.");
-        List<String> list = matchedBodyDao.getEtalonGroupIds();
-		for (String groupId : list) {
-			hashCache.put(etalonCachePrefix.concat(groupId), "true");
-		}
-		logger.info("Etalon cache populated.");
-	}
+        List<String> list = matchedBodyDao.getEtalonGroupIds(modifiedAfter);
+        for (String groupId : list) {
+            hashCache.put(etalonCachePrefix.concat(groupId), "true");
+        }
+        logger.info("Etalon cache populated with {} groups.", list.size());
+    }
+
+    /**
+     * @return path of the cache snapshot or null in case the snapshots aren't configured or the cache doesn't support
+     *         them
+     */
+    private Path getCacheSnapshotPath() {
+        final String dir = config.getParam("cache.snapshot.dir");
+        if (dir == null || !(hashCache instanceof CompactCache)) {
+            return null;
+        }
+        return Paths.get(dir, getName() + ".snapshot");
+    }
+
+    /**
+     * Restores the hash cache from the snapshot.
+     *
+     * @return time of the snapshot or null in case the snapshot isn't available
+     */
+    private LocalDateTime restoreCacheSnapshot() {
+        final Path path = getCacheSnapshotPath();
+        if (path == null) {
+            return null;
+        }
+
+        try {
+            return CacheSnapshot.read((CompactCache) hashCache, path, getVersion());
+        } catch (IOException e) {
+            // the cache is populated from the database instead
+            logger.warn("Unable to restore cache snapshot {}", path, e);
+            return null;
+        }
+    }
+
+    /**
+     * Writes snapshot of the hash cache.
+     *
+     * @param created
+     *         time the snapshot represents
+     */
+    private void writeCacheSnapshot(final LocalDateTime created) {
+        final Path path = getCacheSnapshotPath();
+        if (path == null) {
+            return;
+        }
+
+        try {
+            CacheSnapshot.write((CompactCache) hashCache, path, getVersion(), created);
+        } catch (IOException e) {
+            // missing snapshot only slows down the next start
+            logger.error("Unable to write cache snapshot {}", path, e);
+        }
+    }
 
     /**
      * Logs about matching to thread context.
@@ -785,4 +1350,99 @@ public abstract class BaseTenderMatcher extends BaseMatcher {
         ThreadContext.put("matching_plugin_name", "manual");
         logger.error("Execution of body match plugin {} took {} ms.", pluginName, executionTime);
     }
+
+    /**
+     * Body waiting for matching together with its "plain/reference" counterpart and the context of matching.
+     */
+    private static final class BodyTask {
+        private final MatchedBody body;
+
+        private final MatchedBody plainBody;
+
+        private final List<BodyTask> bodySet;
+
+        private final CleanTender cleanTender;
+
+        private final LocalDate publicationDate;
+
+        private final String source;
+
+        /**
+         * @param body
+         *         body to be matched
+         * @param plainBody
+         *         "plain/reference" body stored in the matched tender
+         * @param bodySet
+         *         body set the body belongs to, the bodies of one set are saved together
+         * @param cleanTender
+         *         source of the body
+         * @param publicationDate
+         *         publication date
+         * @param source
+         *         body source
+         */
+        private BodyTask(final MatchedBody body, final MatchedBody plainBody, final List<BodyTask> bodySet,
+                final CleanTender cleanTender, final LocalDate publicationDate, final String source) {
+            this.body = body;
+            this.plainBody = plainBody;
+            this.bodySet = bodySet;
+            this.cleanTender = cleanTender;
+            this.publicationDate = publicationDate;
+            this.source = source;
+        }
+    }
+
+    /**
+     * Group of body partitions matched by one thread during rematch, see {@link #rematch(Message)}.
+     */
+    private final class RematchGroup {
+        private final List<List<BodyTask>> partitions = new ArrayList<>();
+
+        /**
+         * Hash cache entries written by the group, they are put into the shared cache once the window is committed.
+         */
+        private final Map<String, String> cacheEntries = new HashMap<>();
+
+        /**
+         * Matches the partitions sequentially and saves the bodies in batches.
+         */
+        private void match() {
+            rematchCacheEntries.set(cacheEntries);
+            try {
+                final List<BodyTask> pending = new ArrayList<>();
+                for (List<BodyTask> partition : partitions) {
+                    List<BodyTask> pendingSet = null;
+                    for (BodyTask task : partition) {
+                        // bodies of the previous body set from the same partition must be visible to the pool queries
+                        if (pendingSet != null && pendingSet != task.bodySet) {
+                            saveBodies(pending);
+                            pending.clear();
+                        }
+
+                        matchBody(task);
+                        pending.add(task);
+                        pendingSet = task.bodySet;
+                    }
+
+                    if (pending.size() >= REMATCH_BATCH_SIZE) {
+                        saveBodies(pending);
+                        pending.clear();
+                    }
+                }
+
+                saveBodies(pending);
+            } finally {
+                rematchCacheEntries.remove();
+            }
+        }
+
+        /**
+         * Puts the cache entries written by the group into the shared cache.
+         */
+        private void flushCache() {
+            if (cacheEnabled && !cacheEntries.isEmpty()) {
+                hashCache.putAll(cacheEntries);
+            }
+        }
+    }
 }
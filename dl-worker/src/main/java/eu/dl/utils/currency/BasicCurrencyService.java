@@ -24,8 +24,6 @@ import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 import java.util.Currency;
-import java.util.HashMap;
-import java.util.Map;
 
 /**
  * Provides functionality related currency and its conversions.
@@ -37,7 +35,7 @@ public class BasicCurrencyService implements CurrencyService {
     
     private ExchangeRatesDAO<ExchangeRates> dao;
     
-    private Map<LocalDate, ExchangeRates> cache;
+    private ExchangeRatesStore store;
     
     private static final long RETENTION_PERIOD = 5;
 
@@ -48,9 +46,20 @@ public class BasicCurrencyService implements CurrencyService {
      * 
      */
     public BasicCurrencyService() {
+        this(new JdbcExhangeRatesDAO());
+    }
+
+    /**
+     * Creates currency service which uses the given DAO. The whole history of exchange rates is loaded from the DAO
+     * on the first conversion.
+     *
+     * @param dao
+     *      exchange rates DAO
+     */
+    public BasicCurrencyService(final ExchangeRatesDAO<ExchangeRates> dao) {
         logger = LoggerFactory.getLogger(this.getClass());
-        dao = new JdbcExhangeRatesDAO();
-        cache = new HashMap<LocalDate, ExchangeRates>();
+        this.dao = dao;
+        store = new ExchangeRatesStore(dao::findAll, this::loadExchangeRates);
     }
 
     @Override
@@ -68,56 +77,101 @@ public class BasicCurrencyService implements CurrencyService {
         }
         // no convert needed, two same currencies provided
         if (currencyFrom.getCurrencyCode().equals(currencyTo.getCurrencyCode())) {
-            logger.debug("{} {} converted to {}", amount, currencyFrom, currencyTo);
             return amount;
         }
 
-        // get exchange rates for date
-        ExchangeRates exchangeRates = getExchangeRates(date);
-        if (exchangeRates == null || exchangeRates.getRates() == null) {
+        // get base currency of the exchange rates for date
+        String base = date == null ? null : store.getBase(date);
+        if (base == null) {
             throw new UnconvertableException("Unable to convert currency, there are no exchange "
                     + "rates available for the desired date " + date);
         }
 
         // currencyFrom is base
-        if (currencyFrom.getCurrencyCode().equals(exchangeRates.getBase())) {
-            logger.debug("currencyFrom is the base for exchange rates");
-            BigDecimal exchangeRate = exchangeRates.getRates().get(currencyTo.getCurrencyCode());
-            if (exchangeRate != null) {
-                logger.debug("{} {} converted to {}", amount, currencyFrom, currencyTo);
-                return amount.multiply(exchangeRate);
-            } else {
-                throw new UnconvertableException("Unable to convert currency, there is no exchange "
-                        + "rates available for the desired currency " + currencyTo.getCurrencyCode());
-            }
+        if (currencyFrom.getCurrencyCode().equals(base)) {
+            return amount.multiply(getRate(date, currencyTo));
         }
         
         // currencyTo is base
-        if (currencyTo.getCurrencyCode().equals(exchangeRates.getBase())) {
-            BigDecimal exchangeRate = exchangeRates.getRates().get(currencyFrom.getCurrencyCode());
-            if (exchangeRate != null) {
-                logger.debug("{} {} converted to {}", amount, currencyFrom, currencyTo);
-                return amount.divide(exchangeRate, 0, RoundingMode.HALF_EVEN);
-            } else {
-                throw new UnconvertableException("Unable to convert currency, there is no exchange "
-                        + "rates available for the desired currency " + currencyFrom.getCurrencyCode());
-            }
+        if (currencyTo.getCurrencyCode().equals(base)) {
+            return amount.divide(getRate(date, currencyFrom), 0, RoundingMode.HALF_EVEN);
         }
         
         // convert through base currency
-        BigDecimal exchangeRateFrom = exchangeRates.getRates().get(currencyFrom.getCurrencyCode());
-        BigDecimal exchangeRateTo = exchangeRates.getRates().get(currencyTo.getCurrencyCode());
-        if (exchangeRateFrom == null) {
+        BigDecimal exchangeRateFrom = getRate(date, currencyFrom);
+        BigDecimal exchangeRateTo = getRate(date, currencyTo);
+        
+        return amount.divide(exchangeRateFrom, 0, RoundingMode.HALF_EVEN).multiply(exchangeRateTo);
+    }
+
+    @Override
+    public final double convert(final Currency currencyFrom, final Currency currencyTo, final double amount,
+            final LocalDate date) {
+        if (currencyFrom == null || currencyTo == null) {
+            return Double.NaN;
+        }
+        // no convert needed, two same currencies provided
+        if (currencyFrom.getCurrencyCode().equals(currencyTo.getCurrencyCode())) {
+            return amount;
+        }
+
+        String base = date == null ? null : store.getBase(date);
+        if (base == null) {
+            throw new UnconvertableException("Unable to convert currency, there are no exchange "
+                    + "rates available for the desired date " + date);
+        }
+
+        // currencyFrom is base
+        if (currencyFrom.getCurrencyCode().equals(base)) {
+            return amount * getRateAsDouble(date, currencyTo);
+        }
+
+        // the amount in the base currency is rounded the same way as by the BigDecimal conversion
+        double amountInBase = Math.rint(amount / getRateAsDouble(date, currencyFrom));
+
+        // currencyTo is base
+        if (currencyTo.getCurrencyCode().equals(base)) {
+            return amountInBase;
+        }
+
+        // convert through base currency
+        return amountInBase * getRateAsDouble(date, currencyTo);
+    }
+
+    /**
+     * @param date
+     *      date with exchange rates
+     * @param currency
+     *      currency
+     * @return exchange rate of the currency against the base currency
+     * @throws UnconvertableException
+     *      in case the rate is missing
+     */
+    private BigDecimal getRate(final LocalDate date, final Currency currency) {
+        BigDecimal exchangeRate = store.getRate(date, currency.getCurrencyCode());
+        if (exchangeRate == null) {
             throw new UnconvertableException("Unable to convert currency, there is no exchange "
-                    + "rates available for the desired currency " + currencyFrom.getCurrencyCode());
+                    + "rates available for the desired currency " + currency.getCurrencyCode());
         }
-        
-        if (exchangeRateTo == null) {
+        return exchangeRate;
+    }
+
+    /**
+     * @param date
+     *      date with exchange rates
+     * @param currency
+     *      currency
+     * @return exchange rate of the currency against the base currency
+     * @throws UnconvertableException
+     *      in case the rate is missing
+     */
+    private double getRateAsDouble(final LocalDate date, final Currency currency) {
+        double exchangeRate = store.getRateAsDouble(date, currency.getCurrencyCode());
+        if (Double.isNaN(exchangeRate)) {
             throw new UnconvertableException("Unable to convert currency, there is no exchange "
-                    + "rates available for the desired currency " + currencyTo.getCurrencyCode());
+                    + "rates available for the desired currency " + currency.getCurrencyCode());
         }
-        
-        return amount.divide(exchangeRateFrom, 0, RoundingMode.HALF_EVEN).multiply(exchangeRateTo);
+        return exchangeRate;
     }
 
     /**
@@ -134,31 +188,32 @@ public class BasicCurrencyService implements CurrencyService {
             return null;
         }
 
-        // try cache first
-        if (cache.containsKey(date)) {
-            // rates for date found, return them
-            logger.debug("Exchange rates for {} found in cache.", date);
-            return cache.get(date);
+        return store.get(date);
+    }
+
+    /**
+     * Loads exchange rates missing in the cache from db. If nothing found in db, downloads them from remote API
+     * and stores them.
+     *
+     * @param date the date to be searched
+     * @return found result or null
+     */
+    private ExchangeRates loadExchangeRates(final LocalDate date) {
+        logger.debug("Exchange rates for {} not found in cache.", date);
+        ExchangeRates exchangeRates = dao.getByDate(date);
+        if (exchangeRates != null) {
+            // found in db, return
+            logger.debug("Exchange rates for {} found in db.", date);
+            return exchangeRates;
         } else {
-            // no cache entry, check db
-            logger.debug("Exchange rates for {} not found in cache.", date);
-            ExchangeRates exchangeRates = dao.getByDate(date);
+            // nothing found locally, download from remote API
+            logger.debug("Exchange rates for {} not found in db.", date);
+            exchangeRates = getExchangeRatesFromRemote(date);
             if (exchangeRates != null) {
-                // found in db, return
-                logger.debug("Exchange rates for {} found in db.", date);
-                cache.put(date, exchangeRates);
-                return exchangeRates;
-            } else {
-                // nothing found locally, download from remote API
-                logger.debug("Exchange rates for {} not found in db.", date);
-                exchangeRates = getExchangeRatesFromRemote(date);
-                if (exchangeRates != null) {
-                    dao.save(exchangeRates.setDate(date));
-                    logger.debug("Exchange rates retrieved from API, storing to db with id {}.", exchangeRates.getId());
-                }
-                cache.put(date, exchangeRates);
-                return exchangeRates;
+                dao.save(exchangeRates.setDate(date));
+                logger.debug("Exchange rates retrieved from API, storing to db with id {}.", exchangeRates.getId());
             }
+            return exchangeRates;
         }
     }
 
@@ -168,7 +223,7 @@ public class BasicCurrencyService implements CurrencyService {
      * @param date date to retrieve exchange rates for
      * @return exchange rates or null
      */
-    private ExchangeRates getExchangeRatesFromRemote(final LocalDate date) {
+    protected ExchangeRates getExchangeRatesFromRemote(final LocalDate date) {
         try {
             ThreadUtils.humanize(2000);
             logger.debug("Querying exchange rates API for {}", date);
@@ -228,7 +283,7 @@ public class BasicCurrencyService implements CurrencyService {
 
     @Override
     public final void updateExchangeRates(final LocalDate date, final ExchangeRates exchangeRates) {
-        cache.put(date, exchangeRates);
+        store.put(date, exchangeRates);
         dao.save(exchangeRates);
     }
 
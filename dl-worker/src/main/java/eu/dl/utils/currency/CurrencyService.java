@@ -34,6 +34,22 @@ public interface CurrencyService {
      * @return converted amount
      */
     BigDecimal convert(Currency currencyFrom, Currency currencyTo, BigDecimal amount, LocalDate date);
+
+    /**
+     * Converts amount in currencyFrom to amount in currencyTo using the exchange rate relevant for the date
+     * provided. The amount in the base currency of the rates is rounded to whole units (half even) the same way as
+     * by the {@link BigDecimal} conversion, but the computation is done in double precision, so the result is only
+     * approximate. The conversion doesn't allocate any objects when the rates for the date are already loaded.
+     * Suitable for comparisons of amounts and estimates.
+     *
+     * @param currencyFrom currency in which the amount provided.
+     * @param currencyTo currency in which should be the amount returned
+     * @param amount amount
+     * @param date exchange rate for the date is used
+     *
+     * @return converted amount or NaN if any of the currencies is null
+     */
+    double convert(Currency currencyFrom, Currency currencyTo, double amount, LocalDate date);
     
     /**
      * Gets the exchange rates for a current date. The inner implementation retrieves entry from 
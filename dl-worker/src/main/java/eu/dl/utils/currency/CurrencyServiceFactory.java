@@ -13,11 +13,18 @@ public class CurrencyServiceFactory {
     }
 
     /**
-     * Creates and returns storage service.
+     * Returns currency service shared by all the callers, so the exchange rates are loaded only once per process.
      * 
      * @return currency service
      */
     public static final CurrencyService getCurrencyService() {
-        return new BasicCurrencyService();
+        return SharedCurrencyService.INSTANCE;
+    }
+
+    /**
+     * Holder of the shared service, the service is created on the first use.
+     */
+    private static final class SharedCurrencyService {
+        private static final CurrencyService INSTANCE = new BasicCurrencyService();
     }
 }
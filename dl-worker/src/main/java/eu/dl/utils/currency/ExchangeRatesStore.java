@@ -0,0 +1,470 @@
+package eu.dl.utils.currency;
+
+import eu.dl.dataaccess.dto.ExchangeRates;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Thread safe store of exchange rates shared by all the users of one currency service.
+ *
+ * The whole history of rates is bulk loaded on the first lookup and kept in flat primitive arrays indexed by the day
+ * and the currency (unscaled value and scale of each rate), so the lookup of a rate is just an array access and the
+ * history takes a few bytes per rate. Rates of other days (and days which can't be stored in the arrays) are loaded
+ * one by one by the loader and kept in a concurrent map. The days without rates are remembered only for
+ * {@link #DEFAULT_MISS_TTL}, then the loader is asked again (eg. the rates of the day were published meanwhile).
+ * Concurrent lookups of the same day wait for one call of the loader, which runs outside of the map locks.
+ */
+final class ExchangeRatesStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExchangeRatesStore.class);
+
+    /**
+     * Index of the base currency of the day without rates in the table.
+     */
+    private static final int NO_DATA = -1;
+
+    /**
+     * Scale of the missing rate.
+     */
+    private static final byte NO_RATE = Byte.MIN_VALUE;
+
+    /**
+     * Maximal scale of the rate stored in the table.
+     */
+    private static final int MAX_SCALE = 18;
+
+    /**
+     * Maximal number of rates in the table (days times currencies).
+     */
+    private static final long MAX_TABLE_SIZE = 100_000_000;
+
+    private static final double[] POWERS_OF_TEN = new double[MAX_SCALE + 1];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i <= MAX_SCALE; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    /**
+     * How long the days without rates returned by the loader are remembered.
+     */
+    static final Duration DEFAULT_MISS_TTL = Duration.ofHours(1);
+
+    /**
+     * Cached result of the day without rates.
+     */
+    private static final ExchangeRates MISSING = new ExchangeRates();
+
+    private final Supplier<List<ExchangeRates>> preloader;
+
+    private final Function<LocalDate, ExchangeRates> loader;
+
+    private final long missTtl;
+
+    private final Map<LocalDate, ExchangeRates> loaded = new ConcurrentHashMap<>();
+
+    /**
+     * Days without rates returned by the loader with the {@link System#nanoTime()} of their expiration.
+     */
+    private final Map<LocalDate, Long> missed = new ConcurrentHashMap<>();
+
+    /**
+     * Running loads of the days.
+     */
+    private final Map<LocalDate, CompletableFuture<ExchangeRates>> loading = new ConcurrentHashMap<>();
+
+    private volatile Table table;
+
+    /**
+     * Creates store.
+     *
+     * @param preloader
+     *      returns the whole history of rates, called once on the first lookup
+     * @param loader
+     *      returns rates for the day which isn't in the history (or null)
+     */
+    ExchangeRatesStore(final Supplier<List<ExchangeRates>> preloader,
+                       final Function<LocalDate, ExchangeRates> loader) {
+        this(preloader, loader, DEFAULT_MISS_TTL);
+    }
+
+    /**
+     * Creates store.
+     *
+     * @param preloader
+     *      returns the whole history of rates, called once on the first lookup
+     * @param loader
+     *      returns rates for the day which isn't in the history (or null)
+     * @param missTtl
+     *      how long the days without rates returned by the loader are remembered
+     */
+    ExchangeRatesStore(final Supplier<List<ExchangeRates>> preloader,
+                       final Function<LocalDate, ExchangeRates> loader, final Duration missTtl) {
+        this.preloader = preloader;
+        this.loader = loader;
+        this.missTtl = missTtl.toNanos();
+    }
+
+    /**
+     * @param date
+     *      date
+     * @return base currency of the rates for the date or null if there are no rates for the date
+     */
+    String getBase(final LocalDate date) {
+        final Table t = getTable();
+        final int day = t.getDay(date);
+        if (day != NO_DATA) {
+            return t.codes[t.bases[day]];
+        }
+
+        final ExchangeRates rates = load(date);
+        return rates == null ? null : rates.getBase();
+    }
+
+    /**
+     * @param date
+     *      date
+     * @param currency
+     *      currency code
+     * @return exchange rate of the currency against the base currency or null
+     */
+    BigDecimal getRate(final LocalDate date, final String currency) {
+        final Table t = getTable();
+        final int day = t.getDay(date);
+        if (day != NO_DATA) {
+            final int position = t.getPosition(day, currency);
+            return position == NO_DATA ? null : BigDecimal.valueOf(t.unscaledRates[position], t.scales[position]);
+        }
+
+        final ExchangeRates rates = load(date);
+        return rates == null ? null : rates.getRates().get(currency);
+    }
+
+    /**
+     * Returns the rate without any allocation in case the date is in the preloaded history.
+     *
+     * @param date
+     *      date
+     * @param currency
+     *      currency code
+     * @return exchange rate of the currency against the base currency or NaN
+     */
+    double getRateAsDouble(final LocalDate date, final String currency) {
+        final Table t = getTable();
+        final int day = t.getDay(date);
+        if (day != NO_DATA) {
+            final int position = t.getPosition(day, currency);
+            return position == NO_DATA ? Double.NaN
+                : t.unscaledRates[position] / POWERS_OF_TEN[t.scales[position]];
+        }
+
+        final ExchangeRates rates = load(date);
+        final BigDecimal rate = rates == null ? null : rates.getRates().get(currency);
+        return rate == null ? Double.NaN : rate.doubleValue();
+    }
+
+    /**
+     * @param date
+     *      date
+     * @return exchange rates for the date or null
+     */
+    ExchangeRates get(final LocalDate date) {
+        final Table t = getTable();
+        final int day = t.getDay(date);
+        if (day == NO_DATA) {
+            return load(date);
+        }
+
+        final HashMap<String, BigDecimal> rates = new HashMap<>();
+        for (int i = 0; i < t.codes.length; i++) {
+            final int position = t.getPosition(day, t.codes[i]);
+            if (position != NO_DATA) {
+                rates.put(t.codes[i], BigDecimal.valueOf(t.unscaledRates[position], t.scales[position]));
+            }
+        }
+
+        final ExchangeRates result = new ExchangeRates().setDate(date).setBase(t.codes[t.bases[day]]).setRates(rates);
+        result.setId(t.ids[day]);
+        return result;
+    }
+
+    /**
+     * Replaces rates for the date.
+     *
+     * @param date
+     *      date
+     * @param exchangeRates
+     *      new rates
+     */
+    void put(final LocalDate date, final ExchangeRates exchangeRates) {
+        loaded.put(date, exchangeRates == null || exchangeRates.getRates() == null ? MISSING : exchangeRates);
+        missed.remove(date);
+
+        // the day in the table is hidden, so the lookups go to the loaded rates
+        final Table t = getTable();
+        final int day = t.getDay(date);
+        if (day != NO_DATA) {
+            t.bases[day] = NO_DATA;
+        }
+    }
+
+    /**
+     * @param date
+     *      date
+     * @return rates loaded by the loader or null
+     */
+    private ExchangeRates load(final LocalDate date) {
+        ExchangeRates rates = getLoaded(date);
+        if (rates == null) {
+            final CompletableFuture<ExchangeRates> load = new CompletableFuture<>();
+            final CompletableFuture<ExchangeRates> running = loading.putIfAbsent(date, load);
+            rates = running == null ? load(date, load) : await(running);
+        }
+
+        return rates == MISSING ? null : rates;
+    }
+
+    /**
+     * @param date
+     *      date
+     * @return loaded rates, MISSING for the day without rates or null if the day isn't loaded (or the miss expired)
+     */
+    private ExchangeRates getLoaded(final LocalDate date) {
+        final ExchangeRates rates = loaded.get(date);
+        if (rates != null) {
+            return rates;
+        }
+
+        final Long expiration = missed.get(date);
+        return expiration != null && System.nanoTime() - expiration < 0 ? MISSING : null;
+    }
+
+    /**
+     * Loads the rates by the loader and completes the given load, which is registered as the running load of the
+     * date.
+     *
+     * @param date
+     *      date
+     * @param load
+     *      running load of the date
+     * @return loaded rates or MISSING
+     */
+    private ExchangeRates load(final LocalDate date, final CompletableFuture<ExchangeRates> load) {
+        try {
+            // the rates could be loaded by the load which has finished meanwhile
+            ExchangeRates rates = getLoaded(date);
+            if (rates == null) {
+                rates = loader.apply(date);
+                if (rates == null || rates.getRates() == null) {
+                    rates = MISSING;
+                    missed.put(date, System.nanoTime() + missTtl);
+                } else {
+                    loaded.put(date, rates);
+                    missed.remove(date);
+                }
+            }
+
+            load.complete(rates);
+            return rates;
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(date, load);
+        }
+    }
+
+    /**
+     * Waits for the load running in another thread.
+     *
+     * @param running
+     *      running load
+     * @return loaded rates or MISSING
+     */
+    private static ExchangeRates await(final CompletableFuture<ExchangeRates> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * @return table with preloaded history, the history is loaded on the first call
+     */
+    private Table getTable() {
+        Table t = table;
+        if (t == null) {
+            synchronized (this) {
+                t = table;
+                if (t == null) {
+                    t = createTable(preloader.get());
+                    table = t;
+                }
+            }
+        }
+        return t;
+    }
+
+    /**
+     * Creates the table from the history. Days with rates which can't be stored in the table are put among the
+     * loaded rates.
+     *
+     * @param history
+     *      all the rates
+     * @return table
+     */
+    private Table createTable(final List<ExchangeRates> history) {
+        if (history == null || history.isEmpty()) {
+            return new Table(0, 0, Collections.emptyMap());
+        }
+
+        long firstDay = Long.MAX_VALUE;
+        long lastDay = Long.MIN_VALUE;
+        final Map<String, Integer> currencies = new HashMap<>();
+        for (ExchangeRates rates : history) {
+            if (isStorable(rates)) {
+                firstDay = Math.min(firstDay, rates.getDate().toEpochDay());
+                lastDay = Math.max(lastDay, rates.getDate().toEpochDay());
+                currencies.putIfAbsent(rates.getBase(), currencies.size());
+                rates.getRates().keySet().forEach(c -> currencies.putIfAbsent(c, currencies.size()));
+            } else if (rates.getDate() != null) {
+                loaded.put(rates.getDate(), rates.getRates() == null ? MISSING : rates);
+            }
+        }
+
+        if (firstDay > lastDay || (lastDay - firstDay + 1) * currencies.size() > MAX_TABLE_SIZE) {
+            logger.warn("Exchange rates history can't be preloaded, the rates will be loaded on demand");
+            history.stream().filter(ExchangeRatesStore::isStorable).forEach(r -> loaded.put(r.getDate(), r));
+            return new Table(0, 0, Collections.emptyMap());
+        }
+
+        final Table t = new Table(firstDay, (int) (lastDay - firstDay + 1), currencies);
+        for (ExchangeRates rates : history) {
+            if (isStorable(rates)) {
+                final int day = (int) (rates.getDate().toEpochDay() - firstDay);
+                // the rates of the day could be stored twice, the later ones are used
+                loaded.remove(rates.getDate());
+                t.bases[day] = currencies.get(rates.getBase());
+                t.ids[day] = rates.getId();
+                final int offset = day * currencies.size();
+                for (int i = 0; i < currencies.size(); i++) {
+                    t.scales[offset + i] = NO_RATE;
+                }
+                rates.getRates().forEach((currency, rate) -> {
+                    final int position = offset + currencies.get(currency);
+                    t.unscaledRates[position] = rate.unscaledValue().longValue();
+                    t.scales[position] = (byte) rate.scale();
+                });
+            }
+        }
+
+        logger.info("Exchange rates of {} days ({} currencies) preloaded", t.bases.length, currencies.size());
+        return t;
+    }
+
+    /**
+     * @param rates
+     *      rates of one day
+     * @return true if the rates can be stored in the table
+     */
+    private static boolean isStorable(final ExchangeRates rates) {
+        if (rates == null || rates.getDate() == null || rates.getBase() == null || rates.getRates() == null) {
+            return false;
+        }
+
+        for (BigDecimal rate : rates.getRates().values()) {
+            if (rate == null || rate.scale() < 0 || rate.scale() > MAX_SCALE
+                || rate.unscaledValue().bitLength() >= Long.SIZE) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Preloaded history of rates. Rate of the currency for the day is stored on position
+     * {@code day * currencies.size() + currency}.
+     */
+    private static final class Table {
+        private final long firstDay;
+
+        private final int[] bases;
+
+        private final String[] ids;
+
+        private final long[] unscaledRates;
+
+        private final byte[] scales;
+
+        private final Map<String, Integer> currencies;
+
+        private final String[] codes;
+
+        /**
+         * @param firstDay
+         *      epoch day of the first day
+         * @param days
+         *      number of days
+         * @param currencies
+         *      currency codes with their indexes
+         */
+        Table(final long firstDay, final int days, final Map<String, Integer> currencies) {
+            this.firstDay = firstDay;
+            this.bases = new int[days];
+            this.ids = new String[days];
+            this.unscaledRates = new long[days * currencies.size()];
+            this.scales = new byte[days * currencies.size()];
+            this.currencies = currencies;
+            this.codes = new String[currencies.size()];
+            currencies.forEach((code, index) -> codes[index] = code);
+            Arrays.fill(bases, NO_DATA);
+        }
+
+        /**
+         * @param date
+         *      date
+         * @return index of the day or NO_DATA if there are no rates for the date in the table
+         */
+        int getDay(final LocalDate date) {
+            final long day = date.toEpochDay() - firstDay;
+            return day < 0 || day >= bases.length ? NO_DATA : bases[(int) day] == NO_DATA ? NO_DATA : (int) day;
+        }
+
+        /**
+         * @param day
+         *      index of the day
+         * @param currency
+         *      currency code
+         * @return position of the rate or NO_DATA if the rate is missing
+         */
+        int getPosition(final int day, final String currency) {
+            final Integer index = currencies.get(currency);
+            if (index == null) {
+                return NO_DATA;
+            }
+
+            final int position = day * codes.length + index;
+            return scales[position] == NO_RATE ? NO_DATA : position;
+        }
+    }
+}
@@ -157,6 +157,40 @@ public abstract class BaseWorker extends RabbitMessenger implements Worker {
      */
     protected abstract void resend(String version, String dateFrom, String dateTo);
 
+    /**
+     * Reprocesses all the items of the given source (worker name and version of the source data) at once, without
+     * sending a message per item. Triggered by the message with command "rematch". Workers which support this mode
+     * override this method, the default implementation refuses the command.
+     *
+     * @param message
+     *            command message with the parameters of the reprocessing
+     * @throws UnrecoverableException
+     *         in case the worker does not support the command or the work cannot be done
+     */
+    protected void rematch(final Message message) {
+        throw new UnrecoverableException("Worker " + getName() + " does not support rematch command.");
+    }
+
+    /**
+     * Says whether the worker can process messages by several consumers concurrently (see
+     * {@link #connectIncomingQueue()}). Only workers whose {@link #doWork(Message)} was checked to be thread-safe
+     * (no shared mutable state, thread-safe plugins and utils) override this method, the default implementation
+     * returns false and the worker always runs with one consumer.
+     *
+     * @return true if the worker supports concurrent consumers
+     */
+    protected boolean supportsConcurrentConsumers() {
+        return false;
+    }
+
+    /**
+     * Prepares the database connection of the current consumer thread before the message is processed, eg. disables
+     * autocommit. Called for each message by the thread which processes it, because the connection is returned to the
+     * pool once the message is processed. Does nothing by default.
+     */
+    protected void prepareConnection() {
+    }
+
     /**
      * Returns utils used to manage transaction. Transaction utils are an
      * abstraction providing transaction commit, begin, rollback and similar.
@@ -177,12 +211,59 @@ public abstract class BaseWorker extends RabbitMessenger implements Worker {
      * Registers itself to receive messages from the queue. This methods also
      * handles error states when message is being processed. The queue is
      * defined here (and created if it doesn't exist).
+     *
+     * In case that the configuration parameter {@code <worker_class>.consumers} is greater than 1, the worker opens
+     * such number of channels, each with its own consumer and with prefetch set by the parameter
+     * {@code <worker_class>.prefetch}, and processes the messages concurrently. Each consumer thread works with its
+     * own database connection and transaction. The mode is available only for workers which support it (see
+     * {@link #supportsConcurrentConsumers()}), other workers run with one consumer regardless of the configuration.
      */
     private void connectIncomingQueue() {
-        final Channel channel = getIncomingChanel();
+        final int consumers = getConsumersCount();
+        if (consumers > 1) {
+            final Integer prefetch = config.getParamValueAs(getName() + ".prefetch", Integer::valueOf);
 
+            logger.info("Starting {} concurrent consumers", consumers);
+            for (Channel channel : getIncomingChannels(consumers, prefetch != null ? prefetch : 1)) {
+                connectIncomingQueue(createConsumer(channel), channel);
+            }
+        } else {
+            final Channel channel = getIncomingChanel();
+            connectIncomingQueue(createConsumer(channel), channel);
+        }
+    }
+
+    /**
+     * Gets number of concurrent consumers from the configuration parameter {@code <worker_class>.consumers}. Workers
+     * which don't support concurrent consumers always run with one.
+     *
+     * @return number of consumers, 1 by default
+     */
+    protected final int getConsumersCount() {
+        final Integer consumers = config.getParamValueAs(getName() + ".consumers", Integer::valueOf);
+        if (consumers == null || consumers <= 1) {
+            return 1;
+        }
+
+        if (!supportsConcurrentConsumers()) {
+            logger.warn("Worker {} does not support concurrent consumers, {} consumers configured, starting one.",
+                getName(), consumers);
+            return 1;
+        }
+
+        return consumers;
+    }
+
+    /**
+     * Creates consumer which handles messages delivered to the given channel.
+     *
+     * @param channel
+     *         rabbit channel
+     * @return message consumer
+     */
+    private Consumer createConsumer(final Channel channel) {
         // message consumer
-        final Consumer consumer = new DefaultConsumer(channel) {
+        return new DefaultConsumer(channel) {
             @Override
             public void handleDelivery(final String consumerTag, final Envelope envelope,
                                        final AMQP.BasicProperties properties, final byte[] body) throws IOException {
@@ -210,6 +291,7 @@ public abstract class BaseWorker extends RabbitMessenger implements Worker {
 
                     // starting transactinon if needed
                     getTransactionUtils().begin();
+                    prepareConnection();
 
                     if (command != null) {
                         if (command.equals("resend")) {
@@ -224,6 +306,9 @@ public abstract class BaseWorker extends RabbitMessenger implements Worker {
                                 logger.info("No version specified in the message, sending \"latest\" instead.");
                                 resend(LATEST, fromDate, toDate);
                             }
+                        } else if (command.equals("rematch")) {
+                            logger.info("Triggering rematch command");
+                            rematch(message);
                         } else {
                             logger.error("Uknown command {}", command);
                             throw new UnrecoverableException("Unknow command in the message ");
@@ -315,8 +400,6 @@ public abstract class BaseWorker extends RabbitMessenger implements Worker {
                 ThreadContext.clearAll();
             }
         };
-
-        connectIncomingQueue(consumer, channel);
     }
 
     /**
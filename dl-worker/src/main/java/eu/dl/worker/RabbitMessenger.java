@@ -15,9 +15,15 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.net.SocketException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeoutException;
+import java.util.stream.Stream;
 
 /**
  * Provides rabbit messaging functionality.
@@ -56,9 +62,24 @@ public abstract class RabbitMessenger {
      */
     private static String envPrefix;
 
+    /**
+     * Lock guarding the outgoing channel. Consumers running in parallel share the same outgoing channel.
+     */
+    private final Object outgoingChannelLock = new Object();
+
     private static final Integer PUBLISH_MESSAGE_FAILURE_LIMIT = 5;
     private static final long PUBLISH_MESSAGE_FAILURE_SLEEP_TIME = 60000;
 
+    /**
+     * Default number of messages published in bulk before waiting for the publisher confirms.
+     */
+    private static final int DEFAULT_CONFIRM_BATCH_SIZE = 1000;
+
+    /**
+     * Default timeout of waiting for the publisher confirms in milliseconds.
+     */
+    private static final long DEFAULT_CONFIRM_TIMEOUT = 60000;
+
     /**
      * Initialization common for all the workers. Registers worker in the
      * messaging, reads configuration variables, prepares logging.
@@ -150,6 +171,17 @@ public abstract class RabbitMessenger {
      * @return connection
      */
     private Connection newConnection() {
+        return newConnection(null);
+    }
+
+    /**
+     * Establishes connection with rabbit.
+     *
+     * @param executor
+     *      executor used to dispatch deliveries to the consumers, if null the default one is used
+     * @return connection
+     */
+    private Connection newConnection(final ExecutorService executor) {
         try {
             // configure connection
             final ConnectionFactory factory = new ConnectionFactory();
@@ -159,7 +191,7 @@ public abstract class RabbitMessenger {
             // factory.setPort(5674);
 
             // establish connection
-            return factory.newConnection();
+            return executor == null ? factory.newConnection() : factory.newConnection(executor);
         } catch (IOException | TimeoutException ex) {
             logger.error("Unable to establish connection with messaging system - {}", ex);
             throw new RuntimeException("Unable to establish connection with messaging system", ex);
@@ -175,28 +207,95 @@ public abstract class RabbitMessenger {
         try {
             // establish connection
             final Connection connection = newConnection();
-            final Channel channel = connection.createChannel();
-
-            // define the queue as lazy - store params on the disk
-            Map<String, Object> args = new HashMap<>();
-            args.put("x-queue-mode", "lazy");
+            return createIncomingChannel(connection, 1);
+        } catch (IOException ex) {
+            logger.error("Unable to establish connection with messaging system - {}", ex);
+            throw new RuntimeException("Unable to establish connection with messaging system", ex);
+        }
+    }
 
-            // declare the queue itself
-            channel.queueDeclare(envPrefix + getIncomingQueueName(), true, false, false, args);
-            channel.exchangeDeclare(envPrefix + getIncomingExchangeName(), "direct", true);
-            channel.basicQos(1);
+    /**
+     * Gets channels for incoming queue. All channels share one connection whose deliveries are dispatched by a fixed
+     * thread pool of {@code count} threads, so each channel is served by its own thread and the messages are
+     * processed concurrently. The thread pool is shut down when the connection is closed, because the client doesn't
+     * shut down executors supplied by the caller.
+     *
+     * @param count
+     *      number of channels (and threads)
+     * @param prefetch
+     *      number of unacknowledged messages delivered to each channel
+     * @return list of initialised channels
+     */
+    protected final List<Channel> getIncomingChannels(final int count, final int prefetch) {
+        final ExecutorService executor = Executors.newFixedThreadPool(count);
+        Connection connection = null;
+        try {
+            // establish connection
+            connection = newConnection(executor);
+            connection.addShutdownListener(cause -> executor.shutdown());
 
-            channel.queueBind(envPrefix + getIncomingQueueName(),
-                envPrefix + getIncomingExchangeName(),
-                envPrefix + getIncomingQueueName());
+            final List<Channel> channels = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                channels.add(createIncomingChannel(connection, prefetch));
+            }
 
-            return channel;
+            return channels;
         } catch (IOException ex) {
+            closeIncomingConnection(connection, executor);
             logger.error("Unable to establish connection with messaging system - {}", ex);
             throw new RuntimeException("Unable to establish connection with messaging system", ex);
+        } catch (RuntimeException ex) {
+            closeIncomingConnection(connection, executor);
+            throw ex;
         }
     }
 
+    /**
+     * Closes the incoming connection which failed to initialise, together with its delivery thread pool.
+     *
+     * @param connection
+     *      rabbit connection or null if it wasn't established
+     * @param executor
+     *      thread pool dispatching the deliveries of the connection
+     */
+    private static void closeIncomingConnection(final Connection connection, final ExecutorService executor) {
+        if (connection != null) {
+            connection.abort();
+        }
+        executor.shutdown();
+    }
+
+    /**
+     * Creates channel for incoming queue on the given connection. The queue and the exchange are declared (and created
+     * if they don't exist yet).
+     *
+     * @param connection
+     *      rabbit connection
+     * @param prefetch
+     *      number of unacknowledged messages delivered to the channel
+     * @return initialised channel
+     * @throws IOException
+     *      in case that the channel can't be created
+     */
+    private Channel createIncomingChannel(final Connection connection, final int prefetch) throws IOException {
+        final Channel channel = connection.createChannel();
+
+        // define the queue as lazy - store params on the disk
+        Map<String, Object> args = new HashMap<>();
+        args.put("x-queue-mode", "lazy");
+
+        // declare the queue itself
+        channel.queueDeclare(envPrefix + getIncomingQueueName(), true, false, false, args);
+        channel.exchangeDeclare(envPrefix + getIncomingExchangeName(), "direct", true);
+        channel.basicQos(prefetch);
+
+        channel.queueBind(envPrefix + getIncomingQueueName(),
+            envPrefix + getIncomingExchangeName(),
+            envPrefix + getIncomingQueueName());
+
+        return channel;
+    }
+
     /**
      * Registers itself to send messages to the queue. The queue is defined here
      * (and created if it doesn't exist yet).
@@ -243,46 +342,8 @@ public abstract class RabbitMessenger {
             logger.debug("Message body: {}", StringUtils.abbreviate(message.toJson(), RAW_MESSAGE_LONG));
             logger.trace("Message body: {}", message.toJson());
 
-            messagesSentByExchangeConnection++;
-            if (messagesSentByExchangeConnection > MAX_MESSAGES_SENT_BY_EXCHANGE_CONNECTION) {
-                outgoingChannel.abort();
-                connectOutgoingExchange();
-            }
-
-            int exceptionsCount = 0;
-            while (true) {
-                try {
-                    outgoingChannel.basicPublish(envPrefix + getOutgoingExchangeName(),
-                            envPrefix + tag,
-                            MessageProperties.PERSISTENT_TEXT_PLAIN,
-                            message.toJson().getBytes());
-                    break;
-                } catch (SocketException | AlreadyClosedException e1) {
-                    logger.error(e1.getClass().getName() + " exception occurred during message publish.", e1);
-                    if (exceptionsCount > 0) {
-                        throw new UnrecoverableException("Reconnection outgoing channel did not work");
-                    }
-                    while (true) {
-                        try {
-                            logger.error("Going to sleep for " + PUBLISH_MESSAGE_FAILURE_SLEEP_TIME + " ms.");
-                            Thread.sleep(PUBLISH_MESSAGE_FAILURE_SLEEP_TIME);
-                        } catch (InterruptedException ex) {
-                            logger.error("Thread interrupted, waking up {}", ex);
-                        }
-                        try {
-                            // reconnect outgoing channel
-                            connectOutgoingExchange();
-                            break;
-                        } catch (RuntimeException e2) {
-                            if (++exceptionsCount > PUBLISH_MESSAGE_FAILURE_LIMIT) {
-                                throw new UnrecoverableException(
-                                        "Unable to publish message. The worker have been waiting " +
-                                                PUBLISH_MESSAGE_FAILURE_LIMIT * PUBLISH_MESSAGE_FAILURE_SLEEP_TIME +
-                                                " ms with no success", e2);
-                            }
-                        }
-                    }
-                }
+            synchronized (outgoingChannelLock) {
+                publishWithReconnect(message, tag);
             }
 
             logger.info("Published json message to exchange {} , tag {}", envPrefix + getOutgoingExchangeName(),
@@ -292,4 +353,139 @@ public abstract class RabbitMessenger {
             throw new UnrecoverableException("Unable to publish message", ex);
         }
     }
+
+    /**
+     * Publishes messages to the outgoing exchange in bulk, meant for resending of large amounts of messages.
+     *
+     * The messages are published on a dedicated channel in the confirm mode. After each
+     * {@code rabbitmq.bulk.confirmBatchSize} messages the publisher waits until the broker confirms all of them (at most
+     * {@code rabbitmq.bulk.confirmTimeout} milliseconds), so the number of unconfirmed messages is bounded and no
+     * message is lost silently. Optionally the throughput is limited to {@code rabbitmq.bulk.maxRate} messages per
+     * second. The messages are consumed lazily from the stream.
+     *
+     * @param messages
+     *            messages to be send to other workers
+     * @param tag
+     *            tag for the messages
+     * @return number of published messages
+     */
+    protected final long publishMessages(final Stream<Message> messages, final String tag) {
+        final long batchSize = Math.max(1, getBulkParam("confirmBatchSize", DEFAULT_CONFIRM_BATCH_SIZE));
+        final long timeout = getBulkParam("confirmTimeout", DEFAULT_CONFIRM_TIMEOUT);
+        final long maxRate = getBulkParam("maxRate", 0L);
+
+        final Connection connection = newConnection();
+        try {
+            final Channel channel = connection.createChannel();
+            channel.exchangeDeclare(envPrefix + getOutgoingExchangeName(), "direct", true);
+            channel.confirmSelect();
+
+            final long start = System.nanoTime();
+            long published = 0;
+            final Iterator<Message> iterator = messages.iterator();
+            while (iterator.hasNext()) {
+                channel.basicPublish(envPrefix + getOutgoingExchangeName(), envPrefix + tag,
+                    MessageProperties.PERSISTENT_TEXT_PLAIN, iterator.next().toJson().getBytes());
+                published++;
+
+                if (published % batchSize == 0) {
+                    channel.waitForConfirmsOrDie(timeout);
+                    logger.info("Published {} messages to exchange {}, tag {}", published,
+                        envPrefix + getOutgoingExchangeName(), envPrefix + tag);
+                }
+
+                if (maxRate > 0) {
+                    // sleeps until the time the message should have been published in at the given rate
+                    final long ahead = published * 1000 / maxRate - (System.nanoTime() - start) / 1000000;
+                    if (ahead > 0) {
+                        Thread.sleep(ahead);
+                    }
+                }
+            }
+            channel.waitForConfirmsOrDie(timeout);
+
+            logger.info("Published {} messages to exchange {}, tag {} in {} ms", published,
+                envPrefix + getOutgoingExchangeName(), envPrefix + tag, (System.nanoTime() - start) / 1000000);
+
+            return published;
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            logger.error("Interrupted while publishing messages - {}", ex);
+            throw new UnrecoverableException("Interrupted while publishing messages", ex);
+        } catch (final IOException | TimeoutException ex) {
+            logger.error("Unable to publish messages - {}", ex);
+            throw new UnrecoverableException("Unable to publish messages", ex);
+        } finally {
+            connection.abort();
+        }
+    }
+
+    /**
+     * Gets bulk publishing parameter {@code rabbitmq.bulk.<name>}.
+     *
+     * @param name
+     *            parameter name
+     * @param defaultValue
+     *            value used when the parameter is not set
+     * @return parameter value
+     */
+    private long getBulkParam(final String name, final long defaultValue) {
+        final Long value = config.getParamValueAs("rabbitmq.bulk." + name, Long::valueOf);
+        return value != null && value >= 0 ? value : defaultValue;
+    }
+
+    /**
+     * Publishes the message to the outgoing exchange. In case of connection failure attempts to reconnect the outgoing
+     * channel. Must be called with {@link #outgoingChannelLock} held.
+     *
+     * @param message
+     *            message to be send to other workers
+     * @param tag
+     *            tag for the message
+     * @throws IOException
+     *            in case that publishing fails
+     */
+    private void publishWithReconnect(final Message message, final String tag) throws IOException {
+        messagesSentByExchangeConnection++;
+        if (messagesSentByExchangeConnection > MAX_MESSAGES_SENT_BY_EXCHANGE_CONNECTION) {
+            outgoingChannel.abort();
+            connectOutgoingExchange();
+        }
+
+        int exceptionsCount = 0;
+        while (true) {
+            try {
+                outgoingChannel.basicPublish(envPrefix + getOutgoingExchangeName(),
+                        envPrefix + tag,
+                        MessageProperties.PERSISTENT_TEXT_PLAIN,
+                        message.toJson().getBytes());
+                break;
+            } catch (SocketException | AlreadyClosedException e1) {
+                logger.error(e1.getClass().getName() + " exception occurred during message publish.", e1);
+                if (exceptionsCount > 0) {
+                    throw new UnrecoverableException("Reconnection outgoing channel did not work");
+                }
+                while (true) {
+                    try {
+                        logger.error("Going to sleep for " + PUBLISH_MESSAGE_FAILURE_SLEEP_TIME + " ms.");
+                        Thread.sleep(PUBLISH_MESSAGE_FAILURE_SLEEP_TIME);
+                    } catch (InterruptedException ex) {
+                        logger.error("Thread interrupted, waking up {}", ex);
+                    }
+                    try {
+                        // reconnect outgoing channel
+                        connectOutgoingExchange();
+                        break;
+                    } catch (RuntimeException e2) {
+                        if (++exceptionsCount > PUBLISH_MESSAGE_FAILURE_LIMIT) {
+                            throw new UnrecoverableException(
+                                    "Unable to publish message. The worker have been waiting " +
+                                            PUBLISH_MESSAGE_FAILURE_LIMIT * PUBLISH_MESSAGE_FAILURE_SLEEP_TIME +
+                                            " ms with no success", e2);
+                        }
+                    }
+                }
+            }
+        }
+    }
 }
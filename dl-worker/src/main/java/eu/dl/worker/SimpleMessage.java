@@ -11,12 +11,9 @@ import com.fasterxml.jackson.databind.type.TypeFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-
 import eu.dl.core.UnrecoverableException;
+import eu.dl.dataaccess.codec.Codec;
+import eu.dl.dataaccess.codec.CodecFactory;
 
 /**
  * Represents default message with fluent interface. Method to string is able to
@@ -32,16 +29,14 @@ public class SimpleMessage implements Message {
 
     private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
 
-    private final ObjectMapper mapper;
+    private final Codec codec;
 
     /**
      * Public Constructor.
      */
     public SimpleMessage() {
         super();
-        mapper = new ObjectMapper();
-        // java time module must be registered to support java 8 date time classes
-        mapper.registerModule(new JavaTimeModule());
+        codec = CodecFactory.getMessageCodec();
     }
 
     @Override
@@ -52,12 +47,7 @@ public class SimpleMessage implements Message {
 
     @Override
     public final String toJson() {
-        try {
-            return mapper.writeValueAsString(data);
-        } catch (final JsonProcessingException e) {
-            logger.error("Unable to serialize message to be send");
-            throw new UnrecoverableException("Unable to serialize message", e);
-        }
+        return codec.encode(data);
     }
 
     @Override
@@ -68,8 +58,8 @@ public class SimpleMessage implements Message {
     @Override
     public final void init(final String json) {
         try {
-            data = (HashMap<String, Object>) mapper.readValue(json, new TypeReference<Map<String, Object>>() {
-            });
+            data = (HashMap<String, Object>) codec.decode(json,
+                TypeFactory.defaultInstance().constructMapType(Map.class, String.class, Object.class));
         } catch (final Exception ex) {
             logger.error("Unable to create from json", ex);
             logger.error("Message body: {}", json);
@@ -95,14 +85,7 @@ public class SimpleMessage implements Message {
             return null;
         }
         
-        String json = null;
-        try {
-            json = mapper.writeValueAsString(data.get(key));
-            return (T) mapper.readValue(json, cls);
-        } catch (JsonProcessingException ex) {
-            logger.error("Unable to create json from {}", data.get(key), ex);
-            throw new UnrecoverableException("Unable to create json from message property", ex);
-        }
+        return codec.decode(codec.encode(data.get(key)), cls);
     }
 
     @Override
@@ -111,13 +94,7 @@ public class SimpleMessage implements Message {
             return null;
         }
 
-        String json = null;
-        try {
-            json = mapper.writeValueAsString(data.get(key));
-            return mapper.readValue(json, TypeFactory.defaultInstance().constructCollectionType(List.class, cls));
-        } catch (JsonProcessingException ex) {
-            logger.error("Unable to create json from {}", data.get(key), ex);
-            throw new UnrecoverableException("Unable to create json from message property", ex);
-        }
+        return codec.decode(codec.encode(data.get(key)),
+            TypeFactory.defaultInstance().constructCollectionType(List.class, cls));
     }
 }
@@ -13,8 +13,8 @@ import eu.dl.worker.utils.BasicPluginRegistry;
 import eu.dl.worker.utils.PluginRegistry;
 import org.apache.logging.log4j.ThreadContext;
 
-import java.util.List;
 import java.util.Map.Entry;
+import java.util.stream.Stream;
 
 /**
  * This class covers the main functionality for the cleaners implementation.
@@ -144,12 +144,13 @@ public abstract class BaseCleaner<T extends Parsable, V extends Cleanable> exten
                 resendVersion = getVersion();
             }
 
-            final List<V> items = cleanDao.getMine(getName(), resendVersion, dateFrom, dateTo);
-
-            for (final V item : items) {
-                final Message outgoingMessage = MessageFactory.getMessage();
-                outgoingMessage.setValue("id", item.getId());
-                publishMessage(outgoingMessage);
+            try (Stream<String> ids = cleanDao.streamMineIds(getName(), resendVersion, dateFrom, dateTo)) {
+                final long count = publishMessages(ids.map(id -> {
+                    final Message outgoingMessage = MessageFactory.getMessage();
+                    outgoingMessage.setValue("id", id);
+                    return outgoingMessage;
+                }), getOutgoingTag());
+                logger.info("Resent {} messages.", count);
             }
         } catch (final Exception ex) {
             logger.error("Unable to resend messages for matching {}", ex);
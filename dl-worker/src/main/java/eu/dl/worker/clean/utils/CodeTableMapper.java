@@ -0,0 +1,314 @@
+package eu.dl.worker.clean.utils;
+
+import eu.dl.dataaccess.utils.LruCache;
+import org.apache.commons.text.similarity.LevenshteinDistance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Mapper of string values to enum values compiled from the mapping of form
+ * Enum.APPLE => ("apple","apples", "aple")
+ * Enum.MAPPLE => ("mapple", "maplpe").
+ *
+ * The exact (case insensitive) match is a hash lookup. The fuzzy match searches the values with Levenshtein distance
+ * lower than the threshold in a BK-tree of lower cased values, so only a fraction of the values is compared with the
+ * input, and the results of the fuzzy match are memoized per input. The results are the same as the results of the
+ * linear scan described in {@link CodeTableUtils#mapValue(String, Map, Enum, boolean)}.
+ *
+ * The mapper is thread safe. It is created from the current content of the mapping, later changes of the mapping are
+ * ignored.
+ */
+public final class CodeTableMapper {
+
+    private static final Logger logger = LoggerFactory.getLogger(CodeTableMapper.class.getName());
+
+    private static final int LEVENSHTEIN_THRESHOLD = 4;
+
+    private static final int MEMO_SIZE = 10000;
+
+    private static final LevenshteinDistance LEVENSHTEIN = LevenshteinDistance.getDefaultInstance();
+
+    /**
+     * Result of the fuzzy match without any candidate.
+     */
+    private static final FuzzyMatch NOT_FOUND = new FuzzyMatch(null, LEVENSHTEIN_THRESHOLD, true);
+
+    private final Map<String, Enum> exactMatches;
+
+    private final int valueCount;
+
+    private final Enum[] keys;
+
+    private final Node root;
+
+    private final String enumClass;
+
+    private final LruCache<String, FuzzyMatch> fuzzyMatches = new LruCache<>(MEMO_SIZE);
+
+    /**
+     * Compiles the mapping.
+     *
+     * @param mapping
+     *         mapping
+     */
+    public CodeTableMapper(final Map<Enum, List<String>> mapping) {
+        exactMatches = new HashMap<>();
+        valueCount = countValues(mapping);
+        keys = mapping.keySet().toArray(new Enum[0]);
+        enumClass = mapping.keySet().stream()
+            .filter(Objects::nonNull)
+            .map(n -> n.getClass().getName())
+            .findFirst()
+            .orElse(null);
+
+        // lower cased values with indexes of their keys
+        final Map<String, List<Integer>> values = new LinkedHashMap<>();
+        for (int i = 0; i < keys.length; i++) {
+            for (String value : mapping.get(keys[i])) {
+                if (value == null) {
+                    continue;
+                }
+                // the first key in the order of the mapping wins
+                exactMatches.putIfAbsent(foldCase(value), keys[i]);
+
+                final List<Integer> valueKeys = values.computeIfAbsent(value.toLowerCase(), v -> new ArrayList<>());
+                if (valueKeys.isEmpty() || valueKeys.get(valueKeys.size() - 1) != i) {
+                    valueKeys.add(i);
+                }
+            }
+        }
+
+        Node tree = null;
+        for (Map.Entry<String, List<Integer>> value : values.entrySet()) {
+            final Node node = new Node(value.getKey(), value.getValue().stream().mapToInt(Integer::intValue).toArray());
+            if (tree == null) {
+                tree = node;
+            } else {
+                tree.add(node);
+            }
+        }
+        root = tree;
+    }
+
+    /**
+     * Maps the string value to enum value, see {@link CodeTableUtils#mapValue(String, Map, Enum, boolean)}.
+     *
+     * @param input
+     *         value to be mapped
+     * @param defaultEnumValue
+     *         the not null enum value that is returned if the match is not found
+     * @param tryFuzzyMatch
+     *         boolean whether fuzzy match should be tried when exact match is not found
+     *
+     * @return mapped value
+     */
+    public Enum map(final String input, final Enum defaultEnumValue, final boolean tryFuzzyMatch) {
+        logger.debug("Mapping value {}", input);
+
+        final String inputForCleaning = StringUtils.prepareStringForCleaning(input);
+        if (inputForCleaning == null || inputForCleaning.isEmpty()) {
+            return null;
+        } else if (keys.length == 0) {
+            return defaultEnumValue;
+        }
+
+        final String folded = foldCase(inputForCleaning);
+        final Enum exactMatch = exactMatches.get(folded);
+        if (exactMatch != null || exactMatches.containsKey(folded)) {
+            logger.debug("Value '{}' found, returning mapping result '{}'", inputForCleaning, exactMatch);
+            return exactMatch;
+        }
+
+        final String enumClassName = defaultEnumValue != null ? defaultEnumValue.getClass().getName() : enumClass;
+
+        if (tryFuzzyMatch) {
+            FuzzyMatch match = fuzzyMatches.get(inputForCleaning);
+            if (match == null) {
+                match = fuzzyMatch(inputForCleaning.toLowerCase());
+                fuzzyMatches.put(inputForCleaning, match);
+            }
+
+            if (!match.isSingle) {
+                // unfortunately the Levenshtein distance for more keys is the same
+                // there is no single candidate
+                logger.error("Cleaning failed for {} - found more than one candidates with levenshtein = {}, "
+                        + "unable to pick single one.",
+                        enumClassName, match.distance);
+                return null;
+            }
+
+            if (match.distance < LEVENSHTEIN_THRESHOLD && match.key != null) {
+                logger.debug("Key {} selected based on Levensthein distance of {}.", match.key, match.distance);
+                return match.key;
+            }
+        }
+
+        if (defaultEnumValue != null) {
+            return defaultEnumValue;
+        }
+
+        logger.error("Cleaning failed for {} - unique value not found for {}, throwing an exception", enumClassName,
+            inputForCleaning);
+        return null;
+    }
+
+    /**
+     * Finds the key with the lowest Levenshtein distance (the lowest from all the values of the key) lower than the
+     * threshold.
+     *
+     * @param input
+     *         lower cased input
+     * @return fuzzy match
+     */
+    private FuzzyMatch fuzzyMatch(final String input) {
+        if (root == null) {
+            return NOT_FOUND;
+        }
+
+        final int[] keyDistances = new int[keys.length];
+        Arrays.fill(keyDistances, LEVENSHTEIN_THRESHOLD);
+
+        final Deque<Node> nodes = new ArrayDeque<>();
+        nodes.push(root);
+        while (!nodes.isEmpty()) {
+            final Node node = nodes.pop();
+            final int distance = LEVENSHTEIN.apply(input, node.value);
+            if (distance < LEVENSHTEIN_THRESHOLD) {
+                for (int key : node.keys) {
+                    keyDistances[key] = Math.min(keyDistances[key], distance);
+                }
+            }
+            // triangle inequality, only the children in distance (distance - threshold, distance + threshold) from
+            // the node can be closer to the input than the threshold
+            for (Map.Entry<Integer, Node> child : node.children.entrySet()) {
+                if (Math.abs(child.getKey() - distance) < LEVENSHTEIN_THRESHOLD) {
+                    nodes.push(child.getValue());
+                }
+            }
+        }
+
+        int bestKey = -1;
+        int bestDistance = LEVENSHTEIN_THRESHOLD;
+        boolean isBestScoreKeySingleOne = true;
+        for (int i = 0; i < keyDistances.length; i++) {
+            if (keyDistances[i] < bestDistance) {
+                bestKey = i;
+                bestDistance = keyDistances[i];
+                isBestScoreKeySingleOne = true;
+            } else if (keyDistances[i] == bestDistance && bestDistance < LEVENSHTEIN_THRESHOLD) {
+                isBestScoreKeySingleOne = false;
+            }
+        }
+
+        return bestKey == -1 ? NOT_FOUND : new FuzzyMatch(keys[bestKey], bestDistance, isBestScoreKeySingleOne);
+    }
+
+    /**
+     * @return number of the keys and values of the compiled mapping
+     */
+    int getValueCount() {
+        return valueCount;
+    }
+
+    /**
+     * @param mapping
+     *         mapping
+     * @return number of the keys and values of the mapping
+     */
+    static int countValues(final Map<Enum, List<String>> mapping) {
+        int count = mapping.size();
+        for (List<String> values : mapping.values()) {
+            count += values == null ? 0 : values.size();
+        }
+        return count;
+    }
+
+    /**
+     * Folds the case of the string, so the strings are equal iff they are equal ignoring case.
+     *
+     * @see String#equalsIgnoreCase(String)
+     * @param value
+     *         value
+     * @return folded value
+     */
+    private static String foldCase(final String value) {
+        final StringBuilder folded = new StringBuilder(value.length());
+        value.codePoints().forEach(c -> folded.appendCodePoint(Character.toLowerCase(Character.toUpperCase(c))));
+        return folded.toString();
+    }
+
+    /**
+     * Result of the fuzzy match.
+     */
+    private static final class FuzzyMatch {
+        private final Enum key;
+
+        private final int distance;
+
+        private final boolean isSingle;
+
+        /**
+         * @param key
+         *         best key
+         * @param distance
+         *         distance of the best key
+         * @param isSingle
+         *         whether there is only one key with the best distance
+         */
+        FuzzyMatch(final Enum key, final int distance, final boolean isSingle) {
+            this.key = key;
+            this.distance = distance;
+            this.isSingle = isSingle;
+        }
+    }
+
+    /**
+     * Node of the BK-tree. Children are indexed by their Levenshtein distance from the node.
+     */
+    private static final class Node {
+        private final String value;
+
+        private final int[] keys;
+
+        private final Map<Integer, Node> children = new HashMap<>();
+
+        /**
+         * @param value
+         *         lower cased value
+         * @param keys
+         *         indexes of the keys with the value
+         */
+        Node(final String value, final int[] keys) {
+            this.value = value;
+            this.keys = keys;
+        }
+
+        /**
+         * Adds node to the subtree of this node.
+         *
+         * @param node
+         *         new node
+         */
+        void add(final Node node) {
+            Node parent = this;
+            while (true) {
+                final int distance = LEVENSHTEIN.apply(node.value, parent.value);
+                final Node child = parent.children.putIfAbsent(distance, node);
+                if (child == null) {
+                    return;
+                }
+                parent = child;
+            }
+        }
+    }
+}
@@ -2,7 +2,6 @@ package eu.dl.worker.clean.utils;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import org.apache.commons.text.similarity.LevenshteinDistance;
 
 import java.util.HashMap;
 import java.util.List;
@@ -11,6 +10,7 @@ import java.util.Objects;
 import java.util.function.Function;
 import java.util.regex.Pattern;
 
+import eu.dl.dataaccess.utils.LruCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -23,7 +23,9 @@ public final class CodeTableUtils {
 
     private static final Logger logger = LoggerFactory.getLogger(CodeTableUtils.class.getName());
 
-    private static final Integer LEVENSHTEIN_THRESHOLD = 4;
+    private static final int MAPPERS_SIZE = 1000;
+
+    private static final LruCache<MappingKey, CodeTableMapper> MAPPERS = new LruCache<>(MAPPERS_SIZE);
 
     /**
      * Utility classes should not have default constructor.
@@ -55,105 +57,31 @@ public final class CodeTableUtils {
      */
     public static Enum mapValue(final String input, final Map<Enum, List<String>> mapping, final Enum defaultEnumValue,
             final boolean tryFuzzyMatch) {
-        logger.debug("Mapping value {}", input);
-
-        final String inputForCleaning = StringUtils.prepareStringForCleaning(input);
-        if (inputForCleaning == null || inputForCleaning.isEmpty() || mapping == null) {
+        if (mapping == null) {
+            logger.debug("Mapping value {}", input);
             return null;
-        } else if (mapping.isEmpty()) {
-            return defaultEnumValue;
-        }
-        
-        String enumClass;
-        if (defaultEnumValue != null) {
-            enumClass = defaultEnumValue.getClass().getName();
-        } else {
-            enumClass = mapping.keySet().stream()
-                .filter(Objects::nonNull)
-                .map(n -> n.getClass().getName())
-                .findFirst()
-                .orElse(null);
         }
-        // try the simple match
-        for (Map.Entry<Enum, List<String>> entry : mapping.entrySet()) {
-            Enum key = entry.getKey();
-            for (String value : entry.getValue()) {
-                if (inputForCleaning.equalsIgnoreCase(value)) {
-                    logger.debug("Value '{}' found, returning mapping result '{}'", value, key);
-                    return key;
-                }
-            }
-        }
-
-        // try to find the value
-        if (tryFuzzyMatch) {
-            Enum bestKey = null;
-            Integer bestLDistance = LEVENSHTEIN_THRESHOLD;
-            Boolean isBestScoreKeySingleOne = true;
-            for (Map.Entry<Enum, List<String>> entry : mapping.entrySet()) {
-                Enum key = entry.getKey();
-                Integer bestKeyLDistance = LEVENSHTEIN_THRESHOLD;
-                for (String value : entry.getValue()) {
-                    // try the simple match(if there is equality)
-                    if (inputForCleaning.equalsIgnoreCase(value)) {
-                        logger.debug("Value '{}' found, returning mapping result '{}'", value, key);
-                        return key;
-                    } else {
-                        // get Levenshtein distance between strings
-                        Integer lDistance = LevenshteinDistance.getDefaultInstance()
-                                .apply(inputForCleaning.toLowerCase(), value.toLowerCase());
-                        if (lDistance < LEVENSHTEIN_THRESHOLD) {
-                            // great, the distance is lower then threshold
-
-                            // is it better than other ones for this key
-                            if (lDistance < bestKeyLDistance) {
-                                // great, its the local minimum so far
-                                bestKeyLDistance = lDistance;
-
-                                // check whether it equals to the global minimum
-                                if (lDistance == bestLDistance) {
-                                    // we have two keys with the same score,
-                                    // thats bad for cleaning as we are unable to
-                                    // choose the proper one
-                                    isBestScoreKeySingleOne = false;
-                                }
-
-                                // check whether its better than global minimum
-                                if (lDistance < bestLDistance) {
-                                    // we have the new minimum
-                                    bestKey = key;
-                                    bestLDistance = lDistance;
-                                    isBestScoreKeySingleOne = true;
-                                }
-                            }
-                        }
-                    }
-                }
-            }
-
-            if (!isBestScoreKeySingleOne) {
-                // unfortunately the Levenshtein distance for more keys is the same
-                // there is no single candidate
-                logger.error("Cleaning failed for {} - found more than one candidates with levenshtein = {}, "
-                        + "unable to pick single one.",
-                        enumClass, bestLDistance);
-                return null;
-            }
 
-            // check the scores calculated by Levenshtein
-            if (bestLDistance < LEVENSHTEIN_THRESHOLD && bestKey != null) {
-                logger.debug("Key {} selected based on Levensthein distance of {}.", bestKey, bestLDistance);
-                return bestKey;
-            }
-        }
+        return getMapper(mapping).map(input, defaultEnumValue, tryFuzzyMatch);
+    }
 
-        if (defaultEnumValue != null) {
-            return defaultEnumValue;
+    /**
+     * Returns mapper compiled from the mapping. The mappers are cached by the mapping instance, the mapping is compiled
+     * again only when its size or the number of its values changes.
+     *
+     * @param mapping
+     *         mapping
+     *
+     * @return compiled mapper
+     */
+    public static CodeTableMapper getMapper(final Map<Enum, List<String>> mapping) {
+        final MappingKey key = new MappingKey(mapping);
+        CodeTableMapper mapper = MAPPERS.get(key);
+        if (mapper == null || mapper.getValueCount() != key.valueCount) {
+            mapper = new CodeTableMapper(mapping);
+            MAPPERS.put(key, mapper);
         }
-
-        logger.error("Cleaning failed for {} - unique value not found for {}, throwing an exception", enumClass,
-            inputForCleaning);
-        return null;
+        return mapper;
     }
 
     /**
@@ -282,4 +210,32 @@ public final class CodeTableUtils {
 
         return mapping;
     }
+
+    /**
+     * Key of the cached mapper, the mappings are compared by identity.
+     */
+    private static final class MappingKey {
+        private final Map<Enum, List<String>> mapping;
+
+        private final int valueCount;
+
+        /**
+         * @param mapping
+         *         mapping
+         */
+        MappingKey(final Map<Enum, List<String>> mapping) {
+            this.mapping = mapping;
+            this.valueCount = CodeTableMapper.countValues(mapping);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            return o instanceof MappingKey && ((MappingKey) o).mapping == mapping;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(mapping);
+        }
+    }
 }
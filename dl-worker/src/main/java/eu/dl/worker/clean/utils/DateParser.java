@@ -0,0 +1,154 @@
+package eu.dl.worker.clean.utils;
+
+import eu.dl.dataaccess.utils.LruCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.text.ParsePosition;
+import java.time.DateTimeException;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalQuery;
+import java.util.List;
+
+/**
+ * Parses date(time) strings with a list of formatters (usually formatters of one source). The result is the same as
+ * the result of the first formatter which is able to parse the string, but the formatters are tried without throwing
+ * exceptions.
+ *
+ * Each formatter is checked by parsing without resolving, which doesn't throw an exception, and only formatters which
+ * consume the whole string are used for the (throwing) parse. The parser also learns per shape of the string (digits
+ * replaced by '9', eg. "99.99.9999") the first formatter which is able to parse it, so the formatters which can't
+ * parse the shape are skipped for the following strings. Formatters with the offset or instant are never skipped,
+ * because their parsing depends on the values and not only on the shape.
+ *
+ * The parser is thread safe. The statistics of the matched formatters are available through
+ * {@link #getStatistics()}.
+ */
+public final class DateParser {
+
+    private static final Logger logger = LoggerFactory.getLogger(DateParser.class.getName());
+
+    private static final int SHAPES_SIZE = 10000;
+
+    private final DateTimeFormatter[] formatters;
+
+    private final boolean[] dependsOnShapeOnly;
+
+    private final LruCache<String, Integer> firstCandidates = new LruCache<>(SHAPES_SIZE);
+
+    private final FormatStatistics statistics;
+
+    /**
+     * Creates parser.
+     *
+     * @param formatters
+     *         formatters in the order in which they should be tried
+     */
+    public DateParser(final List<DateTimeFormatter> formatters) {
+        this.formatters = formatters.toArray(new DateTimeFormatter[0]);
+        this.dependsOnShapeOnly = new boolean[this.formatters.length];
+        for (int i = 0; i < this.formatters.length; i++) {
+            final String description = this.formatters[i].toString();
+            dependsOnShapeOnly[i] = !description.contains("Offset(") && !description.contains("Instant()");
+        }
+        this.statistics = new FormatStatistics(formatters);
+    }
+
+    /**
+     * Parses the string with the first formatter able to parse it.
+     *
+     * @param <T>
+     *         type of the result, eg. LocalDate
+     * @param text
+     *         date(time) string
+     * @param query
+     *         query which creates the result from the parsed value, eg. LocalDate::from
+     * @return parsed value or null if none of the formatters is able to parse the string
+     */
+    public <T> T parse(final String text, final TemporalQuery<T> query) {
+        final String shape = getShape(text);
+        Integer first = firstCandidates.get(shape);
+        if (first == null) {
+            first = findFirstCandidate(text);
+            firstCandidates.put(shape, first);
+        }
+
+        for (int i = first; i < formatters.length; i++) {
+            if ((i == first && dependsOnShapeOnly[i]) || isParsable(text, formatters[i])) {
+                try {
+                    final T result = formatters[i].parse(text, query);
+                    statistics.recordMatch(i);
+                    logger.debug("Date(time) string \"{}\" parsed by {}", text, formatters[i]);
+                    return result;
+                } catch (DateTimeParseException e) {
+                    // the string has the right shape but the values can't be resolved (eg. invalid month)
+                    statistics.recordException();
+                }
+            }
+        }
+
+        statistics.recordFailure();
+        return null;
+    }
+
+    /**
+     * @return statistics of the matched formatters
+     */
+    public FormatStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Finds the first formatter which should be tried for the strings with the shape of the given string. The
+     * formatters before it can't parse the shape.
+     *
+     * @param text
+     *         date(time) string
+     * @return index of the formatter or number of formatters if none of the formatters can parse the shape
+     */
+    private int findFirstCandidate(final String text) {
+        for (int i = 0; i < formatters.length; i++) {
+            if (!dependsOnShapeOnly[i] || isParsable(text, formatters[i])) {
+                return i;
+            }
+        }
+        return formatters.length;
+    }
+
+    /**
+     * Checks (in most cases without throwing exception) whether the formatter is able to parse the whole string (the values aren't
+     * resolved).
+     *
+     * @param text
+     *         date(time) string
+     * @param formatter
+     *         formatter
+     * @return true if the whole string was parsed
+     */
+    private boolean isParsable(final String text, final DateTimeFormatter formatter) {
+        final ParsePosition position = new ParsePosition(0);
+        try {
+            return formatter.parseUnresolved(text, position) != null && position.getIndex() == text.length();
+        } catch (DateTimeException e) {
+            // some parsers (eg. offset) validate the values during parsing
+            statistics.recordException();
+            return false;
+        }
+    }
+
+    /**
+     * @param text
+     *         date(time) string
+     * @return string with digits replaced by '9'
+     */
+    private static String getShape(final String text) {
+        final char[] shape = text.toCharArray();
+        for (int i = 0; i < shape.length; i++) {
+            if (shape[i] >= '0' && shape[i] <= '9') {
+                shape[i] = '9';
+            }
+        }
+        return new String(shape);
+    }
+}
@@ -1,15 +1,14 @@
 package eu.dl.worker.clean.utils;
 
 import eu.dl.core.UnrecoverableException;
+import eu.dl.dataaccess.utils.LruCache;
 import eu.dl.dataaccess.utils.RemoveNonsenseUtils;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.Month;
 import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
 import java.util.Arrays;
 import java.util.List;
-import java.util.function.BiFunction;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -26,6 +25,10 @@ public final class DateUtils {
     private static final LocalDate DATE_MIN = LocalDate.of(2000, Month.JANUARY, 1);
     private static final LocalDate DATE_MAX = LocalDate.of(2025, Month.JANUARY, 1);
 
+    private static final int PARSERS_SIZE = 1000;
+
+    private static final LruCache<FormatStatistics.FormatsKey, DateParser> PARSERS = new LruCache<>(PARSERS_SIZE);
+
     /**
      * Utility classes should not have default constructor.
      */
@@ -49,15 +52,16 @@ public final class DateUtils {
         }
 
         // if there is text ending with colon in the beginning of the input string, remove it
-        String checkedInput = inputForCleaning.replaceAll("^\\D+:", "").trim();
+        String checkedInput = removeLabel(inputForCleaning).trim();
 
-        try {
-            logger.debug("Cleaning date string \"{}\"", checkedInput);
-            return parseDateTime(checkedInput, formatter, (dt, f) -> LocalDate.parse(dt, f));
-        } catch (DateTimeParseException e) {
+        logger.debug("Cleaning date string \"{}\"", checkedInput);
+        final LocalDate date = getParser(formatter).parse(checkedInput, LocalDate::from);
+        if (date == null) {
             logger.error("Cleaning failed - unable to parse \"{}\" into valid date.", checkedInput);
             return null;
         }
+
+        return RemoveNonsenseUtils.removeNonsensicalDateTime(date, DATE_MIN, DATE_MAX);
     }
 
     /**
@@ -88,13 +92,14 @@ public final class DateUtils {
             return null;
         }
 
-        try {
-            logger.debug("Cleaning datetime string \"{}\"", input);
-            return parseDateTime(inputForCleaning, formatter, (dt, f) -> LocalDateTime.parse(dt, f));
-        } catch (DateTimeParseException e) {
+        logger.debug("Cleaning datetime string \"{}\"", input);
+        final LocalDateTime dateTime = getParser(formatter).parse(inputForCleaning, LocalDateTime::from);
+        if (dateTime == null) {
             logger.error("Cleaning failed - unable to parse \"{}\" into valid datetime.", input);
             return null;
         }
+
+        return RemoveNonsenseUtils.removeNonsensicalDateTime(dateTime, DATE_MIN, DATE_MAX);
     }
 
     /**
@@ -111,39 +116,46 @@ public final class DateUtils {
     }
 
     /**
-     * Parses date(time) with help the given function {@code parsed}. This function accepts two parameters. The first
-     * is date(time) string and second is formatter.
+     * Returns parser for the given list of formatters. The parsers are cached by the formatter instances, so the
+     * parser (and its statistics) is shared by all the cleanings with the same formatters (usually one source).
      *
-     * @param <T>
-     *         this instance should be LocalDate or LocalDateTime
-     * @param dateTime
-     *         date(time) string
      * @param formatters
      *         list of used formatters
-     * @param parser
-     *         function used for parsing
-     * @return LocalDate or LocalDateTime
-     * @throws DateTimeParseException
-     *         in case that an error occurs during parsing
+     * @return parser
      */
-    private static <T> T parseDateTime(final String dateTime, final List<DateTimeFormatter> formatters,
-                                       final BiFunction<String, DateTimeFormatter, T> parser)
-            throws DateTimeParseException {
-
+    public static DateParser getParser(final List<DateTimeFormatter> formatters) {
         if (formatters.isEmpty()) {
             throw new UnrecoverableException("No formatter are defined.");
         }
 
-        DateTimeParseException exception = null;
-        for (DateTimeFormatter formatter : formatters) {
-            try {
-                return RemoveNonsenseUtils.removeNonsensicalDateTime(parser.apply(dateTime, formatter), DATE_MIN,
-                    DATE_MAX);
-            } catch (DateTimeParseException e) {
-                exception = e;
+        final FormatStatistics.FormatsKey key = new FormatStatistics.FormatsKey(formatters);
+        DateParser parser = PARSERS.get(key);
+        if (parser == null) {
+            parser = new DateParser(formatters);
+            PARSERS.put(key, parser);
+        }
+        return parser;
+    }
+
+    /**
+     * Removes text ending with colon (eg. "Date:") from the beginning of the input. The text mustn't contain any
+     * digit, same as regular expression "^\\D+:".
+     *
+     * @param input
+     *         input string
+     * @return input without the label
+     */
+    private static String removeLabel(final String input) {
+        int colon = -1;
+        for (int i = 0; i < input.length(); i++) {
+            final char c = input.charAt(i);
+            if (c >= '0' && c <= '9') {
+                break;
+            } else if (c == ':' && i > 0) {
+                colon = i;
             }
         }
 
-        throw exception;
+        return colon == -1 ? input : input.substring(colon + 1);
     }
 }
@@ -0,0 +1,158 @@
+package eu.dl.worker.clean.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread safe statistics of parsing with a list of formats (eg. date formatters or number formats of one source). For
+ * each format it counts the values matched by the format, together with the values which weren't matched by any
+ * format and the exceptions thrown during parsing. The summary is logged after every {@link #REPORT_INTERVAL} values.
+ */
+public final class FormatStatistics {
+
+    private static final Logger logger = LoggerFactory.getLogger(FormatStatistics.class.getName());
+
+    /**
+     * Number of parsed values after which the statistics are logged.
+     */
+    public static final long REPORT_INTERVAL = 100000;
+
+    private final String[] formats;
+
+    private final AtomicLongArray matches;
+
+    private final AtomicLong failures = new AtomicLong();
+
+    private final AtomicLong exceptions = new AtomicLong();
+
+    private final AtomicLong total = new AtomicLong();
+
+    /**
+     * Creates statistics.
+     *
+     * @param formats
+     *         formats, their string representations are used in the report
+     */
+    public FormatStatistics(final List<?> formats) {
+        this.formats = formats.stream().map(String::valueOf).toArray(String[]::new);
+        this.matches = new AtomicLongArray(formats.size());
+    }
+
+    /**
+     * Records the value matched by the format.
+     *
+     * @param index
+     *         index of the format
+     */
+    public void recordMatch(final int index) {
+        matches.incrementAndGet(index);
+        recordValue();
+    }
+
+    /**
+     * Records the value which wasn't matched by any format.
+     */
+    public void recordFailure() {
+        failures.incrementAndGet();
+        recordValue();
+    }
+
+    /**
+     * Records the exception thrown during parsing.
+     */
+    public void recordException() {
+        exceptions.incrementAndGet();
+    }
+
+    /**
+     * @param index
+     *         index of the format
+     * @return number of values matched by the format
+     */
+    public long getMatches(final int index) {
+        return matches.get(index);
+    }
+
+    /**
+     * @return number of values which weren't matched by any format
+     */
+    public long getFailures() {
+        return failures.get();
+    }
+
+    /**
+     * @return number of exceptions thrown during parsing
+     */
+    public long getExceptions() {
+        return exceptions.get();
+    }
+
+    /**
+     * Counts the value and logs the statistics once per {@link #REPORT_INTERVAL} values.
+     */
+    private void recordValue() {
+        if (total.incrementAndGet() % REPORT_INTERVAL == 0) {
+            logger.info("Parsing statistics {}", this);
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder result = new StringBuilder("{");
+        for (int i = 0; i < formats.length; i++) {
+            result.append(formats[i]).append(": ").append(matches.get(i)).append(", ");
+        }
+        return result.append("unparsed: ").append(failures.get())
+            .append(", exceptions: ").append(exceptions.get()).append("}").toString();
+    }
+
+    /**
+     * Key of the list of formats, the formats are compared by identity. Format instances are mutable, so the key is
+     * stable even in case the format is changed.
+     */
+    static final class FormatsKey {
+        private final Object[] formats;
+
+        private final int hashCode;
+
+        /**
+         * @param formats
+         *         list of formats
+         */
+        FormatsKey(final List<?> formats) {
+            this.formats = formats.toArray();
+            int hash = 1;
+            for (Object format : this.formats) {
+                hash = 31 * hash + System.identityHashCode(format);
+            }
+            this.hashCode = hash;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (!(o instanceof FormatsKey)) {
+                return false;
+            }
+
+            final Object[] other = ((FormatsKey) o).formats;
+            if (other.length != formats.length) {
+                return false;
+            }
+            for (int i = 0; i < formats.length; i++) {
+                if (other[i] != formats[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
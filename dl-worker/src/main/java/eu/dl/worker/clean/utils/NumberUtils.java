@@ -1,10 +1,14 @@
 package eu.dl.worker.clean.utils;
 
+import eu.dl.dataaccess.utils.LruCache;
 import java.math.BigDecimal;
+import java.text.DecimalFormat;
 import java.text.NumberFormat;
-import java.text.ParseException;
+import java.text.ParsePosition;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -18,34 +22,10 @@ public final class NumberUtils {
 
     private static final Logger logger = LoggerFactory.getLogger(NumberUtils.class.getName());
 
-    /**
-     * Functional interface defines function for number parsing that throws java.text.ParseException.
-     *
-     * @param <S>
-     *      number string
-     * @param <F>
-     *      NumberFormat
-     * @param <N>
-     *      Integer or BigDecimal number
-     */
-    @FunctionalInterface
-    private interface NumberParserFunction<S, F, N> {
-        /**
-         * Method attempts parse number from the given string {@code s} using number format {@code f} and its method
-         * parse.
-         *
-         * @see java.text.NumberFormat#parse(String)
-         *
-         * @param s
-         *      number string
-         * @param f
-         *      number format
-         * @return number
-         * @throws ParseException
-         *      in case that an error occurs during parsing
-         */
-        N apply(S s, F f) throws ParseException;
-    }
+    private static final int STATISTICS_SIZE = 1000;
+
+    private static final LruCache<FormatStatistics.FormatsKey, FormatStatistics> STATISTICS =
+        new LruCache<>(STATISTICS_SIZE);
 
     /**
      * Utility classes should not have default constructor.
@@ -64,13 +44,8 @@ public final class NumberUtils {
      * @return integer
      */
     public static Integer cleanInteger(final String input, final List<NumberFormat> format) {
-        try {
-            logger.debug("Cleaning integer string \"{}\"", input);
-            return parseNumber(input, format, (i, f) -> f.parse(i).intValue());
-        } catch (ParseException e) {
-            logger.error("Cleaning failed - parsing string \"{}\" into integer failed because of {}", input, e);
-            return null;
-        }
+        logger.debug("Cleaning integer string \"{}\"", input);
+        return parseNumber(input, format, n -> n.intValue(), "integer");
     }
 
     /**
@@ -98,13 +73,8 @@ public final class NumberUtils {
      * @return big decimal
      */
     public static BigDecimal cleanBigDecimal(final String input, final List<NumberFormat> format) {
-        try {
-            logger.debug("Cleaning big decimal string \"{}\"", input);
-            return parseNumber(input, format, (i, f) -> new BigDecimal(f.parse(i).toString()));
-        } catch (ParseException e) {
-            logger.error("Cleaning failed - parsing string \"{}\" into BigDecimal failed because of {}", input, e);
-            return null;
-        }
+        logger.debug("Cleaning big decimal string \"{}\"", input);
+        return parseNumber(input, format, n -> new BigDecimal(n.toString()), "BigDecimal");
     }
 
     /**
@@ -122,8 +92,9 @@ public final class NumberUtils {
     }
 
     /**
-     * Parses number with help the given function {@code parsed}. This function accepts two parameters. The first
-     * is number string and second is number formats.
+     * Parses number with each of the number formats and converts it with help the given function {@code converter}.
+     * The formats are used without throwing exceptions, the match of each format is recorded in the statistics of
+     * the formats.
      *
      * @param <T>
      *         this instance should be Integer or BigDecimal
@@ -131,43 +102,70 @@ public final class NumberUtils {
      *         number string
      * @param formats
      *         list of used number formats.
-     * @param parser
-     *         function used for number parsing.
-     * @return number
-     * @throws ParseException
-     *         in case that an error occurs during parsing
+     * @param converter
+     *         function used for conversion of the parsed number
+     * @param type
+     *         name of the result type used in the log
+     * @return number or null if none of the formats is able to parse the string
      */
     private static <T> T parseNumber(final String input, final List<NumberFormat> formats,
-        final NumberParserFunction<String, NumberFormat, T> parser) throws ParseException {
+        final Function<Number, T> converter, final String type) {
 
         final String inputForCleaning = removeNonDigitsBeginningAndEndLine(StringUtils.prepareStringForCleaning(input));
         if (inputForCleaning == null || inputForCleaning.isEmpty()) {
             return null;
         }
 
-        ParseException exception = null;
+        final FormatStatistics statistics = getStatistics(formats);
         T best = null;
-        for (NumberFormat format : formats) {
-            try {
-                final T current = parser.apply(inputForCleaning, format);
+        int bestIndex = -1;
+        for (int i = 0; i < formats.size(); i++) {
+            // NumberFormat#parse(String) throws exception iff the parse position isn't moved
+            final Number number = formats.get(i).parse(inputForCleaning, new ParsePosition(0));
+            if (number != null) {
+                final T current = converter.apply(number);
                 /*
                  * the longest string from parsed number means better result because contains more information.
                  */
                 if (best == null || best.toString().length() < current.toString().length()) {
                     best = current;
+                    bestIndex = i;
                 }
-            } catch (ParseException e) {
-                exception = e;
             }
         }
 
-        if (best == null && exception != null) {
-            throw exception;
+        if (best == null) {
+            if (!formats.isEmpty()) {
+                statistics.recordFailure();
+                logger.error("Cleaning failed - parsing string \"{}\" into {} failed", input, type);
+            }
+            return null;
         }
 
+        statistics.recordMatch(bestIndex);
         return best;
     }
 
+    /**
+     * Returns statistics of parsing with the given number formats. The statistics are cached by the format instances,
+     * so they are shared by all the cleanings with the same formats (usually one source).
+     *
+     * @param formats
+     *         list of number formats
+     * @return statistics
+     */
+    public static FormatStatistics getStatistics(final List<NumberFormat> formats) {
+        final FormatStatistics.FormatsKey key = new FormatStatistics.FormatsKey(formats);
+        FormatStatistics statistics = STATISTICS.get(key);
+        if (statistics == null) {
+            statistics = new FormatStatistics(formats.stream()
+                .map(f -> f instanceof DecimalFormat ? ((DecimalFormat) f).toPattern() : f.toString())
+                .collect(Collectors.toList()));
+            STATISTICS.put(key, statistics);
+        }
+        return statistics;
+    }
+
     /**
      * Removes non digits on beginning and end of line.
      *
@@ -179,6 +177,25 @@ public final class NumberUtils {
             return null;
         }
 
-        return input.replaceAll("^\\D*", "").replaceAll("\\D*$", "");
+        int start = 0;
+        while (start < input.length() && !isDigit(input.charAt(start))) {
+            start++;
+        }
+
+        int end = input.length();
+        while (end > start && !isDigit(input.charAt(end - 1))) {
+            end--;
+        }
+
+        return input.substring(start, end);
+    }
+
+    /**
+     * @param c
+     *         character
+     * @return true for ASCII digit (same as regular expression "\\d")
+     */
+    private static boolean isDigit(final char c) {
+        return c >= '0' && c <= '9';
     }
 }
@@ -4,6 +4,7 @@ import eu.dl.core.config.Config;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.text.NumberFormat;
+import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.Currency;
 import java.util.List;
@@ -17,7 +18,7 @@ import eu.dl.dataaccess.dto.generic.Price;
 import eu.dl.dataaccess.dto.generic.UnitPrice;
 import eu.dl.dataaccess.dto.parsed.ParsedPrice;
 import eu.dl.dataaccess.dto.parsed.ParsedUnitPrice;
-import eu.dl.utils.currency.BasicCurrencyService;
+import eu.dl.utils.currency.CurrencyServiceFactory;
 import eu.dl.utils.currency.UnconvertableException;
 import org.bouncycastle.util.Strings;
 
@@ -35,6 +36,8 @@ public final class PriceUtils {
 
     private static final BigDecimal PRICE_MAX = BigDecimal.valueOf(1200000000);
 
+    private static final Currency EUR = Currency.getInstance("EUR");
+
     /**
      * Utility classes should not have default constructor.
      */
@@ -142,24 +145,24 @@ public final class PriceUtils {
      */
     public static BigDecimal removeNonsensicalAmount(final BigDecimal amount, final Currency currency,
         final BigDecimal min, final BigDecimal max) {
-        if (currency == null) {
+        if (currency == null || amount == null) {
             return amount;
         }
         
-        BigDecimal amountEUR = null;
+        double amountEUR = Double.NaN;
         if (currency.getCurrencyCode().equals("EUR")) {
-            amountEUR = amount;
+            amountEUR = amount.doubleValue();
         } else {
             try {
-                BasicCurrencyService curr = new BasicCurrencyService();
-                amountEUR = curr.convert(currency, Currency.getInstance("EUR"), amount);
+                amountEUR = CurrencyServiceFactory.getCurrencyService()
+                    .convert(currency, EUR, amount.doubleValue(), LocalDate.now());
             } catch (final UnconvertableException ex) {
                 logger.warn("Unable to convert amount to EUR because of", ex);
             }
         }
 
-        if (amountEUR != null
-            && ((min != null && amountEUR.compareTo(min) < 0) || (max != null && amountEUR.compareTo(max) > 0))) {
+        if (!Double.isNaN(amountEUR)
+            && ((min != null && amountEUR < min.doubleValue()) || (max != null && amountEUR > max.doubleValue()))) {
             return null;
         }
 
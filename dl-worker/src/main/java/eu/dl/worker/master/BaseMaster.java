@@ -132,6 +132,8 @@ public abstract class BaseMaster<T extends Matchable & MasterablePart, V extends
 
         String savedId = masterDAO.save(item);
 
+        postSaveMasterRecord(item);
+
         getTransactionUtils().commit();
         logger.info("Mastering finished for group id {} stored as {}", groupId, savedId);
 
@@ -152,6 +154,18 @@ public abstract class BaseMaster<T extends Matchable & MasterablePart, V extends
      */
     protected abstract V postProcessMasterRecord(V item, List<T> matchedItems);
 
+    /**
+     * This method is called after the master item is saved. It can be used to update data derived from the master
+     * item. The connections work in the autocommit mode, so the master item is already stored when the method is
+     * called. Each update of the derived data should be a single statement which replaces everything derived from the
+     * item, so a failure leaves the data consistent and the next mastering of the group brings it up to date. Does
+     * nothing by default.
+     *
+     * @param item saved master item
+     */
+    protected void postSaveMasterRecord(final V item) {
+    }
+
     /**
      * Creates persistent ID for this item set. 
      * @param matchedItems set of items
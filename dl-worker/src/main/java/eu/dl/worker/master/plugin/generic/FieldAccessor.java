@@ -0,0 +1,203 @@
+package eu.dl.worker.master.plugin.generic;
+
+import eu.dl.core.UnrecoverableException;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Getter and setter of one field of a DTO class (methods getFieldName and setFieldName) used by the generic master
+ * plugins and comparators.
+ *
+ * The methods are resolved once per class and field name, the accessors are cached in the registry
+ * ({@link #of(Class, String)}). The accessors are compiled to lambdas by {@link LambdaMetafactory}, so they are
+ * called without reflection, the reflective call is used only for methods which can't be compiled.
+ *
+ * The setter is the public one argument method with the given name. In case there are more of them, the one with the
+ * same parameter type as the return type of the getter of the class is preferred.
+ */
+public final class FieldAccessor {
+
+    private static final Logger logger = LoggerFactory.getLogger(FieldAccessor.class.getName());
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    /**
+     * Registry of the accessors per class and capitalized field name.
+     */
+    private static final ClassValue<ConcurrentHashMap<String, FieldAccessor>> ACCESSORS = new ClassValue<>() {
+        @Override
+        protected ConcurrentHashMap<String, FieldAccessor> computeValue(final Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private final Class<?> itemClass;
+
+    private final String fieldName;
+
+    private final Class<?> type;
+
+    private final Function<Object, Object> getter;
+
+    private final BiConsumer<Object, Object> setter;
+
+    /**
+     * Resolves the accessors.
+     *
+     * @param itemClass
+     *         DTO class
+     * @param fieldName
+     *         capitalized field name
+     */
+    private FieldAccessor(final Class<?> itemClass, final String fieldName) {
+        this.itemClass = itemClass;
+        this.fieldName = fieldName;
+
+        Method getterMethod = null;
+        try {
+            getterMethod = itemClass.getMethod("get" + fieldName);
+        } catch (NoSuchMethodException e) {
+            logger.debug("No getter of field {} in {}", fieldName, itemClass.getName());
+        }
+
+        Method setterMethod = null;
+        for (Method method : itemClass.getMethods()) {
+            if (method.getName().equals("set" + fieldName) && method.getParameterCount() == 1 && !method.isBridge()
+                && (setterMethod == null || (getterMethod != null
+                    && method.getParameterTypes()[0].equals(getterMethod.getReturnType())))) {
+                setterMethod = method;
+            }
+        }
+
+        this.type = getterMethod == null ? null : getterMethod.getReturnType();
+        this.getter = getterMethod == null ? null : compileGetter(getterMethod);
+        this.setter = setterMethod == null ? null : compileSetter(setterMethod);
+    }
+
+    /**
+     * Returns accessor of the field, the accessors are created once per class and field name.
+     *
+     * @param itemClass
+     *         DTO class
+     * @param fieldName
+     *         field name, eg. "title" or "Title"
+     * @return accessor
+     */
+    public static FieldAccessor of(final Class<?> itemClass, final String fieldName) {
+        return ACCESSORS.get(itemClass).computeIfAbsent(StringUtils.capitalize(fieldName),
+            n -> new FieldAccessor(itemClass, n));
+    }
+
+    /**
+     * Calls the getter.
+     *
+     * @param item
+     *         item
+     * @return value of the field
+     * @throws UnrecoverableException
+     *         in case the class has no getter of the field
+     */
+    public Object get(final Object item) {
+        if (getter == null) {
+            logger.error("No getter of field {} in {}", fieldName, itemClass.getName());
+            throw new UnrecoverableException("No getter of field " + fieldName);
+        }
+        return getter.apply(item);
+    }
+
+    /**
+     * Calls the setter.
+     *
+     * @param item
+     *         item
+     * @param value
+     *         new value of the field
+     * @throws UnrecoverableException
+     *         in case the class has no setter of the field
+     */
+    public void set(final Object item, final Object value) {
+        if (setter == null) {
+            logger.error("No setter of field {} in {}", fieldName, itemClass.getName());
+            throw new UnrecoverableException("No setter of field " + fieldName);
+        }
+        setter.accept(item, value);
+    }
+
+    /**
+     * @return return type of the getter or null if the class has no getter of the field
+     */
+    public Class<?> getType() {
+        return type;
+    }
+
+    /**
+     * @param method
+     *         getter method
+     * @return compiled getter
+     */
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> compileGetter(final Method method) {
+        try {
+            final MethodHandle handle = LOOKUP.unreflect(method);
+            return (Function<Object, Object>) LambdaMetafactory.metafactory(LOOKUP, "apply",
+                MethodType.methodType(Function.class), MethodType.methodType(Object.class, Object.class), handle,
+                handle.type().wrap()).getTarget().invokeExact();
+        } catch (Throwable e) {
+            logger.warn("Unable to compile getter {}, reflection is used instead because of {}", method, e);
+            return item -> invoke(method, item);
+        }
+    }
+
+    /**
+     * @param method
+     *         setter method
+     * @return compiled setter
+     */
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Object> compileSetter(final Method method) {
+        try {
+            final MethodHandle handle = LOOKUP.unreflect(method);
+            return (BiConsumer<Object, Object>) LambdaMetafactory.metafactory(LOOKUP, "accept",
+                MethodType.methodType(BiConsumer.class), MethodType.methodType(void.class, Object.class, Object.class),
+                handle, handle.type().wrap().changeReturnType(void.class)).getTarget().invokeExact();
+        } catch (Throwable e) {
+            logger.warn("Unable to compile setter {}, reflection is used instead because of {}", method, e);
+            return (item, value) -> invoke(method, item, value);
+        }
+    }
+
+    /**
+     * Calls the method by reflection.
+     *
+     * @param method
+     *         method
+     * @param item
+     *         item
+     * @param args
+     *         method arguments
+     * @return result of the method
+     */
+    private static Object invoke(final Method method, final Object item, final Object... args) {
+        try {
+            return method.invoke(item, args);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new UnrecoverableException("Unable to call " + method.getName(), e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new UnrecoverableException("Unable to call " + method.getName(), e);
+        }
+    }
+}
@@ -3,13 +3,34 @@ package eu.dl.worker.master.plugin.generic;
 import eu.dl.worker.utils.BasePlugin;
 import org.apache.commons.lang3.StringUtils;
 
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 /**
  * Ancestor of generic master plugins providing functionality fommon for such plugins.
  */
 public abstract class GenericMasterPlugin extends BasePlugin {
+    /**
+     * Number of sorted item lists kept per thread. Tender and lot plugins of one mastering run alternate between the
+     * list of tender parts and the lists of lot parts.
+     */
+    private static final int SORTED_ITEMS_CACHE_SIZE = 8;
+
+    /**
+     * Recently sorted item lists of the thread, all plugins of one mastering run share the sorted lists.
+     */
+    private static final ThreadLocal<Map<SortKey, List<?>>> SORTED_ITEMS = ThreadLocal.withInitial(() ->
+        new LinkedHashMap<SortKey, List<?>>(SORTED_ITEMS_CACHE_SIZE * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<SortKey, List<?>> eldest) {
+                return size() > SORTED_ITEMS_CACHE_SIZE;
+            }
+        });
+
     protected List<String> fieldNames;
 
     /**
@@ -22,4 +43,79 @@ public abstract class GenericMasterPlugin extends BasePlugin {
         super();
         this.fieldNames = fieldNames.stream().map(StringUtils::capitalize).collect(Collectors.toList());
     }
+
+    /**
+     * Returns the items (stable) sorted by the comparator. The sorted list is shared by all plugins which sort the
+     * same list (the same instance of the same size) with an equal comparator, so the items of one mastering run are
+     * sorted only once. The returned list mustn't be modified.
+     *
+     * @param <T>
+     *      items type
+     * @param items
+     *      items to be sorted
+     * @param comparator
+     *      comparator
+     * @param reversed
+     *      whether the items should be sorted in the reversed order of the comparator
+     * @return sorted items
+     */
+    @SuppressWarnings("unchecked")
+    protected static <T> List<T> getSortedItems(final List<T> items, final Comparator<? super T> comparator,
+                                                final boolean reversed) {
+        final SortKey key = new SortKey(items, comparator, reversed);
+        final Map<SortKey, List<?>> cache = SORTED_ITEMS.get();
+
+        List<T> sorted = (List<T>) cache.get(key);
+        if (sorted == null) {
+            sorted = items.stream()
+                .sorted(reversed ? comparator.reversed() : comparator)
+                .collect(Collectors.toList());
+            cache.put(key, sorted);
+        }
+        return sorted;
+    }
+
+    /**
+     * Key of the sorted items, the items are compared by identity and the comparators by equals.
+     */
+    private static final class SortKey {
+        private final List<?> items;
+
+        private final int size;
+
+        private final Comparator<?> comparator;
+
+        private final boolean reversed;
+
+        /**
+         * @param items
+         *      items
+         * @param comparator
+         *      comparator
+         * @param reversed
+         *      reversed order
+         */
+        SortKey(final List<?> items, final Comparator<?> comparator, final boolean reversed) {
+            this.items = items;
+            this.size = items.size();
+            this.comparator = comparator;
+            this.reversed = reversed;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (!(o instanceof SortKey)) {
+                return false;
+            }
+
+            final SortKey other = (SortKey) o;
+            return items == other.items && size == other.size && reversed == other.reversed
+                && comparator.equals(other.comparator);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(items), size, comparator, reversed);
+        }
+    }
 }
@@ -7,10 +7,9 @@ import eu.dl.worker.master.plugin.MasterPlugin;
 import eu.dl.worker.master.plugin.generic.comparators.CreatedDateComparator;
 import eu.dl.worker.master.plugin.generic.converter.Converter;
 
-import java.lang.reflect.Method;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * This plugin takes the last non empty value in the list of items and stores it
@@ -28,6 +27,8 @@ public class LastCreatedPlugin<T extends MasterablePart, V, U> extends GenericMa
 
     private Converter converter;
 
+    private final Comparator<T> comparator = new CreatedDateComparator<>();
+
 
     /**
      * Initializes the plugin with field names to be mastered. The plugin will
@@ -60,35 +61,21 @@ public class LastCreatedPlugin<T extends MasterablePart, V, U> extends GenericMa
 
     @Override
     public final V master(final List<T> items, final V finalItem, final List<U> context) {
-        final List<T> sortedItems = items
-            .stream()
-            .sorted(new CreatedDateComparator<>())
-            .collect(Collectors.toList());
-        
+        final List<T> sortedItems = getSortedItems(items, comparator, false);
+
         for (String fieldName : fieldNames) {
-            // getter and setter methods
-            Method getter;
             try {
-                // getter method
-                getter = items.get(0).getClass().getMethod("get" + fieldName);
+                // getter and setter
+                FieldAccessor getter = FieldAccessor.of(items.get(0).getClass(), fieldName);
+                FieldAccessor setter = FieldAccessor.of(finalItem.getClass(), fieldName);
 
-                Object result;
-                
-                // setter
-                Method setter = null;
-                for (Method methodFound : finalItem.getClass().getMethods()) {
-                    if (methodFound.getName().equals("set" + fieldName)) {
-                        setter = methodFound;
-                        break;
-                    }
-                }
-                // iterate over result set and "pick" the last nonempty value
-                for (T item : sortedItems) {
-                    result = getter.invoke(item);
+                // the last nonempty value wins, iterate from the end and stop at the first nonempty one
+                for (int i = sortedItems.size() - 1; i >= 0; i--) {
+                    Object result = getter.get(sortedItems.get(i));
 
-                    // setter method
                     if (!DTOUtils.isEmpty(result)) {
-                        setter.invoke(finalItem, converter.convert(result));
+                        setter.set(finalItem, converter.convert(result));
+                        break;
                     }
                 }
             } catch (Exception e) {
@@ -4,7 +4,6 @@ import eu.dl.core.UnrecoverableException;
 import eu.dl.dataaccess.dto.matched.MasterablePart;
 import eu.dl.worker.master.plugin.MasterPlugin;
 
-import java.lang.reflect.Method;
 import java.util.List;
 
 /**
@@ -44,17 +43,17 @@ public class LogicalORPlugin<T extends MasterablePart, V, U>
 
         for (String field : fieldNames) {
             try {
-                Method getter = items.get(0).getClass().getMethod("get" + field);
-                Method setter = finalItem.getClass().getMethod("set" + field, Boolean.class);
+                FieldAccessor getter = FieldAccessor.of(items.get(0).getClass(), field);
+                FieldAccessor setter = FieldAccessor.of(finalItem.getClass(), field);
 
-                if (!getter.getReturnType().equals(Boolean.class)) {
+                if (!Boolean.class.equals(getter.getType())) {
                     logger.error("Field {} isn't declared as Boolean.", field);
                     throw new UnrecoverableException("Field isn't declared as Boolean.");
                 }
   
                 Boolean finalValue = null;
                 for (T item : items) {                    
-                    final Boolean itemValue = (Boolean) getter.invoke(item);
+                    final Boolean itemValue = (Boolean) getter.get(item);
                     if (itemValue != null) {
                         if (itemValue) {
                             finalValue = true;
@@ -65,7 +64,7 @@ public class LogicalORPlugin<T extends MasterablePart, V, U>
                     }
                 }
 
-                setter.invoke(finalItem, finalValue);
+                setter.set(finalItem, finalValue);
             } catch (Exception e) {
                 logger.error("Unable to master boolean value for field '{}' because of exception", field, e);
                 throw new UnrecoverableException("Unable to master boolean value because of exception", e);
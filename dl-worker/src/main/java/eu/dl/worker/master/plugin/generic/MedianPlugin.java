@@ -4,7 +4,6 @@ import eu.dl.core.UnrecoverableException;
 import eu.dl.dataaccess.dto.matched.MasterablePart;
 import eu.dl.worker.master.plugin.MasterPlugin;
 
-import java.lang.reflect.Method;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -48,15 +47,14 @@ public class MedianPlugin<T extends MasterablePart, V, U> extends GenericMasterP
     @Override
     public final V master(final List<T> items, final V finalItem, final List<U> context) {
         for (String fieldName : fieldNames) {
-            // getter and setter methods
             try {
-                // getter method
-                Method getter = items.get(0).getClass().getMethod("get" + fieldName);
+                // getter
+                FieldAccessor getter = FieldAccessor.of(items.get(0).getClass(), fieldName);
 
                 // get array of all numbers we want to get median from into one list
                 List<BigDecimal> list = new ArrayList<>();
                 for (T item : items) {
-                    final Object numberObject = getter.invoke(item);
+                    final Object numberObject = getter.get(item);
                     if (numberObject != null) {
                         final BigDecimal number = numberObject instanceof BigDecimal ? (BigDecimal) numberObject
                                 : BigDecimal.valueOf((Integer) numberObject);
@@ -79,18 +77,13 @@ public class MedianPlugin<T extends MasterablePart, V, U> extends GenericMasterP
                 BigDecimal result = list.get(medianIndex);
 
                 if (null != result) {
-                    for (Method method : finalItem.getClass().getMethods()) {
-                        if (method.getName().equals("set" + fieldName)) {
+                    FieldAccessor setter = FieldAccessor.of(finalItem.getClass(), fieldName);
 
-                            // check if we must convert matched to master
-                            if (getter.getReturnType().equals(Integer.class)) {
-                                method.invoke(finalItem, result.intValue());
-                            } else {
-                                method.invoke(finalItem, result);
-                            }
-
-                            break;
-                        }
+                    // check if we must convert matched to master
+                    if (getter.getType().equals(Integer.class)) {
+                        setter.set(finalItem, result.intValue());
+                    } else {
+                        setter.set(finalItem, result);
                     }
                 }
             } catch (Exception e) {
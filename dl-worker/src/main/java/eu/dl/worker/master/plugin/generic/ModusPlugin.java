@@ -7,7 +7,6 @@ import eu.dl.dataaccess.dto.utils.DTOUtils;
 import eu.dl.worker.master.plugin.MasterPlugin;
 import eu.dl.worker.master.plugin.generic.converter.Converter;
 
-import java.lang.reflect.Method;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -61,18 +60,18 @@ public class ModusPlugin<T extends MasterablePart, V, U> extends GenericMasterPl
     @Override
     public final V master(final List<T> items, final V finalItem, final List<U> context) {
         for (String fieldName : fieldNames) {
-            // getter and setter methods
             try {
-                // getter method
-                Method getter = items.get(0).getClass().getMethod("get" + fieldName);
+                // getter
+                FieldAccessor getter = FieldAccessor.of(items.get(0).getClass(), fieldName);
 
                 // iterate over all items and store the values into storages
                 HashMap<String, Integer> occurrencesCountStorage = new HashMap<>();
                 HashMap<String, LocalDate> lastPublicationDateStorage = new HashMap<>();
                 
                 for (T item : items) {
-                    putToOccurrencesCountStorage(getter.invoke(item), occurrencesCountStorage);
-                    putToLastPublicationDateStorage(item, getHash(getter.invoke(item)), lastPublicationDateStorage);
+                    Object value = getter.get(item);
+                    putToOccurrencesCountStorage(value, occurrencesCountStorage);
+                    putToLastPublicationDateStorage(item, getHash(value), lastPublicationDateStorage);
                 }
                 
                 if (!occurrencesCountStorage.isEmpty()){
@@ -112,22 +111,16 @@ public class ModusPlugin<T extends MasterablePart, V, U> extends GenericMasterPl
                     
                     
                     // get the setter used to store value in master item
-                    Method setter = null;
-                    for (Method methodFound : finalItem.getClass().getMethods()) {
-                        if (methodFound.getName().equals("set" + fieldName)) {
-                            setter = methodFound;
-                            break;
-                        }
-                    }
+                    FieldAccessor setter = FieldAccessor.of(finalItem.getClass(), fieldName);
                         
                     // iterate over result set and "pick" the first nonempty value
                     for (T item : items) {
-                        Object result = getter.invoke(item);
+                        Object result = getter.get(item);
 
                         // setter method
                         if (!DTOUtils.isEmpty(result) && getHash(result).equals(winningHash)) {
                             // check if we must convert matched to master
-                            setter.invoke(finalItem, converter.convert(result));
+                            setter.set(finalItem, converter.convert(result));
 
                             break;
                         }
@@ -14,7 +14,6 @@ import eu.dl.worker.master.plugin.MasterPlugin;
 import eu.dl.worker.master.plugin.generic.converter.Converter;
 import eu.dl.worker.utils.ArrayUtils;
 
-import java.lang.reflect.Method;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
@@ -72,13 +71,13 @@ public final class UnionPlugin<T extends MasterablePart, V, U>
     public V master(final List<T> items, final V finalItem, final List<U> context) {
         for (String fieldName : fieldNames) {
             try {
-                // getter method
-                Method getter = items.get(0).getClass().getMethod("get" + fieldName);
+                // getter
+                FieldAccessor getter = FieldAccessor.of(items.get(0).getClass(), fieldName);
 
                 // Get content of all lists
                 List<Object> listOfAll = new ArrayList<>();
                 for (Object item : items) {
-                    final Object temp = getter.invoke(item);
+                    final Object temp = getter.get(item);
 
                     if (temp != null) {
                         listOfAll.addAll((List<Object>) temp);
@@ -151,12 +150,7 @@ public final class UnionPlugin<T extends MasterablePart, V, U>
 
                 // Save the result
                 if (!DTOUtils.isEmpty(result)) {
-                    for (Method method : finalItem.getClass().getMethods()) {
-                        if (method.getName().equals("set" + fieldName)) {
-                            method.invoke(finalItem, converter.convert(result));
-                            break;
-                        }
-                    }
+                    FieldAccessor.of(finalItem.getClass(), fieldName).set(finalItem, converter.convert(result));
                 }
             } catch (Exception e) {
                 // unable to pick the last value
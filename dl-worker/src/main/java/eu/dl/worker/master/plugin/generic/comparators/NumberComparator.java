@@ -1,12 +1,13 @@
 package eu.dl.worker.master.plugin.generic.comparators;
 
 import eu.dl.core.UnrecoverableException;
+import eu.dl.worker.master.plugin.generic.FieldAccessor;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.LoggerFactory;
 
-import java.lang.reflect.Method;
 import java.math.BigDecimal;
 import java.util.Comparator;
+import java.util.Objects;
 
 /**
  * Bigger Number comparator.
@@ -31,9 +32,9 @@ public class NumberComparator<T> implements Comparator<T> {
     @Override
     public final int compare(final T o1, final T o2) {
         try {
-            final Method getter = o1.getClass().getMethod("get" + fieldName);
-            final Object object1 = getter.invoke(o1);
-            final Object object2 = getter.invoke(o2);
+            final FieldAccessor getter = FieldAccessor.of(o1.getClass(), fieldName);
+            final Object object1 = getter.get(o1);
+            final Object object2 = getter.get(o2);
 
             final BigDecimal value1;
             final BigDecimal value2;
@@ -69,4 +70,15 @@ public class NumberComparator<T> implements Comparator<T> {
             throw new UnrecoverableException("Unable to pick value for exception", e);
         }
     }
+
+    @Override
+    public final boolean equals(final Object o) {
+        return o != null && o.getClass().equals(getClass())
+            && fieldName.equals(((NumberComparator<?>) o).fieldName);
+    }
+
+    @Override
+    public final int hashCode() {
+        return Objects.hash(getClass(), fieldName);
+    }
 }
@@ -30,4 +30,14 @@ public class PublicationDateComparator<T extends MasterablePart> implements Comp
 
         return o1Date.compareTo(o2Date);
     }
+
+    @Override
+    public final boolean equals(final Object o) {
+        return o != null && o.getClass().equals(getClass());
+    }
+
+    @Override
+    public final int hashCode() {
+        return getClass().hashCode();
+    }
 }
\ No newline at end of file
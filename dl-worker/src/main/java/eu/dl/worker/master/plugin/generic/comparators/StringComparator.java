@@ -1,9 +1,10 @@
 package eu.dl.worker.master.plugin.generic.comparators;
 
+import eu.dl.worker.master.plugin.generic.FieldAccessor;
 import org.apache.commons.lang3.StringUtils;
 
-import java.lang.reflect.Method;
 import java.util.Comparator;
+import java.util.Objects;
 
 /**
  * Criteria comparator.
@@ -28,10 +29,10 @@ public class StringComparator<T> implements Comparator<T> {
     @Override
     public final int compare(final T o1, final T o2) {
         try {
-            final Method getter = o1.getClass().getMethod("get" + fieldName);
+            final FieldAccessor getter = FieldAccessor.of(o1.getClass(), fieldName);
 
-            final String value1 = (String) getter.invoke(o1);
-            final String value2 = (String) getter.invoke(o2);
+            final String value1 = (String) getter.get(o1);
+            final String value2 = (String) getter.get(o2);
 
             if (value1 == null && value2 == null) {
                 return 0;
@@ -53,4 +54,15 @@ public class StringComparator<T> implements Comparator<T> {
 
         return 0;
     }
+
+    @Override
+    public final boolean equals(final Object o) {
+        return o != null && o.getClass().equals(getClass())
+            && fieldName.equals(((StringComparator<?>) o).fieldName);
+    }
+
+    @Override
+    public final int hashCode() {
+        return Objects.hash(getClass(), fieldName);
+    }
 }
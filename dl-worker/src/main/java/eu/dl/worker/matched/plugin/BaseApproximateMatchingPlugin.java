@@ -6,6 +6,8 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
 
 
 import eu.dl.dataaccess.dto.codetables.BodyIdentifier;
@@ -13,6 +15,7 @@ import eu.dl.dataaccess.dto.matched.ApproximatellyMatchable;
 import eu.dl.dataaccess.dto.matched.EtalonBody;
 import eu.dl.dataaccess.dto.matched.MatchedBody;
 import eu.dl.worker.utils.matched.MatchedUtils;
+import eu.dl.worker.utils.matched.TrigramFingerprint;
 import org.apache.commons.lang3.ObjectUtils;
 
 /**
@@ -53,6 +56,14 @@ public abstract class BaseApproximateMatchingPlugin<T extends MatchedBody, U ext
         
     private static final float MATCH_LOWER_THRESHOLD = 0.75f;
 
+    /**
+     * Fingerprints of the pool bodies, computed once per body. The bodies are weak keys, so the fingerprints of the
+     * bodies loaded from the database are dropped together with the bodies, while the fingerprints of the resident
+     * bodies (eg. from the body index) are reused by all the following comparisons.
+     */
+    private final ThreadLocal<Map<U, PoolBodyFingerprints>> poolFingerprints =
+        ThreadLocal.withInitial(WeakHashMap::new);
+
     /**
      * Constructor with body pool DAO initialization.
      *
@@ -67,12 +78,16 @@ public abstract class BaseApproximateMatchingPlugin<T extends MatchedBody, U ext
     protected final Map<U, Float> getSimiliraties(final T item, final List<U> pool) {
         final Map<U, Float> bodySimilarities = new HashMap<>();
 
+        // item is compared with the whole pool, fingerprint it only once
+        final TrigramFingerprint itemName = MatchedUtils.trigramFingerprint(item.getStandardizedName());
+        final TrigramFingerprint itemAddress = MatchedUtils.trigramFingerprint(item.getStandardizedAddress());
+
         pool.forEach((body) -> {
-            float nameSim =
-                MatchedUtils.trigramSimilarity(item.getStandardizedName(), body.getStandardizedName());
+            final PoolBodyFingerprints fingerprints = getFingerprints(body);
+
+            float nameSim = MatchedUtils.trigramFingerprintSimilarity(itemName, fingerprints.name);
 
-            float addrSim =
-                MatchedUtils.trigramSimilarity(item.getStandardizedAddress(), body.getStandardizedAddress());
+            float addrSim = MatchedUtils.trigramFingerprintSimilarity(itemAddress, fingerprints.address);
 
             final Float bodyIdSim = getBestBodyIdSimilarity(item.getBodyIds(), body.getBodyIds());
 
@@ -97,6 +112,26 @@ public abstract class BaseApproximateMatchingPlugin<T extends MatchedBody, U ext
         return bodySimilarities;
     }
     
+    /**
+     * Returns fingerprints of the pool body. The cached fingerprints are used only if they were created from the
+     * current standardized name and address of the body.
+     *
+     * @param body
+     *      pool body
+     * @return fingerprints of the standardized name and address
+     */
+    private PoolBodyFingerprints getFingerprints(final U body) {
+        final Map<U, PoolBodyFingerprints> cache = poolFingerprints.get();
+
+        PoolBodyFingerprints fingerprints = cache.get(body);
+        if (fingerprints == null || !fingerprints.isOf(body)) {
+            fingerprints = new PoolBodyFingerprints(body);
+            cache.put(body, fingerprints);
+        }
+
+        return fingerprints;
+    }
+
     /**
      * Returns the pool of bodies for approximate matching of the given {@code item}. The pool is identified as union of
      * these two:
@@ -182,4 +217,32 @@ public abstract class BaseApproximateMatchingPlugin<T extends MatchedBody, U ext
         
         return (similarities.isEmpty() ? 0f : Collections.max(similarities));
     }
+
+    /**
+     * Fingerprints of the standardized name and address of a pool body.
+     */
+    private static final class PoolBodyFingerprints {
+        private final TrigramFingerprint name;
+
+        private final TrigramFingerprint address;
+
+        /**
+         * @param body
+         *      pool body
+         */
+        private PoolBodyFingerprints(final ApproximatellyMatchable body) {
+            this.name = MatchedUtils.trigramFingerprint(body.getStandardizedName());
+            this.address = MatchedUtils.trigramFingerprint(body.getStandardizedAddress());
+        }
+
+        /**
+         * @param body
+         *      pool body
+         * @return true if the fingerprints were created from the current name and address of the body
+         */
+        private boolean isOf(final ApproximatellyMatchable body) {
+            return Objects.equals(name == null ? null : name.getValue(), body.getStandardizedName())
+                && Objects.equals(address == null ? null : address.getValue(), body.getStandardizedAddress());
+        }
+    }
 }
@@ -0,0 +1,128 @@
+package eu.dl.worker.matched.plugin;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import eu.dl.dataaccess.dao.MatchedBodyDAO;
+import eu.dl.dataaccess.dao.TransactionUtils;
+import eu.dl.dataaccess.dto.matched.EtalonBody;
+import eu.dl.dataaccess.dto.matched.MatchedBody;
+import eu.dl.dataaccess.utils.DigestUtils;
+
+/**
+ * Provides matched body entries of etalon bodies for the etalon matching plugins. Each etalon body has only one
+ * matched body entry per source. The entry is created on the first match.
+ *
+ * The entry created by one thread isn't visible to the others until its transaction is completed, so the entries of
+ * the running transactions are kept aside and the lookup and creation of the entry is serialized per etalon body.
+ * Without that, bodies matched in parallel to the same etalon would create duplicate entries. Once the transaction is
+ * completed its entries are forgotten. The group id of the entry depends only on the source and the etalon body, so
+ * the bodies matched to the entry of a transaction which was rolled back later still belong to the group of the entry
+ * created again.
+ *
+ * During a bulk run (see {@link #startRun()}) the committed entries are remembered until the end of the run, so each
+ * entry is looked up in the database only once.
+ */
+public final class EtalonMatchedBodies {
+
+    private final MatchedBodyDAO matchedDAO;
+
+    private final String sourceId;
+
+    private final TransactionUtils transactionUtils;
+
+    private final Map<String, MatchedBody> uncommitted = new ConcurrentHashMap<>();
+
+    private volatile Map<String, MatchedBody> committed;
+
+    /**
+     * Creates provider of the etalon entries.
+     *
+     * @param matchedDAO
+     *      matched body DAO
+     * @param sourceId
+     *      ID of source
+     * @param transactionUtils
+     *      transaction utils of the DAO
+     */
+    public EtalonMatchedBodies(final MatchedBodyDAO matchedDAO, final String sourceId,
+                               final TransactionUtils transactionUtils) {
+        this.matchedDAO = matchedDAO;
+        this.sourceId = sourceId;
+        this.transactionUtils = transactionUtils;
+    }
+
+    /**
+     * Starts bulk run, the committed entries are remembered until {@link #endRun()}.
+     */
+    public void startRun() {
+        committed = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Ends bulk run and forgets the remembered entries.
+     */
+    public void endRun() {
+        committed = null;
+    }
+
+    /**
+     * Returns matched body entry of the etalon body. In case that the entry doesn't exist, it is created and saved.
+     *
+     * @param etalon
+     *      etalon body
+     * @return matched body entry of the etalon body
+     */
+    public MatchedBody getOrCreate(final EtalonBody etalon) {
+        final Map<String, MatchedBody> run = committed;
+        if (run != null) {
+            final MatchedBody matched = run.get(etalon.getId());
+            if (matched != null) {
+                return matched;
+            }
+        }
+
+        final boolean[] loaded = {false};
+        final MatchedBody matched = uncommitted.computeIfAbsent(etalon.getId(), id -> {
+            loaded[0] = true;
+            return findOrCreate(etalon);
+        });
+
+        if (loaded[0]) {
+            transactionUtils.afterCompletion(success -> {
+                if (success && run != null) {
+                    run.put(etalon.getId(), matched);
+                }
+                uncommitted.remove(etalon.getId(), matched);
+            });
+        }
+
+        return matched;
+    }
+
+    /**
+     * Searches for the matched body entry of the etalon body in the database. In case that the entry doesn't exist,
+     * it is created and saved.
+     *
+     * @param etalon
+     *      etalon body
+     * @return matched body entry of the etalon body
+     */
+    private MatchedBody findOrCreate(final EtalonBody etalon) {
+        // search for already existing etalon entry stored in the matched body collection
+        MatchedBody matched = (MatchedBody) matchedDAO.getByEtalonId(etalon.getId());
+        if (matched != null) {
+            return matched;
+        }
+
+        //new MatchedBody from Etalon item
+        matched = etalon.getAsMatchedBody();
+        String groupId = "group_" + sourceId + "_body_" + DigestUtils.bodyHash(matched);
+        matched.setGroupId(groupId);
+
+        String id = matchedDAO.save(matched);
+        matched.setId(id);
+
+        return matched;
+    }
+}
@@ -1,10 +1,10 @@
 package eu.dl.worker.matched.plugin;
 
+import eu.dl.dataaccess.dao.DummyTransactionUtils;
 import eu.dl.dataaccess.dao.EtalonBodyDAO;
 import eu.dl.dataaccess.dao.MatchedBodyDAO;
 import eu.dl.dataaccess.dto.matched.EtalonBody;
 import eu.dl.dataaccess.dto.matched.MatchedBody;
-import eu.dl.dataaccess.utils.DigestUtils;
 
 /**
  * This plugin attempts to find exact match with already matched bodies.
@@ -19,9 +19,7 @@ import eu.dl.dataaccess.utils.DigestUtils;
 public class ExactMatchingEtalonPlugin<T extends MatchedBody, U extends EtalonBody>
     extends BaseExactMatchingPlugin<T, U> {
 
-    private final MatchedBodyDAO matchedDAO;
-    
-    private final String sourceId;
+    private final EtalonMatchedBodies etalonMatchedBodies;
     
     /**
      * Value used for positive matching result.
@@ -40,9 +38,20 @@ public class ExactMatchingEtalonPlugin<T extends MatchedBody, U extends EtalonBo
      */
     public ExactMatchingEtalonPlugin(final MatchedBodyDAO matchedBodyDAO, final EtalonBodyDAO etalonBodyDAO,
                                      final String sourceId) {
+        this(etalonBodyDAO, new EtalonMatchedBodies(matchedBodyDAO, sourceId, new DummyTransactionUtils()));
+    }
+
+    /**
+     * Exact matching plugin with etalon body DAO and shared provider of the etalon entries initialization.
+     *
+     * @param etalonBodyDAO
+     *      etalon body DAO
+     * @param etalonMatchedBodies
+     *      provider of the matched body entries of etalon bodies
+     */
+    public ExactMatchingEtalonPlugin(final EtalonBodyDAO etalonBodyDAO, final EtalonMatchedBodies etalonMatchedBodies) {
         super(etalonBodyDAO);
-        this.matchedDAO = matchedBodyDAO;
-        this.sourceId = sourceId;
+        this.etalonMatchedBodies = etalonMatchedBodies;
     }
     
     @Override
@@ -52,21 +61,6 @@ public class ExactMatchingEtalonPlugin<T extends MatchedBody, U extends EtalonBo
     
     @Override
     protected final MatchedBody bestToMatchedBody(final U best) {
-        // search for already existing etalon entry stored in the matched body
-        // collection
-        T matched = (T) matchedDAO.getByEtalonId(best.getId());
-        if (matched != null) {
-            return matched;
-        }
-
-        //new MatchedBody from Etalon item
-        matched = (T) best.getAsMatchedBody();
-        String groupId = "group_" + sourceId + "_body_" + DigestUtils.bodyHash(matched);
-        matched.setGroupId(groupId);
-
-        String id = matchedDAO.save(matched);
-        matched.setId(id);
-        
-        return matched;
+        return etalonMatchedBodies.getOrCreate(best);
     }
 }
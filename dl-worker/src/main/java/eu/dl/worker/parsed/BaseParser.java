@@ -1,6 +1,7 @@
 package eu.dl.worker.parsed;
 
 import eu.dl.core.UnrecoverableException;
+import eu.dl.core.storage.StorageServiceFactory;
 import eu.dl.dataaccess.dao.ParsedDAO;
 import eu.dl.dataaccess.dao.RawDAO;
 import eu.dl.dataaccess.dto.parsed.Parsable;
@@ -8,10 +9,12 @@ import eu.dl.dataaccess.dto.raw.Raw;
 import eu.dl.worker.BaseWorker;
 import eu.dl.worker.Message;
 import eu.dl.worker.MessageFactory;
+import eu.dl.worker.raw.utils.RawDataStorage;
 import org.apache.logging.log4j.ThreadContext;
 
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Base class for all the parsers.
@@ -32,11 +35,17 @@ public abstract class BaseParser<V extends Raw, T extends Parsable> extends Base
 
     protected final ParsedDAO<T> parsedDao = getParsedDAO();
 
+    private RawDataStorage rawDataStorage;
+
     @Override
     public final void doWork(final Message message) {
         final String rawItemId = message.getValue("id");
         ThreadContext.put("raw_tender_id", rawItemId);
         final V rawItem = rawDao.getById(rawItemId);
+        if (!readsSourceDataByStream()
+            && (rawItem.getSourceDataKey() != null || rawItem.getSourceBinaryDataKey() != null)) {
+            getRawDataStorage().inline(rawItem);
+        }
 
         List<T> parsedItems = parse(rawItem);
         logger.debug("Number of tenders parsed: {}", parsedItems.size());
@@ -88,12 +97,13 @@ public abstract class BaseParser<V extends Raw, T extends Parsable> extends Base
                 resendVersion = getVersion();
             }
 
-            final List<T> items = parsedDao.getMine(getName(), resendVersion, dateFrom, dateTo);
-
-            for (final Parsable item : items) {
-                final Message outgoingMessage = MessageFactory.getMessage();
-                outgoingMessage.setValue("id", item.getId());
-                publishMessage(outgoingMessage);
+            try (Stream<String> ids = parsedDao.streamMineIds(getName(), resendVersion, dateFrom, dateTo)) {
+                final long count = publishMessages(ids.map(id -> {
+                    final Message outgoingMessage = MessageFactory.getMessage();
+                    outgoingMessage.setValue("id", id);
+                    return outgoingMessage;
+                }), getOutgoingTag());
+                logger.info("Resent {} messages.", count);
             }
         } catch (final Exception ex) {
             logger.error("Unable to resend messages for cleaning {}", ex);
@@ -115,6 +125,27 @@ public abstract class BaseParser<V extends Raw, T extends Parsable> extends Base
      */
     protected abstract ParsedDAO<T> getParsedDAO();
 
+    /**
+     * Whether the parser reads the source data by {@link RawDataStorage#openSourceData(Raw)} or
+     * {@link RawDataStorage#mapSourceData(Raw)}. Otherwise, the source data stored in blob store are loaded to the raw
+     * item before parsing.
+     *
+     * @return true if the source data needn't be loaded
+     */
+    protected boolean readsSourceDataByStream() {
+        return false;
+    }
+
+    /**
+     * @return storage of the raw source data
+     */
+    protected final synchronized RawDataStorage getRawDataStorage() {
+        if (rawDataStorage == null) {
+            rawDataStorage = new RawDataStorage(StorageServiceFactory.getBlobStore());
+        }
+        return rawDataStorage;
+    }
+
     /**
      * Parses the given raw item object.
      *
@@ -1,17 +1,20 @@
 package eu.dl.worker.raw.downloader;
 
 import eu.dl.core.UnrecoverableException;
+import eu.dl.core.storage.StorageServiceFactory;
 import eu.dl.dataaccess.dao.RawDAO;
 import eu.dl.dataaccess.dto.raw.Raw;
 import eu.dl.worker.Message;
 import eu.dl.worker.MessageFactory;
 import eu.dl.worker.raw.BaseRawWorker;
+import eu.dl.worker.raw.utils.RawDataStorage;
 import eu.dl.worker.utils.ThreadUtils;
 
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static eu.dl.worker.raw.utils.DownloaderUtils.generatePersistentId;
 
@@ -25,12 +28,21 @@ public abstract class BaseDownloader<T extends Raw> extends BaseRawWorker {
 
     private static final String INCOMING_EXCHANGE_NAME = "raw";
 
+    private static final int DEFAULT_BLOB_THRESHOLD = 65536;
+
     protected RawDAO<T> rawDao;
 
     protected final int humanize;
 
     protected final boolean skipExisting;
 
+    /**
+     * Storage of large payloads, null unless enabled by {@code <worker>.blobStore = 1}. Binary payloads and text
+     * payloads of at least {@code <worker>.blobThreshold} characters (default {@value #DEFAULT_BLOB_THRESHOLD}) are
+     * stored out of the raw row.
+     */
+    protected final RawDataStorage rawDataStorage;
+
     /**
      * Default constructor.
      */
@@ -56,6 +68,14 @@ public abstract class BaseDownloader<T extends Raw> extends BaseRawWorker {
         } else {
             skipExisting = false;
         }
+
+        if ("1".equals(config.getParam(getName() + ".blobStore"))) {
+            final Integer threshold = config.getParamValueAs(getName() + ".blobThreshold", Integer::valueOf);
+            rawDataStorage = new RawDataStorage(StorageServiceFactory.getBlobStore(),
+                threshold != null ? threshold : DEFAULT_BLOB_THRESHOLD);
+        } else {
+            rawDataStorage = null;
+        }
     }
 
     @Override
@@ -84,9 +104,19 @@ public abstract class BaseDownloader<T extends Raw> extends BaseRawWorker {
 
             DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSSSSSSS");
             rawDataItem.setProcessingOrder(Timestamp.valueOf(LocalDateTime.now()).toLocalDateTime().format(formatter));
+            // large payloads are kept out of the row, post-processing still gets the offloaded ones inline
+            final String sourceData = rawDataItem.getSourceData();
+            final byte[] sourceBinaryData = rawDataItem.getSourceBinaryData();
+            if (rawDataStorage != null) {
+                rawDataStorage.offload(rawDataItem);
+            }
+
             final String savedId = rawDao.save(rawDataItem);
             logger.info("Stored raw data as {}", savedId);
 
+            rawDataItem.setSourceData(sourceData);
+            rawDataItem.setSourceBinaryData(sourceBinaryData);
+
             // post-processing, doesn't affect raw record
             postProcess(rawDataItem);
 
@@ -117,12 +147,13 @@ public abstract class BaseDownloader<T extends Raw> extends BaseRawWorker {
                 resendVersion = getVersion();
             }
 
-            final List<T> rawDataItems = getRawDataDao().getMine(getName(), resendVersion, dateFrom, dateTo);
-
-            for (final T rawDataItem : rawDataItems) {
-                final Message outgoingMessage = MessageFactory.getMessage();
-                outgoingMessage.setValue("id", rawDataItem.getId());
-                publishMessage(outgoingMessage);
+            try (Stream<String> ids = getRawDataDao().streamMineIds(getName(), resendVersion, dateFrom, dateTo)) {
+                final long count = publishMessages(ids.map(id -> {
+                    final Message outgoingMessage = MessageFactory.getMessage();
+                    outgoingMessage.setValue("id", id);
+                    return outgoingMessage;
+                }), getOutgoingTag());
+                logger.info("Resent {} messages.", count);
             }
         } catch (final Exception ex) {
             logger.error("Unable to resend messages for parsing {}", ex);
@@ -163,6 +194,11 @@ public abstract class BaseDownloader<T extends Raw> extends BaseRawWorker {
     /**
      * Post-processing. Method doesn't (shouldn't) affect saved raw record, but gives the opportunity to do operations after record saving.
      *
+     * Payloads moved to the blob store when the record was saved are still inline. Payloads which were streamed
+     * straight to the blob store by the download (see {@link BaseHttpDownloader}) were never in memory, they are
+     * referenced only by {@link Raw#getSourceBinaryDataKey()} and can be read by
+     * {@link RawDataStorage#openSourceData(Raw)}.
+     *
      * @param raw
      *      saved raw record
      */
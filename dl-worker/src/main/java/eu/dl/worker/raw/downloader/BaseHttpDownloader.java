@@ -113,7 +113,12 @@ public abstract class BaseHttpDownloader<T extends Raw> extends BaseDownloader<T
             try {
                 URL binaryDataUrl = new URL(sourceBinaryDataUrl);
                 inputStream = binaryDataUrl.openStream();
-                rawData.setSourceBinaryData(IOUtils.toByteArray(inputStream));
+                if (rawDataStorage != null) {
+                    // stream the file directly to the blob store, the raw data (post-processing too) get only the key
+                    rawData.setSourceBinaryDataKey(rawDataStorage.save(inputStream));
+                } else {
+                    rawData.setSourceBinaryData(IOUtils.toByteArray(inputStream));
+                }
                 rawData.setSourceUrl(binaryDataUrl);
             } catch (final MalformedURLException ex) {
                 logger.error("Unable to download from malformed URL {}", sourceBinaryDataUrl);
@@ -0,0 +1,182 @@
+package eu.dl.worker.raw.utils;
+
+import eu.dl.core.UnrecoverableException;
+import eu.dl.core.storage.BlobStore;
+import eu.dl.dataaccess.dto.raw.Raw;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Moves raw source data between the raw row and the blob store. Payloads stored in the blob store are referenced by
+ * {@link Raw#getSourceDataKey()} and {@link Raw#getSourceBinaryDataKey()}, the text payloads are stored in UTF-8.
+ */
+public final class RawDataStorage {
+    private static final Logger logger = LoggerFactory.getLogger(RawDataStorage.class);
+
+    private final BlobStore blobStore;
+
+    private final int threshold;
+
+    /**
+     * Creates raw data storage.
+     *
+     * @param blobStore
+     *      blob store
+     * @param threshold
+     *      minimal size of text payload in characters which is stored in the blob store, binary payloads are stored
+     *      there always
+     */
+    public RawDataStorage(final BlobStore blobStore, final int threshold) {
+        this.blobStore = blobStore;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Creates raw data storage used only for reading of the payloads.
+     *
+     * @param blobStore
+     *      blob store
+     */
+    public RawDataStorage(final BlobStore blobStore) {
+        this(blobStore, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Stores the payload in the blob store and returns its key.
+     *
+     * @param inputStream
+     *      payload, the stream isn't closed
+     * @return blob store key
+     */
+    public String save(final InputStream inputStream) {
+        return blobStore.save(inputStream);
+    }
+
+    /**
+     * Moves the binary payload and the large text payload of the given raw data to the blob store. Moved payloads
+     * are replaced by their keys.
+     *
+     * @param raw
+     *      raw data to be updated
+     */
+    public void offload(final Raw raw) {
+        if (raw.getSourceBinaryData() != null) {
+            raw.setSourceBinaryDataKey(save(new ByteArrayInputStream(raw.getSourceBinaryData())));
+            raw.setSourceBinaryData(null);
+            logger.debug("Source binary data stored as {}", raw.getSourceBinaryDataKey());
+        }
+
+        if (raw.getSourceData() != null && raw.getSourceData().length() >= threshold) {
+            raw.setSourceDataKey(save(new ByteArrayInputStream(raw.getSourceData().getBytes(StandardCharsets.UTF_8))));
+            raw.setSourceData(null);
+            logger.debug("Source data stored as {}", raw.getSourceDataKey());
+        }
+    }
+
+    /**
+     * Loads the payloads referenced by the given raw data from the blob store back to the raw data. Used for workers
+     * which don't read the payload by stream.
+     *
+     * @param raw
+     *      raw data to be updated
+     */
+    public void inline(final Raw raw) {
+        if (raw.getSourceBinaryDataKey() != null && raw.getSourceBinaryData() == null) {
+            raw.setSourceBinaryData(readAll(raw.getSourceBinaryDataKey()));
+        }
+
+        if (raw.getSourceDataKey() != null && raw.getSourceData() == null) {
+            raw.setSourceData(new String(readAll(raw.getSourceDataKey()), StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Opens the payload of the given raw data. The binary payload takes precedence over the text one.
+     *
+     * @param raw
+     *      raw data
+     * @return payload stream (text payload in UTF-8) or null if the raw data have no payload
+     */
+    public InputStream openSourceData(final Raw raw) {
+        if (raw.getSourceBinaryData() != null) {
+            return new ByteArrayInputStream(raw.getSourceBinaryData());
+        } else if (raw.getSourceBinaryDataKey() != null) {
+            return get(raw.getSourceBinaryDataKey());
+        } else if (raw.getSourceData() != null) {
+            return new ByteArrayInputStream(raw.getSourceData().getBytes(StandardCharsets.UTF_8));
+        } else if (raw.getSourceDataKey() != null) {
+            return get(raw.getSourceDataKey());
+        }
+
+        return null;
+    }
+
+    /**
+     * Maps the payload of the given raw data to memory. The binary payload takes precedence over the text one.
+     *
+     * @param raw
+     *      raw data
+     * @return read-only payload buffer (text payload in UTF-8) or null if the raw data have no payload
+     */
+    public ByteBuffer mapSourceData(final Raw raw) {
+        if (raw.getSourceBinaryData() != null) {
+            return ByteBuffer.wrap(raw.getSourceBinaryData()).asReadOnlyBuffer();
+        } else if (raw.getSourceBinaryDataKey() != null) {
+            return map(raw.getSourceBinaryDataKey());
+        } else if (raw.getSourceData() != null) {
+            return ByteBuffer.wrap(raw.getSourceData().getBytes(StandardCharsets.UTF_8)).asReadOnlyBuffer();
+        } else if (raw.getSourceDataKey() != null) {
+            return map(raw.getSourceDataKey());
+        }
+
+        return null;
+    }
+
+    /**
+     * @param key
+     *      blob store key
+     * @return payload stream
+     */
+    private InputStream get(final String key) {
+        final InputStream inputStream = blobStore.get(key);
+        if (inputStream == null) {
+            logger.error("Source data {} not found in blob store", key);
+            throw new UnrecoverableException("Source data not found in blob store");
+        }
+        return inputStream;
+    }
+
+    /**
+     * @param key
+     *      blob store key
+     * @return payload buffer
+     */
+    private ByteBuffer map(final String key) {
+        final ByteBuffer buffer = blobStore.map(key);
+        if (buffer == null) {
+            logger.error("Source data {} not found in blob store", key);
+            throw new UnrecoverableException("Source data not found in blob store");
+        }
+        return buffer;
+    }
+
+    /**
+     * @param key
+     *      blob store key
+     * @return payload
+     */
+    private byte[] readAll(final String key) {
+        try (InputStream inputStream = get(key)) {
+            return inputStream.readAllBytes();
+        } catch (IOException e) {
+            logger.error("Unable to read source data {} from blob store because of {}", key, e);
+            throw new UnrecoverableException("Unable to read source data from blob store", e);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package eu.dl.worker.utils.archive;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Processes a file extracted from an archive.
+ *
+ * @see ArchiveUtils#extract(InputStream, String, ArchiveEntryHandler)
+ */
+@FunctionalInterface
+public interface ArchiveEntryHandler {
+    /**
+     * Processes the extracted file. The content stream is valid only during this call and mustn't be closed by the
+     * handler (closing has no effect).
+     *
+     * @param entryName
+     *         name of the file in the archive
+     * @param content
+     *         content of the file
+     * @throws IOException
+     *         in case the content can't be read
+     */
+    void handle(String entryName, InputStream content) throws IOException;
+}
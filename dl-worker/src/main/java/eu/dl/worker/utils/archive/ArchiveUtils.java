@@ -1,20 +1,30 @@
 package eu.dl.worker.utils.archive;
 
 import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.RandomAccessFile;
-import java.io.StringWriter;
-import java.io.UnsupportedEncodingException;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 
 import org.apache.commons.compress.archivers.ArchiveEntry;
 import org.apache.commons.compress.archivers.ArchiveException;
@@ -24,6 +34,7 @@ import org.apache.commons.compress.compressors.CompressorException;
 import org.apache.commons.compress.compressors.CompressorStreamFactory;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.CloseShieldInputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -113,35 +124,177 @@ public final class ArchiveUtils {
     public static HashMap<String, String> extract(final InputStream inputStream, final String fileName,
                                                   final String archiveFormat, final String compressionType,
                                                   final Charset charset) {
+        final HashMap<String, String> output = new HashMap<>();
+        extract(inputStream, fileName, archiveFormat, compressionType,
+            (entryName, content) -> output.put(entryName, IOUtils.toString(content, charset)));
+        return output;
+    }
+
+    /**
+     * Extracts given archive and passes each included file to the handler as soon as it is read from the archive.
+     * Nested archives are extracted recursively. Only the currently processed file is read, so archives of any size
+     * can be processed in bounded memory. Archive format and compression type will be auto-detected.
+     *
+     * @param inputStream
+     *         archive input stream, it is closed at the end
+     * @param fileName
+     *         name of the archive file (including extension)
+     * @param handler
+     *         handler of the extracted files
+     * @throws ArchiveUnpackingException
+     *         if the unpacking or the handler fails
+     */
+    public static void extract(final InputStream inputStream, final String fileName,
+                               final ArchiveEntryHandler handler) {
+        extract(inputStream, fileName, null, null, handler);
+    }
+
+    /**
+     * Extracts given archive and passes each included file to the handler as soon as it is read from the archive.
+     * Nested archives are extracted recursively. Archive format and/or compression type can be provided, otherwise
+     * this method tries to auto-detect them.
+     *
+     * @param inputStream
+     *         archive input stream, it is closed at the end
+     * @param fileName
+     *         name of the archive file (including extension)
+     * @param archiveFormat
+     *         archive type - one of the {@link ArchiveStreamFactory} constants or null for auto-detection
+     * @param compressionType
+     *         compression type - one of the {@link CompressorStreamFactory} constants or null for auto-detection
+     * @param handler
+     *         handler of the extracted files
+     * @throws ArchiveUnpackingException
+     *         if the unpacking or the handler fails
+     */
+    public static void extract(final InputStream inputStream, final String fileName, final String archiveFormat,
+                               final String compressionType, final ArchiveEntryHandler handler) {
         assert inputStream != null;
         assert fileName != null;
 
-        final HashMap<String, String> output = new HashMap<>();
+        try {
+            extractEntries(inputStream, archiveFormat, compressionType, handler);
+        } catch (IOException e) {
+            logger.error("Error while reading extracted content from archive input stream.", e);
+            throw new ArchiveUnpackingException("Reading extracted content failed.", e);
+        } finally {
+            try {
+                inputStream.close();
+            } catch (IOException e) {
+                logger.error("Error while closing input stream.", e);
+            }
+        }
+    }
 
-        try (BufferedInputStream bufferedArchiveStream = new BufferedInputStream(inputStream);
-             ArchiveInputStream archiveInputStream = getArchiveInputStream(bufferedArchiveStream, archiveFormat,
-                     compressionType)) {
+    /**
+     * Extracts given archive and processes the included files in parallel. The files are read from the archive one
+     * by one (sequentially), at most {@code 2 * parallelism} of them are held in memory while waiting for or being
+     * processed by the handler. Nested archives are extracted recursively. Archive format and compression type will
+     * be auto-detected.
+     *
+     * @param inputStream
+     *         archive input stream, it is closed at the end
+     * @param fileName
+     *         name of the archive file (including extension)
+     * @param handler
+     *         thread safe handler of the extracted files
+     * @param parallelism
+     *         number of threads processing the files, the files are processed in the calling thread if it is 1
+     * @throws ArchiveUnpackingException
+     *         if the unpacking or the handler fails
+     */
+    public static void extract(final InputStream inputStream, final String fileName,
+                               final ArchiveEntryHandler handler, final int parallelism) {
+        if (parallelism <= 1) {
+            extract(inputStream, fileName, handler);
+            return;
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        final Semaphore inFlight = new Semaphore(2 * parallelism);
+        final List<Future<?>> futures = new ArrayList<>();
+        try {
+            extract(inputStream, fileName, (entryName, content) -> {
+                // the entry must be read here, the archive stream moves on to the next entry after return
+                final byte[] data = content.readAllBytes();
+                inFlight.acquireUninterruptibly();
+                futures.add(executor.submit(() -> {
+                    try {
+                        handler.handle(entryName, new ByteArrayInputStream(data));
+                        return null;
+                    } finally {
+                        inFlight.release();
+                    }
+                }));
+                // fail fast and forget the finished entries
+                checkFinished(futures, false);
+            });
+            checkFinished(futures, true);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Extracts all the entries of the given archive stream, recursively. The given stream isn't closed.
+     *
+     * @param inputStream
+     *         archive input stream
+     * @param archiveFormat
+     *         archive type or null for auto-detection
+     * @param compressionType
+     *         compression type or null for auto-detection
+     * @param handler
+     *         handler of the extracted files
+     * @throws IOException
+     *         if the archive or the content can't be read
+     */
+    private static void extractEntries(final InputStream inputStream, final String archiveFormat,
+                                       final String compressionType, final ArchiveEntryHandler handler)
+        throws IOException {
+        // the shield keeps the enclosing (nested archive) stream open when this archive is closed
+        try (ArchiveInputStream archiveInputStream = getArchiveInputStream(
+                new BufferedInputStream(new CloseShieldInputStream(inputStream)), archiveFormat, compressionType)) {
             ArchiveEntry entry;
             while ((entry = archiveInputStream.getNextEntry()) != null) {
                 final String entryName = entry.getName();
 
                 // check, whether the entry is again an archive and if so, extract recursively
                 if (isKnownArchive(entryName)) {
-                    output.putAll(extract(archiveInputStream, entryName));
+                    extractEntries(archiveInputStream, null, null, handler);
                 } else if (!entry.isDirectory()) {
                     // filters out directories, but files (even those inside directories) are processed
-                    output.put(entryName, getEntryContent(archiveInputStream, charset));
+                    handler.handle(entryName, new CloseShieldInputStream(archiveInputStream));
                 }
             }
-            return output;
-        } catch (IOException e) {
-            logger.error("Error while reading extracted content from archive input stream.", e);
-            throw new ArchiveUnpackingException("Reading extracted content failed.", e);
-        } finally {
-            try {
-                inputStream.close();
-            } catch (IOException e) {
-                logger.error("Error while closing input stream.", e);
+        }
+    }
+
+    /**
+     * Removes finished tasks from the list and rethrows their failure.
+     *
+     * @param futures
+     *         tasks
+     * @param wait
+     *         whether to wait for all the tasks
+     * @throws ArchiveUnpackingException
+     *         if any of the tasks failed
+     */
+    private static void checkFinished(final List<Future<?>> futures, final boolean wait) {
+        final Iterator<Future<?>> iterator = futures.iterator();
+        while (iterator.hasNext()) {
+            final Future<?> future = iterator.next();
+            if (wait || future.isDone()) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    logger.error("Processing of extracted content failed.", e.getCause());
+                    throw new ArchiveUnpackingException("Processing of extracted content failed.", e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new ArchiveUnpackingException("Processing of extracted content interrupted.", e);
+                }
+                iterator.remove();
             }
         }
     }
@@ -156,26 +309,42 @@ public final class ArchiveUtils {
      * @return map of all the extracted file names with associated content
      */
     public static HashMap<String, String> extractUsing7zip(final InputStream inputStream, final String fileName) {
-
         final HashMap<String, String> extractedFiles = new HashMap<>();
+        extractUsing7zip(inputStream, fileName,
+            (entryName, content) -> extractedFiles.put(entryName, IOUtils.toString(content, StandardCharsets.UTF_8)));
+        return extractedFiles;
+    }
 
+    /**
+     * Extracts archive (not recursively) and passes each included file to the handler. The archive and the currently
+     * processed file are stored in temporary files, so archives of any size can be processed in bounded memory.
+     *
+     * @param inputStream
+     *         archive input stream
+     * @param fileName
+     *         name of the archive file (including extension)
+     * @param handler
+     *         handler of the extracted files
+     */
+    public static void extractUsing7zip(final InputStream inputStream, final String fileName,
+                                        final ArchiveEntryHandler handler) {
         // create work folder if necessary
         final File destinationFolder = new File(FilenameUtils.getName(WORK_FOLDER));
         destinationFolder.mkdir();
 
-        File tempArchiveFile = null;
+        Path tempArchiveFile = null;
         IInArchive inArchive = null;
         RandomAccessFile randomAccessFile = null;
         try {
             // create file on disk and convert input stream into the newly created file
-            tempArchiveFile = new File(WORK_FOLDER, FilenameUtils.getName(fileName));
-            Files.copy(inputStream, tempArchiveFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            tempArchiveFile = Files.createTempFile(destinationFolder.toPath(), "archive", null);
+            Files.copy(inputStream, tempArchiveFile, StandardCopyOption.REPLACE_EXISTING);
 
             // open created file
-            randomAccessFile = new RandomAccessFile(tempArchiveFile, "r");
+            randomAccessFile = new RandomAccessFile(tempArchiveFile.toFile(), "r");
 
             // process files
-            logger.debug("Unpack downloaded file {}", tempArchiveFile.getAbsolutePath());
+            logger.debug("Unpack downloaded file {}", fileName);
 
             // open archive, autodetect archive type
             inArchive = SevenZip.openInArchive(null, new RandomAccessFileInStream(randomAccessFile));
@@ -185,36 +354,13 @@ public final class ArchiveUtils {
 
             // go through the archive file by file
             for (final ISimpleInArchiveItem item : simpleInArchive.getArchiveItems()) {
-                final StringBuilder stringDataBuilder = new StringBuilder();
                 // filter out folders (but process files inside folders)
                 logger.info(item.getPath());
 
                 if (!item.isFolder()) {
-                    ExtractOperationResult result = item.extractSlow(data -> {
-                        try {
-                            logger.debug("Processing {} file {}", fileName, item.getPath());
-
-                            // convert data to string
-                            stringDataBuilder.append(new String(data, "UTF-8"));
-                        } catch (final UnsupportedEncodingException e) {
-                            throw new UnrecoverableException("Unable to convert data to UTF-8 while extracting.", e);
-                        }
-                        return data.length;
-                    });
-
-                    if (result == ExtractOperationResult.OK) {
-                        final String stringData = stringDataBuilder.toString();
-                        //logger.info("file: {} \n data: {}", item.getPath(), stringData);
-
-                        // add extracted file to output list
-                        extractedFiles.put(item.getPath(), stringData);
-                    } else {
-                        logger.error("Error extracting archive: {}", result);
-                        throw new UnrecoverableException("Unable to extractUsing7zip archive.");
-                    }
+                    extractItem(item, destinationFolder.toPath(), handler);
                 }
             }
-            return extractedFiles;
         } catch (final Exception e) {
             logger.error("Unable to download and extractUsing7zip archive.", e);
             throw new UnrecoverableException("Unable to download and extractUsing7zip archive.", e);
@@ -222,7 +368,7 @@ public final class ArchiveUtils {
             if (tempArchiveFile != null) {
                 try {
                     // delete the file, its not necessary anymore
-                    tempArchiveFile.delete();
+                    Files.deleteIfExists(tempArchiveFile);
                 } catch (Exception e) {
                     logger.error("Error deleting temporary archive file.", e);
                 }
@@ -244,6 +390,47 @@ public final class ArchiveUtils {
         }
     }
 
+    /**
+     * Extracts the archive item to a temporary file and passes its content to the handler.
+     *
+     * @param item
+     *         archive item
+     * @param folder
+     *         folder of the temporary file
+     * @param handler
+     *         handler of the extracted file
+     * @throws IOException
+     *         if the item can't be extracted or processed
+     */
+    private static void extractItem(final ISimpleInArchiveItem item, final Path folder,
+                                    final ArchiveEntryHandler handler) throws IOException {
+        final Path tempFile = Files.createTempFile(folder, "entry", null);
+        try {
+            final ExtractOperationResult result;
+            try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(tempFile))) {
+                result = item.extractSlow(data -> {
+                    try {
+                        outputStream.write(data);
+                    } catch (final IOException e) {
+                        throw new SevenZipException("Unable to write extracted data.", e);
+                    }
+                    return data.length;
+                });
+            }
+
+            if (result != ExtractOperationResult.OK) {
+                logger.error("Error extracting archive: {}", result);
+                throw new UnrecoverableException("Unable to extractUsing7zip archive.");
+            }
+
+            try (InputStream content = new BufferedInputStream(Files.newInputStream(tempFile))) {
+                handler.handle(item.getPath(), content);
+            }
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
     /**
      * Checks whether the file is known archive by its extension.
      *
@@ -314,24 +501,4 @@ public final class ArchiveUtils {
             throw new ArchiveUnpackingException("ArchiveUtils input stream creation failed,", e);
         }
     }
-
-    /**
-     * @param archiveInputStream
-     *         input stream with archive content
-     * @param charset
-     *         archive content encoding
-     * @return the content of given archive stream as text
-     * @throws ArchiveUnpackingException
-     *         if the stream cannot be read or some other I/O error occurs
-     */
-    private static String getEntryContent(final ArchiveInputStream archiveInputStream, final Charset charset) {
-        try {
-            final StringWriter writer = new StringWriter();
-            IOUtils.copy(archiveInputStream, writer, charset);
-            return writer.toString();
-        } catch (IOException e) {
-            logger.error("Error while reading content from archive input stream.", e);
-            throw new ArchiveUnpackingException("Error while reading content from archive input stream", e);
-        }
-    }
 }
@@ -0,0 +1,111 @@
+package eu.dl.worker.utils.matched;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Splits items into partitions by blocking keys. Two items belong to the same partition if they share at least one
+ * blocking key, directly or through other items (partitions are connected components of the "shares a key" relation).
+ * Items from different partitions can't find each other by the blocking keys, so the partitions can be matched in
+ * parallel as long as the matching doesn't depend on anything else changed by the other partitions.
+ *
+ * Partitions are ordered by their first item and items within the partition keep the original order.
+ */
+public final class BlockingPartitioner {
+
+    /**
+     * Suppress default constructor for noninstantiability.
+     */
+    private BlockingPartitioner() {
+        throw new AssertionError();
+    }
+
+    /**
+     * Splits the items into partitions.
+     *
+     * @param <T>
+     *      item class
+     * @param items
+     *      items to be partitioned
+     * @param keys
+     *      function which returns blocking keys of the item, null keys are ignored
+     * @return list of partitions
+     */
+    public static <T> List<List<T>> partition(final List<T> items, final Function<T, Collection<String>> keys) {
+        final int[] parents = new int[items.size()];
+        for (int i = 0; i < parents.length; i++) {
+            parents[i] = i;
+        }
+
+        // first item with the given key
+        final Map<String, Integer> owners = new HashMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            for (String key : keys.apply(items.get(i))) {
+                if (key == null) {
+                    continue;
+                }
+
+                final Integer owner = owners.putIfAbsent(key, i);
+                if (owner != null) {
+                    union(parents, owner, i);
+                }
+            }
+        }
+
+        final Map<Integer, List<T>> partitions = new LinkedHashMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            partitions.computeIfAbsent(find(parents, i), k -> new ArrayList<>()).add(items.get(i));
+        }
+
+        return new ArrayList<>(partitions.values());
+    }
+
+    /**
+     * @param parents
+     *      union-find parents
+     * @param i
+     *      item index
+     * @return index of the root of the item's set, the lowest index in the set
+     */
+    private static int find(final int[] parents, final int i) {
+        int root = i;
+        while (parents[root] != root) {
+            root = parents[root];
+        }
+
+        // path compression
+        int node = i;
+        while (parents[node] != root) {
+            final int next = parents[node];
+            parents[node] = root;
+            node = next;
+        }
+
+        return root;
+    }
+
+    /**
+     * Merges sets of the given items. The lower root becomes the root of the merged set.
+     *
+     * @param parents
+     *      union-find parents
+     * @param a
+     *      item index
+     * @param b
+     *      item index
+     */
+    private static void union(final int[] parents, final int a, final int b) {
+        final int rootA = find(parents, a);
+        final int rootB = find(parents, b);
+        if (rootA < rootB) {
+            parents[rootB] = rootA;
+        } else if (rootB < rootA) {
+            parents[rootA] = rootB;
+        }
+    }
+}
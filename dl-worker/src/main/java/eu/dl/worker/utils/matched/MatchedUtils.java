@@ -22,6 +22,30 @@ import eu.dl.dataaccess.dto.codetables.BodyIdentifier;
  * @author Tomas Mrazek
  */
 public final class MatchedUtils {
+
+    /**
+     * Levenstein distance, the implementation is stateless so the instance can be shared.
+     */
+    private static final LevensteinDistance LEVENSTEIN = new LevensteinDistance();
+
+    /**
+     * Per-thread working rows of the n-gram distance computation, grown on demand.
+     */
+    private static final ThreadLocal<float[][]> NGRAM_ROWS = ThreadLocal.withInitial(() -> new float[2][64]);
+
+    /**
+     * Edit cost of two trigrams, {@code (float) cost / tn} indexed by number of non-padding positions (tn) and number
+     * of different characters (cost).
+     */
+    private static final float[][] NGRAM_COST = new float[TrigramFingerprint.N + 1][TrigramFingerprint.N + 1];
+
+    static {
+        for (int tn = 0; tn <= TrigramFingerprint.N; tn++) {
+            for (int cost = 0; cost <= TrigramFingerprint.N; cost++) {
+                NGRAM_COST[tn][cost] = (float) cost / tn;
+            }
+        }
+    }
     
     /**
      * Suppress default constructor for noninstantiability.
@@ -93,7 +117,7 @@ public final class MatchedUtils {
      * Computes similarity of two given strings with help of trigram matching algorithm.
      * 
      * @see NGramDistance#getDistance(java.lang.String, java.lang.String)
-     * @see MatchedUtils#getSimilarity(java.lang.Object, java.lang.Object, java.util.function.BiFunction)
+     * @see MatchedUtils#trigramFingerprintSimilarity(TrigramFingerprint, TrigramFingerprint)
      * 
      * @param source
      *      source string
@@ -102,9 +126,140 @@ public final class MatchedUtils {
      * @return similarity of strings
      */
     public static Float trigramSimilarity(final String source, final String target) {
-        return getSimilarity(source, target, (s, t) -> new NGramDistance(3).getDistance(s, t));
+        return trigramFingerprintSimilarity(trigramFingerprint(source), trigramFingerprint(target));
     }
-    
+
+    /**
+     * Creates trigram fingerprint of the given string. The fingerprint should be created once per body and reused for
+     * all comparisons.
+     *
+     * @param value
+     *      string
+     * @return fingerprint or null for null string
+     */
+    public static TrigramFingerprint trigramFingerprint(final String value) {
+        return value == null ? null : new TrigramFingerprint(value);
+    }
+
+    /**
+     * Computes similarity of two fingerprinted strings with help of trigram matching algorithm. Nulls and equal strings
+     * are handled the same way as in {@link MatchedUtils#getSimilarity(Object, Object, BiFunction)}.
+     *
+     * The result is identical to {@link NGramDistance#getDistance(String, String)} of Lucene (n = 3), the tolerance
+     * is 0 - the computation performs the same float operations in the same order. It only avoids the repeated
+     * tokenization of strings and allocation of the working arrays.
+     *
+     * @param source
+     *      source fingerprint
+     * @param target
+     *      target fingerprint
+     * @return similarity of strings
+     */
+    public static float trigramFingerprintSimilarity(final TrigramFingerprint source, final TrigramFingerprint target) {
+        if (source == null || target == null) {
+            return 0.5f;
+        } else if (source.getValue().equals(target.getValue())) {
+            return 1f;
+        }
+
+        // arguments are swapped on purpose, see getSimilarity
+        return ngramDistance(target, source);
+    }
+
+    /**
+     * Port of Lucene's {@link NGramDistance#getDistance(String, String)} working on precomputed fingerprints and
+     * per-thread working rows.
+     *
+     * @param source
+     *      source fingerprint
+     * @param target
+     *      target fingerprint
+     * @return similarity of strings from 0-1
+     */
+    private static float ngramDistance(final TrigramFingerprint source, final TrigramFingerprint target) {
+        final int n = TrigramFingerprint.N;
+        final int sl = source.length();
+        final int tl = target.length();
+
+        if (sl == 0 || tl == 0) {
+            return sl == tl ? 1 : 0;
+        }
+
+        final char[] sa = source.getPadded();
+        final char[] ta = target.getPadded();
+
+        if (sl < n || tl < n) {
+            int cost = 0;
+            for (int i = 0, ni = Math.min(sl, tl); i < ni; i++) {
+                if (sa[i + n - 1] == ta[i + n - 1]) {
+                    cost++;
+                }
+            }
+            return (float) cost / Math.max(sl, tl);
+        }
+
+        float[][] rows = NGRAM_ROWS.get();
+        if (rows[0].length < sl + 1) {
+            rows = new float[][]{new float[sl + 1], new float[sl + 1]};
+            NGRAM_ROWS.set(rows);
+        }
+
+        float[] p = rows[0];
+        float[] d = rows[1];
+        float[] swap;
+
+        for (int i = 0; i <= sl; i++) {
+            p[i] = i;
+        }
+
+        for (int j = 1; j <= tl; j++) {
+            final char t0 = ta[j - 1];
+            final char t1 = ta[j];
+            final char t2 = ta[j + 1];
+
+            d[0] = j;
+            char s0 = sa[0];
+            char s1 = sa[1];
+            for (int i = 1; i <= sl; i++) {
+                final char s2 = sa[i + 1];
+
+                int cost = 0;
+                int tn = 3;
+                if (s0 != t0) {
+                    cost++;
+                } else if (s0 == 0) {
+                    tn--;
+                }
+                if (s1 != t1) {
+                    cost++;
+                } else if (s1 == 0) {
+                    tn--;
+                }
+                if (s2 != t2) {
+                    cost++;
+                } else if (s2 == 0) {
+                    tn--;
+                }
+
+                // values are never negative zero (nor NaN unless the strings contain NUL characters), so the
+                // comparisons below are equal to Math.min
+                final float insert = d[i - 1] + 1;
+                final float delete = p[i] + 1;
+                final float replace = p[i - 1] + NGRAM_COST[tn][cost];
+                final float min = insert <= delete ? insert : delete;
+                d[i] = min <= replace ? min : replace;
+
+                s0 = s1;
+                s1 = s2;
+            }
+            swap = p;
+            p = d;
+            d = swap;
+        }
+
+        return 1.0f - (p[sl] / Math.max(tl, sl));
+    }
+
     /**
      * Computes similarity of two given strings. Algorithm works as follows:
      * 
@@ -124,8 +279,7 @@ public final class MatchedUtils {
      */
     public static Float oneDigitSimilarity(final String source, final String target) {
         return getSimilarity(source, target, (s, t) -> {
-            final LevensteinDistance ld = new LevensteinDistance();
-            final float similarity = ld.getDistance(s, t);
+            final float similarity = LEVENSTEIN.getDistance(s, t);
 
             final int distance = levensteinDistanceFromSimilarity(source, target, similarity);
             
@@ -222,8 +376,7 @@ public final class MatchedUtils {
      */
     public static List<Float> nutsSimilarities(final String source, final List<String> targets, final int cropNuts) {
         return getSimilarities(source, targets, (s, t) -> {
-            final LevensteinDistance ld = new LevensteinDistance();        
-            float similarity = ld.getDistance(
+            float similarity = LEVENSTEIN.getDistance(
                 cropNuts > 0 ? StringUtils.left(s, cropNuts) : s,
                 cropNuts > 0 ? StringUtils.left(t, cropNuts) : t);
             
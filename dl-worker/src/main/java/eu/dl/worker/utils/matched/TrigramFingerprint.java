@@ -0,0 +1,55 @@
+package eu.dl.worker.utils.matched;
+
+/**
+ * Precomputed representation of the string used for trigram similarity computing. The string is tokenized only once,
+ * so the fingerprint of a body can be compared with the whole pool without repeated allocations.
+ *
+ * The fingerprint holds characters of the string prefixed with {@code N - 1} zero characters. That is the same padding
+ * as Lucene's {@link org.apache.lucene.search.spell.NGramDistance} uses, so the i-th n-gram of the string is the
+ * subarray starting at index i.
+ *
+ * @see MatchedUtils#trigramFingerprintSimilarity(TrigramFingerprint, TrigramFingerprint)
+ */
+public final class TrigramFingerprint {
+    /**
+     * Size of n-gram.
+     */
+    static final int N = 3;
+
+    private final String value;
+
+    private final char[] padded;
+
+    /**
+     * Creates fingerprint of the given string.
+     *
+     * @param value
+     *      string, not null
+     */
+    TrigramFingerprint(final String value) {
+        this.value = value;
+        this.padded = new char[value.length() + N - 1];
+        value.getChars(0, value.length(), padded, N - 1);
+    }
+
+    /**
+     * @return fingerprinted string
+     */
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * @return length of the fingerprinted string
+     */
+    int length() {
+        return value.length();
+    }
+
+    /**
+     * @return characters of the string prefixed with N - 1 zero characters
+     */
+    char[] getPadded() {
+        return padded;
+    }
+}
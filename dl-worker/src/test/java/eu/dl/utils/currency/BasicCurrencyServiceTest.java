@@ -0,0 +1,287 @@
+package eu.dl.utils.currency;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import eu.dl.dataaccess.dao.ExchangeRatesDAO;
+import eu.dl.dataaccess.dto.ExchangeRates;
+
+/**
+ * Test of the currency service with in-memory exchange rates.
+ */
+public final class BasicCurrencyServiceTest {
+
+    private static final Currency EUR = Currency.getInstance("EUR");
+
+    private static final Currency CZK = Currency.getInstance("CZK");
+
+    private static final Currency GBP = Currency.getInstance("GBP");
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2019, 1, 1);
+
+    /**
+     * In-memory DAO counting the queries.
+     */
+    private static final class TestDAO implements ExchangeRatesDAO<ExchangeRates> {
+        private final List<ExchangeRates> history = new ArrayList<>();
+
+        private final AtomicInteger findAllCount = new AtomicInteger();
+
+        private final AtomicInteger getByDateCount = new AtomicInteger();
+
+        @Override
+        public ExchangeRates getById(final String id) {
+            return null;
+        }
+
+        @Override
+        public ExchangeRates getByDate(final LocalDate date) {
+            getByDateCount.incrementAndGet();
+            return history.stream().filter(r -> r.getDate().equals(date)).findFirst().orElse(null);
+        }
+
+        @Override
+        public List<ExchangeRates> findAll() {
+            findAllCount.incrementAndGet();
+            return history;
+        }
+
+        @Override
+        public String save(final ExchangeRates exchangeRates) {
+            return exchangeRates.getId();
+        }
+    }
+
+    /**
+     * Currency service without remote API.
+     */
+    private static final class TestCurrencyService extends BasicCurrencyService {
+        private final AtomicInteger remoteCount = new AtomicInteger();
+
+        /**
+         * @param dao
+         *      DAO
+         */
+        TestCurrencyService(final ExchangeRatesDAO<ExchangeRates> dao) {
+            super(dao);
+        }
+
+        @Override
+        protected ExchangeRates getExchangeRatesFromRemote(final LocalDate date) {
+            remoteCount.incrementAndGet();
+            return null;
+        }
+    }
+
+    /**
+     * @param date
+     *      date
+     * @param czk
+     *      CZK rate
+     * @param gbp
+     *      GBP rate
+     * @return rates with EUR base
+     */
+    private static ExchangeRates rates(final LocalDate date, final String czk, final String gbp) {
+        final HashMap<String, BigDecimal> rates = new HashMap<>();
+        rates.put("CZK", new BigDecimal(czk));
+        if (gbp != null) {
+            rates.put("GBP", new BigDecimal(gbp));
+        }
+        final ExchangeRates result = new ExchangeRates().setDate(date).setBase("EUR").setRates(rates);
+        result.setId("rates" + date);
+        return result;
+    }
+
+    /**
+     * @return DAO with rates of ten days except the fifth one, GBP is missing on the last day
+     */
+    private static TestDAO createDAO() {
+        final TestDAO dao = new TestDAO();
+        for (int i = 0; i < 10; i++) {
+            if (i != 5) {
+                dao.history.add(rates(FIRST_DAY.plusDays(i), "25.6" + i, i == 9 ? null : "0.87635" + i));
+            }
+        }
+        return dao;
+    }
+
+    /**
+     * Tests that the conversions from the preloaded history give the same results as the conversions from the
+     * exchange rates object.
+     */
+    @Test
+    public void preloadedConversionTest() {
+        final TestDAO dao = createDAO();
+        final TestCurrencyService service = new TestCurrencyService(dao);
+        final BigDecimal amount = new BigDecimal("1234.56");
+
+        for (int i = 0; i < 9; i++) {
+            if (i == 5) {
+                continue;
+            }
+            final LocalDate date = FIRST_DAY.plusDays(i);
+            final BigDecimal czk = dao.history.get(i < 5 ? i : i - 1).getRates().get("CZK");
+            final BigDecimal gbp = dao.history.get(i < 5 ? i : i - 1).getRates().get("GBP");
+
+            assertEquals(amount.multiply(czk), service.convert(EUR, CZK, amount, date));
+            assertEquals(amount.divide(czk, 0, RoundingMode.HALF_EVEN), service.convert(CZK, EUR, amount, date));
+            assertEquals(amount.divide(czk, 0, RoundingMode.HALF_EVEN).multiply(gbp),
+                service.convert(CZK, GBP, amount, date));
+            assertEquals(Math.rint(amount.doubleValue() / czk.doubleValue()), service.convert(CZK, EUR,
+                amount.doubleValue(), date), 0);
+            assertEquals(Math.rint(amount.doubleValue() / czk.doubleValue()) * gbp.doubleValue(),
+                service.convert(CZK, GBP, amount.doubleValue(), date), 1e-9);
+        }
+
+        final ExchangeRates rates = service.getExchangeRates(FIRST_DAY.plusDays(3));
+        assertEquals("rates" + FIRST_DAY.plusDays(3), rates.getId());
+        assertEquals("EUR", rates.getBase());
+        assertEquals(dao.history.get(3).getRates(), rates.getRates());
+
+        assertEquals(1, dao.findAllCount.get());
+        assertEquals(0, dao.getByDateCount.get());
+        assertEquals(0, service.remoteCount.get());
+    }
+
+    /**
+     * Tests that the missing rates are loaded only once.
+     */
+    @Test
+    public void missingRatesTest() {
+        final TestDAO dao = createDAO();
+        final TestCurrencyService service = new TestCurrencyService(dao);
+        final LocalDate missingDay = FIRST_DAY.plusDays(5);
+
+        for (int i = 0; i < 3; i++) {
+            try {
+                service.convert(EUR, CZK, BigDecimal.ONE, missingDay);
+                throw new AssertionError("Missing rates expected");
+            } catch (UnconvertableException e) {
+                // expected
+            }
+            assertNull(service.getExchangeRates(missingDay));
+        }
+        assertEquals(1, dao.getByDateCount.get());
+        assertEquals(1, service.remoteCount.get());
+
+        try {
+            service.convert(EUR, GBP, 1, FIRST_DAY.plusDays(9));
+            throw new AssertionError("Missing rate expected");
+        } catch (UnconvertableException e) {
+            // expected
+        }
+
+        service.updateExchangeRates(missingDay, rates(missingDay, "30", "0.5"));
+        assertEquals(new BigDecimal("30"), service.convert(EUR, CZK, BigDecimal.ONE, missingDay));
+        service.updateExchangeRates(FIRST_DAY, rates(FIRST_DAY, "20", "0.5"));
+        assertEquals(new BigDecimal("20"), service.convert(EUR, CZK, BigDecimal.ONE, FIRST_DAY));
+        assertEquals(1, dao.getByDateCount.get());
+    }
+
+    /**
+     * Tests that the days without rates returned by the loader are loaded again once the miss expires.
+     */
+    @Test
+    public void expiredMissTest() {
+        final AtomicInteger loadCount = new AtomicInteger();
+        final ExchangeRatesStore store = new ExchangeRatesStore(ArrayList::new, d -> {
+            loadCount.incrementAndGet();
+            return null;
+        }, Duration.ZERO);
+
+        assertNull(store.get(FIRST_DAY));
+        assertNull(store.get(FIRST_DAY));
+        assertEquals(2, loadCount.get());
+
+        // explicitly stored miss doesn't expire
+        store.put(FIRST_DAY, null);
+        assertNull(store.get(FIRST_DAY));
+        assertEquals(2, loadCount.get());
+    }
+
+    /**
+     * Tests that the concurrent lookups of the same day wait for one load.
+     *
+     * @throws Exception
+     *      in case of failure
+     */
+    @Test
+    public void concurrentLoadTest() throws Exception {
+        final AtomicInteger loadCount = new AtomicInteger();
+        final CountDownLatch loading = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final ExchangeRatesStore store = new ExchangeRatesStore(ArrayList::new, d -> {
+            loadCount.incrementAndGet();
+            if (d.equals(FIRST_DAY)) {
+                loading.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return rates(d, "25", "0.8");
+        });
+
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final Future<ExchangeRates> first = executor.submit(() -> store.get(FIRST_DAY));
+            loading.await();
+            final Future<ExchangeRates> second = executor.submit(() -> store.get(FIRST_DAY));
+
+            // the other days aren't blocked by the running load
+            assertEquals(new BigDecimal("25"), store.getRate(FIRST_DAY.plusDays(1), "CZK"));
+
+            release.countDown();
+            assertEquals("rates" + FIRST_DAY, first.get().getId());
+            assertEquals("rates" + FIRST_DAY, second.get().getId());
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(2, loadCount.get());
+    }
+
+    /**
+     * Tests the conversions of the shared service from several threads.
+     *
+     * @throws Exception
+     *      in case of failure
+     */
+    @Test
+    public void parallelConversionTest() throws Exception {
+        final TestDAO dao = createDAO();
+        final TestCurrencyService service = new TestCurrencyService(dao);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<BigDecimal>> results = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                final LocalDate date = FIRST_DAY.plusDays(i % 5);
+                results.add(executor.submit(() -> service.convert(CZK, EUR, new BigDecimal(1000), date)));
+            }
+            for (int i = 0; i < results.size(); i++) {
+                final BigDecimal czk = dao.history.get(i % 5).getRates().get("CZK");
+                assertEquals(new BigDecimal(1000).divide(czk, 0, RoundingMode.HALF_EVEN), results.get(i).get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(1, dao.findAllCount.get());
+    }
+}
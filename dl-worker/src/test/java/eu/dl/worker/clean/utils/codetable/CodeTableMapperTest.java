@@ -0,0 +1,165 @@
+package eu.dl.worker.clean.utils.codetable;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.apache.commons.text.similarity.LevenshteinDistance;
+import org.junit.Test;
+
+import eu.dl.worker.clean.utils.CodeTableMapper;
+import eu.dl.worker.clean.utils.CodeTableUtils;
+import eu.dl.worker.clean.utils.StringUtils;
+
+/**
+ * Test of the compiled code table mapper.
+ */
+public final class CodeTableMapperTest {
+
+    private static final int LEVENSHTEIN_THRESHOLD = 4;
+
+    /**
+     * Linear scan mapping used before the mapper was introduced.
+     *
+     * @param input
+     *         value to be mapped
+     * @param mapping
+     *         mapping
+     * @param defaultEnumValue
+     *         default value
+     * @return mapped value
+     */
+    private static Enum linearMapValue(final String input, final Map<Enum, List<String>> mapping,
+                                       final Enum defaultEnumValue) {
+        final String inputForCleaning = StringUtils.prepareStringForCleaning(input);
+        if (inputForCleaning == null || inputForCleaning.isEmpty()) {
+            return null;
+        } else if (mapping.isEmpty()) {
+            return defaultEnumValue;
+        }
+
+        for (Map.Entry<Enum, List<String>> entry : mapping.entrySet()) {
+            for (String value : entry.getValue()) {
+                if (inputForCleaning.equalsIgnoreCase(value)) {
+                    return entry.getKey();
+                }
+            }
+        }
+
+        Enum bestKey = null;
+        int bestLDistance = LEVENSHTEIN_THRESHOLD;
+        boolean isBestScoreKeySingleOne = true;
+        for (Map.Entry<Enum, List<String>> entry : mapping.entrySet()) {
+            int bestKeyLDistance = LEVENSHTEIN_THRESHOLD;
+            for (String value : entry.getValue()) {
+                int lDistance = LevenshteinDistance.getDefaultInstance()
+                    .apply(inputForCleaning.toLowerCase(), value.toLowerCase());
+                if (lDistance < LEVENSHTEIN_THRESHOLD && lDistance < bestKeyLDistance) {
+                    bestKeyLDistance = lDistance;
+                    if (lDistance == bestLDistance) {
+                        isBestScoreKeySingleOne = false;
+                    }
+                    if (lDistance < bestLDistance) {
+                        bestKey = entry.getKey();
+                        bestLDistance = lDistance;
+                        isBestScoreKeySingleOne = true;
+                    }
+                }
+            }
+        }
+
+        if (!isBestScoreKeySingleOne) {
+            return null;
+        }
+        if (bestLDistance < LEVENSHTEIN_THRESHOLD && bestKey != null) {
+            return bestKey;
+        }
+        return defaultEnumValue;
+    }
+
+    /**
+     * @param random
+     *         random generator
+     * @param length
+     *         length of the word
+     * @return random word from a small alphabet, so the words are similar
+     */
+    private static String word(final Random random, final int length) {
+        final StringBuilder word = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            word.append("abcdeABC".charAt(random.nextInt(8)));
+        }
+        return word.toString();
+    }
+
+    /**
+     * Compares the mapper with the linear scan on random mappings and inputs.
+     */
+    @Test
+    public void sameAsLinearScanTest() {
+        final Random random = new Random(42);
+        for (int m = 0; m < 20; m++) {
+            final Map<Enum, List<String>> mapping = new LinkedHashMap<>();
+            for (Month month : Month.values()) {
+                final List<String> values = new ArrayList<>();
+                for (int i = random.nextInt(4); i >= 0; i--) {
+                    values.add(word(random, 3 + random.nextInt(6)));
+                }
+                mapping.put(month, values);
+            }
+
+            final CodeTableMapper mapper = new CodeTableMapper(mapping);
+            for (int i = 0; i < 500; i++) {
+                final String input = word(random, 1 + random.nextInt(10));
+                assertEquals(input, linearMapValue(input, mapping, null), mapper.map(input, null, true));
+                assertEquals(input, linearMapValue(input, mapping, Month.MAY), mapper.map(input, Month.MAY, true));
+                // memoized result
+                assertEquals(input, linearMapValue(input, mapping, null), mapper.map(input, null, true));
+            }
+        }
+    }
+
+    /**
+     * Tests the tie breaking and the case insensitive exact match.
+     */
+    @Test
+    public void tieBreakingTest() {
+        final Map<Enum, List<String>> mapping = new LinkedHashMap<>();
+        mapping.put(Fruits.APPLE, Arrays.asList("abcd", "xyzw"));
+        mapping.put(Fruits.MAPPLE, Arrays.asList("abce", "XYZW", "xyz"));
+        final CodeTableMapper mapper = new CodeTableMapper(mapping);
+
+        // the first key wins the exact match
+        assertEquals(Fruits.APPLE, mapper.map("xYzW", null, true));
+        // both keys have the same distance
+        assertNull(mapper.map("abcf", Fruits.APPLE, true));
+        // MAPPLE is closer
+        assertEquals(Fruits.MAPPLE, mapper.map("xy", null, true));
+        // no fuzzy match
+        assertEquals(Fruits.MAPPLE, mapper.map("xy", Fruits.MAPPLE, false));
+        assertNull(mapper.map("xy", null, false));
+    }
+
+    /**
+     * Tests that the mapper is cached per mapping and compiled again when the mapping changes.
+     */
+    @Test
+    public void cachedMapperTest() {
+        final Map<Enum, List<String>> mapping = new HashMap<>();
+        mapping.put(Fruits.APPLE, new ArrayList<>(Arrays.asList("apple")));
+        assertSame(CodeTableUtils.getMapper(mapping), CodeTableUtils.getMapper(mapping));
+        assertNull(CodeTableUtils.mapValue("mapple", mapping, null, false));
+
+        mapping.put(Fruits.MAPPLE, Arrays.asList("mapple"));
+        assertEquals(Fruits.MAPPLE, CodeTableUtils.mapValue("mapple", mapping, null, false));
+    }
+}
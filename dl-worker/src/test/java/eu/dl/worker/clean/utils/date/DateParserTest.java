@@ -0,0 +1,93 @@
+package eu.dl.worker.clean.utils.date;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import eu.dl.worker.clean.utils.DateParser;
+import eu.dl.worker.clean.utils.DateUtils;
+import eu.dl.worker.clean.utils.FormatStatistics;
+
+/**
+ * Test of the exception free date parser.
+ */
+public final class DateParserTest {
+    private final List<DateTimeFormatter> formatters = Arrays.asList(
+        DateTimeFormatter.ofPattern("dd.MM.uuuu").withResolverStyle(ResolverStyle.STRICT),
+        DateTimeFormatter.ofPattern("MM.dd.uuuu").withResolverStyle(ResolverStyle.STRICT),
+        DateTimeFormatter.ofPattern("uuuu-MM-dd"),
+        DateTimeFormatter.ofPattern("d MMMM uuuu"),
+        DateTimeFormatter.ISO_OFFSET_DATE_TIME);
+
+    /**
+     * Parses the string with the first formatter able to parse it, same as the date cleaning without the parser.
+     *
+     * @param text
+     *         date string
+     * @return parsed date or null
+     */
+    private LocalDate parseSequentially(final String text) {
+        for (DateTimeFormatter formatter : formatters) {
+            try {
+                return LocalDate.parse(text, formatter);
+            } catch (DateTimeParseException e) {
+                // try the next formatter
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Tests that the parser returns the same dates as the sequential parsing, even for the strings with the same
+     * shape parsed by different formatters.
+     */
+    @Test
+    public void sameAsSequentialTest() {
+        final DateParser parser = new DateParser(formatters);
+        final List<String> inputs = Arrays.asList("13.01.2019", "01.13.2019", "01.02.2019", "31.02.2019",
+            "2019-02-03", "3 March 2019", "3 Marchh 2019", "2019-02-03T10:15:30+01:00", "2019-02-03T10:15:30+25:00",
+            "orange", "13.13.2019", "12.12.2019");
+
+        for (int i = 0; i < 2; i++) {
+            for (String input : inputs) {
+                assertEquals(input, parseSequentially(input), parser.parse(input, LocalDate::from));
+            }
+        }
+
+        final FormatStatistics statistics = parser.getStatistics();
+        assertEquals(6, statistics.getMatches(0));
+        assertEquals(2, statistics.getMatches(1));
+        assertEquals(2, statistics.getMatches(2));
+        assertEquals(2, statistics.getMatches(3));
+        assertEquals(2, statistics.getMatches(4));
+        assertEquals(10, statistics.getFailures());
+    }
+
+    /**
+     * Tests cleaning with the cached parsers.
+     */
+    @Test
+    public void cleanTest() {
+        assertSame(DateUtils.getParser(formatters), DateUtils.getParser(Arrays.asList(formatters.toArray(
+            new DateTimeFormatter[0]))));
+
+        assertEquals(LocalDate.of(2019, 2, 3), DateUtils.cleanDate("Date of publication: 2019-02-03", formatters));
+        assertEquals(LocalDate.of(2019, 2, 3), DateUtils.cleanDate("Date: 03.02.2019", formatters));
+        assertNull(DateUtils.cleanDate("2019: 03.02.2019", formatters));
+        assertNull(DateUtils.cleanDate("1999-02-03", formatters));
+
+        assertEquals(LocalDateTime.of(2019, 2, 3, 10, 15, 30),
+            DateUtils.cleanDateTime("2019-02-03T10:15:30+01:00", formatters));
+        assertNull(DateUtils.cleanDateTime("2019-02-03", formatters));
+    }
+}
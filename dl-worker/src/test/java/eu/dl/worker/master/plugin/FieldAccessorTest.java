@@ -0,0 +1,89 @@
+package eu.dl.worker.master.plugin;
+
+import eu.dl.core.UnrecoverableException;
+import eu.dl.dataaccess.dto.master.MasterTender;
+import eu.dl.dataaccess.dto.matched.MatchedTender;
+import eu.dl.worker.master.plugin.generic.FieldAccessor;
+import eu.dl.worker.master.plugin.generic.LastPublishedPlugin;
+import eu.dl.worker.master.plugin.generic.comparators.NumberComparator;
+import eu.dl.worker.master.plugin.generic.comparators.PublicationDateComparator;
+import eu.dl.worker.master.plugin.generic.comparators.StringComparator;
+import eu.dl.worker.master.plugin.generic.converter.TenderConverter;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Tests of the precompiled field accessors and the sort shared by the generic master plugins.
+ */
+public final class FieldAccessorTest {
+    /**
+     * Tests getter, setter and type of the accessor.
+     */
+    @Test
+    public void getAndSetTest() {
+        final FieldAccessor accessor = FieldAccessor.of(MatchedTender.class, "appealBodyName");
+        assertSame(accessor, FieldAccessor.of(MatchedTender.class, "AppealBodyName"));
+        assertEquals(String.class, accessor.getType());
+
+        final MatchedTender tender = new MatchedTender();
+        accessor.set(tender, "a");
+        assertEquals("a", tender.getAppealBodyName());
+        assertEquals("a", accessor.get(tender));
+
+        final FieldAccessor primitive = FieldAccessor.of(MatchedTender.class, "estimatedDurationInYears");
+        primitive.set(tender, 5);
+        assertEquals(5, primitive.get(tender));
+    }
+
+    /**
+     * Tests accessor of the field which doesn't exist.
+     */
+    @Test(expected = UnrecoverableException.class)
+    public void missingFieldTest() {
+        final FieldAccessor accessor = FieldAccessor.of(MatchedTender.class, "nonExistingField");
+        assertNull(accessor.getType());
+        accessor.get(new MatchedTender());
+    }
+
+    /**
+     * Tests that the comparators used as keys of the shared sorts are equal for the same field.
+     */
+    @Test
+    public void comparatorsEqualityTest() {
+        assertEquals(new StringComparator<>("title"), new StringComparator<>("Title"));
+        assertEquals(new StringComparator<>("title").hashCode(), new StringComparator<>("Title").hashCode());
+        assertNotEquals(new StringComparator<>("title"), new StringComparator<>("description"));
+        assertNotEquals(new StringComparator<>("title"), new NumberComparator<>("title"));
+        assertEquals(new PublicationDateComparator<>(), new PublicationDateComparator<>());
+    }
+
+    /**
+     * Tests that the plugins sharing the sort pick the last published non empty values, the latest of the parts with
+     * the same publication date.
+     */
+    @Test
+    public void lastPublishedTest() {
+        final List<MatchedTender> items = Arrays.asList(
+            new MatchedTender().setPublicationDate(LocalDate.of(2019, 1, 3)).setDeposits("a"),
+            new MatchedTender().setPublicationDate(LocalDate.of(2019, 1, 1)).setDeposits("b").setAppealBodyName("b"),
+            new MatchedTender().setPublicationDate(LocalDate.of(2019, 1, 3)).setDeposits("c"),
+            new MatchedTender().setPublicationDate(LocalDate.of(2019, 1, 3)).setDeposits(""));
+
+        final MasterTender master = new MasterTender();
+        new LastPublishedPlugin<MatchedTender, MasterTender, Object>("deposits", new TenderConverter())
+            .master(items, master, null);
+        new LastPublishedPlugin<MatchedTender, MasterTender, Object>("appealBodyName", new TenderConverter())
+            .master(items, master, null);
+
+        assertEquals("c", master.getDeposits());
+        assertEquals("b", master.getAppealBodyName());
+    }
+}
@@ -0,0 +1,159 @@
+package eu.dl.worker.master.plugin;
+
+import java.lang.reflect.Method;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.StringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import eu.dl.dataaccess.dto.master.MasterTender;
+import eu.dl.dataaccess.dto.matched.MatchedTender;
+import eu.dl.dataaccess.dto.utils.DTOUtils;
+import eu.dl.worker.master.plugin.generic.LastPublishedPlugin;
+import eu.dl.worker.master.plugin.generic.comparators.PublicationDateComparator;
+import eu.dl.worker.master.plugin.generic.converter.TenderConverter;
+
+/**
+ * JMH benchmark of mastering of a group of matched tenders with one {@link LastPublishedPlugin} per field, the same
+ * way the tender masters register the plugins. Compares the reflective implementation (methods looked up and the
+ * items sorted by each plugin) with the precompiled field accessors and the sort shared by the plugins.
+ *
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=eu.dl.worker.master.plugin.GenericMasterPluginBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GenericMasterPluginBenchmark {
+    private static final List<String> FIELDS = Arrays.asList("buyerAssignedId", "nationalProcedureType",
+        "acceleratedProcedureJustification", "sizeNational", "deposits", "personalRequirements",
+        "economicRequirements", "technicalRequirements", "appealBodyName", "mediationBodyName", "modificationReason",
+        "modificationReasonDescription", "additionalInfo", "country");
+
+    @Param({"10", "100", "500"})
+    private int groupSize;
+
+    private List<MatchedTender> group;
+
+    private List<LastPublishedPlugin<MatchedTender, MasterTender, Object>> plugins;
+
+    /**
+     * Generates group of matched tenders with random publication dates and sparsely filled fields.
+     *
+     * @throws Exception
+     *      in case of reflection failure
+     */
+    @Setup
+    public void setup() throws Exception {
+        Random random = new Random(42);
+        group = new ArrayList<>(groupSize);
+        for (int i = 0; i < groupSize; i++) {
+            MatchedTender tender = new MatchedTender()
+                .setPublicationDate(LocalDate.of(2010, 1, 1).plusDays(random.nextInt(3000)));
+            for (String field : FIELDS) {
+                if (random.nextInt(3) == 0) {
+                    MatchedTender.class.getMethod("set" + StringUtils.capitalize(field), String.class)
+                        .invoke(tender, field + i);
+                }
+            }
+            group.add(tender);
+        }
+
+        plugins = FIELDS.stream()
+            .map(f -> new LastPublishedPlugin<MatchedTender, MasterTender, Object>(f, new TenderConverter()))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Reflective implementation, each plugin sorts the items and looks up the getter and setter.
+     *
+     * @param bh
+     *      blackhole
+     * @throws Exception
+     *      in case of reflection failure
+     */
+    @Benchmark
+    public void reflection(final Blackhole bh) throws Exception {
+        final List<MatchedTender> items = new ArrayList<>(group);
+        final MasterTender finalItem = new MasterTender();
+        final TenderConverter converter = new TenderConverter();
+
+        for (String field : FIELDS) {
+            final String fieldName = StringUtils.capitalize(field);
+            final List<MatchedTender> sortedItems = items.stream()
+                .sorted(new PublicationDateComparator<>())
+                .collect(Collectors.toList());
+
+            Method getter = items.get(0).getClass().getMethod("get" + fieldName);
+            Method setter = null;
+            for (Method methodFound : finalItem.getClass().getMethods()) {
+                if (methodFound.getName().equals("set" + fieldName)) {
+                    setter = methodFound;
+                    break;
+                }
+            }
+
+            for (MatchedTender item : sortedItems) {
+                Object result = getter.invoke(item);
+                if (!DTOUtils.isEmpty(result)) {
+                    setter.invoke(finalItem, converter.convert(result));
+                }
+            }
+        }
+
+        bh.consume(finalItem);
+    }
+
+    /**
+     * Precompiled accessors and one shared sort of the group.
+     *
+     * @param bh
+     *      blackhole
+     */
+    @Benchmark
+    public void accessors(final Blackhole bh) {
+        final List<MatchedTender> items = new ArrayList<>(group);
+        final MasterTender finalItem = new MasterTender();
+
+        for (LastPublishedPlugin<MatchedTender, MasterTender, Object> plugin : plugins) {
+            plugin.master(items, finalItem, null);
+        }
+
+        bh.consume(finalItem);
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args
+     *      arguments
+     * @throws RunnerException
+     *      in case of benchmark failure
+     */
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(GenericMasterPluginBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -179,4 +179,34 @@ public class ApproximateMatchingPluginTest {
         assertEquals(result.getMatched(), true);
         assertEquals(result.getMatchedBy(), "approximate");
     }
+
+    /**
+     * Test that the cached fingerprints of a pool body aren't used once the body is changed.
+     */
+    @Test
+    public final void changedPoolBodyTest() {
+        MatchedBody testMatchedBody = matchedBodies.get(0);
+        MatchedBody poolBody = new MatchedBody()
+            .setStandardizedName("xyz")
+            .setStandardizedAddress("addr8")
+            .setDigest("ab|ad1")
+            .setGroupId("4");
+
+        //mocking of the MatchedBodyDAO
+        MatchedBodyDAO mockedMatchedBodyDAO = mock(MatchedBodyDAO.class);
+
+        when(mockedMatchedBodyDAO.getApproximateMatchBodiesPool(testMatchedBody.getStandardizedName(),
+                testMatchedBody.getStandardizedAddress(), testMatchedBody.getBodyIds(), testMatchedBody.getDigest()))
+            .thenReturn(Collections.singletonList(poolBody));
+
+        BaseApproximateMatchingPlugin plugin = new ApproximateMatchingPlugin(mockedMatchedBodyDAO);
+        assertEquals(plugin.match(testMatchedBody).getMatched(), false);
+
+        poolBody.setStandardizedName(testMatchedBody.getStandardizedName())
+            .setStandardizedAddress(testMatchedBody.getStandardizedAddress());
+
+        MatchingResult result = plugin.match(testMatchedBody);
+        assertEquals(result.getMatched(), true);
+        assertEquals(result.getGroupId(), "4");
+    }
 }
@@ -0,0 +1,114 @@
+package eu.dl.worker.matched;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import eu.dl.dataaccess.dto.codetables.BodyIdentifier;
+import eu.dl.dataaccess.dto.matched.EtalonBody;
+import eu.dl.dataaccess.dto.matched.MatchedBody;
+import eu.dl.worker.matched.plugin.EtalonMatchedBodies;
+
+/**
+ * Test of the matched body entries of etalon bodies.
+ */
+public final class EtalonMatchedBodiesTest {
+    /**
+     * Test that the entry is created once per transaction, forgotten after rollback and remembered after commit
+     * until the end of the run.
+     */
+    @Test
+    public void entryLifecycleTest() {
+        TestMatchedBodyDAO matchedBodyDAO = new TestMatchedBodyDAO();
+        EtalonBody etalon = new TestEtalonBody("etalon1");
+
+        TestTransactionUtils transactionUtils = new TestTransactionUtils();
+        EtalonMatchedBodies etalonMatchedBodies = new EtalonMatchedBodies(matchedBodyDAO, "source", transactionUtils);
+        etalonMatchedBodies.startRun();
+
+        // entry of the running transaction is reused
+        MatchedBody entry = etalonMatchedBodies.getOrCreate(etalon);
+        assertEquals("1", entry.getId());
+        assertSame(entry, etalonMatchedBodies.getOrCreate(etalon));
+        assertEquals(1, matchedBodyDAO.getSaveCount());
+
+        // entry of the rolled back transaction is forgotten
+        transactionUtils.rollback();
+        etalonMatchedBodies.getOrCreate(etalon);
+        assertEquals(2, matchedBodyDAO.getSaveCount());
+
+        // committed entry is remembered until the end of the run
+        transactionUtils.commit();
+        etalonMatchedBodies.getOrCreate(etalon);
+        assertEquals(2, matchedBodyDAO.getEtalonLookupCount());
+
+        etalonMatchedBodies.endRun();
+        etalonMatchedBodies.getOrCreate(etalon);
+        assertEquals(3, matchedBodyDAO.getEtalonLookupCount());
+    }
+
+    /**
+     * Etalon body whose matched body entry can't be found by the etalon id, so each lookup misses until the entry
+     * is remembered.
+     */
+    private static final class TestEtalonBody implements EtalonBody {
+        private final String id;
+
+        /**
+         * @param id
+         *      etalon id
+         */
+        private TestEtalonBody(final String id) {
+            this.id = id;
+        }
+
+        @Override
+        public MatchedBody getAsMatchedBody() {
+            return new MatchedBody().setStandardizedName("abc");
+        }
+
+        @Override
+        public String getId() {
+            return id;
+        }
+
+        @Override
+        public String getGroupId() {
+            return null;
+        }
+
+        @Override
+        public String getStandardizedName() {
+            return "abc";
+        }
+
+        @Override
+        public String getStandardizedAddress() {
+            return null;
+        }
+
+        @Override
+        public List<BodyIdentifier> getBodyIds() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public String getPostcode() {
+            return null;
+        }
+
+        @Override
+        public List<String> getNuts() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public String getDigest() {
+            return null;
+        }
+    }
+}
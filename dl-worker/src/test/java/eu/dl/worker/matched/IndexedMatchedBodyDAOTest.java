@@ -0,0 +1,67 @@
+package eu.dl.worker.matched;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Test;
+
+import eu.dl.dataaccess.dao.IndexedMatchedBodyDAO;
+import eu.dl.dataaccess.dto.matched.MatchedBody;
+
+/**
+ * Test of the matched body index kept in sync with the committed bodies.
+ */
+public final class IndexedMatchedBodyDAOTest {
+    /**
+     * @param id
+     *      body id
+     * @return body with the given id and standardized name "abc"
+     */
+    private static MatchedBody body(final String id) {
+        MatchedBody body = new MatchedBody().setStandardizedName("abc").setGroupId("group_" + id);
+        body.setId(id);
+        return body;
+    }
+
+    /**
+     * @param dao
+     *      indexed DAO
+     * @return size of the pool seen by another thread
+     */
+    private static int poolSizeInOtherThread(final IndexedMatchedBodyDAO dao) {
+        return CompletableFuture.supplyAsync(() -> dao.getExactMatchBodiesPool("abc", null, null).size()).join();
+    }
+
+    /**
+     * Test that the saved bodies are indexed only after commit and the bodies of rolled back transaction never.
+     */
+    @Test
+    public void indexAfterCommitTest() {
+        TestMatchedBodyDAO matchedBodyDAO = new TestMatchedBodyDAO();
+        matchedBodyDAO.save(body("1"));
+
+        TestTransactionUtils transactionUtils = new TestTransactionUtils();
+        IndexedMatchedBodyDAO dao = new IndexedMatchedBodyDAO(matchedBodyDAO, transactionUtils);
+        assertEquals(1, dao.getIndex().size());
+
+        // saved body is visible to the saving thread only
+        dao.saveAll(Collections.singletonList(body("2")));
+        assertEquals(2, dao.getExactMatchBodiesPool("abc", null, null).size());
+        assertEquals(1, poolSizeInOtherThread(dao));
+
+        // rolled back body is forgotten
+        transactionUtils.rollback();
+        assertEquals(1, dao.getExactMatchBodiesPool("abc", null, null).size());
+        assertEquals(1, dao.getIndex().size());
+
+        // committed body is indexed
+        dao.save(body("3"));
+        transactionUtils.commit();
+        assertEquals(2, dao.getIndex().size());
+        assertEquals(2, poolSizeInOtherThread(dao));
+        assertTrue(dao.getExactMatchBodiesPool("abc", null, null).stream().anyMatch(b -> "3".equals(b.getId())));
+    }
+}
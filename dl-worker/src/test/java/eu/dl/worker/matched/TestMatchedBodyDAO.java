@@ -0,0 +1,188 @@
+package eu.dl.worker.matched;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import eu.dl.dataaccess.dao.MatchedBodyDAO;
+import eu.dl.dataaccess.dto.codetables.BodyIdentifier;
+import eu.dl.dataaccess.dto.codetables.BodyType;
+import eu.dl.dataaccess.dto.matched.MatchedBody;
+import eu.dl.dataaccess.dto.matched.MatchedGroupInfo;
+import eu.dl.dataaccess.utils.MatchedBodyIndex;
+
+/**
+ * In-memory matched body DAO counting the saves and the etalon entry lookups.
+ */
+final class TestMatchedBodyDAO implements MatchedBodyDAO<MatchedBody> {
+    private final Map<String, MatchedBody> bodies = new LinkedHashMap<>();
+
+    private final AtomicInteger nextId = new AtomicInteger(1);
+
+    private final AtomicInteger saveCount = new AtomicInteger();
+
+    private final AtomicInteger etalonLookupCount = new AtomicInteger();
+
+    /**
+     * @return number of saved bodies
+     */
+    int getSaveCount() {
+        return saveCount.get();
+    }
+
+    /**
+     * @return number of etalon entry lookups
+     */
+    int getEtalonLookupCount() {
+        return etalonLookupCount.get();
+    }
+
+    @Override
+    public synchronized String save(final MatchedBody matchedBody) {
+        saveCount.incrementAndGet();
+        if (matchedBody.getId() == null) {
+            matchedBody.setId(String.valueOf(nextId.getAndIncrement()));
+        }
+        bodies.put(matchedBody.getId(), matchedBody);
+        return matchedBody.getId();
+    }
+
+    @Override
+    public List<String> saveAll(final Collection<MatchedBody> matchedBodies) {
+        return matchedBodies.stream().map(this::save).collect(Collectors.toList());
+    }
+
+    @Override
+    public synchronized MatchedBody getById(final String id) {
+        return bodies.get(id);
+    }
+
+    @Override
+    public synchronized List<MatchedBody> getExactMatchBodiesPool(final String standardizedName,
+                                                                  final String standardizedAddress,
+                                                                  final List<BodyIdentifier> bodyIds) {
+        return getApproximateMatchBodiesPool(standardizedName, standardizedAddress, bodyIds, null);
+    }
+
+    @Override
+    public synchronized List<MatchedBody> getApproximateMatchBodiesPool(final String standardizedName,
+                                                                        final String standardizedAddress,
+                                                                        final List<BodyIdentifier> bodyIds,
+                                                                        final String digest) {
+        return bodies.values().stream()
+            .filter(b -> MatchedBodyIndex.isInPool(b, standardizedName, standardizedAddress, bodyIds, digest))
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    public synchronized Stream<MatchedBody> streamMine() {
+        return new ArrayList<>(bodies.values()).stream();
+    }
+
+    @Override
+    public Stream<MatchedBody> streamPoolBodies() {
+        return streamMine();
+    }
+
+    @Override
+    public synchronized MatchedBody getByEtalonId(final String id) {
+        etalonLookupCount.incrementAndGet();
+        return bodies.values().stream()
+            .filter(b -> b.getBodyIds() != null && b.getBodyIds().stream()
+                .anyMatch(i -> i.getType() == BodyIdentifier.Type.ETALON_ID && id.equals(i.getId())))
+            .findFirst().orElse(null);
+    }
+
+    @Override
+    public synchronized List<MatchedBody> getByGroupId(final String groupId) {
+        return bodies.values().stream().filter(b -> groupId.equals(b.getGroupId())).collect(Collectors.toList());
+    }
+
+    @Override
+    public List<MatchedGroupInfo> getGroupsInfo(final List<String> groups) {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public List<MatchedBody> getByIds(final List<String> ids) {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public List<MatchedBody> getByGroupIds(final Collection<String> groupIds) {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public List<MatchedBody> getMineByHash(final String hash) {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public List<MatchedBody> getByHash(final String hash) {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public String getGroupIdByHash(final String hash) {
+        return null;
+    }
+
+    @Override
+    public MatchedBody getEmptyInstance() {
+        return new MatchedBody();
+    }
+
+    @Override
+    public List<MatchedBody> getMine(final String name, final String version, final String fromDate,
+                                     final String toDate) {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public List<MatchedBody> getMine(final Integer page) {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public List<MatchedBody> getForResend(final String name, final String version) {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public Stream<String> streamGroupIdsForResend(final String name, final String version) {
+        return Stream.empty();
+    }
+
+    @Override
+    public List<String> getEtalonGroupIds() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public Map<String, String> getHashAndGroupIds() {
+        return Collections.emptyMap();
+    }
+
+    @Override
+    public List<String> getEtalonGroupIds(final LocalDateTime modifiedAfter) {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public Map<String, String> getHashAndGroupIds(final LocalDateTime modifiedAfter) {
+        return Collections.emptyMap();
+    }
+
+    @Override
+    public List<MatchedBody> getByNameAndRole(final String name, final BodyType role) {
+        return Collections.emptyList();
+    }
+}
@@ -0,0 +1,49 @@
+package eu.dl.worker.matched;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import eu.dl.dataaccess.dao.TransactionUtils;
+
+/**
+ * Transaction utils which run the completion actions on commit and rollback.
+ */
+final class TestTransactionUtils implements TransactionUtils {
+    private final List<Consumer<Boolean>> actions = new ArrayList<>();
+
+    @Override
+    public void close() {
+        complete(false);
+    }
+
+    @Override
+    public void begin() {
+        // transaction is started by default
+    }
+
+    @Override
+    public void commit() {
+        complete(true);
+    }
+
+    @Override
+    public void rollback() {
+        complete(false);
+    }
+
+    @Override
+    public void afterCompletion(final Consumer<Boolean> action) {
+        actions.add(action);
+    }
+
+    /**
+     * @param committed
+     *      whether the transaction was committed
+     */
+    private void complete(final boolean committed) {
+        List<Consumer<Boolean>> completed = new ArrayList<>(actions);
+        actions.clear();
+        completed.forEach(a -> a.accept(committed));
+    }
+}
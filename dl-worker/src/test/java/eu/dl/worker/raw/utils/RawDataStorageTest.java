@@ -0,0 +1,114 @@
+package eu.dl.worker.raw.utils;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+import eu.dl.core.storage.BlobStore;
+import eu.dl.dataaccess.dto.raw.RawData;
+
+/**
+ * Test of raw data storage.
+ */
+public class RawDataStorageTest {
+
+    private final Map<String, byte[]> blobs = new HashMap<>();
+
+    private RawDataStorage storage;
+
+    /**
+     * Creates storage backed by in-memory blob store.
+     */
+    @Before
+    public final void init() {
+        blobs.clear();
+        storage = new RawDataStorage(new BlobStore() {
+            @Override
+            public String save(final InputStream inputStream) {
+                try {
+                    byte[] content = inputStream.readAllBytes();
+                    String key = DigestUtils.sha256Hex(content);
+                    blobs.put(key, content);
+                    return key;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            @Override
+            public InputStream get(final String key) {
+                return blobs.containsKey(key) ? new ByteArrayInputStream(blobs.get(key)) : null;
+            }
+
+            @Override
+            public ByteBuffer map(final String key) {
+                return blobs.containsKey(key) ? ByteBuffer.wrap(blobs.get(key)) : null;
+            }
+
+            @Override
+            public Long getFileSize(final String key) {
+                return blobs.containsKey(key) ? (long) blobs.get(key).length : null;
+            }
+        }, 10);
+    }
+
+    /**
+     * Test of moving payloads to blob store and back.
+     *
+     * @throws IOException
+     *             in case of failure
+     */
+    @Test
+    public final void offloadAndInlineTest() throws IOException {
+        final byte[] pdf = {0x25, 0x50, 0x44, 0x46};
+
+        RawData raw = new RawData();
+        raw.setSourceData("short");
+        raw.setSourceBinaryData(pdf);
+        storage.offload(raw);
+
+        // short text stays in the row, binary data are stored always
+        assertEquals("short", raw.getSourceData());
+        assertNull(raw.getSourceDataKey());
+        assertNull(raw.getSourceBinaryData());
+        assertNotNull(raw.getSourceBinaryDataKey());
+
+        try (InputStream inputStream = storage.openSourceData(raw)) {
+            assertArrayEquals(pdf, inputStream.readAllBytes());
+        }
+
+        RawData text = new RawData();
+        text.setSourceData("<html>long enough</html>");
+        storage.offload(text);
+        assertNull(text.getSourceData());
+
+        // the same content is stored once
+        RawData copy = new RawData();
+        copy.setSourceData("<html>long enough</html>");
+        storage.offload(copy);
+        assertEquals(text.getSourceDataKey(), copy.getSourceDataKey());
+        assertEquals(2, blobs.size());
+
+        ByteBuffer buffer = storage.mapSourceData(text);
+        byte[] mapped = new byte[buffer.remaining()];
+        buffer.get(mapped);
+        assertEquals("<html>long enough</html>", new String(mapped, StandardCharsets.UTF_8));
+
+        storage.inline(text);
+        assertEquals("<html>long enough</html>", text.getSourceData());
+    }
+}
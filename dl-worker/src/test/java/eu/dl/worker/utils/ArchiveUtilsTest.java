@@ -0,0 +1,132 @@
+package eu.dl.worker.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+
+import eu.dl.core.UnrecoverableException;
+import eu.dl.worker.utils.archive.ArchiveUtils;
+
+/**
+ * Test of archive utils.
+ */
+public final class ArchiveUtilsTest {
+
+    /**
+     * Creates zip archive.
+     *
+     * @param entries
+     *         entry names with contents
+     * @return zip archive
+     * @throws IOException
+     *         in case of failure
+     */
+    private static byte[] zip(final Map<String, byte[]> entries) throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(output)) {
+            for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+                zip.putNextEntry(new ZipEntry(entry.getKey()));
+                zip.write(entry.getValue());
+                zip.closeEntry();
+            }
+        }
+        return output.toByteArray();
+    }
+
+    /**
+     * @return zip archive with nested zip archive followed by another file
+     * @throws IOException
+     *         in case of failure
+     */
+    private static byte[] nestedZip() throws IOException {
+        final Map<String, byte[]> nested = new HashMap<>();
+        nested.put("inner1.xml", "<inner1/>".getBytes(StandardCharsets.UTF_8));
+        nested.put("inner2.xml", "<inner2/>".getBytes(StandardCharsets.UTF_8));
+
+        final Map<String, byte[]> outer = new LinkedHashMap<>();
+        outer.put("first.xml", "<first>č</first>".getBytes(StandardCharsets.UTF_8));
+        outer.put("nested.zip", zip(nested));
+        outer.put("last.xml", "<last/>".getBytes(StandardCharsets.UTF_8));
+        return zip(outer);
+    }
+
+    /**
+     * Test of the streaming extraction of nested archives.
+     *
+     * @throws IOException
+     *         in case of failure
+     */
+    @Test
+    public void extractStreamingTest() throws IOException {
+        final List<String> names = new ArrayList<>();
+        final Map<String, String> contents = new HashMap<>();
+        ArchiveUtils.extract(new ByteArrayInputStream(nestedZip()), "test.zip", (name, content) -> {
+            names.add(name);
+            contents.put(name, IOUtils.toString(content, StandardCharsets.UTF_8));
+        });
+
+        // entries following the nested archive are extracted as well
+        assertEquals(List.of("first.xml", "inner1.xml", "inner2.xml", "last.xml"), sorted(names));
+        assertEquals("<first>č</first>", contents.get("first.xml"));
+        assertEquals("<inner2/>", contents.get("inner2.xml"));
+        assertEquals("<last/>", contents.get("last.xml"));
+
+        assertEquals(contents, ArchiveUtils.extract(new ByteArrayInputStream(nestedZip()), "test.zip"));
+    }
+
+    /**
+     * Test of the parallel extraction.
+     *
+     * @throws IOException
+     *         in case of failure
+     */
+    @Test
+    public void extractParallelTest() throws IOException {
+        final Map<String, byte[]> entries = new HashMap<>();
+        for (int i = 0; i < 50; i++) {
+            entries.put("file" + i + ".xml", ("<file>" + i + "</file>").getBytes(StandardCharsets.UTF_8));
+        }
+
+        final Map<String, String> contents = new ConcurrentHashMap<>();
+        ArchiveUtils.extract(new ByteArrayInputStream(zip(entries)), "test.zip",
+            (name, content) -> contents.put(name, IOUtils.toString(content, StandardCharsets.UTF_8)), 4);
+        assertEquals(50, contents.size());
+        assertEquals("<file>7</file>", contents.get("file7.xml"));
+
+        try {
+            ArchiveUtils.extract(new ByteArrayInputStream(zip(entries)), "test.zip", (name, content) -> {
+                throw new IOException("failure");
+            }, 4);
+            throw new AssertionError("Failure of the handler expected");
+        } catch (UnrecoverableException e) {
+            assertTrue(e.getCause() instanceof IOException);
+        }
+    }
+
+    /**
+     * @param list
+     *         list
+     * @return sorted copy of the list
+     */
+    private static List<String> sorted(final List<String> list) {
+        final List<String> copy = new ArrayList<>(list);
+        Collections.sort(copy);
+        return copy;
+    }
+}
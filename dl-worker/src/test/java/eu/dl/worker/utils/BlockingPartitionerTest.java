@@ -0,0 +1,44 @@
+package eu.dl.worker.utils;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import eu.dl.worker.utils.matched.BlockingPartitioner;
+
+/**
+ * BlockingPartitioner test class.
+ */
+public final class BlockingPartitionerTest {
+    /**
+     * Tests that items sharing keys (directly or transitively) end up in the same partition and that the original order
+     * is kept.
+     */
+    @Test
+    public void partitionTest() {
+        final List<String> items = Arrays.asList("a:x", "b:y", "c:z", "d:x,y", "e:", "f:z");
+
+        final List<List<String>> partitions = BlockingPartitioner.partition(items,
+            i -> Arrays.asList(i.substring(2).split(",")));
+
+        assertEquals(Arrays.asList(
+            Arrays.asList("a:x", "b:y", "d:x,y"),
+            Arrays.asList("c:z", "f:z"),
+            Collections.singletonList("e:")), partitions);
+    }
+
+    /**
+     * Tests that null keys are ignored.
+     */
+    @Test
+    public void nullKeysTest() {
+        final List<List<String>> partitions = BlockingPartitioner.partition(Arrays.asList("a", "b"),
+            i -> Collections.singletonList(null));
+
+        assertEquals(Arrays.asList(Collections.singletonList("a"), Collections.singletonList("b")), partitions);
+    }
+}
@@ -7,6 +7,7 @@ import static org.junit.Assert.assertTrue;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 import java.util.function.BiFunction;
 
 import org.apache.lucene.search.spell.LevensteinDistance;
@@ -76,7 +77,53 @@ public final class MatchedUtilsTest {
         assertEquals(0.5f, MatchedUtils.trigramSimilarity(null, "ab c123"), 0f);
         assertEquals(0.5f, MatchedUtils.trigramSimilarity(null, null), 0f);
     }
-    
+
+    /**
+     * Tests that MatchedUtils#trigramFingerprintSimilarity(TrigramFingerprint, TrigramFingerprint) returns the same
+     * scores as Lucene's NGramDistance.
+     */
+    @Test
+    public void trigramFingerprintSimilarityTest() {
+        final String alphabet = "aab c1";
+        final Random random = new Random(1);
+        for (int i = 0; i < 10000; i++) {
+            final String source = randomString(random, alphabet, random.nextInt(12));
+            final String target = randomString(random, alphabet, random.nextInt(12));
+
+            final float expected = source.equals(target) ? 1f : new NGramDistance(3).getDistance(target, source);
+            final float actual = MatchedUtils.trigramFingerprintSimilarity(MatchedUtils.trigramFingerprint(source),
+                MatchedUtils.trigramFingerprint(target));
+
+            assertEquals(source + " vs. " + target, expected, actual, 0f);
+        }
+
+        // working rows are grown for long strings
+        final String longSource = randomString(random, alphabet, 500);
+        final String longTarget = randomString(random, alphabet, 400);
+        assertEquals(new NGramDistance(3).getDistance(longTarget, longSource),
+            MatchedUtils.trigramSimilarity(longSource, longTarget), 0f);
+
+        assertEquals(0.5f, MatchedUtils.trigramFingerprintSimilarity(MatchedUtils.trigramFingerprint(null),
+            MatchedUtils.trigramFingerprint("abc")), 0f);
+    }
+
+    /**
+     * @param random
+     *      random generator
+     * @param alphabet
+     *      characters to be used
+     * @param length
+     *      length of the string
+     * @return random string
+     */
+    private static String randomString(final Random random, final String alphabet, final int length) {
+        final StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return sb.toString();
+    }
+
     /**
      * Tests for MatchedUtils#oneDigitSimilarity(java.lang.Object, java.lang.Object) function.
      */
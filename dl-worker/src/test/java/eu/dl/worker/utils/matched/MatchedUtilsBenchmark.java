@@ -0,0 +1,133 @@
+package eu.dl.worker.utils.matched;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.lucene.search.spell.NGramDistance;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH benchmark of trigram similarity of one body against a pool of bodies. Compares the Lucene based implementation
+ * (new {@link NGramDistance} and tokenization for each pair) with the fingerprint based one.
+ *
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=eu.dl.worker.utils.matched.MatchedUtilsBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MatchedUtilsBenchmark {
+    private static final String ALPHABET = "abcdefghijklmnopqrstuvwxyz     0123456789";
+
+    @Param({"100", "1000"})
+    private int poolSize;
+
+    private String source;
+
+    private List<String> pool;
+
+    private List<TrigramFingerprint> poolFingerprints;
+
+    /**
+     * Generates pool of random body names.
+     */
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        source = randomName(random);
+        pool = new ArrayList<>(poolSize);
+        poolFingerprints = new ArrayList<>(poolSize);
+        for (int i = 0; i < poolSize; i++) {
+            String name = randomName(random);
+            pool.add(name);
+            poolFingerprints.add(MatchedUtils.trigramFingerprint(name));
+        }
+    }
+
+    /**
+     * @param random
+     *      random generator
+     * @return random name with length 10-60 characters
+     */
+    private static String randomName(final Random random) {
+        int length = 10 + random.nextInt(50);
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Lucene implementation, new distance instance for each pair.
+     *
+     * @param bh
+     *      blackhole
+     */
+    @Benchmark
+    public void lucene(final Blackhole bh) {
+        for (String target : pool) {
+            bh.consume(MatchedUtils.getSimilarity(source, target, (s, t) -> new NGramDistance(3).getDistance(s, t)));
+        }
+    }
+
+    /**
+     * Fingerprint implementation, source fingerprinted once, pool fingerprinted on the fly.
+     *
+     * @param bh
+     *      blackhole
+     */
+    @Benchmark
+    public void fingerprint(final Blackhole bh) {
+        TrigramFingerprint sourceFingerprint = MatchedUtils.trigramFingerprint(source);
+        for (String target : pool) {
+            bh.consume(MatchedUtils.trigramFingerprintSimilarity(sourceFingerprint,
+                MatchedUtils.trigramFingerprint(target)));
+        }
+    }
+
+    /**
+     * Fingerprint implementation, source and pool fingerprinted in advance.
+     *
+     * @param bh
+     *      blackhole
+     */
+    @Benchmark
+    public void precomputedFingerprint(final Blackhole bh) {
+        TrigramFingerprint sourceFingerprint = MatchedUtils.trigramFingerprint(source);
+        for (TrigramFingerprint target : poolFingerprints) {
+            bh.consume(MatchedUtils.trigramFingerprintSimilarity(sourceFingerprint, target));
+        }
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args
+     *      arguments
+     * @throws RunnerException
+     *      in case of benchmark failure
+     */
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(MatchedUtilsBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -260,6 +260,18 @@ public abstract class DAOFactory {
      */
     public abstract MasterTenderDAO getMasterTenderDAO(String workerName, String workerVersion);
 
+    /**
+     * Gets the tender spend DAO.
+     *
+     * @param workerName
+     *         name of the worker manipulating with data via this DAO
+     * @param workerVersion
+     *         version of the worker manipulating with data via this DAO
+     *
+     * @return DAO object for managing spend of buyers per supplier and year
+     */
+    public abstract TenderSpendDAO getTenderSpendDAO(String workerName, String workerVersion);
+
     /**
      * Gets the Raw BudgetItem DAO.
      *
@@ -0,0 +1,46 @@
+package eu.datlab.dataaccess.dao;
+
+import eu.datlab.dataaccess.dto.indicator.TenderSpend;
+import eu.dl.dataaccess.dao.BaseDAO;
+
+import java.util.List;
+
+/**
+ * DAO for the spend of buyers per supplier and year. The aggregates are maintained incrementally, each master tender
+ * replaces its previous contributions.
+ */
+public interface TenderSpendDAO extends BaseDAO<TenderSpend> {
+    /**
+     * Replaces the contributions of the master tender to the aggregates with the given ones.
+     *
+     * @param tenderGroupId
+     *      group id of the master tender
+     * @param spend
+     *      current contributions of the tender, empty list removes the tender from the aggregates
+     */
+    void updateTenderSpend(String tenderGroupId, List<TenderSpend> spend);
+
+    /**
+     * Returns total spend of the buyer in the given year.
+     *
+     * @param buyerGroupId
+     *      buyer group id
+     * @param year
+     *      year
+     * @return total spend or 0 if there is no spend
+     */
+    double getBuyerSpend(String buyerGroupId, Integer year);
+
+    /**
+     * Returns spend of the buyer on the winning bids of the supplier in the given year.
+     *
+     * @param buyerGroupId
+     *      buyer group id
+     * @param supplierGroupId
+     *      supplier group id
+     * @param year
+     *      year
+     * @return spend or 0 if there is no spend
+     */
+    double getSupplierSpend(String buyerGroupId, String supplierGroupId, Integer year);
+}
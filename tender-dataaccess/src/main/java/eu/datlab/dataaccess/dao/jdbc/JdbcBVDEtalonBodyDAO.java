@@ -26,6 +26,10 @@ public class JdbcBVDEtalonBodyDAO extends BaseJdbcDAO<BVDEtalonBody> implements
 
     private static final int DIGEST_LENGTH_THRESHOLD = 3;
 
+    private static final String UPDATE_DIGESTS_QUERY = "UPDATE bvd.registry_information SET "
+        + "digest = ?, standardizedname = ?, standardizedaddress = ?, nuts3 = ?, european_vat_number = ?,"
+        + " statistical_number = ?, trade_register_number = ?, vattax_number = ?, digest2 = ? WHERE id = ?;";
+
     /**
      * Initializes connection etc.
      */
@@ -163,20 +167,9 @@ public class JdbcBVDEtalonBodyDAO extends BaseJdbcDAO<BVDEtalonBody> implements
     @Override
     public final void updateDigestsAndBodyIdsAndNuts(final BVDEtalonBody body) {
         try {
-            PreparedStatement statement = getConnection().prepareStatement("UPDATE bvd.registry_information SET "
-                + "digest = ?, standardizedname = ?, standardizedaddress = ?, nuts3 = ?, european_vat_number = ?,"
-                + " statistical_number = ?, trade_register_number = ?, vattax_number = ?, digest2 = ? WHERE id = ?;");
-
-            statement.setString(1, body.getDigest());
-            statement.setString(2, body.getStandardizedName());
-            statement.setString(3, body.getStandardizedAddress());
-            statement.setString(4, body.getNuts3());
-            statement.setString(5, body.getEuropeanVatNumber());
-            statement.setString(6, body.getStatisticalNumber());
-            statement.setString(7, body.getTradeRegisterNumber());
-            statement.setString(8, body.getVatTaxNumber());
-            statement.setString(9, body.getDigest2());
-            statement.setInt(10, Integer.valueOf(body.getId()));
+            PreparedStatement statement = getConnection().prepareStatement(UPDATE_DIGESTS_QUERY);
+
+            setUpdateDigestsParams(statement, body);
             statement.executeUpdate();
 
             statement.close();
@@ -186,6 +179,52 @@ public class JdbcBVDEtalonBodyDAO extends BaseJdbcDAO<BVDEtalonBody> implements
         }
     }
 
+    @Override
+    public final void updateDigestsAndBodyIdsAndNuts(final List<BVDEtalonBody> bodies) {
+        if (bodies.isEmpty()) {
+            return;
+        }
+
+        try {
+            PreparedStatement statement = getConnection().prepareStatement(UPDATE_DIGESTS_QUERY);
+
+            for (BVDEtalonBody body : bodies) {
+                setUpdateDigestsParams(statement, body);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+
+            statement.close();
+        } catch (Exception e) {
+            logger.error("Unable to perform query, because of of {}", e);
+            throw new UnrecoverableException("Unable to perform query.", e);
+        }
+    }
+
+    /**
+     * Sets parameters of {@link #UPDATE_DIGESTS_QUERY}.
+     *
+     * @param statement
+     *            update statement
+     * @param body
+     *            updated body
+     * @throws SQLException
+     *             in case setting of the parameters fails
+     */
+    private static void setUpdateDigestsParams(final PreparedStatement statement, final BVDEtalonBody body)
+        throws SQLException {
+        statement.setString(1, body.getDigest());
+        statement.setString(2, body.getStandardizedName());
+        statement.setString(3, body.getStandardizedAddress());
+        statement.setString(4, body.getNuts3());
+        statement.setString(5, body.getEuropeanVatNumber());
+        statement.setString(6, body.getStatisticalNumber());
+        statement.setString(7, body.getTradeRegisterNumber());
+        statement.setString(8, body.getVatTaxNumber());
+        statement.setString(9, body.getDigest2());
+        statement.setInt(10, Integer.valueOf(body.getId()));
+    }
+
     /**
      * Creates BVDEtalonBody object from a result set object.
      * 
@@ -11,6 +11,7 @@ import eu.datlab.dataaccess.dao.ParsedBudgetItemDAO;
 import eu.datlab.dataaccess.dao.ParsedContractingAuthorityDAO;
 import eu.datlab.dataaccess.dao.ParsedPublicOfficialDAO;
 import eu.datlab.dataaccess.dao.RawAssetDeclarationDAO;
+import eu.datlab.dataaccess.dao.TenderSpendDAO;
 import eu.dl.dataaccess.dao.CleanTenderDAO;
 import eu.dl.dataaccess.dao.CrawlerAuditDAO;
 import eu.dl.dataaccess.dao.EtalonBodyDAO;
@@ -110,6 +111,11 @@ public final class JdbcDAOFactory extends DAOFactory {
         return (MasterTenderDAO) new JdbcMasterTenderDAO().populateWithWorkerMetadata(workerName, workerVersion);
     }
 
+    @Override
+    public TenderSpendDAO getTenderSpendDAO(final String workerName, final String workerVersion) {
+        return (TenderSpendDAO) new JdbcTenderSpendDAO().populateWithWorkerMetadata(workerName, workerVersion);
+    }
+
     @Override
     public RawDataDAO getRawBudgetItemDAO(final String workerName, final String workerVersion) {
         return (RawDataDAO) new JdbcRawDataDAO().populateWithWorkerMetadata(workerName, workerVersion);
@@ -1,5 +1,7 @@
 package eu.datlab.dataaccess.dao.jdbc;
 
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import eu.dl.core.UnrecoverableException;
 import eu.dl.dataaccess.dao.ManualMatchDAO;
 import eu.dl.dataaccess.dao.jdbc.BaseJdbcDAO;
@@ -29,17 +31,19 @@ public class JdbcManualMatchDAO<T extends ManualMatch> extends BaseJdbcDAO<Manua
         }
 
         try {
-            String query;
+            final ObjectNode condition = JsonNodeFactory.instance.objectNode().put("hash", hash);
+            final String query;
             if (flag != null) {
-                query = "data @> '{\"hash\":\"" + sanitizeForJsonString(hash) + "\","
-                    + "\"flag\":\"" + sanitizeForJsonString(flag) + "\"}'";
+                condition.put("flag", flag);
+                query = "data @> ?::jsonb";
             } else {
-                query = "data @> '{\"hash\":\"" + sanitizeForJsonString(hash) + "\"}' AND data->'flag' IS NULL";
+                query = "data @> ?::jsonb AND data->'flag' IS NULL";
             }
 
             PreparedStatement statement =
                 getConnection().prepareStatement("SELECT * FROM " + getTableWithSchema() + " WHERE " + query);
 
+            statement.setString(1, condition.toString());
             ResultSet rs = statement.executeQuery();
 
             List<ManualMatch> result = new ArrayList<>();
@@ -3,6 +3,7 @@ package eu.datlab.dataaccess.dao.jdbc;
 import eu.dl.core.UnrecoverableException;
 import eu.dl.dataaccess.dao.MatchedBodyDAO;
 import eu.dl.dataaccess.dao.jdbc.GenericJdbcDAO;
+import eu.dl.dataaccess.dao.jdbc.MatchedBodyRestrictions;
 import eu.dl.dataaccess.dto.codetables.BodyIdentifier;
 import eu.dl.dataaccess.dto.codetables.BodyType;
 import eu.dl.dataaccess.dto.matched.MatchedBody;
@@ -11,11 +12,14 @@ import eu.dl.dataaccess.dto.matched.MatchedGroupInfo;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * JDBC implementation of master tender DAO.
@@ -41,7 +45,9 @@ public class JdbcMatchedBodyDAO extends GenericJdbcDAO<MatchedBody> implements M
                                                            final String standardizedAddress, final
                                                            List<BodyIdentifier> bodyIds) {
 
-        StringBuilder restriction = exactMatchRestrictionBuilder(standardizedName, standardizedAddress, bodyIds);
+        List<String> params = new ArrayList<>();
+        StringBuilder restriction = MatchedBodyRestrictions.exactMatch(standardizedName, standardizedAddress, bodyIds,
+                params);
         String additionalMatchersRestriction = prepareAdditionalWorkersCondition();
 
         if (restriction.length() == 0) {
@@ -55,6 +61,7 @@ public class JdbcMatchedBodyDAO extends GenericJdbcDAO<MatchedBody> implements M
 
             statement.setString(1, workerName);
             statement.setString(2, workerVersion);
+            setParams(statement, 3, params);
 
             ResultSet rs = statement.executeQuery();
 
@@ -79,8 +86,9 @@ public class JdbcMatchedBodyDAO extends GenericJdbcDAO<MatchedBody> implements M
                                                                  List<BodyIdentifier> bodyIds, final String
                                                                          digest) {
 
-        StringBuilder restriction = approximateMatchRestrictionBuilder(standardizedName, standardizedAddress, bodyIds,
-                digest);
+        List<String> params = new ArrayList<>();
+        StringBuilder restriction = MatchedBodyRestrictions.approximateMatch(standardizedName, standardizedAddress,
+                bodyIds, digest, params);
         String additionalMatchersRestriction = prepareAdditionalWorkersCondition();
 
         if (restriction.length() == 0) {
@@ -96,6 +104,7 @@ public class JdbcMatchedBodyDAO extends GenericJdbcDAO<MatchedBody> implements M
 
             statement.setString(1, workerName);
             statement.setString(2, workerVersion);
+            setParams(statement, 3, params);
 
             long selectStartTime = System.currentTimeMillis();
             ResultSet rs = statement.executeQuery();
@@ -120,33 +129,33 @@ public class JdbcMatchedBodyDAO extends GenericJdbcDAO<MatchedBody> implements M
         }
     }
 
+    @Override
+    public final Stream<MatchedBody> streamPoolBodies() {
+        List<Object> params = new ArrayList<>();
+        params.add(workerName);
+        params.add(workerVersion);
+
+        // the same restriction as the pool queries use
+        return streamByKeyset("((modifiedBy = ? AND modifiedByVersion = ?) " + prepareAdditionalWorkersCondition()
+            + ")", params, "id");
+    }
+
     @Override
     public final MatchedBody getByEtalonId(final String id) {
         if (id == null) {
             return null;
         }
 
-        StringBuilder bodyIdsRestriction = new StringBuilder();
-        bodyIdsRestriction.append("data @> ")
-                .append("'{\"bodyIds\":[{")
-                .append("\"id\":\"")
-                .append(sanitizeForJsonString(id))
-                .append("\",")
-                .append("\"scope\":\"")
-                .append(BodyIdentifier.Scope.ETALON_ID)
-                .append("\"")
-                .append("}]}'");
-
         String additionalMatchersRestriction = prepareAdditionalWorkersCondition();
 
         try {
             PreparedStatement statement = getConnection().prepareStatement(
                     "SELECT * FROM " + getTableWithSchema() + " WHERE ((modifiedBy = ? AND modifiedByVersion = ?) " +
-                            additionalMatchersRestriction + ") AND " + bodyIdsRestriction
-                            .toString());
+                            additionalMatchersRestriction + ") AND data @> ?::jsonb");
 
             statement.setString(1, workerName);
             statement.setString(2, workerVersion);
+            statement.setString(3, MatchedBodyRestrictions.bodyIdParam(id, BodyIdentifier.Scope.ETALON_ID));
 
             ResultSet rs = statement.executeQuery();
 
@@ -195,82 +204,25 @@ public class JdbcMatchedBodyDAO extends GenericJdbcDAO<MatchedBody> implements M
         }
     }
 
-    /**
-     * Returns restriction for matched body database query that returns etalons
-     * for exact matching. Null values of input parameters aren't taken into
-     * account.
-     *
-     * @param standardizedName    standardized name
-     * @param standardizedAddress standardized address
-     * @param bodyIds             list of body identifiers
-     *
-     * @return restriction as StringBuilder instance
-     */
-    private StringBuilder exactMatchRestrictionBuilder(final String standardizedName, final String standardizedAddress,
-                                                       final List<BodyIdentifier> bodyIds) {
-
-        StringBuilder restriction = new StringBuilder();
-        if (standardizedName != null) {
-            restriction.append(" md5(data ->>'standardizedName') = md5('")
-                    .append(sanitizeForJsonString(standardizedName))
-                    .append("')");
-        }
-        if (standardizedAddress != null) {
-            restriction.append(restriction.length() > 0 ? " OR " : "");
-            restriction.append(" md5(data ->>'standardizedAddress') = md5('")
-                    .append(sanitizeForJsonString(standardizedAddress))
-                    .append("')");
-        }
-        if (bodyIds != null) {
-            StringBuilder bodyIdsRestriction = new StringBuilder();
-            bodyIds.stream().forEach((id) -> {
-                if (id.getId() != null && id.getScope() != null) {
-                    bodyIdsRestriction.append(bodyIdsRestriction.length() > 0 ? " OR " : "")
-                            .append("data @> '{\"bodyIds\": ")
-                            .append("[{")
-                            .append("\"id\":\"")
-                            .append(sanitizeForJsonString(id.getId()))
-                            .append("\",")
-                            .append("\"scope\":\"")
-                            .append(id.getScope())
-                            .append("\"")
-                            .append("}]}'");
-                }
-            });
-
-            if (bodyIdsRestriction.length() > 0) {
-                restriction.append(restriction.length() > 0 ? " OR " : "").append(bodyIdsRestriction);
-            }
-        }
-
-        return restriction;
+    @Override
+    public final Stream<String> streamGroupIdsForResend(final String name, final String version) {
+        return streamGroupIds(name, version);
     }
 
     /**
-     * Returns restriction for matched body database query that returns etalons
-     * for approximate matching. Null values of input parameters aren't taken
-     * into account.
+     * Sets string parameters of the statement.
      *
-     * @param standardizedName    standardized name
-     * @param standardizedAddress standardized address
-     * @param bodyIds             list of body identifiers
-     * @param digest              digest
+     * @param statement statement
+     * @param from      index of the first parameter
+     * @param params    parameter values
      *
-     * @return restriction as StringBuilder instance
+     * @throws SQLException in case the parameter can't be set
      */
-    private StringBuilder approximateMatchRestrictionBuilder(final String standardizedName,
-                                                             final String standardizedAddress, final
-                                                             List<BodyIdentifier> bodyIds, final String digest) {
-
-        StringBuilder restriction = exactMatchRestrictionBuilder(standardizedName, standardizedAddress, bodyIds);
-
-        if (digest != null) {
-            restriction.append(restriction.length() > 0 ? " OR " : "");
-            restriction.append(" data ->>'digest' = '").append(sanitizeForJsonString(digest))
-                    .append("'");
+    private static void setParams(final PreparedStatement statement, final int from, final List<String> params)
+            throws SQLException {
+        for (int i = 0; i < params.size(); i++) {
+            statement.setString(from + i, params.get(i));
         }
-
-        return restriction;
     }
 
     @Override
@@ -279,23 +231,20 @@ public class JdbcMatchedBodyDAO extends GenericJdbcDAO<MatchedBody> implements M
             return Collections.emptyList();
         }
 
+        List<String> params = new ArrayList<>();
         try {
-            final StringBuilder gidStm = new StringBuilder();
-            groups.forEach((gid) -> {
-                if (gidStm.length() > 0) {
-                    gidStm.append(" or ");
-                }
-                gidStm.append("data @> '{\"groupId\":\"").append(sanitizeForJsonString(gid)).append("\"}'");
-            });
-
             PreparedStatement statement = getConnection().prepareStatement("select data#>>'{groupId}' as gid,"
                     + "SUM((data @> '{\"bodyIds\": [{\"type\": \"ETALON_ID\"}]}')::int) > 0 as hasEtalon,"
                     + "COUNT(*) as size"
                     + " FROM " + getTableWithSchema()
-                    + " WHERE modifiedby = '" + workerName + "' AND modifiedbyversion = '" + workerVersion + "'"
-                    + " AND (" + gidStm.toString() + ")"
+                    + " WHERE modifiedby = ? AND modifiedbyversion = ?"
+                    + " AND (" + MatchedBodyRestrictions.groups(groups, params) + ")"
                     + " GROUP BY gid ORDER BY size DESC");
 
+            statement.setString(1, workerName);
+            statement.setString(2, workerVersion);
+            setParams(statement, 3, params);
+
             ResultSet rs = statement.executeQuery();
             List<MatchedGroupInfo> result = new ArrayList<>();
 
@@ -318,6 +267,11 @@ public class JdbcMatchedBodyDAO extends GenericJdbcDAO<MatchedBody> implements M
 
     @Override
     public final List<String> getEtalonGroupIds() {
+        return getEtalonGroupIds(null);
+    }
+
+    @Override
+    public final List<String> getEtalonGroupIds(final LocalDateTime modifiedAfter) {
         ArrayList<String> result = new ArrayList<String>();
 
         StringBuilder bodyIdsRestriction = new StringBuilder();
@@ -335,10 +289,14 @@ public class JdbcMatchedBodyDAO extends GenericJdbcDAO<MatchedBody> implements M
                     "SELECT data->'groupId' as groupId FROM " + getTableWithSchema()
                             + " WHERE ((createdBy = ? AND createdByVersion = ?) "
                             + additionalMatchersRestriction + ") AND " + bodyIdsRestriction
-                            .toString());
+                            .toString()
+                            + (modifiedAfter == null ? "" : " AND modified > ?"));
 
             statement.setString(1, workerName);
             statement.setString(2, workerVersion);
+            if (modifiedAfter != null) {
+                statement.setTimestamp(3, Timestamp.valueOf(modifiedAfter));
+            }
 
             ResultSet rs = statement.executeQuery();
 
@@ -358,10 +316,15 @@ public class JdbcMatchedBodyDAO extends GenericJdbcDAO<MatchedBody> implements M
 
     @Override
     public final Map<String, String> getHashAndGroupIds() {
+        return getHashAndGroupIds(null);
+    }
+
+    @Override
+    public final Map<String, String> getHashAndGroupIds(final LocalDateTime modifiedAfter) {
         final Map<String, String> result = new HashMap<>();
 
         String oneBeforePreviousDate = null;
-        String previousDate = null;
+        String previousDate = modifiedAfter == null ? null : Timestamp.valueOf(modifiedAfter).toString();
 
         try {
             while (true) {
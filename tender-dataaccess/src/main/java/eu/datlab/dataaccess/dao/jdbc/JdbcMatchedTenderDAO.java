@@ -15,6 +15,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * JDBC implemenation of MatchedTenderDAO.
@@ -338,6 +339,11 @@ public class JdbcMatchedTenderDAO extends GenericJdbcDAO<MatchedTender> implemen
         }
     }
 
+    @Override
+    public final Stream<String> streamGroupIdsForResend(final String name, final String version) {
+        return streamGroupIds(name, version);
+    }
+
     @Override
     public final List<MatchedTender> getByPublicationSourceIdsAndPublicationDates(
         final Map<String, LocalDate> sourceIdsAndDates) {
@@ -0,0 +1,138 @@
+package eu.datlab.dataaccess.dao.jdbc;
+
+import eu.datlab.dataaccess.dao.TenderSpendDAO;
+import eu.datlab.dataaccess.dto.indicator.TenderSpend;
+import eu.dl.core.UnrecoverableException;
+import eu.dl.dataaccess.dao.jdbc.BaseJdbcDAO;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+
+/**
+ * JDBC implementation of the tender spend DAO. Contributions of each master tender are stored in table
+ * master_tender_spend and their sums in table spend_aggregate, see tender_spend.sql. The total spend of the buyer is
+ * stored with empty supplier group id.
+ */
+public class JdbcTenderSpendDAO extends BaseJdbcDAO<TenderSpend> implements TenderSpendDAO {
+
+    private static final String TENDER_TABLE_NAME = "master_tender_spend";
+
+    private static final String AGGREGATE_TABLE_NAME = "spend_aggregate";
+
+    /**
+     * Supplier group id of the total spend of the buyer.
+     */
+    private static final String BUYER_TOTAL = "";
+
+    /**
+     * Replaces the contributions of the tender and updates the aggregates by one statement, so the aggregates can't
+     * drift from the contributions even in the autocommit mode. The old contributions are deleted, the new ones
+     * inserted and their net differences upserted into the aggregates, sorted by key so that the concurrent masters
+     * lock the rows in the same order.
+     *
+     * @param tenderGroupId
+     *      group id of the master tender
+     * @param spend
+     *      current contributions of the tender, empty list removes the tender from the aggregates
+     */
+    @Override
+    public final void updateTenderSpend(final String tenderGroupId, final List<TenderSpend> spend) {
+        final String[] buyers = new String[spend.size()];
+        final String[] suppliers = new String[spend.size()];
+        final Integer[] years = new Integer[spend.size()];
+        final BigDecimal[] amounts = new BigDecimal[spend.size()];
+        for (int i = 0; i < spend.size(); i++) {
+            final TenderSpend s = spend.get(i);
+            buyers[i] = s.getBuyerGroupId();
+            suppliers[i] = s.getSupplierGroupId() == null ? BUYER_TOTAL : s.getSupplierGroupId();
+            years[i] = s.getYear();
+            amounts[i] = s.getAmount();
+        }
+
+        final String tenderTable = schema + "." + TENDER_TABLE_NAME;
+        try {
+            PreparedStatement statement = getConnection().prepareStatement(
+                    "WITH deleted AS ("
+                            + " DELETE FROM " + tenderTable + " WHERE tender_group_id = ?"
+                            + " RETURNING buyer_group_id, supplier_group_id, year, -amount AS amount"
+                            + "), inserted AS ("
+                            + " INSERT INTO " + tenderTable
+                            + " (tender_group_id, buyer_group_id, supplier_group_id, year, amount)"
+                            + " SELECT ?, n.buyer, n.supplier, n.year, n.amount"
+                            + " FROM unnest(?::text[], ?::text[], ?::integer[], ?::numeric[])"
+                            + " AS n(buyer, supplier, year, amount)"
+                            + " RETURNING buyer_group_id, supplier_group_id, year, amount"
+                            + ")"
+                            + " INSERT INTO " + schema + "." + AGGREGATE_TABLE_NAME
+                            + " (buyer_group_id, supplier_group_id, year, amount)"
+                            + " SELECT buyer_group_id, supplier_group_id, year, SUM(amount)"
+                            + " FROM (SELECT * FROM deleted UNION ALL SELECT * FROM inserted) d"
+                            + " GROUP BY buyer_group_id, supplier_group_id, year HAVING SUM(amount) <> 0"
+                            + " ORDER BY buyer_group_id, supplier_group_id, year"
+                            + " ON CONFLICT (buyer_group_id, supplier_group_id, year)"
+                            + " DO UPDATE SET amount = " + AGGREGATE_TABLE_NAME + ".amount + EXCLUDED.amount");
+            statement.setString(1, tenderGroupId);
+            statement.setString(2, tenderGroupId);
+            statement.setArray(3, getConnection().createArrayOf("text", buyers));
+            statement.setArray(4, getConnection().createArrayOf("text", suppliers));
+            statement.setArray(5, getConnection().createArrayOf("integer", years));
+            statement.setArray(6, getConnection().createArrayOf("numeric", amounts));
+
+            statement.executeUpdate();
+            statement.close();
+        } catch (Exception e) {
+            logger.error("Unable to update spend of tender {}, because of {}", tenderGroupId, e);
+            throw new UnrecoverableException("Unable to update tender spend.", e);
+        }
+    }
+
+    @Override
+    public final double getBuyerSpend(final String buyerGroupId, final Integer year) {
+        return getSpend(buyerGroupId, BUYER_TOTAL, year);
+    }
+
+    @Override
+    public final double getSupplierSpend(final String buyerGroupId, final String supplierGroupId,
+                                         final Integer year) {
+        return getSpend(buyerGroupId, supplierGroupId, year);
+    }
+
+    /**
+     * Returns the aggregated spend.
+     *
+     * @param buyerGroupId
+     *      buyer group id
+     * @param supplierGroupId
+     *      supplier group id or empty string for the total spend of the buyer
+     * @param year
+     *      year
+     * @return spend or 0 if there is no spend
+     */
+    private double getSpend(final String buyerGroupId, final String supplierGroupId, final Integer year) {
+        try {
+            PreparedStatement statement = getConnection().prepareStatement(
+                    "SELECT amount FROM " + schema + "." + AGGREGATE_TABLE_NAME
+                            + " WHERE buyer_group_id = ? AND supplier_group_id = ? AND year = ?");
+            statement.setString(1, buyerGroupId);
+            statement.setString(2, supplierGroupId);
+            statement.setInt(3, year);
+
+            ResultSet rs = statement.executeQuery();
+
+            BigDecimal result = BigDecimal.ZERO;
+            if (rs.next()) {
+                result = rs.getBigDecimal(1);
+            }
+
+            rs.close();
+            statement.close();
+
+            return result.doubleValue();
+        } catch (Exception e) {
+            logger.error("Unable to perform query, because of {}", e);
+            throw new UnrecoverableException("Unable to perform query.", e);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package eu.datlab.dataaccess.dto.indicator;
+
+import java.math.BigDecimal;
+
+/**
+ * Spend of the buyer group in a year, either the total spend of the buyer (supplier group id is null) or the spend
+ * on the winning bids of the supplier group.
+ */
+public final class TenderSpend {
+    private String buyerGroupId;
+
+    private String supplierGroupId;
+
+    private Integer year;
+
+    private BigDecimal amount;
+
+    /**
+     * @return buyer group id
+     */
+    public String getBuyerGroupId() {
+        return buyerGroupId;
+    }
+
+    /**
+     * @param buyerGroupId
+     *         buyer group id
+     * @return this instance for chaining
+     */
+    public TenderSpend setBuyerGroupId(final String buyerGroupId) {
+        this.buyerGroupId = buyerGroupId;
+        return this;
+    }
+
+    /**
+     * @return supplier group id or null for the total spend of the buyer
+     */
+    public String getSupplierGroupId() {
+        return supplierGroupId;
+    }
+
+    /**
+     * @param supplierGroupId
+     *         supplier group id or null for the total spend of the buyer
+     * @return this instance for chaining
+     */
+    public TenderSpend setSupplierGroupId(final String supplierGroupId) {
+        this.supplierGroupId = supplierGroupId;
+        return this;
+    }
+
+    /**
+     * @return year
+     */
+    public Integer getYear() {
+        return year;
+    }
+
+    /**
+     * @param year
+     *         year
+     * @return this instance for chaining
+     */
+    public TenderSpend setYear(final Integer year) {
+        this.year = year;
+        return this;
+    }
+
+    /**
+     * @return amount (national currency)
+     */
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    /**
+     * @param amount
+     *         amount (national currency)
+     * @return this instance for chaining
+     */
+    public TenderSpend setAmount(final BigDecimal amount) {
+        this.amount = amount;
+        return this;
+    }
+}
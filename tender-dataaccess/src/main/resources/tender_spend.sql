@@ -0,0 +1,59 @@
+-- Spend of buyers per supplier and year used by LotWinnerCAShareIndicatorPlugin, maintained by the tender masters
+-- (JdbcTenderSpendDAO). Run in the schema of the master tenders (set search_path).
+--
+-- Each tender contributes to the year of its oldest included publication: the sum of the net national prices of the
+-- winning bids goes to the total of each of its buyers (supplier_group_id = '') and the price of each winning bid
+-- with a single bidder goes to the spend of the buyers on that bidder.
+
+create table if not exists master_tender_spend (
+  tender_group_id text not null,
+  buyer_group_id text not null,
+  supplier_group_id text not null,
+  year integer not null,
+  amount numeric not null,
+  primary key (tender_group_id, buyer_group_id, supplier_group_id)
+);
+
+create table if not exists spend_aggregate (
+  buyer_group_id text not null,
+  supplier_group_id text not null,
+  year integer not null,
+  amount numeric not null,
+  primary key (buyer_group_id, supplier_group_id, year)
+);
+
+-- backfill of the already mastered tenders
+
+truncate master_tender_spend, spend_aggregate;
+
+insert into master_tender_spend (tender_group_id, buyer_group_id, supplier_group_id, year, amount)
+with tender as (
+  select
+    mt.data->>'groupId' as tender_group_id,
+    mt.data,
+    (select extract(year from min((p->>'publicationDate')::date))::integer
+     from jsonb_array_elements(mt.data->'publications') p
+     where (p->>'isIncluded')::boolean) as year
+  from master_tender mt
+), buyer as (
+  select distinct t.tender_group_id, b->>'groupId' as buyer_group_id
+  from tender t, jsonb_array_elements(t.data->'buyers') b
+  where coalesce(b->>'groupId', '') <> ''
+), bid as (
+  select t.tender_group_id, t.year, b, (b#>>'{price,netAmountNational}')::numeric as amount
+  from tender t, jsonb_array_elements(t.data->'lots') l, jsonb_array_elements(l->'bids') b
+  where t.year is not null and (b->>'isWinning')::boolean and b#>>'{price,netAmountNational}' is not null
+)
+select bid.tender_group_id, buyer.buyer_group_id, '', min(bid.year), sum(bid.amount)
+from bid join buyer using (tender_group_id)
+group by bid.tender_group_id, buyer.buyer_group_id
+union all
+select bid.tender_group_id, buyer.buyer_group_id, bid.b#>>'{bidders,0,groupId}', min(bid.year), sum(bid.amount)
+from bid join buyer using (tender_group_id)
+where jsonb_array_length(bid.b->'bidders') = 1 and coalesce(bid.b#>>'{bidders,0,groupId}', '') <> ''
+group by bid.tender_group_id, buyer.buyer_group_id, bid.b#>>'{bidders,0,groupId}';
+
+insert into spend_aggregate (buyer_group_id, supplier_group_id, year, amount)
+select buyer_group_id, supplier_group_id, year, sum(amount)
+from master_tender_spend
+group by buyer_group_id, supplier_group_id, year;
@@ -1,6 +1,7 @@
 package eu.datlab.worker.global.parsed;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -33,8 +34,8 @@ public class CIAPublicOfficialParser extends BasePublicOfficialParser {
 
         final List<ParsedPublicOfficial> parsedPublicOfficials = new ArrayList<>();
 
-        try {
-            final PdfReader pdfDocument = new PdfReader(rawPublicOfficial.getSourceBinaryData());
+        try (InputStream sourceData = getRawDataStorage().openSourceData(rawPublicOfficial)) {
+            final PdfReader pdfDocument = new PdfReader(sourceData);
 
             for (int pageNumber = 4; pageNumber <= pdfDocument.getNumberOfPages(); pageNumber++) {
 
@@ -72,6 +73,11 @@ public class CIAPublicOfficialParser extends BasePublicOfficialParser {
         return PARSER_VERSION;
     }
 
+    @Override
+    protected final boolean readsSourceDataByStream() {
+        return true;
+    }
+
     /**
      * Check if public official is in bodyAll array, if so, returns name and position of public official.
      * This method also tries to parse postitions across two lines, this results in some positions be named
@@ -1,6 +1,7 @@
 package eu.datlab.worker.master;
 
 import eu.datlab.dataaccess.dao.DAOFactory;
+import eu.datlab.worker.master.plugin.LotWinnerCAShareIndicatorPlugin;
 import eu.datlab.worker.master.plugin.TenderDocumentPlugin;
 import eu.datlab.worker.master.plugin.TenderLotPlugin;
 import eu.dl.dataaccess.dao.MasterDAO;
@@ -58,6 +59,13 @@ public abstract class BaseDatlabTenderMaster extends BaseTenderMaster<MatchedTen
         return DAOFactory.getDAOFactory().getTransactionUtils();
     }
 
+    @Override
+    protected final void postSaveMasterRecord(final MasterTender item) {
+        // keeps the spend aggregates of LotWinnerCAShareIndicatorPlugin up to date
+        DAOFactory.getDAOFactory().getTenderSpendDAO(getName(), getVersion())
+                .updateTenderSpend(item.getGroupId(), LotWinnerCAShareIndicatorPlugin.computeTenderSpend(item));
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     protected final void registerProjectSpecificPlugins() {
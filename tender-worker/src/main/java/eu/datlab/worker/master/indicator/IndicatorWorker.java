@@ -1,6 +1,7 @@
 package eu.datlab.worker.master.indicator;
 
 import eu.datlab.dataaccess.dao.DAOFactory;
+import eu.dl.core.UnrecoverableException;
 import eu.dl.dataaccess.dao.MatchedTenderDAO;
 import eu.dl.dataaccess.dto.master.MasterTenderLot;
 import eu.dl.dataaccess.utils.PopulateUtils;
@@ -22,12 +23,16 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
- * This worker calculates indicators for tenders.
+ * This worker calculates indicators for tenders. Tenders are processed one by one (message with id) or all tenders
+ * of a source at once (command "rematch", see {@link #rematch(Message)}).
  *
  * @author Jakub Krafka
  */
@@ -39,6 +44,22 @@ public class IndicatorWorker extends BaseWorker {
 
     private static final String VERSION = "1.0";
 
+    /**
+     * Default size of the body cache used by rematch. The cache lives only during one rematch run, the cached bodies
+     * aren't refreshed.
+     */
+    private static final int DEFAULT_REMATCH_BODY_CACHE_SIZE = 10000;
+
+    /**
+     * Default number of master tenders processed at once by rematch.
+     */
+    private static final int DEFAULT_REMATCH_PAGE_SIZE = 1000;
+
+    /**
+     * Number of master tenders evaluated by one rematch task.
+     */
+    private static final int REMATCH_TASK_SIZE = 50;
+
     private static TransactionUtils transactionUtils;
 
     private static MasterTenderDAO masterDao;
@@ -78,7 +99,9 @@ public class IndicatorWorker extends BaseWorker {
 
         masterBodyDao = DAOFactory.getDAOFactory().getMasterBodyDAO(getName(), VERSION);
 
-        populateUtils = new PopulateUtils(masterBodyDao);
+        // the worker runs for a long time and the bodies change meanwhile, so they aren't cached unless configured
+        final Integer bodyCacheSize = config.getParamValueAs(getName() + ".bodyCacheSize", Integer::valueOf);
+        populateUtils = new PopulateUtils(masterBodyDao, bodyCacheSize != null ? bodyCacheSize : 0);
 
         config.addConfigFile("indicator");
 
@@ -105,6 +128,17 @@ public class IndicatorWorker extends BaseWorker {
         return OUTGOING_EXCHANGE_NAME;
     }
 
+    /**
+     * The indicator plugins are already evaluated concurrently by rematch, their caches are thread-safe. The DAOs work
+     * with the connection of the current thread and the body cache of {@link PopulateUtils} is thread-safe.
+     *
+     * @return true
+     */
+    @Override
+    protected final boolean supportsConcurrentConsumers() {
+        return true;
+    }
+
     @Override
     public final void doWork(final Message message) {
         String id = message.getValue("id");
@@ -112,35 +146,149 @@ public class IndicatorWorker extends BaseWorker {
 
         if (tender != null) {
             populateUtils.populateBodies(Arrays.asList(tender));
+            evaluateIndicators(tender);
+            populateUtils.depopulateBodies(Arrays.asList(tender));
+            masterDao.save(tender);
+        }
+    }
+
+    /**
+     * Recomputes indicators of all master tenders of the given source (message values "name" and "version", all
+     * tenders for empty name) without sending a message per tender.
+     *
+     * The tenders are streamed in pages of {@code <worker_class>.rematch.pageSize} tenders. Bodies of the whole page
+     * are populated at once, bodies shared by many tenders (eg. big buyers) are loaded only once per run thanks to the
+     * cache of {@code <worker_class>.rematch.bodyCacheSize} bodies, which is dropped at the end of the run. The tenders of the page are evaluated in parallel by
+     * {@code <worker_class>.rematch.parallelism} threads and saved in batches. Each page is committed separately.
+     *
+     * @param message
+     *         command message
+     */
+    @Override
+    protected final void rematch(final Message message) {
+        final String name = message.getValue("name");
+        final String version = message.getValue("version");
+        if (name == null || version == null) {
+            logger.error("Rematch command requires name and version of the master.");
+            throw new UnrecoverableException("Rematch command requires name and version of the master.");
+        }
 
-            // iterate over all item indicator plugins and execute them in a proper order
-            List<Indicator> tenderIndicators = new ArrayList<>();
-            for (Entry<String, IndicatorPlugin<MasterTender>> entry : tenderIndicatorPluginRegistry.getPlugins().entrySet()) {
-                IndicatorPlugin<MasterTender> plugin = entry.getValue();
-                Indicator indicator = plugin.evaluate(tender);
-                if (indicator != null) {
-                    tenderIndicators.add(indicator);
+        final int pageSize = getRematchParam("pageSize", DEFAULT_REMATCH_PAGE_SIZE);
+        final PopulateUtils rematchPopulateUtils = new PopulateUtils(masterBodyDao,
+            getRematchParam("bodyCacheSize", DEFAULT_REMATCH_BODY_CACHE_SIZE));
+        final ForkJoinPool pool =
+            new ForkJoinPool(getRematchParam("parallelism", Runtime.getRuntime().availableProcessors()));
+        try {
+            final Iterator<MasterTender> tenders = masterDao.streamBySourceAndVersion(name, version).iterator();
+            int count = 0;
+            while (tenders.hasNext()) {
+                final List<MasterTender> page = new ArrayList<>(pageSize);
+                while (tenders.hasNext() && page.size() < pageSize) {
+                    page.add(tenders.next());
                 }
+
+                rematchPopulateUtils.populateBodies(page);
+                pool.invoke(new IndicatorAction(page, 0, page.size()));
+                rematchPopulateUtils.depopulateBodies(page);
+                masterDao.saveAll(page);
+                getTransactionUtils().commit();
+
+                count += page.size();
+                logger.info("Indicators recomputed for {} master tenders of {} {}", count, name, version);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Evaluates all tender and lot indicator plugins and sets the indicators of the tender and its lots.
+     *
+     * @param tender
+     *         master tender with populated bodies
+     */
+    private void evaluateIndicators(final MasterTender tender) {
+        // iterate over all item indicator plugins and execute them in a proper order
+        List<Indicator> tenderIndicators = new ArrayList<>();
+        for (Entry<String, IndicatorPlugin<MasterTender>> entry : tenderIndicatorPluginRegistry.getPlugins().entrySet()) {
+            IndicatorPlugin<MasterTender> plugin = entry.getValue();
+            Indicator indicator = plugin.evaluate(tender);
+            if (indicator != null) {
+                tenderIndicators.add(indicator);
             }
-            tender.setIndicators(tenderIndicators);
-
-            if (tender.getLots() != null) {
-                for (MasterTenderLot lot : tender.getLots()) {
-                    List<Indicator> lotIndicators = new ArrayList<>();
-                    // iterate over all item indicator plugins and execute them in a proper order
-                    for (Entry<String, LotIndicatorPlugin> entry : lotIndicatorPluginRegistry.getPlugins().entrySet()) {
-                        LotIndicatorPlugin plugin = entry.getValue();
-                        Indicator indicator = plugin.evaluate(lot, tender);
-                        if (indicator != null) {
-                            lotIndicators.add(indicator);
-                        }
+        }
+        tender.setIndicators(tenderIndicators);
+
+        if (tender.getLots() != null) {
+            for (MasterTenderLot lot : tender.getLots()) {
+                List<Indicator> lotIndicators = new ArrayList<>();
+                // iterate over all item indicator plugins and execute them in a proper order
+                for (Entry<String, LotIndicatorPlugin> entry : lotIndicatorPluginRegistry.getPlugins().entrySet()) {
+                    LotIndicatorPlugin plugin = entry.getValue();
+                    Indicator indicator = plugin.evaluate(lot, tender);
+                    if (indicator != null) {
+                        lotIndicators.add(indicator);
                     }
-                    lot.setIndicators(lotIndicators);
                 }
+                lot.setIndicators(lotIndicators);
             }
+        }
+    }
 
-            populateUtils.depopulateBodies(Arrays.asList(tender));
-            masterDao.save(tender);
+    /**
+     * Gets rematch parameter {@code <worker_class>.rematch.<name>}.
+     *
+     * @param name
+     *         parameter name
+     * @param defaultValue
+     *         value used when the parameter is not set
+     *
+     * @return parameter value
+     */
+    private int getRematchParam(final String name, final int defaultValue) {
+        final Integer value = config.getParamValueAs(getName() + ".rematch." + name, Integer::valueOf);
+        return value != null && value > 0 ? value : defaultValue;
+    }
+
+    /**
+     * Evaluates indicators of a range of tenders, used by rematch. Plugins which read the database (eg. winner
+     * contract share) use the connection of the pool thread, which is released when the range is evaluated.
+     */
+    private final class IndicatorAction extends RecursiveAction {
+        private final List<MasterTender> tenders;
+
+        private final int from;
+
+        private final int to;
+
+        /**
+         * @param tenders
+         *         tenders with populated bodies
+         * @param from
+         *         index of the first tender (inclusive)
+         * @param to
+         *         index of the last tender (exclusive)
+         */
+        private IndicatorAction(final List<MasterTender> tenders, final int from, final int to) {
+            this.tenders = tenders;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > REMATCH_TASK_SIZE) {
+                final int middle = (from + to) >>> 1;
+                invokeAll(new IndicatorAction(tenders, from, middle), new IndicatorAction(tenders, middle, to));
+            } else {
+                try {
+                    for (int i = from; i < to; i++) {
+                        evaluateIndicators(tenders.get(i));
+                    }
+                } finally {
+                    getTransactionUtils().close();
+                }
+            }
         }
     }
 
@@ -1,29 +1,37 @@
 package eu.datlab.worker.master.plugin;
 
-import eu.datlab.dataaccess.dao.jdbc.JdbcMasterTenderIndicatorDAO;
+import eu.datlab.dataaccess.dao.TenderSpendDAO;
+import eu.datlab.dataaccess.dao.jdbc.JdbcTenderSpendDAO;
+import eu.datlab.dataaccess.dto.indicator.TenderSpend;
 import eu.dl.dataaccess.dto.generic.Publication;
 import eu.dl.dataaccess.dto.indicator.Indicator;
 import eu.dl.dataaccess.dto.indicator.TenderIndicatorType;
 import eu.dl.dataaccess.dto.master.MasterBid;
+import eu.dl.dataaccess.dto.master.MasterBody;
 import eu.dl.dataaccess.dto.master.MasterTender;
 import eu.dl.dataaccess.dto.master.MasterTenderLot;
 import eu.dl.worker.indicator.plugin.BaseLotIndicatorPlugin;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Winner contract share indicator plugin.
- * Plugin is located in tender-worker because it needs to access masterDAO
+ * Plugin is located in tender-worker because it needs to access the spend aggregates maintained by the tender masters
+ * (see {@link TenderSpendDAO} and {@link #computeTenderSpend(MasterTender)}).
  */
 public class LotWinnerCAShareIndicatorPlugin extends BaseLotIndicatorPlugin {
 
     /**
-     * Total values per year.
+     * Total values per year. The caches are thread safe, the plugin can evaluate tenders in parallel.
      */
     public static final class TotalValuesPerYear {
         /**
@@ -35,7 +43,7 @@ public class LotWinnerCAShareIndicatorPlugin extends BaseLotIndicatorPlugin {
          * Constructor.
          */
         public TotalValuesPerYear() {
-            valuesPerYear = new HashMap<>();
+            valuesPerYear = new ConcurrentHashMap<>();
         }
 
         /**
@@ -74,7 +82,7 @@ public class LotWinnerCAShareIndicatorPlugin extends BaseLotIndicatorPlugin {
          * Constructor.
          */
         public TotalValuesForBuyers() {
-            valuesForBuyers = new HashMap<>();
+            valuesForBuyers = new ConcurrentHashMap<>();
         }
 
         /**
@@ -104,11 +112,8 @@ public class LotWinnerCAShareIndicatorPlugin extends BaseLotIndicatorPlugin {
          */
         public TotalValuesForBuyers update(final String buyerGroupId, final Integer year, final Double totalValue) {
             // get values for given buyer. If no data are available, create new record in map.
-            TotalValuesPerYear valuesForBuyer = valuesForBuyers.getOrDefault(buyerGroupId, null);
-            if (valuesForBuyer == null) {
-                valuesForBuyer = new TotalValuesPerYear();
-                valuesForBuyers.put(buyerGroupId, valuesForBuyer);
-            }
+            TotalValuesPerYear valuesForBuyer = valuesForBuyers.computeIfAbsent(buyerGroupId,
+                    k -> new TotalValuesPerYear());
             // update value for buyer
             valuesForBuyer.update(year, totalValue);
             return this;
@@ -137,7 +142,7 @@ public class LotWinnerCAShareIndicatorPlugin extends BaseLotIndicatorPlugin {
          * Constructor.
          */
         public TotalValuesForSuppliersByBuyers() {
-            valuesForSuppliers = new HashMap<>();
+            valuesForSuppliers = new ConcurrentHashMap<>();
         }
 
         /**
@@ -171,11 +176,8 @@ public class LotWinnerCAShareIndicatorPlugin extends BaseLotIndicatorPlugin {
          */
         public TotalValuesForSuppliersByBuyers update(final String supplierGroupId, final String buyerGroupId,
                                                       final Integer year, final Double totalValue) {
-            TotalValuesForBuyers valuesForSupplier = valuesForSuppliers.getOrDefault(supplierGroupId, null);
-            if (valuesForSupplier == null) {
-                valuesForSupplier = new TotalValuesForBuyers();
-                valuesForSuppliers.put(supplierGroupId, valuesForSupplier);
-            }
+            TotalValuesForBuyers valuesForSupplier = valuesForSuppliers.computeIfAbsent(supplierGroupId,
+                    k -> new TotalValuesForBuyers());
             valuesForSupplier.update(buyerGroupId, year, totalValue);
             return this;
         }
@@ -226,6 +228,11 @@ public class LotWinnerCAShareIndicatorPlugin extends BaseLotIndicatorPlugin {
         totalValuesForSuppliersByBuyers = new TotalValuesForSuppliersByBuyers();
     }
 
+    /**
+     * DAO of the spend aggregates, created lazily.
+     */
+    private TenderSpendDAO spendDAO;
+
 
     @Override
     public final Indicator evaluate(final MasterTenderLot masterLot, final MasterTender tender) {
@@ -264,19 +271,15 @@ public class LotWinnerCAShareIndicatorPlugin extends BaseLotIndicatorPlugin {
                 totalValuesForBuyersPerYears.getValueForBuyerPerYear(buyerGroupId, year);
 
         if (totalValueForSupplierByBuyerAndYear == null) {
-            // getting list of master tenders which have particular supplier, buyer and year
-            List<MasterTender> tenders = getTendersBySupplierAndBuyerAndYear(supplierGroupId, buyerGroupId, year);
-            // computing total value
-            totalValueForSupplierByBuyerAndYear = computeTotalValueForSupplierFromMasterTenders(tenders, supplierGroupId);
+            // reading aggregated spend of buyer on supplier in the year
+            totalValueForSupplierByBuyerAndYear = getSpendDAO().getSupplierSpend(buyerGroupId, supplierGroupId, year);
             // updating cached data
             totalValuesForSuppliersByBuyers.update(supplierGroupId, buyerGroupId, year, totalValueForSupplierByBuyerAndYear);
         }
 
         if (totalValueForBuyerByYear == null) {
-            // getting list of master tenders which have particular buyer and year
-            List<MasterTender> tenders = getTendersByBuyerAndYear(buyerGroupId, year);
-            // computing total value
-            totalValueForBuyerByYear = computeTotalValueForBuyerFromMasterTenders(tenders);
+            // reading aggregated spend of buyer in the year
+            totalValueForBuyerByYear = getSpendDAO().getBuyerSpend(buyerGroupId, year);
             // updating cached data
             totalValuesForBuyersPerYears.update(buyerGroupId, year, totalValueForBuyerByYear);
         }
@@ -289,31 +292,80 @@ public class LotWinnerCAShareIndicatorPlugin extends BaseLotIndicatorPlugin {
     }
 
     /**
-     * Gets list of master tenders with particular buyer and year.
-     *
-     * @param buyerGroupId buyer group id
-     * @param year         year
-     * @return list of master tenders
+     * @return DAO of the spend aggregates
      */
-    public final List<MasterTender> getTendersByBuyerAndYear(final String buyerGroupId, final Integer year) {
-        JdbcMasterTenderIndicatorDAO masterDAO = new JdbcMasterTenderIndicatorDAO();
-        return masterDAO.getBuyerTendersInPeriod(buyerGroupId,
-                LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31));
+    private TenderSpendDAO getSpendDAO() {
+        if (spendDAO == null) {
+            spendDAO = new JdbcTenderSpendDAO();
+        }
+        return spendDAO;
     }
 
     /**
-     * Gets list of master tenders with particular buyer and year.
+     * Computes contributions of the tender to the spend aggregates. The tender contributes to the year of its oldest
+     * included publication. The sum of prices of winning bids is added to the total of each buyer and the price of
+     * each winning bid with single bidder is added to the spend of each buyer on the bidder.
      *
-     * @param supplierGroupId supplier group id
-     * @param buyerGroupId buyer group id
-     * @param year         year
-     * @return list of master tenders
+     * @param tender master tender
+     * @return contributions of the tender, empty list if the tender has no year or no buyer
      */
-    public final List<MasterTender> getTendersBySupplierAndBuyerAndYear(final String supplierGroupId,
-                                                                  final String buyerGroupId, final Integer year) {
-        JdbcMasterTenderIndicatorDAO masterDAO = new JdbcMasterTenderIndicatorDAO();
-        return masterDAO.getSupplierTendersInPeriodByBuyer(buyerGroupId, supplierGroupId,
-                LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31));
+    public static List<TenderSpend> computeTenderSpend(final MasterTender tender) {
+        if (tender == null || tender.getBuyers() == null || tender.getPublications() == null
+                || tender.getLots() == null) {
+            return new ArrayList<>();
+        }
+
+        LocalDate oldestPublicationDate =
+                tender.getPublications().stream().filter(Objects::nonNull)
+                        .filter(p -> p.getIsIncluded() != null && p.getIsIncluded())
+                        .map(Publication::getPublicationDate).filter(Objects::nonNull).min(LocalDate::compareTo).orElse(null);
+        Set<String> buyerGroupIds = new LinkedHashSet<>();
+        tender.getBuyers().stream().filter(Objects::nonNull).map(MasterBody::getGroupId)
+                .filter(g -> g != null && !g.isEmpty()).forEach(buyerGroupIds::add);
+        if (oldestPublicationDate == null || buyerGroupIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        // total of winning bids (key null) and totals of suppliers
+        BigDecimal total = null;
+        Map<String, BigDecimal> supplierTotals = new LinkedHashMap<>();
+        for (MasterTenderLot lot : tender.getLots()) {
+            if (lot == null || lot.getBids() == null) {
+                continue;
+            }
+            for (MasterBid bid : lot.getBids()) {
+                if (bid == null || bid.getIsWinning() == null || !bid.getIsWinning() || bid.getPrice() == null
+                        || bid.getPrice().getNetAmountNational() == null) {
+                    continue;
+                }
+                BigDecimal price = bid.getPrice().getNetAmountNational();
+                total = total == null ? price : total.add(price);
+
+                if (bid.getBidders() != null && bid.getBidders().size() == 1 && bid.getBidders().get(0) != null) {
+                    String supplierGroupId = bid.getBidders().get(0).getGroupId();
+                    if (supplierGroupId != null && !supplierGroupId.isEmpty()) {
+                        supplierTotals.merge(supplierGroupId, price, BigDecimal::add);
+                    }
+                }
+            }
+        }
+
+        List<TenderSpend> result = new ArrayList<>();
+        if (total == null) {
+            return result;
+        }
+        Integer year = oldestPublicationDate.getYear();
+        for (String buyerGroupId : buyerGroupIds) {
+            result.add(new TenderSpend().setBuyerGroupId(buyerGroupId).setYear(year).setAmount(total));
+            for (Map.Entry<String, BigDecimal> supplierTotal : supplierTotals.entrySet()) {
+                result.add(new TenderSpend()
+                        .setBuyerGroupId(buyerGroupId)
+                        .setSupplierGroupId(supplierTotal.getKey())
+                        .setYear(year)
+                        .setAmount(supplierTotal.getValue()));
+            }
+        }
+        return result;
     }
 
     /**
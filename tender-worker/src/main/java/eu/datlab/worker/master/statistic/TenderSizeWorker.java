@@ -45,7 +45,9 @@ public final class TenderSizeWorker extends BaseWorker {
 
         masterBodyDao = DAOFactory.getDAOFactory().getMasterBodyDAO(getName(), VERSION);
 
-        populateUtils = new PopulateUtils(masterBodyDao);
+        // the worker runs for a long time and the bodies change meanwhile, so they aren't cached unless configured
+        final Integer bodyCacheSize = config.getParamValueAs(getName() + ".bodyCacheSize", Integer::valueOf);
+        populateUtils = new PopulateUtils(masterBodyDao, bodyCacheSize != null ? bodyCacheSize : 0);
     }
 
     @Override
@@ -68,6 +70,17 @@ public final class TenderSizeWorker extends BaseWorker {
         return OUTGOING_EXCHANGE_NAME;
     }
 
+    /**
+     * The worker keeps no state between messages, the DAOs work with the connection of the current thread and the
+     * body cache of {@link PopulateUtils} is thread-safe.
+     *
+     * @return true
+     */
+    @Override
+    protected boolean supportsConcurrentConsumers() {
+        return true;
+    }
+
     @Override
     public void doWork(final Message message) {
         String id = message.getValue("id");
@@ -1,9 +1,22 @@
 package eu.datlab.worker.system;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
 
 import eu.datlab.dataaccess.dao.jdbc.JdbcBVDEtalonBodyDAO;
 import eu.datlab.dataaccess.dto.matched.BVDEtalonBody;
@@ -21,6 +34,16 @@ import eu.dl.worker.clean.utils.StringUtils;
 /**
  * This worker generates standardizedname, standardizedaddress, digests for BvD
  * etalons that have any of these fields null.
+ *
+ * Etalons with id between message values "startId" and "endId" are read in pages of {@code <worker_class>.pageSize}
+ * bodies ordered by id, the next page starts after the last id of the previous one. Each page is split into batches
+ * of {@code <worker_class>.batchSize} bodies, which are processed by {@code <worker_class>.parallelism} threads. Each
+ * batch is updated by one JDBC batch and committed in own transaction. The next page is read while the previous one
+ * is processed.
+ *
+ * Once all batches of a page are committed, the last id of the page is stored to the checkpoint file in
+ * {@code <worker_class>.checkpointDir} (system temporary directory by default). The run with the same range of ids
+ * resumes after the stored id, the checkpoint is removed when the range is processed.
  * 
  * @author Tomas Mrazek
  */
@@ -36,18 +59,13 @@ public final class BVDEtalonDigestsWorker extends BaseWorker {
 
     private static final Integer PAGE_SIZE = 50000;
 
+    private static final Integer BATCH_SIZE = 1000;
+
     /**
      * Initialization of everythong.
      */
     public BVDEtalonDigestsWorker() {
         super();
-        // handle commits manually, disable autocmmit feature
-        try {
-            JdbcTransactionUtils.getInstance().getConnection().setAutoCommit(false);
-        } catch (SQLException e) {
-            logger.debug("Unable to disable autocommit {}.", e);
-            throw new UnrecoverableException("Unable to disable autocommit", e);
-        }
         etalonBodyDao = new JdbcBVDEtalonBodyDAO();
     }
 
@@ -71,24 +89,89 @@ public final class BVDEtalonDigestsWorker extends BaseWorker {
         return OUTGOING_EXCHANGE_NAME;
     }
 
+    /**
+     * Commits are handled manually, autocommit of the connection is disabled.
+     */
+    @Override
+    protected void prepareConnection() {
+        disableAutoCommit();
+    }
+
     @Override
     public void doWork(final Message message) {
         Integer startId = Integer.valueOf(message.getValue("startId"));
         Integer endId = Integer.valueOf(message.getValue("endId"));
-        
-        logger.error("Process bodies with id >= {}", startId);
+
+        final int pageSize = getParam("pageSize", PAGE_SIZE);
+        final int batchSize = getParam("batchSize", BATCH_SIZE);
+        final Path checkpoint = getCheckpointFile(startId, endId);
+
         Integer actualId = startId;
-        
-        do {
-            // get bodies to be processd
-            List<BVDEtalonBody> bodies = etalonBodyDao.findAllById(actualId, PAGE_SIZE);
-            if (bodies.isEmpty()) {
-                logger.error("No bodies found, lets end the loop.");
-                // end the loop execution as everything has been done already
-                break;
+        Integer lastCommittedId = readCheckpoint(checkpoint);
+        if (lastCommittedId != null) {
+            logger.info("Resuming from checkpoint {}, bodies until id {} already processed.", checkpoint,
+                lastCommittedId);
+            actualId = lastCommittedId + 1;
+        }
+
+        logger.error("Process bodies with id >= {}", actualId);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(getParam("parallelism",
+            Runtime.getRuntime().availableProcessors()));
+        try {
+            List<Future<?>> pending = Collections.emptyList();
+            Integer pendingLastId = null;
+
+            while (actualId <= endId) {
+                // get bodies to be processd
+                final int fromId = actualId;
+                final List<BVDEtalonBody> bodies = etalonBodyDao.findAllById(fromId, pageSize).stream()
+                    .filter(n -> Integer.valueOf(n.getId()) <= endId)
+                    .collect(Collectors.toList());
+                // end the read-only transaction
+                JdbcTransactionUtils.getInstance().commit();
+
+                if (bodies.isEmpty()) {
+                    logger.error("No bodies found, lets end the loop.");
+                    // end the loop execution as everything has been done already
+                    break;
+                }
+                logger.debug("Processing {} bodies", bodies.size());
+
+                final List<Future<?>> submitted = new ArrayList<>();
+                for (int from = 0; from < bodies.size(); from += batchSize) {
+                    final List<BVDEtalonBody> batch = bodies.subList(from, Math.min(from + batchSize, bodies.size()));
+                    submitted.add(executor.submit(() -> processBatch(batch)));
+                }
+
+                // the previous page is finished while this one is processed
+                awaitAndCheckpoint(pending, pendingLastId, checkpoint);
+
+                pending = submitted;
+                pendingLastId = Integer.valueOf(bodies.get(bodies.size() - 1).getId());
+                actualId = pendingLastId + 1;
             }
-            logger.debug("Processing {} bodies", bodies.size());
-            // go through the result set and update entries
+
+            awaitAndCheckpoint(pending, pendingLastId, checkpoint);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        deleteCheckpoint(checkpoint);
+
+        logger.error("Bodies processing finished, waiting for next work...");
+    }
+
+    /**
+     * Calculates digests of the given bodies and updates them in own transaction.
+     *
+     * @param bodies
+     *      bodies to be processed
+     */
+    private void processBatch(final List<BVDEtalonBody> bodies) {
+        try {
+            disableAutoCommit();
+
             for (BVDEtalonBody etalon : bodies) {
                 MatchedBody matchedEtalon = etalon.getAsMatchedBody();
                 Address addr = matchedEtalon.getAddress();
@@ -105,24 +188,141 @@ public final class BVDEtalonDigestsWorker extends BaseWorker {
                     .setDigest(DigestUtils.digest(matchedEtalon))
                     .setDigest2(digest2(matchedEtalon));
 
-                // data updates
-                etalonBodyDao.updateDigestsAndBodyIdsAndNuts(etalon);
-
                 if (etalon.getDigest() == null) {
                     logger.error("Digest is null for id {}", etalon.getId());
                 }
-                
-                actualId = Integer.valueOf(etalon.getId());
             }
 
+            // data updates
+            etalonBodyDao.updateDigestsAndBodyIdsAndNuts(bodies);
             JdbcTransactionUtils.getInstance().commit();
+        } catch (RuntimeException ex) {
+            JdbcTransactionUtils.getInstance().rollback();
+            throw ex;
+        } finally {
+            JdbcTransactionUtils.getInstance().close();
+        }
+    }
+
+    /**
+     * Waits until all batches of the page are committed and stores the last id of the page to the checkpoint.
+     *
+     * @param batches
+     *      futures of the page batches
+     * @param lastId
+     *      last id of the page, null if there is no page
+     * @param checkpoint
+     *      checkpoint file
+     */
+    private void awaitAndCheckpoint(final List<Future<?>> batches, final Integer lastId, final Path checkpoint) {
+        try {
+            for (Future<?> batch : batches) {
+                batch.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.error("Interrupted while waiting for etalon digests update.");
+            throw new UnrecoverableException("Interrupted while waiting for etalon digests update.", e);
+        } catch (ExecutionException e) {
+            logger.error("Unable to update etalon digests because of {}", e.getCause());
+            throw new UnrecoverableException("Unable to update etalon digests.", e.getCause());
+        }
 
-            // increase page size
-            logger.error("Processed bodies until id {}.", actualId);
+        if (lastId != null) {
+            writeCheckpoint(checkpoint, lastId);
+            logger.error("Processed bodies until id {}.", lastId);
+        }
+    }
 
-        } while (actualId < endId);
+    /**
+     * @param startId
+     *      first id of the processed range
+     * @param endId
+     *      last id of the processed range
+     * @return checkpoint file of the given range
+     */
+    private Path getCheckpointFile(final Integer startId, final Integer endId) {
+        String dir = config.getParam(getName() + ".checkpointDir");
+        if (dir == null) {
+            dir = System.getProperty("java.io.tmpdir");
+        }
 
-        logger.error("Bodies processing finished, waiting for next work...");
+        return Paths.get(dir, getName() + "_" + startId + "_" + endId + ".checkpoint");
+    }
+
+    /**
+     * @param checkpoint
+     *      checkpoint file
+     * @return last committed id or null if the checkpoint doesn't exist
+     */
+    private Integer readCheckpoint(final Path checkpoint) {
+        if (!Files.isRegularFile(checkpoint)) {
+            return null;
+        }
+
+        try {
+            return Integer.valueOf(new String(Files.readAllBytes(checkpoint), StandardCharsets.UTF_8).trim());
+        } catch (IOException | NumberFormatException e) {
+            logger.error("Unable to read checkpoint {} because of {}", checkpoint, e);
+            throw new UnrecoverableException("Unable to read checkpoint.", e);
+        }
+    }
+
+    /**
+     * Stores the last committed id. The checkpoint is written to a temporary file which replaces the previous one.
+     *
+     * @param checkpoint
+     *      checkpoint file
+     * @param lastId
+     *      last committed id
+     */
+    private void writeCheckpoint(final Path checkpoint, final Integer lastId) {
+        final Path temp = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+        try {
+            Files.write(temp, String.valueOf(lastId).getBytes(StandardCharsets.UTF_8));
+            Files.move(temp, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.error("Unable to write checkpoint {} because of {}", checkpoint, e);
+            throw new UnrecoverableException("Unable to write checkpoint.", e);
+        }
+    }
+
+    /**
+     * @param checkpoint
+     *      checkpoint file to be removed
+     */
+    private void deleteCheckpoint(final Path checkpoint) {
+        try {
+            Files.deleteIfExists(checkpoint);
+        } catch (IOException e) {
+            logger.warn("Unable to delete checkpoint {} because of {}", checkpoint, e);
+        }
+    }
+
+    /**
+     * Disables autocommit of the connection of the current thread.
+     */
+    private void disableAutoCommit() {
+        try {
+            JdbcTransactionUtils.getInstance().getConnection().setAutoCommit(false);
+        } catch (SQLException e) {
+            logger.debug("Unable to disable autocommit {}.", e);
+            throw new UnrecoverableException("Unable to disable autocommit", e);
+        }
+    }
+
+    /**
+     * Gets worker parameter {@code <worker_class>.<name>}.
+     *
+     * @param name
+     *      parameter name
+     * @param defaultValue
+     *      value used when the parameter is not set
+     * @return parameter value
+     */
+    private int getParam(final String name, final int defaultValue) {
+        final Integer value = config.getParamValueAs(getName() + "." + name, Integer::valueOf);
+        return value != null && value > 0 ? value : defaultValue;
     }
 
     @Override
@@ -10,7 +10,8 @@ import eu.dl.worker.Message;
 import eu.dl.worker.MessageFactory;
 
 /**
- * This worker helpes to generate messages for statistic calulations workers.
+ * This worker helpes to generate messages for statistic calulations workers. By default one message per master tender
+ * is sent, with message value "bulk" set to true a single "rematch" command is sent instead.
  * 
  * @author Jakub Krafka
  */
@@ -62,6 +63,16 @@ public final class StatisticCalculationPlanner extends BaseWorker {
         String source = message.getValue("source");
         String version = message.getValue("version");
 
+        if (Boolean.parseBoolean(message.getValue("bulk"))) {
+            // target worker recomputes all the tenders of the source at once
+            Message outgoingMessage = MessageFactory.getMessage();
+            outgoingMessage.setValue("command", "rematch");
+            outgoingMessage.setValue("name", source);
+            outgoingMessage.setValue("version", version);
+            publishMessage(outgoingMessage, target);
+            return;
+        }
+
         final List<String> result = masterDao.getIdsBySourceAndVersion(source, version);
 
         if (result != null) {
@@ -1,5 +1,6 @@
 package eu.datlab.worker.master.plugin;
 
+import eu.datlab.dataaccess.dto.indicator.TenderSpend;
 import eu.dl.dataaccess.dto.generic.Price;
 import eu.dl.dataaccess.dto.generic.Publication;
 import eu.dl.dataaccess.dto.indicator.IndicatorStatus;
@@ -313,4 +314,38 @@ public class LotWinnerCAShareIndicatorPluginTest {
         assertNull(result7);
     }
 
+    /**
+     * Test of computeTenderSpend.
+     */
+    @Test
+    public final void computeTenderSpendTest() {
+        MasterTender tender = new MasterTender()
+                .setBuyers(Arrays.asList(new MasterBody().setGroupId("B1"), new MasterBody().setGroupId("B2")))
+                .setPublications(Arrays.asList(
+                        new Publication().setIsIncluded(true).setPublicationDate(LocalDate.of(2019, 3, 1)),
+                        new Publication().setIsIncluded(true).setPublicationDate(LocalDate.of(2018, 12, 1)),
+                        new Publication().setIsIncluded(false).setPublicationDate(LocalDate.of(2017, 1, 1))))
+                .setLots(Arrays.asList(
+                        new MasterTenderLot().setBids(Arrays.asList(new MasterBid().setIsWinning(true)
+                                .setPrice(new Price().setNetAmountNational(new BigDecimal(100)))
+                                .setBidders(Collections.singletonList(new MasterBody().setGroupId("S1"))))),
+                        new MasterTenderLot().setBids(Arrays.asList(new MasterBid().setIsWinning(true)
+                                .setPrice(new Price().setNetAmountNational(new BigDecimal(50)))
+                                .setBidders(Arrays.asList(new MasterBody().setGroupId("S1"),
+                                        new MasterBody().setGroupId("S2")))))));
+
+        List<TenderSpend> spend = LotWinnerCAShareIndicatorPlugin.computeTenderSpend(tender);
+        assertEquals(4, spend.size());
+        assertEquals("B1", spend.get(0).getBuyerGroupId());
+        assertNull(spend.get(0).getSupplierGroupId());
+        assertEquals(Integer.valueOf(2018), spend.get(0).getYear());
+        assertEquals(0, new BigDecimal(150).compareTo(spend.get(0).getAmount()));
+        assertEquals("S1", spend.get(1).getSupplierGroupId());
+        assertEquals(0, new BigDecimal(100).compareTo(spend.get(1).getAmount()));
+        assertEquals("B2", spend.get(3).getBuyerGroupId());
+
+        // no included publication
+        assertTrue(LotWinnerCAShareIndicatorPlugin.computeTenderSpend(tender7).isEmpty());
+    }
+
 }